@@ -0,0 +1,47 @@
+package io.fintrack.benchmark;
+
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.springframework.context.ConfigurableApplicationContext;
+
+/**
+ * One application context per trial, on a data set of {@code rows} expenses.
+ * Override the sizes with {@code ./gradlew jmh -Pjmh.rows=1000000,10000000}.
+ */
+@State(Scope.Benchmark)
+public class ApplicationState {
+
+    @Param({ "1000", "100000" })
+    public long rows;
+
+    protected ConfigurableApplicationContext context;
+
+    @Setup(Level.Trial)
+    public void startApplication() throws Exception {
+        context = BenchmarkDatabase.start(rows);
+        started();
+    }
+
+    @TearDown(Level.Trial)
+    public void stopApplication() {
+        if (context != null) {
+            stopping();
+            context.close();
+        }
+    }
+
+    // Hooks for subclasses, so their setup is ordered around the context lifecycle
+    protected void started() {
+    }
+
+    protected void stopping() {
+    }
+
+    protected <T> T bean(Class<T> type) {
+        return context.getBean(type);
+    }
+}
@@ -0,0 +1,198 @@
+package io.fintrack.benchmark;
+
+import io.fintrack.FinTrackApplication;
+import io.fintrack.repository.ExpenseFingerprintRepository;
+import io.fintrack.service.MonthlySummaryService;
+import org.flywaydb.core.Flyway;
+import org.springframework.boot.WebApplicationType;
+import org.springframework.boot.builder.SpringApplicationBuilder;
+import org.springframework.context.ConfigurableApplicationContext;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.datasource.SingleConnectionDataSource;
+
+import java.sql.Connection;
+import java.sql.DriverManager;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.util.Map;
+import java.util.Properties;
+
+/**
+ * Prepares a benchmark database and boots the application against it.
+ *
+ * Uses a real Postgres (the migrations and queries are Postgres-specific, so
+ * H2 would measure something else). Defaults match docker-compose.yml; override
+ * with FINTRACK_BENCH_URL / FINTRACK_BENCH_USER / FINTRACK_BENCH_PASSWORD.
+ *
+ * Data is generated server-side with generate_series, so 10M rows take minutes
+ * rather than hours, and is kept between runs: a bench_dataset marker table
+ * records the generated size and the data is only rebuilt when it differs.
+ * Category and merchant use follow a power law, as real statements do: a few
+ * names account for most rows and there is a long tail of rare ones.
+ *
+ * Rows are fingerprinted for duplicate detection (V15) as part of the data
+ * set, by the application's own backfill, so the background backfill at
+ * startup has nothing to do and never competes with a measurement.
+ */
+final class BenchmarkDatabase {
+
+    static final int CATEGORIES = 40;
+    static final int MERCHANTS = 5000;
+    static final int HISTORY_DAYS = 3 * 365;
+
+    private static final int FINGERPRINT_BATCH = 50_000;
+
+    private static final String URL = env("FINTRACK_BENCH_URL", "jdbc:postgresql://localhost:5433/fintrack");
+    private static final String USER = env("FINTRACK_BENCH_USER", "fintrack");
+    private static final String PASSWORD = env("FINTRACK_BENCH_PASSWORD", "fintrack");
+
+    private BenchmarkDatabase() {
+    }
+
+    /** Data set size for the database tests (./gradlew dbTest -Prows=...). */
+    static long testRows() {
+        return Long.parseLong(System.getProperty("fintrack.bench.rows", "1000000"));
+    }
+
+    /**
+     * Migrates the schema, makes sure it holds exactly {@code rows} generated
+     * expenses and starts a non-web application context on top of it, with
+     * {@code extraSources} registered alongside the application's own beans.
+     */
+    static ConfigurableApplicationContext start(long rows, Class<?>... extraSources) throws SQLException {
+        return start(rows, WebApplicationType.NONE, extraSources);
+    }
+
+    /**
+     * Like {@link #start(long, Class[])}, but with the embedded Tomcat listening
+     * on a free port, for checks that need real HTTP (compression, headers).
+     * The port is {@code local.server.port} in the context's environment.
+     */
+    static ConfigurableApplicationContext startServer(long rows) throws SQLException {
+        return start(rows, WebApplicationType.SERVLET);
+    }
+
+    private static ConfigurableApplicationContext start(long rows, WebApplicationType webType,
+            Class<?>... extraSources) throws SQLException {
+        Flyway.configure()
+                .dataSource(URL, USER, PASSWORD)
+                .locations("classpath:db/migration")
+                .configuration(Map.of("flyway.postgresql.transactional.lock", "false"))
+                .load()
+                .migrate();
+        boolean generated = ensureDataSet(rows);
+
+        ConfigurableApplicationContext context = new SpringApplicationBuilder(FinTrackApplication.class)
+                .sources(extraSources)
+                .web(webType)
+                // as arguments: properties() only sets defaults, which application.properties overrides
+                .run("--server.port=0",
+                        "--spring.datasource.url=" + URL,
+                        "--spring.datasource.username=" + USER,
+                        "--spring.datasource.password=" + PASSWORD,
+                        "--spring.jpa.show-sql=false",
+                        "--spring.main.banner-mode=off",
+                        "--logging.level.root=WARN");
+        if (generated) {
+            context.getBean(MonthlySummaryService.class).rebuild();
+        }
+        return context;
+    }
+
+    /**
+     * A connection of its own, outside the application's pool, that sends
+     * statements with the simple query protocol: no Parse/Bind, so SQL with
+     * unbound $n placeholders (EXPLAIN (GENERIC_PLAN)) reaches the server as is.
+     */
+    static Connection simpleProtocolConnection() throws SQLException {
+        Properties properties = new Properties();
+        properties.setProperty("user", USER);
+        properties.setProperty("password", PASSWORD);
+        properties.setProperty("preferQueryMode", "simple");
+        return DriverManager.getConnection(URL, properties);
+    }
+
+    private static boolean ensureDataSet(long rows) throws SQLException {
+        try (Connection connection = DriverManager.getConnection(URL, USER, PASSWORD);
+                Statement statement = connection.createStatement()) {
+            Long current = currentDataSet(statement);
+            if (current != null && current == rows) {
+                return false;
+            }
+            if (current == null && count(statement, "SELECT COUNT(*) FROM expense") > 0) {
+                throw new IllegalStateException("Refusing to overwrite " + URL
+                        + ": it has expenses that were not generated by the benchmarks");
+            }
+
+            // Claim the database first, so an interrupted run is regenerated next time
+            statement.execute("CREATE TABLE IF NOT EXISTS bench_dataset (rows BIGINT NOT NULL)");
+            statement.execute("DELETE FROM bench_dataset");
+            statement.execute("TRUNCATE expense, monthly_summary, balance_checkpoint, category, merchant RESTART IDENTITY CASCADE");
+            statement.execute("INSERT INTO category (name) SELECT 'Category ' || g FROM generate_series(1, "
+                    + CATEGORIES + ") g");
+            statement.execute("INSERT INTO merchant (name) SELECT 'Merchant ' || g FROM generate_series(1, "
+                    + MERCHANTS + ") g");
+            statement.execute("""
+                    INSERT INTO expense (id, txn_date, item, amount, category_id, merchant_id,
+                                         payment_method, paid_by, entry_type, bank, notes)
+                    SELECT nextval('expense_id_seq'),
+                           current_date - floor(random() * %d)::int,
+                           'Item ' || floor(power(random(), 2) * 2000)::int,
+                           round((power(random(), 2) * 250 + 0.5)::numeric, 2),
+                           CASE WHEN random() < 0.05 THEN NULL
+                                ELSE 1 + floor(power(random(), 3) * %d)::int END,
+                           CASE WHEN random() < 0.10 THEN NULL
+                                ELSE 1 + floor(power(random(), 4) * %d)::int END,
+                           (ARRAY['CARD', 'CARD', 'CARD', 'CASH', 'BANK_TRANSFER', 'PAYPAL'])[1 + floor(random() * 6)::int],
+                           (ARRAY['parth', 'parth', 'jay'])[1 + floor(random() * 3)::int],
+                           CASE WHEN random() < 0.08 THEN 'CREDIT' ELSE 'DEBIT' END,
+                           (ARRAY['Monzo', 'HSBC', 'Lloyds', 'ICICI Forex'])[1 + floor(random() * 4)::int],
+                           CASE WHEN random() < 0.2 THEN 'generated' END
+                    FROM generate_series(1, %d)
+                    """.formatted(HISTORY_DAYS, CATEGORIES, MERCHANTS, rows));
+            fingerprint(connection);
+            statement.execute("VACUUM ANALYZE expense");
+            statement.execute("INSERT INTO bench_dataset (rows) VALUES (" + rows + ")");
+            return true;
+        }
+    }
+
+    // The fingerprint is the application's hash, so it is computed the way the application does
+    private static void fingerprint(Connection connection) throws SQLException {
+        ExpenseFingerprintRepository repository = new ExpenseFingerprintRepository(
+                new JdbcTemplate(new SingleConnectionDataSource(connection, true)));
+        connection.setAutoCommit(false);
+        try {
+            long afterId = 0;
+            do {
+                afterId = repository.backfill(afterId, FINGERPRINT_BATCH);
+                connection.commit();
+            } while (afterId >= 0);
+        } finally {
+            connection.setAutoCommit(true);
+        }
+    }
+
+    // null = not a benchmark database, -1 = benchmark database with an incomplete data set
+    private static Long currentDataSet(Statement statement) throws SQLException {
+        if (count(statement, "SELECT COUNT(*) FROM pg_tables WHERE tablename = 'bench_dataset'") == 0) {
+            return null;
+        }
+        try (ResultSet rs = statement.executeQuery("SELECT rows FROM bench_dataset")) {
+            return rs.next() ? rs.getLong(1) : -1L;
+        }
+    }
+
+    private static long count(Statement statement, String sql) throws SQLException {
+        try (ResultSet rs = statement.executeQuery(sql)) {
+            rs.next();
+            return rs.getLong(1);
+        }
+    }
+
+    private static String env(String name, String fallback) {
+        String value = System.getenv(name);
+        return value != null && !value.isBlank() ? value : fallback;
+    }
+}
@@ -0,0 +1,96 @@
+package io.fintrack.benchmark;
+
+import io.fintrack.cache.CategoryClassifier;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+
+import java.util.List;
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Category suggestion and incremental learning on the in-memory classifier,
+ * trained on generated expenses whose category is mostly implied by one of
+ * the item words or the merchant. Needs no database:
+ *
+ *   ./gradlew jmh -Pjmh.includes=CategorySuggestionBenchmark
+ *
+ * Prints once per trial how often the top suggestion is the true category.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+public class CategorySuggestionBenchmark {
+
+    private static final int WORDS = 4000;
+    private static final int QUERIES = 1024;
+
+    @Param({ "100000", "1000000" })
+    public int rows;
+
+    private final CategoryClassifier classifier = new CategoryClassifier();
+    private final String[] items = new String[QUERIES];
+    private final long[] merchants = new long[QUERIES];
+    private final long[] categories = new long[QUERIES];
+    private int next;
+
+    @Setup
+    public void train() {
+        Random random = new Random(42);
+        for (int i = 0; i < rows; i++) {
+            long merchant = merchantOf(random);
+            long category = categoryOf(merchant, random);
+            classifier.add(item(category, random), merchant, category, 1);
+        }
+        for (int i = 0; i < QUERIES; i++) {
+            merchants[i] = merchantOf(random);
+            categories[i] = 1 + merchants[i] % BenchmarkDatabase.CATEGORIES;
+            items[i] = item(categories[i], random);
+        }
+
+        int correct = 0;
+        for (int i = 0; i < QUERIES; i++) {
+            List<CategoryClassifier.Suggestion> best = classifier.suggest(items[i], merchants[i], 1);
+            if (!best.isEmpty() && best.get(0).categoryId() == categories[i]) {
+                correct++;
+            }
+        }
+        System.out.printf("%n%d features, top suggestion right for %d of %d queries%n", classifier.size(),
+                correct, QUERIES);
+    }
+
+    @Benchmark
+    public List<CategoryClassifier.Suggestion> suggest() {
+        int i = next++ & (QUERIES - 1);
+        return classifier.suggest(items[i], merchants[i], 3);
+    }
+
+    @Benchmark
+    public void learnAndForget() {
+        int i = next++ & (QUERIES - 1);
+        classifier.add(items[i], merchants[i], categories[i], 1);
+        classifier.add(items[i], merchants[i], categories[i], -1);
+    }
+
+    // A word typical of the category, a reference number and a word from anywhere, like "Groceries 4471 weekly"
+    private static String item(long category, Random random) {
+        return "Word" + (category * 50 + random.nextInt(50)) + " " + random.nextInt(10_000)
+                + " word" + random.nextInt(WORDS);
+    }
+
+    private static long merchantOf(Random random) {
+        return 1 + (long) (Math.pow(random.nextDouble(), 4) * BenchmarkDatabase.MERCHANTS);
+    }
+
+    // The merchant's category nine times in ten, otherwise any
+    private static long categoryOf(long merchant, Random random) {
+        return random.nextInt(10) == 0 ? 1 + random.nextInt(BenchmarkDatabase.CATEGORIES)
+                : 1 + merchant % BenchmarkDatabase.CATEGORIES;
+    }
+}
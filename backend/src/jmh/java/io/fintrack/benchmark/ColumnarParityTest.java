@@ -0,0 +1,122 @@
+package io.fintrack.benchmark;
+
+import io.fintrack.dto.RangeTotalsResponse;
+import io.fintrack.repository.ExpenseAnalyticsRepository;
+import io.fintrack.service.ExpenseSnapshotService;
+import org.junit.jupiter.api.AfterAll;
+import org.junit.jupiter.api.BeforeAll;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.TestReporter;
+import org.springframework.context.ConfigurableApplicationContext;
+
+import java.math.BigDecimal;
+import java.time.LocalDate;
+import java.time.YearMonth;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Random;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * Compares the in-memory column store (ExpenseSnapshotService) with the SQL
+ * aggregate it replaces (ExpenseAnalyticsRepository.rangeTotals): every month
+ * of the generated history, then random ranges with random category and payer
+ * filters. Sums and counts must be identical; the median time of each side is
+ * published as a report entry.
+ *
+ *   ./gradlew dbTest --tests ColumnarParityTest -Prows=1000000
+ */
+class ColumnarParityTest {
+
+    private static final int RANDOM_RANGES = 500;
+    private static final String[] PAYERS = { null, "parth", "jay", "nobody" };
+    private static final long LOAD_TIMEOUT_MILLIS = 120_000;
+
+    private record Query(LocalDate from, LocalDate to, Long categoryId, String paidBy) {
+    }
+
+    private static ConfigurableApplicationContext context;
+    private static ExpenseSnapshotService snapshotService;
+    private static ExpenseAnalyticsRepository analyticsRepository;
+
+    @BeforeAll
+    static void start() throws Exception {
+        context = BenchmarkDatabase.start(BenchmarkDatabase.testRows());
+        snapshotService = context.getBean(ExpenseSnapshotService.class);
+        analyticsRepository = context.getBean(ExpenseAnalyticsRepository.class);
+
+        // The store loads in the background once the application is ready
+        long deadline = System.currentTimeMillis() + LOAD_TIMEOUT_MILLIS;
+        while (!snapshotService.isLoaded() && System.currentTimeMillis() < deadline) {
+            Thread.sleep(100);
+        }
+        assertThat(snapshotService.isLoaded())
+                .as("column store loaded (not disabled or over fintrack.columnar.max-rows)")
+                .isTrue();
+    }
+
+    @AfterAll
+    static void stop() {
+        if (context != null) {
+            context.close();
+        }
+    }
+
+    @Test
+    void everyMonthMatchesSql(TestReporter reporter) {
+        LocalDate today = LocalDate.now();
+        List<Query> queries = new ArrayList<>();
+        for (YearMonth month = YearMonth.from(today.minusDays(BenchmarkDatabase.HISTORY_DAYS));
+                !month.isAfter(YearMonth.from(today)); month = month.plusMonths(1)) {
+            queries.add(new Query(month.atDay(1), month.atEndOfMonth(), null, null));
+        }
+        assertParity(queries, reporter);
+    }
+
+    @Test
+    void randomRangesAndFiltersMatchSql(TestReporter reporter) {
+        LocalDate today = LocalDate.now();
+        Random random = new Random(42);
+        List<Query> queries = new ArrayList<>();
+        for (int i = 0; i < RANDOM_RANGES; i++) {
+            LocalDate from = today.minusDays(random.nextInt(BenchmarkDatabase.HISTORY_DAYS + 30));
+            LocalDate to = from.plusDays(random.nextInt(400));
+            // category ids past CATEGORIES exist in neither store
+            Long categoryId = random.nextBoolean() ? null : 1L + random.nextInt(BenchmarkDatabase.CATEGORIES + 2);
+            queries.add(new Query(from, to, categoryId, PAYERS[random.nextInt(PAYERS.length)]));
+        }
+        assertParity(queries, reporter);
+    }
+
+    private static void assertParity(List<Query> queries, TestReporter reporter) {
+        long[] snapshotNanos = new long[queries.size()];
+        long[] sqlNanos = new long[queries.size()];
+        for (int i = 0; i < queries.size(); i++) {
+            Query query = queries.get(i);
+            long started = System.nanoTime();
+            RangeTotalsResponse snapshot = snapshotService.totals(query.from(), query.to(), query.categoryId(),
+                    query.paidBy());
+            snapshotNanos[i] = System.nanoTime() - started;
+
+            started = System.nanoTime();
+            RangeTotalsResponse sql = analyticsRepository.rangeTotals(query.from(), query.to(),
+                    query.categoryId(), query.paidBy());
+            sqlNanos[i] = System.nanoTime() - started;
+
+            assertThat(snapshot).as("column store totals for %s", query)
+                    .usingRecursiveComparison()
+                    .withComparatorForType(BigDecimal::compareTo, BigDecimal.class)
+                    .isEqualTo(sql);
+        }
+        reporter.publishEntry("median ms in memory / in SQL", String.format("%.3f / %.3f",
+                median(snapshotNanos) / 1e6, median(sqlNanos) / 1e6));
+    }
+
+    private static double median(long[] nanos) {
+        long[] sorted = nanos.clone();
+        Arrays.sort(sorted);
+        return sorted[sorted.length / 2];
+    }
+}
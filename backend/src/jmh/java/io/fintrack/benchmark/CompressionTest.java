@@ -0,0 +1,78 @@
+package io.fintrack.benchmark;
+
+import org.junit.jupiter.api.AfterAll;
+import org.junit.jupiter.api.BeforeAll;
+import org.junit.jupiter.api.Test;
+import org.springframework.context.ConfigurableApplicationContext;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.time.LocalDate;
+import java.util.zip.GZIPInputStream;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * Versioned listings must still be gzipped: Tomcat skips compression for a
+ * response with a strong ETag, so the tags these endpoints get have to be
+ * weak, and a revalidation with the weak tag must still end in a 304.
+ *
+ *   ./gradlew dbTest --tests CompressionTest -Prows=1000000
+ */
+class CompressionTest {
+
+    private static ConfigurableApplicationContext context;
+    private static HttpClient client;
+    private static String baseUrl;
+
+    @BeforeAll
+    static void start() throws Exception {
+        context = BenchmarkDatabase.startServer(BenchmarkDatabase.testRows());
+        client = HttpClient.newHttpClient();
+        baseUrl = "http://localhost:" + context.getEnvironment().getProperty("local.server.port");
+    }
+
+    @AfterAll
+    static void stop() {
+        if (context != null) {
+            context.close();
+        }
+    }
+
+    @Test
+    void searchIsGzippedAndRevalidates() throws Exception {
+        // the whole generated history at 200 per page, well over min-response-size
+        LocalDate to = LocalDate.now();
+        URI search = URI.create(baseUrl + "/api/v1/expenses/search?from="
+                + to.minusDays(BenchmarkDatabase.HISTORY_DAYS) + "&to=" + to + "&size=200");
+
+        HttpResponse<InputStream> response = client.send(HttpRequest.newBuilder(search)
+                .header("Accept", "application/json")
+                .header("Accept-Encoding", "gzip")
+                .build(), HttpResponse.BodyHandlers.ofInputStream());
+
+        assertThat(response.statusCode()).isEqualTo(200);
+        assertThat(response.headers().firstValue("Content-Encoding")).hasValue("gzip");
+        String etag = response.headers().firstValue("ETag").orElseThrow();
+        assertThat(etag).startsWith("W/\"");
+        assertThat(gunzip(response.body())).startsWith("{");
+
+        HttpResponse<Void> revalidated = client.send(HttpRequest.newBuilder(search)
+                .header("Accept", "application/json")
+                .header("Accept-Encoding", "gzip")
+                .header("If-None-Match", etag)
+                .build(), HttpResponse.BodyHandlers.discarding());
+
+        assertThat(revalidated.statusCode()).isEqualTo(304);
+    }
+
+    private static String gunzip(InputStream body) throws IOException {
+        try (InputStream in = new GZIPInputStream(body)) {
+            return new String(in.readAllBytes());
+        }
+    }
+}
@@ -0,0 +1,75 @@
+package io.fintrack.benchmark;
+
+import io.fintrack.dto.CursorPage;
+import io.fintrack.dto.ExpenseView;
+import io.fintrack.dto.MonthlyAnalyticsResponse;
+import io.fintrack.model.Category;
+import io.fintrack.model.Merchant;
+import io.fintrack.service.CategoryService;
+import io.fintrack.service.ExpenseService;
+import io.fintrack.service.MerchantService;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.springframework.data.domain.Page;
+
+import java.time.LocalDate;
+import java.time.YearMonth;
+import java.util.List;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Read paths: a page of the last 30 days (offset and keyset), the monthly
+ * analytics rollup for a random month, and category / merchant autocomplete
+ * for random prefixes. Run with the gc profiler for allocation rates.
+ */
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+public class ExpenseReadBenchmark extends ApplicationState {
+
+    private static final int PAGE_SIZE = 50;
+
+    private ExpenseService expenseService;
+    private CategoryService categoryService;
+    private MerchantService merchantService;
+
+    @Override
+    protected void started() {
+        expenseService = bean(ExpenseService.class);
+        categoryService = bean(CategoryService.class);
+        merchantService = bean(MerchantService.class);
+    }
+
+    @Benchmark
+    public Page<ExpenseView> recentExpensesByOffset() {
+        LocalDate today = LocalDate.now();
+        return expenseService.getExpensesBetween(today.minusDays(30), today, 0, PAGE_SIZE);
+    }
+
+    @Benchmark
+    public CursorPage<ExpenseView> recentExpensesByCursor() {
+        LocalDate today = LocalDate.now();
+        return expenseService.getExpensesBetween(today.minusDays(30), today, null, PAGE_SIZE);
+    }
+
+    @Benchmark
+    public MonthlyAnalyticsResponse monthlyAnalytics() {
+        int monthsBack = ThreadLocalRandom.current().nextInt(BenchmarkDatabase.HISTORY_DAYS / 30);
+        return expenseService.getMonthlyAnalytics(YearMonth.now().minusMonths(monthsBack));
+    }
+
+    // "category 1", "category 2", ... so prefixes hit the popular names and the tail alike
+    @Benchmark
+    public List<Category> categoryPrefixSearch() {
+        int n = 1 + ThreadLocalRandom.current().nextInt(BenchmarkDatabase.CATEGORIES);
+        return categoryService.searchByPrefix("category " + n, 10);
+    }
+
+    @Benchmark
+    public List<Merchant> merchantPrefixSearch() {
+        int n = 1 + ThreadLocalRandom.current().nextInt(BenchmarkDatabase.MERCHANTS / 10);
+        return merchantService.searchByPrefix("merchant " + n, 10);
+    }
+}
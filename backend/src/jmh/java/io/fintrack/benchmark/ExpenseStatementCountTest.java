@@ -0,0 +1,123 @@
+package io.fintrack.benchmark;
+
+import io.fintrack.dto.ExpenseFilter;
+import io.fintrack.service.ExpenseExportService;
+import io.fintrack.service.ExpenseService;
+import org.junit.jupiter.api.AfterAll;
+import org.junit.jupiter.api.BeforeAll;
+import org.junit.jupiter.api.Test;
+import org.springframework.context.ConfigurableApplicationContext;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.io.UncheckedIOException;
+import java.time.LocalDate;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.function.IntUnaryOperator;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * The expense read paths run a fixed number of statements however many rows
+ * they return: no per-row category or merchant selects (N+1). Each path is
+ * called with growing page sizes or date ranges and its JDBC statements are
+ * counted, Hibernate's and JdbcTemplate's alike; the counts must all be equal.
+ *
+ *   ./gradlew dbTest --tests ExpenseStatementCountTest
+ */
+class ExpenseStatementCountTest {
+
+    private static ConfigurableApplicationContext context;
+    private static ExpenseService expenseService;
+
+    @BeforeAll
+    static void start() throws Exception {
+        context = BenchmarkDatabase.start(BenchmarkDatabase.testRows(), StatementCounter.Registration.class);
+        expenseService = context.getBean(ExpenseService.class);
+    }
+
+    @AfterAll
+    static void stop() {
+        if (context != null) {
+            context.close();
+        }
+    }
+
+    @Test
+    void listStreamsEveryRowFromOneStatement() {
+        ExpenseExportService exportService = context.getBean(ExpenseExportService.class);
+        LocalDate today = LocalDate.now();
+        assertConstantStatements("GET /expenses", new int[] { 1, 7, 60 }, days -> {
+            LineCounter out = new LineCounter();
+            try {
+                exportService.export(ExpenseExportService.Format.NDJSON, today.minusDays(days - 1), today, out);
+            } catch (IOException ex) {
+                throw new UncheckedIOException(ex);
+            }
+            return out.lines;
+        });
+    }
+
+    @Test
+    void offsetSearchPage() {
+        assertConstantStatements("GET /expenses/search", new int[] { 1, 10, 50 },
+                size -> expenseService.getExpensesBetween(null, null, 0, size).getNumberOfElements());
+    }
+
+    @Test
+    void cursorSearchPage() {
+        assertConstantStatements("GET /expenses/search/cursor", new int[] { 1, 10, 50 },
+                size -> expenseService.getExpensesBetween(null, null, null, size).getContent().size());
+    }
+
+    @Test
+    void filterPage() {
+        assertConstantStatements("GET /expenses/filter", new int[] { 1, 10, 50 }, size -> {
+            ExpenseFilter filter = new ExpenseFilter();
+            filter.setCategory(List.of("Category 1", "Category 2"));
+            filter.setMerchant(List.of("Merchant 1", "Merchant 2", "Merchant 3"));
+            return expenseService.filterExpenses(filter, null, size).getContent().size();
+        });
+    }
+
+    /**
+     * Calls {@code read} with each size (after one untimed call to warm the
+     * name caches); it returns the number of rows it got back.
+     */
+    private static void assertConstantStatements(String path, int[] sizes, IntUnaryOperator read) {
+        read.applyAsInt(sizes[0]);
+        Map<Integer, Long> statements = new LinkedHashMap<>();
+        int previousRows = -1;
+        for (int size : sizes) {
+            StatementCounter.reset();
+            int rows = read.applyAsInt(size);
+            statements.put(rows, StatementCounter.statements());
+
+            assertThat(rows).as("%s returns more rows for %d than before", path, size).isGreaterThan(previousRows);
+            previousRows = rows;
+        }
+        assertThat(statements.values()).as("%s statements by rows returned", path)
+                .allMatch(count -> count > 0)
+                .containsOnly(statements.values().iterator().next());
+    }
+
+    private static final class LineCounter extends OutputStream {
+        private int lines;
+
+        @Override
+        public void write(int b) {
+            if (b == '\n') {
+                lines++;
+            }
+        }
+
+        @Override
+        public void write(byte[] b, int off, int len) {
+            for (int i = off; i < off + len; i++) {
+                write(b[i]);
+            }
+        }
+    }
+}
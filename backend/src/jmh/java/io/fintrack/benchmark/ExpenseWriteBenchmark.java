@@ -0,0 +1,60 @@
+package io.fintrack.benchmark;
+
+import io.fintrack.dto.CreateExpenseRequest;
+import io.fintrack.model.EntryType;
+import io.fintrack.model.Expense;
+import io.fintrack.model.PaymentMethod;
+import io.fintrack.service.ExpenseService;
+import io.fintrack.service.MonthlySummaryService;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.springframework.jdbc.core.JdbcTemplate;
+
+import java.math.BigDecimal;
+import java.time.LocalDate;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * createExpense end to end: name resolution through the caches, the insert,
+ * and the rollup upsert before commit. Category and merchant are drawn with
+ * the same skew as the generated data. Rows written here are removed after
+ * the trial so the data set stays at its generated size.
+ */
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+public class ExpenseWriteBenchmark extends ApplicationState {
+
+    private static final String ITEM = "benchmark write";
+
+    private ExpenseService expenseService;
+
+    @Override
+    protected void started() {
+        expenseService = bean(ExpenseService.class);
+    }
+
+    @Override
+    protected void stopping() {
+        bean(JdbcTemplate.class).update("DELETE FROM expense WHERE item = ?", ITEM);
+        bean(MonthlySummaryService.class).rebuild();
+    }
+
+    @Benchmark
+    public Expense createExpense() {
+        ThreadLocalRandom random = ThreadLocalRandom.current();
+        CreateExpenseRequest request = new CreateExpenseRequest();
+        request.setTxnDate(LocalDate.now().minusDays(random.nextInt(60)));
+        request.setAmount(BigDecimal.valueOf(50 + random.nextInt(20000), 2));
+        request.setItem(ITEM);
+        request.setCategoryName("Category " + (1 + (int) (Math.pow(random.nextDouble(), 3) * BenchmarkDatabase.CATEGORIES)));
+        request.setMerchantName("Merchant " + (1 + (int) (Math.pow(random.nextDouble(), 4) * BenchmarkDatabase.MERCHANTS)));
+        request.setPaymentMethod(PaymentMethod.CARD);
+        request.setPaidBy("parth");
+        request.setEntryType(EntryType.DEBIT);
+        request.setBank("Monzo");
+        return expenseService.createExpense(request);
+    }
+}
@@ -0,0 +1,127 @@
+package io.fintrack.benchmark;
+
+import io.fintrack.dto.CursorPage;
+import io.fintrack.dto.ExpenseFilter;
+import io.fintrack.dto.ExpenseView;
+import io.fintrack.model.EntryType;
+import io.fintrack.model.PaymentMethod;
+import io.fintrack.service.ExpenseService;
+import org.junit.jupiter.api.AfterAll;
+import org.junit.jupiter.api.BeforeAll;
+import org.junit.jupiter.api.DynamicTest;
+import org.junit.jupiter.api.TestFactory;
+import org.springframework.context.ConfigurableApplicationContext;
+import org.springframework.jdbc.core.JdbcTemplate;
+
+import java.math.BigDecimal;
+import java.sql.Connection;
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.function.Consumer;
+import java.util.stream.IntStream;
+import java.util.stream.Stream;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * Checks that GET /api/v1/expenses/filter never scans the whole expense
+ * table: runs every combination of filters (first page and, where there is
+ * one, the next page) against the benchmark database, captures the SQL
+ * Hibernate sends and EXPLAINs it. A combination fails if any plan has a Seq
+ * Scan on an expense partition holding data.
+ *
+ *   ./gradlew dbTest --tests FilterPlanTest -Prows=1000000
+ *
+ * Plans are generic (EXPLAIN (GENERIC_PLAN), Postgres 16+), i.e. chosen
+ * without looking at the parameter values, so a combination passes only if
+ * its plan is index-backed whichever values are bound. The table needs
+ * enough rows for the planner to prefer an index at all; with a few thousand
+ * a sequential scan is the right plan and would be reported. For the same
+ * reason partitions with fewer than {@value #SMALL_PARTITION} rows (the
+ * empty future years, expense_default) may be scanned sequentially.
+ */
+class FilterPlanTest {
+
+    private static final long SMALL_PARTITION = 1000;
+
+    private record Criterion(String name, Consumer<ExpenseFilter> apply) {
+    }
+
+    private static final List<Criterion> CRITERIA = List.of(
+            new Criterion("date", f -> {
+                f.setFrom(LocalDate.now().minusDays(90));
+                f.setTo(LocalDate.now());
+            }),
+            new Criterion("category", f -> f.setCategory(List.of("Category 1", "Category 7"))),
+            new Criterion("merchant", f -> f.setMerchant(List.of("Merchant 1"))),
+            new Criterion("paidBy", f -> f.setPaidBy("jay")),
+            new Criterion("paymentMethod", f -> f.setPaymentMethod(PaymentMethod.PAYPAL)),
+            new Criterion("entryType", f -> f.setEntryType(EntryType.CREDIT)),
+            new Criterion("bank", f -> f.setBank("HSBC")),
+            new Criterion("amount", f -> {
+                f.setMinAmount(new BigDecimal("10"));
+                f.setMaxAmount(new BigDecimal("50"));
+            }));
+
+    private static ConfigurableApplicationContext context;
+    private static ExpenseService expenseService;
+    private static Connection explainConnection;
+    private static Map<String, Long> partitions;
+
+    @BeforeAll
+    static void start() throws Exception {
+        context = BenchmarkDatabase.start(BenchmarkDatabase.testRows(), PlanInspector.StatementCapture.class);
+        expenseService = context.getBean(ExpenseService.class);
+        partitions = PlanInspector.expensePartitions(context.getBean(JdbcTemplate.class));
+        explainConnection = BenchmarkDatabase.simpleProtocolConnection();
+    }
+
+    @AfterAll
+    static void stop() throws Exception {
+        if (explainConnection != null) {
+            explainConnection.close();
+        }
+        if (context != null) {
+            context.close();
+        }
+    }
+
+    @TestFactory
+    Stream<DynamicTest> everyFilterCombinationUsesAnIndex() {
+        return IntStream.range(0, 1 << CRITERIA.size()).mapToObj(mask -> {
+            ExpenseFilter filter = new ExpenseFilter();
+            List<String> names = new ArrayList<>();
+            for (int i = 0; i < CRITERIA.size(); i++) {
+                if ((mask & 1 << i) != 0) {
+                    CRITERIA.get(i).apply().accept(filter);
+                    names.add(CRITERIA.get(i).name());
+                }
+            }
+            String label = names.isEmpty() ? "(none)" : String.join("+", names);
+            return DynamicTest.dynamicTest(label, () -> assertIndexBacked(filter));
+        });
+    }
+
+    private static void assertIndexBacked(ExpenseFilter filter) throws Exception {
+        List<String> statements = PlanInspector.captureExpenseStatements(() -> {
+            CursorPage<ExpenseView> first = expenseService.filterExpenses(filter, null, 20);
+            if (first.getNextCursor() != null) {
+                expenseService.filterExpenses(filter, first.getNextCursor(), 20);
+            }
+        });
+        assertThat(statements).as("statements on expense").isNotEmpty();
+
+        for (String sql : statements) {
+            for (PlanInspector.Scan scan : PlanInspector.explainGeneric(explainConnection, sql)) {
+                Long partitionRows = partitions.get(scan.relation());
+                if (partitionRows != null && partitionRows >= SMALL_PARTITION) {
+                    assertThat(scan.sequential())
+                            .as("Seq Scan on %s (%d rows) for%n%s", scan.relation(), partitionRows, sql)
+                            .isFalse();
+                }
+            }
+        }
+    }
+}
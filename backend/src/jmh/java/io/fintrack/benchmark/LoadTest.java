@@ -0,0 +1,115 @@
+package io.fintrack.benchmark;
+
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.time.Duration;
+import java.time.LocalDate;
+import java.time.YearMonth;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.Supplier;
+
+/**
+ * Closed-loop HTTP load against a running backend, for comparing platform and
+ * virtual request threads on /search and /analytics/monthly:
+ *
+ *   FINTRACK_VIRTUAL_THREADS=false ./gradlew bootRun     (then, in another shell)
+ *   ./gradlew loadTest -Pusers=200 -Pseconds=30
+ *   FINTRACK_VIRTUAL_THREADS=true ./gradlew bootRun      (restart, run again)
+ *
+ * Each simulated user issues requests back to back. Prints throughput, 503s
+ * (bulkhead rejections), errors and latency percentiles per endpoint.
+ * Recorded results: docs/load-test-threads.md.
+ */
+public final class LoadTest {
+
+    private record Endpoint(String name, Supplier<String> path) {
+    }
+
+    private static final class Stats {
+        private final List<Long> latencies = new ArrayList<>();
+        private final AtomicLong rejected = new AtomicLong();
+        private final AtomicLong errors = new AtomicLong();
+
+        synchronized void record(long nanos) {
+            latencies.add(nanos);
+        }
+    }
+
+    public static void main(String[] args) throws Exception {
+        String baseUrl = args.length > 0 ? args[0] : "http://localhost:8080";
+        int users = args.length > 1 ? Integer.parseInt(args[1]) : 100;
+        int seconds = args.length > 2 ? Integer.parseInt(args[2]) : 30;
+
+        List<Endpoint> endpoints = List.of(
+                new Endpoint("search", () -> {
+                    LocalDate to = LocalDate.now().minusDays(ThreadLocalRandom.current().nextInt(365));
+                    return "/api/v1/expenses/search?from=" + to.minusDays(30) + "&to=" + to + "&size=50";
+                }),
+                new Endpoint("analytics/monthly", () -> "/api/v1/expenses/analytics/monthly?month="
+                        + YearMonth.now().minusMonths(ThreadLocalRandom.current().nextInt(36))));
+
+        HttpClient client = HttpClient.newBuilder()
+                .connectTimeout(Duration.ofSeconds(5))
+                .executor(Executors.newVirtualThreadPerTaskExecutor())
+                .build();
+        Stats[] stats = { new Stats(), new Stats() };
+        long deadline = System.nanoTime() + Duration.ofSeconds(seconds).toNanos();
+
+        try (ExecutorService pool = Executors.newVirtualThreadPerTaskExecutor()) {
+            for (int u = 0; u < users; u++) {
+                int which = u % endpoints.size();
+                pool.submit(() -> {
+                    Endpoint endpoint = endpoints.get(which);
+                    while (System.nanoTime() < deadline) {
+                        HttpRequest request = HttpRequest.newBuilder(URI.create(baseUrl + endpoint.path().get()))
+                                .timeout(Duration.ofSeconds(30))
+                                .build();
+                        long start = System.nanoTime();
+                        try {
+                            int status = client.send(request, HttpResponse.BodyHandlers.discarding()).statusCode();
+                            if (status == 503) {
+                                stats[which].rejected.incrementAndGet();
+                            } else if (status >= 400) {
+                                stats[which].errors.incrementAndGet();
+                            } else {
+                                stats[which].record(System.nanoTime() - start);
+                            }
+                        } catch (Exception ex) {
+                            stats[which].errors.incrementAndGet();
+                        }
+                    }
+                    return null;
+                });
+            }
+        }
+
+        System.out.printf("%d users, %d s against %s%n", users, seconds, baseUrl);
+        System.out.printf("%-20s %10s %8s %8s %9s %9s %9s %9s%n",
+                "endpoint", "req/s", "503", "errors", "p50 ms", "p95 ms", "p99 ms", "max ms");
+        for (int i = 0; i < endpoints.size(); i++) {
+            long[] sorted = stats[i].latencies.stream().mapToLong(Long::longValue).toArray();
+            Arrays.sort(sorted);
+            System.out.printf("%-20s %10.1f %8d %8d %9.1f %9.1f %9.1f %9.1f%n",
+                    endpoints.get(i).name(), (double) sorted.length / seconds,
+                    stats[i].rejected.get(), stats[i].errors.get(),
+                    percentile(sorted, 0.50), percentile(sorted, 0.95), percentile(sorted, 0.99),
+                    percentile(sorted, 1.0));
+        }
+    }
+
+    private static double percentile(long[] sorted, double p) {
+        if (sorted.length == 0) {
+            return 0;
+        }
+        int index = (int) Math.ceil(p * sorted.length) - 1;
+        return sorted[Math.max(index, 0)] / 1_000_000.0;
+    }
+}
@@ -0,0 +1,99 @@
+package io.fintrack.benchmark;
+
+import io.fintrack.model.EntryType;
+import io.fintrack.repository.ExpenseRepository;
+import org.junit.jupiter.api.AfterAll;
+import org.junit.jupiter.api.BeforeAll;
+import org.junit.jupiter.api.DynamicTest;
+import org.junit.jupiter.api.TestFactory;
+import org.springframework.context.ConfigurableApplicationContext;
+import org.springframework.jdbc.core.JdbcTemplate;
+
+import java.time.LocalDate;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.TreeSet;
+import java.util.stream.Stream;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * Checks partition pruning on the partitioned expense table (V11): for date
+ * ranges that each lie within one partition, findByTxnDateBetween and
+ * sumAmountByEntryTypeAndDateRange must scan that one partition only. The
+ * SQL Hibernate sends is captured and EXPLAINed with the same parameters.
+ *
+ *   ./gradlew dbTest --tests PartitionPruningTest -Prows=1000000
+ *
+ * Partitions are split on 1 January (expense_legacy ends where the first
+ * yearly partition starts), so every range stays inside one calendar year.
+ */
+class PartitionPruningTest {
+
+    private record Range(String name, LocalDate from, LocalDate to) {
+    }
+
+    private static ConfigurableApplicationContext context;
+    private static ExpenseRepository expenseRepository;
+    private static JdbcTemplate jdbc;
+    private static Map<String, Long> partitions;
+
+    @BeforeAll
+    static void start() throws Exception {
+        context = BenchmarkDatabase.start(BenchmarkDatabase.testRows(), PlanInspector.StatementCapture.class);
+        expenseRepository = context.getBean(ExpenseRepository.class);
+        jdbc = context.getBean(JdbcTemplate.class);
+        partitions = PlanInspector.expensePartitions(jdbc);
+    }
+
+    @AfterAll
+    static void stop() {
+        if (context != null) {
+            context.close();
+        }
+    }
+
+    @TestFactory
+    Stream<DynamicTest> dateRangesScanOnePartition() {
+        LocalDate today = LocalDate.now();
+        LocalDate newYear = today.withDayOfYear(1);
+        LocalDate monthAgo = today.minusDays(30);
+        List<Range> ranges = List.of(
+                // clipped to this year, so it doesn't cross into the previous year's partition in January
+                new Range("last 30 days this year", monthAgo.isBefore(newYear) ? newYear : monthAgo, today),
+                new Range("Q1 three years ago", LocalDate.of(today.getYear() - 3, 1, 1),
+                        LocalDate.of(today.getYear() - 3, 3, 31)),
+                new Range("Q1 next year", LocalDate.of(today.getYear() + 1, 1, 1),
+                        LocalDate.of(today.getYear() + 1, 3, 31)));
+
+        return ranges.stream().flatMap(range -> Stream.of(
+                DynamicTest.dynamicTest("findByTxnDateBetween " + label(range), () -> assertOnePartition(
+                        PlanInspector.captureExpenseStatements(
+                                () -> expenseRepository.findByTxnDateBetween(range.from(), range.to())),
+                        range.from(), range.to())),
+                DynamicTest.dynamicTest("sumAmountByEntryTypeAndDateRange " + label(range), () -> assertOnePartition(
+                        PlanInspector.captureExpenseStatements(
+                                () -> expenseRepository.sumAmountByEntryTypeAndDateRange(EntryType.DEBIT,
+                                        range.from(), range.to())),
+                        EntryType.DEBIT.name(), range.from(), range.to()))));
+    }
+
+    private static void assertOnePartition(List<String> statements, Object... parameters) throws Exception {
+        assertThat(statements).as("statements on expense").isNotEmpty();
+        Set<String> scanned = new TreeSet<>();
+        for (String sql : statements) {
+            for (PlanInspector.Scan scan : PlanInspector.explain(jdbc, sql, parameters)) {
+                if (partitions.containsKey(scan.relation())) {
+                    scanned.add(scan.relation());
+                }
+            }
+        }
+        assertThat(scanned).as("partitions scanned (of %s) for%n%s", new TreeSet<>(partitions.keySet()), statements)
+                .hasSize(1);
+    }
+
+    private static String label(Range range) {
+        return range.name() + " [" + range.from() + " .. " + range.to() + "]";
+    }
+}
@@ -0,0 +1,133 @@
+package io.fintrack.benchmark;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.hibernate.cfg.AvailableSettings;
+import org.hibernate.resource.jdbc.spi.StatementInspector;
+import org.springframework.boot.autoconfigure.orm.jpa.HibernatePropertiesCustomizer;
+import org.springframework.context.annotation.Bean;
+import org.springframework.core.Ordered;
+import org.springframework.core.annotation.Order;
+import org.springframework.jdbc.core.JdbcTemplate;
+
+import java.sql.Connection;
+import java.sql.ResultSet;
+import java.sql.Statement;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Shared plumbing for the plan checks: captures the SQL Hibernate sends while
+ * an action runs and EXPLAINs it, reporting which relations each plan scans.
+ * expense is partitioned (V11), so its scans show up under the partition names.
+ */
+final class PlanInspector {
+
+    record Scan(String relation, String nodeType, String indexName) {
+        boolean sequential() {
+            return "Seq Scan".equals(nodeType);
+        }
+    }
+
+    private static final ThreadLocal<List<String>> CAPTURED = new ThreadLocal<>();
+    private static final ObjectMapper JSON = new ObjectMapper();
+
+    /** Registered as an extra source: records SQL, then hands it to the application's inspector. */
+    public static class StatementCapture {
+
+        @Bean
+        @Order(Ordered.LOWEST_PRECEDENCE)
+        public HibernatePropertiesCustomizer capturingStatementInspector() {
+            return properties -> {
+                Object existing = properties.get(AvailableSettings.STATEMENT_INSPECTOR);
+                StatementInspector next = existing instanceof StatementInspector inspector ? inspector : sql -> sql;
+                properties.put(AvailableSettings.STATEMENT_INSPECTOR, (StatementInspector) sql -> {
+                    List<String> captured = CAPTURED.get();
+                    if (captured != null) {
+                        captured.add(sql);
+                    }
+                    return next.inspect(sql);
+                });
+            };
+        }
+    }
+
+    private PlanInspector() {
+    }
+
+    /** The statements on expense that {@code action} ran on this thread. */
+    static List<String> captureExpenseStatements(Runnable action) {
+        List<String> statements = new ArrayList<>();
+        CAPTURED.set(statements);
+        try {
+            action.run();
+        } finally {
+            CAPTURED.remove();
+        }
+        return statements.stream().filter(sql -> sql.toLowerCase().contains(" from expense ")).toList();
+    }
+
+    /** Partitions of expense with their estimated row counts (pg_class.reltuples). */
+    static Map<String, Long> expensePartitions(JdbcTemplate jdbc) {
+        Map<String, Long> partitions = new HashMap<>();
+        jdbc.query("SELECT c.relname, c.reltuples FROM pg_inherits i JOIN pg_class c ON c.oid = i.inhrelid "
+                + "WHERE i.inhparent = 'expense'::regclass",
+                rs -> {
+                    partitions.put(rs.getString(1), Math.max(rs.getLong(2), 0));
+                });
+        return partitions;
+    }
+
+    /**
+     * Plan chosen without looking at parameter values (EXPLAIN (GENERIC_PLAN),
+     * Postgres 16+). Needs a {@link BenchmarkDatabase#simpleProtocolConnection()}:
+     * over the extended protocol the driver binds zero values to the $n
+     * placeholders and the server rejects the statement.
+     */
+    static List<Scan> explainGeneric(Connection connection, String sql) throws Exception {
+        try (Statement statement = connection.createStatement();
+                ResultSet plan = statement.executeQuery("EXPLAIN (GENERIC_PLAN, FORMAT JSON) "
+                        + numberParameters(sql))) {
+            plan.next();
+            return scans(plan.getString(1));
+        }
+    }
+
+    /** Plan for these parameter values, including partitions pruned because of them. */
+    static List<Scan> explain(JdbcTemplate jdbc, String sql, Object... parameters) throws Exception {
+        return scans(jdbc.queryForObject("EXPLAIN (FORMAT JSON) " + sql, String.class, parameters));
+    }
+
+    private static List<Scan> scans(String plan) throws Exception {
+        List<Scan> scans = new ArrayList<>();
+        walk(JSON.readTree(plan).get(0).get("Plan"), scans);
+        return scans;
+    }
+
+    private static void walk(JsonNode node, List<Scan> scans) {
+        if (node.has("Relation Name")) {
+            scans.add(new Scan(node.get("Relation Name").asText(), node.path("Node Type").asText(),
+                    node.has("Index Name") ? node.get("Index Name").asText() : null));
+        }
+        for (JsonNode child : node.path("Plans")) {
+            walk(child, scans);
+        }
+    }
+
+    // Hibernate emits JDBC "?" placeholders; EXPLAIN (GENERIC_PLAN) wants $1, $2, ...
+    private static String numberParameters(String sql) {
+        StringBuilder numbered = new StringBuilder(sql.length() + 16);
+        int parameter = 0;
+        for (int i = 0; i < sql.length(); i++) {
+            char c = sql.charAt(i);
+            if (c == '?') {
+                numbered.append('$').append(++parameter);
+            } else {
+                numbered.append(c);
+            }
+        }
+        return numbered.toString();
+    }
+}
@@ -0,0 +1,121 @@
+package io.fintrack.benchmark;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.dataformat.cbor.CBORFactory;
+import io.fintrack.dto.CompactExpensePage;
+import io.fintrack.dto.CursorPage;
+import io.fintrack.dto.ExpenseView;
+import io.fintrack.model.EntryType;
+import io.fintrack.model.PaymentMethod;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.springframework.http.converter.json.Jackson2ObjectMapperBuilder;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.math.BigDecimal;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+import java.util.zip.GZIPOutputStream;
+
+/**
+ * Wire formats for a page of expenses: the JSON the API returns by default
+ * against the compact CBOR page (Accept: application/cbor), each with and
+ * without gzip. Times serialization including the conversion to the compact
+ * shape; payload sizes are printed once per trial. Needs no database:
+ *
+ *   ./gradlew jmh -Pjmh.includes=WireFormatBenchmark
+ *
+ * Rows follow the benchmark data set's distributions (few categories,
+ * many merchants, mostly empty notes).
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+public class WireFormatBenchmark {
+
+    @Param({ "50", "500" })
+    public int pageSize;
+
+    private final ObjectMapper json = Jackson2ObjectMapperBuilder.json().build();
+    private final ObjectMapper cbor = Jackson2ObjectMapperBuilder.json().factory(new CBORFactory()).build();
+
+    private CursorPage<ExpenseView> page;
+
+    @Setup
+    public void createPage() throws IOException {
+        Random random = new Random(42);
+        PaymentMethod[] methods = PaymentMethod.values();
+        String[] banks = { "Monzo", "HSBC", "Lloyds", "ICICI Forex" };
+        List<ExpenseView> rows = new ArrayList<>(pageSize);
+        LocalDate day = LocalDate.now();
+        for (int i = 0; i < pageSize; i++) {
+            if (random.nextInt(4) == 0) {
+                day = day.minusDays(1);
+            }
+            long categoryId = 1 + (long) (Math.pow(random.nextDouble(), 3) * BenchmarkDatabase.CATEGORIES);
+            long merchantId = 1 + (long) (Math.pow(random.nextDouble(), 4) * BenchmarkDatabase.MERCHANTS);
+            rows.add(new ExpenseView(1_000_000L - i, day,
+                    BigDecimal.valueOf(50 + random.nextInt(25_000), 2),
+                    "Item " + random.nextInt(2000),
+                    categoryId, "Category " + categoryId,
+                    merchantId, "Merchant " + merchantId,
+                    methods[random.nextInt(methods.length)], banks[random.nextInt(banks.length)],
+                    random.nextInt(3) == 0 ? "jay" : "parth",
+                    random.nextInt(12) == 0 ? EntryType.CREDIT : EntryType.DEBIT,
+                    random.nextInt(5) == 0 ? "generated" : null,
+                    day.atTime(random.nextInt(24), random.nextInt(60), random.nextInt(60))));
+        }
+        page = new CursorPage<>(rows, pageSize, true, "opaque-cursor-token");
+
+        System.out.printf("%n%d rows: json=%d B, json+gzip=%d B, cbor (compact)=%d B, cbor (compact)+gzip=%d B%n",
+                pageSize, json().length, jsonGzip().length, cborCompact().length, cborCompactGzip().length);
+    }
+
+    @Benchmark
+    public byte[] json() throws IOException {
+        return json.writeValueAsBytes(page);
+    }
+
+    @Benchmark
+    public byte[] jsonGzip() throws IOException {
+        return gzip(json.writeValueAsBytes(page));
+    }
+
+    @Benchmark
+    public byte[] cborCompact() throws IOException {
+        return cbor.writeValueAsBytes(compact());
+    }
+
+    @Benchmark
+    public byte[] cborCompactGzip() throws IOException {
+        return gzip(cbor.writeValueAsBytes(compact()));
+    }
+
+    // Same conversion as CompactExpenseAdvice does for a CursorPage
+    private CompactExpensePage compact() {
+        CompactExpensePage compact = CompactExpensePage.of(page.getContent());
+        compact.setSize(page.getSize());
+        compact.setHasNext(page.isHasNext());
+        compact.setNextCursor(page.getNextCursor());
+        return compact;
+    }
+
+    private static byte[] gzip(byte[] body) throws IOException {
+        ByteArrayOutputStream out = new ByteArrayOutputStream(body.length / 4);
+        try (GZIPOutputStream gzip = new GZIPOutputStream(out)) {
+            gzip.write(body);
+        }
+        return out.toByteArray();
+    }
+}
@@ -0,0 +1,20 @@
+package io.fintrack.bulkhead;
+
+import java.lang.annotation.Documented;
+import java.lang.annotation.ElementType;
+import java.lang.annotation.Retention;
+import java.lang.annotation.RetentionPolicy;
+import java.lang.annotation.Target;
+
+/**
+ * Marks a request-facing method that needs a database connection. At most
+ * {@code fintrack.db.max-concurrency} such calls run at once; the rest wait up
+ * to {@code fintrack.db.acquire-timeout} and then fail with 503.
+ *
+ * Nested calls on the same thread share the caller's permit.
+ */
+@Documented
+@Target(ElementType.METHOD)
+@Retention(RetentionPolicy.RUNTIME)
+public @interface DbBulkhead {
+}
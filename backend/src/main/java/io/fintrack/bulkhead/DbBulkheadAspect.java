@@ -0,0 +1,104 @@
+package io.fintrack.bulkhead;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.aspectj.lang.ProceedingJoinPoint;
+import org.aspectj.lang.annotation.Around;
+import org.aspectj.lang.annotation.Aspect;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.core.Ordered;
+import org.springframework.core.annotation.Order;
+import org.springframework.stereotype.Component;
+
+import java.time.Duration;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.TimeUnit;
+import java.util.function.Supplier;
+
+/**
+ * Semaphore in front of the connection pool for {@link DbBulkhead} methods.
+ *
+ * With virtual threads a burst of dashboard loads becomes thousands of
+ * threads queueing on Hikari, each holding its request open until the pool's
+ * connection timeout. The semaphore caps how many get that far (by default
+ * as many as there are connections), lets the rest wait briefly, and turns
+ * the overflow into a fast 503 instead of a pile-up. Background imports don't
+ * go through it and are limited by the pool alone.
+ *
+ * Runs outside the transaction advice, so a permit is held before a
+ * connection is taken and released after it is returned.
+ */
+@Aspect
+@Component
+@Order(Ordered.HIGHEST_PRECEDENCE)
+public class DbBulkheadAspect {
+
+    private final Semaphore permits;
+    private final long acquireTimeoutMillis;
+    private final Counter rejected;
+    private final ThreadLocal<Boolean> holding = new ThreadLocal<>();
+
+    public DbBulkheadAspect(@Value("${fintrack.db.max-concurrency:10}") int maxConcurrency,
+            @Value("${fintrack.db.acquire-timeout:2s}") Duration acquireTimeout,
+            MeterRegistry meterRegistry) {
+        this.permits = new Semaphore(maxConcurrency, true);
+        this.acquireTimeoutMillis = acquireTimeout.toMillis();
+        this.rejected = Counter.builder("fintrack.db.bulkhead.rejected")
+                .description("Requests turned away because the database concurrency limit was reached")
+                .register(meterRegistry);
+        Gauge.builder("fintrack.db.bulkhead.available", permits, Semaphore::availablePermits)
+                .description("Free database concurrency permits")
+                .register(meterRegistry);
+    }
+
+    @Around("@annotation(io.fintrack.bulkhead.DbBulkhead)")
+    public Object limit(ProceedingJoinPoint joinPoint) throws Throwable {
+        if (holding.get() != null) {
+            return joinPoint.proceed();
+        }
+        acquire();
+        try {
+            return joinPoint.proceed();
+        } finally {
+            release();
+        }
+    }
+
+    /**
+     * The same limit for code that only needs a connection on some paths and
+     * so can't be annotated as a whole. Shares the permit with any
+     * {@link DbBulkhead} method called from {@code work}.
+     */
+    public <T> T withPermit(Supplier<T> work) {
+        if (holding.get() != null) {
+            return work.get();
+        }
+        acquire();
+        try {
+            return work.get();
+        } finally {
+            release();
+        }
+    }
+
+    private void acquire() {
+        boolean acquired;
+        try {
+            acquired = permits.tryAcquire(acquireTimeoutMillis, TimeUnit.MILLISECONDS);
+        } catch (InterruptedException ex) {
+            Thread.currentThread().interrupt();
+            throw new DbBusyException(1);
+        }
+        if (!acquired) {
+            rejected.increment();
+            throw new DbBusyException(1);
+        }
+        holding.set(Boolean.TRUE);
+    }
+
+    private void release() {
+        holding.remove();
+        permits.release();
+    }
+}
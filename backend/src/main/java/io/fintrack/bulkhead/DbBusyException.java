@@ -0,0 +1,23 @@
+package io.fintrack.bulkhead;
+
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpStatus;
+import org.springframework.web.server.ResponseStatusException;
+
+// Rendered by Spring as 503 with a Retry-After hint
+public class DbBusyException extends ResponseStatusException {
+
+    private final long retryAfterSeconds;
+
+    public DbBusyException(long retryAfterSeconds) {
+        super(HttpStatus.SERVICE_UNAVAILABLE, "Too many concurrent database requests");
+        this.retryAfterSeconds = retryAfterSeconds;
+    }
+
+    @Override
+    public HttpHeaders getHeaders() {
+        HttpHeaders headers = new HttpHeaders();
+        headers.set(HttpHeaders.RETRY_AFTER, String.valueOf(retryAfterSeconds));
+        return headers;
+    }
+}
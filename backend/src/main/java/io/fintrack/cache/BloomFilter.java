@@ -0,0 +1,65 @@
+package io.fintrack.cache;
+
+import io.fintrack.model.ExpenseFingerprint;
+
+import java.util.concurrent.atomic.AtomicLongArray;
+
+/**
+ * Bloom filter over 64-bit keys, sized for an expected number of keys and a
+ * target false-positive rate. {@link #mightContain} never returns false for
+ * a key that was added; it returns true for a key that was not with about the
+ * target probability while the filter holds no more than the expected number
+ * of keys. Keys cannot be removed.
+ *
+ * Lock-free: bits are set with compare-and-set, so adds and lookups can run
+ * from any thread.
+ */
+public class BloomFilter {
+
+    private final AtomicLongArray words;
+    private final long bits;
+    private final int hashes;
+
+    public BloomFilter(long expectedKeys, double falsePositiveRate) {
+        long n = Math.max(expectedKeys, 1);
+        double ln2 = Math.log(2);
+        long m = (long) Math.ceil(-n * Math.log(falsePositiveRate) / (ln2 * ln2));
+        int wordCount = (int) Math.min(Math.max((m + 63) / 64, 1), Integer.MAX_VALUE - 8);
+        this.words = new AtomicLongArray(wordCount);
+        this.bits = (long) wordCount * 64;
+        this.hashes = Math.max(1, (int) Math.round((double) bits / n * ln2));
+    }
+
+    public void add(long key) {
+        long h1 = ExpenseFingerprint.mix(key);
+        long h2 = ExpenseFingerprint.mix(key ^ 0x9e3779b97f4a7c15L) | 1;
+        for (int i = 0; i < hashes; i++) {
+            long bit = Math.floorMod(h1 + i * h2, bits);
+            int word = (int) (bit >>> 6);
+            long mask = 1L << bit;
+            long current;
+            do {
+                current = words.get(word);
+                if ((current & mask) != 0) {
+                    break;
+                }
+            } while (!words.compareAndSet(word, current, current | mask));
+        }
+    }
+
+    public boolean mightContain(long key) {
+        long h1 = ExpenseFingerprint.mix(key);
+        long h2 = ExpenseFingerprint.mix(key ^ 0x9e3779b97f4a7c15L) | 1;
+        for (int i = 0; i < hashes; i++) {
+            long bit = Math.floorMod(h1 + i * h2, bits);
+            if ((words.get((int) (bit >>> 6)) & (1L << bit)) == 0) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    public long bitSize() {
+        return bits;
+    }
+}
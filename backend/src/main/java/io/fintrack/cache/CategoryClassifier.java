@@ -0,0 +1,175 @@
+package io.fintrack.cache;
+
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.concurrent.locks.StampedLock;
+
+/**
+ * Category frequencies per feature of an expense: each token of its item
+ * and its merchant id. Learning is counting, so a write is folded in (or
+ * taken back out) by adjusting a few counts; nothing is ever retrained.
+ *
+ * A suggestion scores each category by P(category | feature), summed over
+ * the features the model has seen and weighted by how decisive each feature
+ * is (its best P), so generic words like "to" barely count. The merchant
+ * weighs {@link #MERCHANT_WEIGHT} times a token. Probabilities are smoothed
+ * by one phantom observation: a feature seen once scores at most 0.5.
+ *
+ * Writers are serialized by a StampedLock, suggestions share its read lock.
+ */
+public class CategoryClassifier {
+
+    public record Suggestion(long categoryId, double confidence) {
+    }
+
+    private static final double MERCHANT_WEIGHT = 3.0;
+    private static final int MAX_TOKENS = 16;
+
+    private static final class Counts {
+        long total;
+        final Map<Long, Long> byCategory = new HashMap<>(4);
+
+        boolean add(long categoryId, long delta) {
+            long before = byCategory.getOrDefault(categoryId, 0L);
+            long after = Math.max(before + delta, 0);
+            if (after > 0) {
+                byCategory.put(categoryId, after);
+            } else {
+                byCategory.remove(categoryId);
+            }
+            total += after - before;
+            return total > 0;
+        }
+
+        double probability(long count) {
+            return (double) count / (total + 1);
+        }
+
+        double best() {
+            long max = 0;
+            for (long count : byCategory.values()) {
+                max = Math.max(max, count);
+            }
+            return probability(max);
+        }
+    }
+
+    private final StampedLock lock = new StampedLock();
+    private final Map<String, Counts> tokens = new HashMap<>();
+    private final Map<Long, Counts> merchants = new HashMap<>();
+
+    /**
+     * Counts an expense (count &gt; 0) or takes it back out (count &lt; 0);
+     * features whose counts reach zero are dropped.
+     */
+    public void add(String item, Long merchantId, long categoryId, long count) {
+        List<String> itemTokens = tokenize(item);
+        long stamp = lock.writeLock();
+        try {
+            for (String token : itemTokens) {
+                update(tokens, token, categoryId, count);
+            }
+            if (merchantId != null) {
+                update(merchants, merchantId, categoryId, count);
+            }
+        } finally {
+            lock.unlockWrite(stamp);
+        }
+    }
+
+    // Best first; empty when the model knows none of the features
+    public List<Suggestion> suggest(String item, Long merchantId, int limit) {
+        List<String> itemTokens = tokenize(item);
+        Map<Long, Double> scores = new HashMap<>();
+        double weights = 0;
+        long stamp = lock.readLock();
+        try {
+            for (String token : itemTokens) {
+                weights += score(tokens.get(token), 1.0, scores);
+            }
+            if (merchantId != null) {
+                weights += score(merchants.get(merchantId), MERCHANT_WEIGHT, scores);
+            }
+        } finally {
+            lock.unlockRead(stamp);
+        }
+        if (weights == 0) {
+            return List.of();
+        }
+
+        List<Suggestion> suggestions = new ArrayList<>(scores.size());
+        for (Map.Entry<Long, Double> entry : scores.entrySet()) {
+            suggestions.add(new Suggestion(entry.getKey(), entry.getValue() / weights));
+        }
+        suggestions.sort(Comparator.comparingDouble(Suggestion::confidence).reversed()
+                .thenComparingLong(Suggestion::categoryId));
+        return suggestions.size() > limit ? suggestions.subList(0, limit) : suggestions;
+    }
+
+    // Distinct token and merchant features
+    public int size() {
+        long stamp = lock.readLock();
+        try {
+            return tokens.size() + merchants.size();
+        } finally {
+            lock.unlockRead(stamp);
+        }
+    }
+
+    /**
+     * Lower-cased runs of letters and digits, at least two characters and
+     * not all digits (amounts, dates and reference numbers say nothing about
+     * the category), without repeats.
+     */
+    public static List<String> tokenize(String item) {
+        List<String> result = new ArrayList<>();
+        if (item == null) {
+            return result;
+        }
+        int length = item.length();
+        int start = -1;
+        boolean letters = false;
+        for (int i = 0; i <= length && result.size() < MAX_TOKENS; i++) {
+            char c = i < length ? item.charAt(i) : ' ';
+            if (Character.isLetterOrDigit(c)) {
+                if (start < 0) {
+                    start = i;
+                    letters = false;
+                }
+                letters |= Character.isLetter(c);
+                continue;
+            }
+            if (start >= 0 && letters && i - start >= 2) {
+                String token = item.substring(start, i).toLowerCase(Locale.ROOT);
+                if (!result.contains(token)) {
+                    result.add(token);
+                }
+            }
+            start = -1;
+        }
+        return result;
+    }
+
+    private static <K> void update(Map<K, Counts> features, K key, long categoryId, long count) {
+        Counts counts = features.computeIfAbsent(key, k -> new Counts());
+        if (!counts.add(categoryId, count)) {
+            features.remove(key);
+        }
+    }
+
+    // Adds the feature's weighted P(category | feature) to scores; returns the weight used
+    private static double score(Counts counts, double weight, Map<Long, Double> scores) {
+        if (counts == null) {
+            return 0;
+        }
+        double w = weight * counts.best();
+        for (Map.Entry<Long, Long> entry : counts.byCategory.entrySet()) {
+            scores.merge(entry.getKey(), w * counts.probability(entry.getValue()), Double::sum);
+        }
+        return w;
+    }
+}
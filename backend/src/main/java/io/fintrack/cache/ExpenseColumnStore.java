@@ -0,0 +1,245 @@
+package io.fintrack.cache;
+
+import io.fintrack.model.EntryType;
+import io.fintrack.model.PaymentMethod;
+
+import java.math.BigDecimal;
+import java.math.RoundingMode;
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.locks.StampedLock;
+
+/**
+ * The analytics-relevant columns of expense held in memory as primitive
+ * arrays, one slot per row: txn_date as epoch day, amount in cents,
+ * category, merchant and paid_by as dictionary codes, entry type and payment
+ * method as enum ordinals. Aggregates are plain loops over the arrays, with
+ * no boxing and no allocation.
+ *
+ * Rows are upserted and removed by expense id. Removed rows leave a hole
+ * that scans skip; the arrays are compacted once a quarter of them are holes.
+ * Writers are serialized by a StampedLock, scans share its read lock.
+ */
+public class ExpenseColumnStore {
+
+    /** Filter value meaning "any"; also the code of a null category, merchant or paid_by. */
+    public static final int ANY = -1;
+    /** Code for a value the store has never seen: matches no row. */
+    public static final int UNKNOWN = -2;
+
+    private static final byte CREDIT = (byte) EntryType.CREDIT.ordinal();
+
+    // Assigns dense int codes to values in order of first appearance
+    private static final class Dictionary<T> {
+        private final Map<T, Integer> codes = new HashMap<>();
+        private final List<T> values = new ArrayList<>();
+
+        int encode(T value) {
+            if (value == null) {
+                return ANY;
+            }
+            return codes.computeIfAbsent(value, v -> {
+                values.add(v);
+                return values.size() - 1;
+            });
+        }
+
+        int lookup(T value) {
+            Integer code = codes.get(value);
+            return code != null ? code : UNKNOWN;
+        }
+    }
+
+    private final StampedLock lock = new StampedLock();
+    private final Map<Long, Integer> slotById = new HashMap<>();
+    private final Dictionary<Long> categories = new Dictionary<>();
+    private final Dictionary<Long> merchants = new Dictionary<>();
+    private final Dictionary<String> payers = new Dictionary<>();
+
+    private int size;      // slots in use, holes included
+    private int holes;
+    private long[] ids;
+    private boolean[] live;
+    private int[] days;
+    private long[] cents;
+    private int[] categoryCodes;
+    private int[] merchantCodes;
+    private int[] payerCodes;
+    private byte[] entryTypes;
+    private byte[] paymentMethods;
+
+    public ExpenseColumnStore(int initialCapacity) {
+        allocate(Math.max(initialCapacity, 16));
+    }
+
+    public void upsert(long id, LocalDate txnDate, BigDecimal amount, Long categoryId, Long merchantId,
+            String paidBy, EntryType entryType, PaymentMethod paymentMethod) {
+        long stamp = lock.writeLock();
+        try {
+            Integer existing = slotById.get(id);
+            int slot;
+            if (existing != null) {
+                slot = existing;
+            } else {
+                if (size == ids.length) {
+                    grow();
+                }
+                slot = size++;
+                slotById.put(id, slot);
+            }
+            ids[slot] = id;
+            live[slot] = true;
+            days[slot] = (int) txnDate.toEpochDay();
+            // rounded like Postgres stores NUMERIC(12,2), for amounts not yet read back
+            cents[slot] = amount.setScale(2, RoundingMode.HALF_UP).unscaledValue().longValueExact();
+            categoryCodes[slot] = categories.encode(categoryId);
+            merchantCodes[slot] = merchants.encode(merchantId);
+            payerCodes[slot] = payers.encode(paidBy);
+            entryTypes[slot] = (byte) entryType.ordinal();
+            paymentMethods[slot] = (byte) paymentMethod.ordinal();
+        } finally {
+            lock.unlockWrite(stamp);
+        }
+    }
+
+    public void remove(long id) {
+        long stamp = lock.writeLock();
+        try {
+            Integer slot = slotById.remove(id);
+            if (slot == null) {
+                return;
+            }
+            live[slot] = false;
+            if (++holes > size / 4 && size > 64) {
+                compact();
+            }
+        } finally {
+            lock.unlockWrite(stamp);
+        }
+    }
+
+    public int rows() {
+        long stamp = lock.readLock();
+        try {
+            return slotById.size();
+        } finally {
+            lock.unlockRead(stamp);
+        }
+    }
+
+    /** Code to filter on for a category id; {@link #UNKNOWN} if no row has it. */
+    public int categoryCode(long categoryId) {
+        long stamp = lock.readLock();
+        try {
+            return categories.lookup(categoryId);
+        } finally {
+            lock.unlockRead(stamp);
+        }
+    }
+
+    /** Code to filter on for a paid_by value; {@link #UNKNOWN} if no row has it. */
+    public int payerCode(String paidBy) {
+        long stamp = lock.readLock();
+        try {
+            return payers.lookup(paidBy);
+        } finally {
+            lock.unlockRead(stamp);
+        }
+    }
+
+    /**
+     * Sums the rows dated in [fromDay, toDay] (epoch days, inclusive) into
+     * {@code out}: [0] DEBIT cents, [1] CREDIT cents, [2] row count.
+     *
+     * @param categoryCode from {@link #categoryCode}, or {@link #ANY}
+     * @param payerCode    from {@link #payerCode}, or {@link #ANY}
+     */
+    public void totals(int fromDay, int toDay, int categoryCode, int payerCode, long[] out) {
+        long debit = 0;
+        long credit = 0;
+        long count = 0;
+        if (categoryCode != UNKNOWN && payerCode != UNKNOWN) {
+            long stamp = lock.readLock();
+            try {
+                for (int i = 0; i < size; i++) {
+                    int day = days[i];
+                    if (day < fromDay || day > toDay || !live[i]) {
+                        continue;
+                    }
+                    if (categoryCode != ANY && categoryCodes[i] != categoryCode) {
+                        continue;
+                    }
+                    if (payerCode != ANY && payerCodes[i] != payerCode) {
+                        continue;
+                    }
+                    if (entryTypes[i] == CREDIT) {
+                        credit += cents[i];
+                    } else {
+                        debit += cents[i];
+                    }
+                    count++;
+                }
+            } finally {
+                lock.unlockRead(stamp);
+            }
+        }
+        out[0] = debit;
+        out[1] = credit;
+        out[2] = count;
+    }
+
+    private void grow() {
+        int capacity = ids.length * 2;
+        ids = Arrays.copyOf(ids, capacity);
+        live = Arrays.copyOf(live, capacity);
+        days = Arrays.copyOf(days, capacity);
+        cents = Arrays.copyOf(cents, capacity);
+        categoryCodes = Arrays.copyOf(categoryCodes, capacity);
+        merchantCodes = Arrays.copyOf(merchantCodes, capacity);
+        payerCodes = Arrays.copyOf(payerCodes, capacity);
+        entryTypes = Arrays.copyOf(entryTypes, capacity);
+        paymentMethods = Arrays.copyOf(paymentMethods, capacity);
+    }
+
+    // Moves the live rows to the front, in their current order
+    private void compact() {
+        int target = 0;
+        for (int i = 0; i < size; i++) {
+            if (!live[i]) {
+                continue;
+            }
+            if (target != i) {
+                ids[target] = ids[i];
+                live[target] = true;
+                days[target] = days[i];
+                cents[target] = cents[i];
+                categoryCodes[target] = categoryCodes[i];
+                merchantCodes[target] = merchantCodes[i];
+                payerCodes[target] = payerCodes[i];
+                entryTypes[target] = entryTypes[i];
+                paymentMethods[target] = paymentMethods[i];
+                slotById.put(ids[target], target);
+            }
+            target++;
+        }
+        Arrays.fill(live, target, size, false);
+        size = target;
+        holes = 0;
+    }
+
+    private void allocate(int capacity) {
+        ids = new long[capacity];
+        live = new boolean[capacity];
+        days = new int[capacity];
+        cents = new long[capacity];
+        categoryCodes = new int[capacity];
+        merchantCodes = new int[capacity];
+        payerCodes = new int[capacity];
+        entryTypes = new byte[capacity];
+        paymentMethods = new byte[capacity];
+    }
+}
@@ -0,0 +1,66 @@
+package io.fintrack.cache;
+
+import java.time.Duration;
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+/**
+ * Bounded string-keyed cache whose entries expire a fixed time after they
+ * were written. When full, the oldest entry is evicted first; expired entries
+ * are dropped when they are next looked up.
+ */
+public class ExpiringCache<V> {
+
+    private record Entry<V>(V value, long expiresAt) {
+    }
+
+    private final int maxSize;
+    private final long ttlNanos;
+    private final Map<String, Entry<V>> entries;
+
+    public ExpiringCache(int maxSize, Duration ttl) {
+        this.maxSize = maxSize;
+        this.ttlNanos = ttl.toNanos();
+        this.entries = new LinkedHashMap<>(16, 0.75f, false) {
+            @Override
+            protected boolean removeEldestEntry(Map.Entry<String, Entry<V>> eldest) {
+                return size() > ExpiringCache.this.maxSize;
+            }
+        };
+    }
+
+    public synchronized V get(String key) {
+        Entry<V> entry = entries.get(key);
+        if (entry == null) {
+            return null;
+        }
+        if (System.nanoTime() - entry.expiresAt() >= 0) {
+            entries.remove(key);
+            return null;
+        }
+        return entry.value();
+    }
+
+    // Stores value unless a live entry exists; returns that entry's value, or null if stored
+    public synchronized V putIfAbsent(String key, V value) {
+        V existing = get(key);
+        if (existing != null) {
+            return existing;
+        }
+        put(key, value);
+        return null;
+    }
+
+    public synchronized void put(String key, V value) {
+        entries.remove(key); // re-insert so the entry moves to the young end
+        entries.put(key, new Entry<>(value, System.nanoTime() + ttlNanos));
+    }
+
+    public synchronized void remove(String key) {
+        entries.remove(key);
+    }
+
+    public synchronized int size() {
+        return entries.size();
+    }
+}
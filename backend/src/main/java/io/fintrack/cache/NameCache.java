@@ -0,0 +1,50 @@
+package io.fintrack.cache;
+
+import java.util.LinkedHashMap;
+import java.util.Locale;
+import java.util.Map;
+
+/**
+ * Small bounded, case-insensitive name → value cache with LRU eviction.
+ * Only positive lookups are ever stored, so a name that is missing here is
+ * always re-checked against the database.
+ */
+public class NameCache<T> {
+
+    private final int maxSize;
+    private final Map<String, T> entries;
+
+    public NameCache(int maxSize) {
+        this.maxSize = maxSize;
+        this.entries = new LinkedHashMap<>(16, 0.75f, true) {
+            @Override
+            protected boolean removeEldestEntry(Map.Entry<String, T> eldest) {
+                return size() > NameCache.this.maxSize;
+            }
+        };
+    }
+
+    public synchronized T get(String name) {
+        return entries.get(key(name));
+    }
+
+    public synchronized void put(String name, T value) {
+        entries.put(key(name), value);
+    }
+
+    public synchronized void clear() {
+        entries.clear();
+    }
+
+    public synchronized int size() {
+        return entries.size();
+    }
+
+    public int getMaxSize() {
+        return maxSize;
+    }
+
+    public static String key(String name) {
+        return name.trim().toLowerCase(Locale.ROOT);
+    }
+}
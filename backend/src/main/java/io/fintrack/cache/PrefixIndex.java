@@ -0,0 +1,162 @@
+package io.fintrack.cache;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.PriorityQueue;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * In-memory autocomplete index: names kept in a sorted array (copy-on-write,
+ * so reads never lock) with a usage counter per entry. A prefix lookup is two
+ * binary searches plus a top-N selection by usage over the matching range.
+ * Entries are keyed on id, so names differing only in case each keep their
+ * own entry and usage.
+ */
+public class PrefixIndex<T> {
+
+    private static final class Entry<T> {
+        private final long id;
+        private final String key;
+        private final T value;
+        private final LongAdder usage;
+
+        private Entry(long id, String key, T value, LongAdder usage) {
+            this.id = id;
+            this.key = key;
+            this.value = value;
+            this.usage = usage;
+        }
+    }
+
+    // Usage counters move while a search runs, so rank on a snapshot of them
+    private record Ranked<T>(String key, T value, long usage) {
+    }
+
+    // most used first, then alphabetical
+    private final Comparator<Ranked<T>> ranking = Comparator
+            .comparingLong((Ranked<T> r) -> r.usage()).reversed()
+            .thenComparing(Ranked::key);
+
+    private final Map<Long, LongAdder> usageById = new ConcurrentHashMap<>();
+    private final Map<Long, String> keyById = new HashMap<>();  // guarded by this
+    private volatile Entry<T>[] sorted = newArray(0);            // by key, then id
+
+    /**
+     * Adds or replaces the entry for {@code id}. Writes are rare (a new
+     * category or merchant), so each one simply copies the array.
+     */
+    public synchronized void put(long id, String name, T value) {
+        String key = name.toLowerCase(Locale.ROOT);
+        Entry<T> entry = new Entry<>(id, key, value, usageById.computeIfAbsent(id, k -> new LongAdder()));
+
+        Entry<T>[] current = sorted;
+        String previousKey = keyById.put(id, key);
+        if (previousKey != null) {
+            int old = position(current, previousKey, id);
+            if (previousKey.equals(key)) {
+                Entry<T>[] copy = current.clone();
+                copy[old] = entry;
+                sorted = copy;
+                return;
+            }
+            // renamed: take the entry out and insert it again below
+            Entry<T>[] shrunk = newArray(current.length - 1);
+            System.arraycopy(current, 0, shrunk, 0, old);
+            System.arraycopy(current, old + 1, shrunk, old, current.length - old - 1);
+            current = shrunk;
+        }
+        int pos = position(current, key, id);
+        Entry<T>[] grown = newArray(current.length + 1);
+        System.arraycopy(current, 0, grown, 0, pos);
+        grown[pos] = entry;
+        System.arraycopy(current, pos, grown, pos + 1, current.length - pos);
+        sorted = grown;
+    }
+
+    public void addUsage(long id, long delta) {
+        usageById.computeIfAbsent(id, k -> new LongAdder()).add(delta);
+    }
+
+    /**
+     * @param prefix case-insensitive prefix; blank matches everything
+     * @param limit  maximum number of results
+     * @return matching values, most used first
+     */
+    public List<T> search(String prefix, int limit) {
+        Entry<T>[] snapshot = sorted;
+        String key = prefix == null ? "" : prefix.trim().toLowerCase(Locale.ROOT);
+        int from = lowerBound(snapshot, key);
+        int to = key.isEmpty() ? snapshot.length : lowerBound(snapshot, key + Character.MAX_VALUE);
+        int matches = to - from;
+        if (matches <= 0 || limit <= 0) {
+            return Collections.emptyList();
+        }
+
+        List<Ranked<T>> top;
+        if (matches <= limit) {
+            top = new ArrayList<>(matches);
+            for (int i = from; i < to; i++) {
+                top.add(rank(snapshot[i]));
+            }
+        } else {
+            // keep the best `limit` entries; the heap's head is the worst of them
+            PriorityQueue<Ranked<T>> heap = new PriorityQueue<>(limit + 1, ranking.reversed());
+            for (int i = from; i < to; i++) {
+                heap.offer(rank(snapshot[i]));
+                if (heap.size() > limit) {
+                    heap.poll();
+                }
+            }
+            top = new ArrayList<>(heap);
+        }
+        top.sort(ranking);
+
+        List<T> result = new ArrayList<>(top.size());
+        for (Ranked<T> ranked : top) {
+            result.add(ranked.value());
+        }
+        return result;
+    }
+
+    private static <T> Ranked<T> rank(Entry<T> entry) {
+        return new Ranked<>(entry.key, entry.value, entry.usage.sum());
+    }
+
+    public int size() {
+        return sorted.length;
+    }
+
+    private static <T> int lowerBound(Entry<T>[] entries, String key) {
+        int lo = 0;
+        int hi = entries.length;
+        while (lo < hi) {
+            int mid = (lo + hi) >>> 1;
+            if (entries[mid].key.compareTo(key) < 0) {
+                lo = mid + 1;
+            } else {
+                hi = mid;
+            }
+        }
+        return lo;
+    }
+
+    // Index of the entry (key, id), or where it would be inserted
+    private static <T> int position(Entry<T>[] entries, String key, long id) {
+        int pos = lowerBound(entries, key);
+        while (pos < entries.length && entries[pos].key.equals(key) && entries[pos].id < id) {
+            pos++;
+        }
+        return pos;
+    }
+
+    @SuppressWarnings("unchecked")
+    private static <T> Entry<T>[] newArray(int size) {
+        return (Entry<T>[]) new Entry<?>[size];
+    }
+}
@@ -0,0 +1,24 @@
+package io.fintrack.cache;
+
+import java.lang.annotation.Documented;
+import java.lang.annotation.ElementType;
+import java.lang.annotation.Retention;
+import java.lang.annotation.RetentionPolicy;
+import java.lang.annotation.Target;
+
+/**
+ * Marks a GET handler whose response only changes when one of {@link #value()}
+ * is written. The handler gets an ETag from {@link WriteVersions}, and a
+ * request whose If-None-Match still matches is answered with 304 before the
+ * handler (and the database) is reached.
+ */
+@Documented
+@Target(ElementType.METHOD)
+@Retention(RetentionPolicy.RUNTIME)
+public @interface Versioned {
+
+    WriteVersions.Table[] value();
+
+    // Cache-Control max-age in seconds; 0 means clients must revalidate every time
+    int maxAge() default 0;
+}
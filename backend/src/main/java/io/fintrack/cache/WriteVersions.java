@@ -0,0 +1,81 @@
+package io.fintrack.cache;
+
+import io.fintrack.event.ExpenseChangedEvent;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.event.TransactionalEventListener;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.time.LocalDate;
+import java.util.EnumMap;
+import java.util.Map;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * One counter per table, bumped after every committed write, used to build
+ * ETags (see {@link Versioned}). A response computed after reading version v
+ * can only be older than v's data, never newer, so a matching ETag is always
+ * safe to answer with 304.
+ *
+ * Counters are per process and start from a random epoch, so ETags never
+ * survive a restart. Writes made by another instance or directly in the
+ * database are not seen, the same single-instance assumption as the name caches.
+ */
+@Component
+public class WriteVersions {
+
+    public enum Table {
+        EXPENSE,
+        CATEGORY,
+        MERCHANT
+    }
+
+    private final String epoch = Long.toString(ThreadLocalRandom.current().nextLong() & Long.MAX_VALUE, 36);
+    private final Map<Table, AtomicLong> versions = new EnumMap<>(Table.class);
+
+    public WriteVersions() {
+        for (Table table : Table.values()) {
+            versions.put(table, new AtomicLong());
+        }
+    }
+
+    public long get(Table table) {
+        return versions.get(table).get();
+    }
+
+    public void bump(Table table) {
+        versions.get(table).incrementAndGet();
+    }
+
+    // Bumps once the surrounding transaction commits (immediately if there is none)
+    public void bumpAfterCommit(Table table) {
+        if (!TransactionSynchronizationManager.isSynchronizationActive()) {
+            bump(table);
+            return;
+        }
+        TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+            @Override
+            public void afterCommit() {
+                bump(table);
+            }
+        });
+    }
+
+    @TransactionalEventListener
+    public void onExpenseChanged(ExpenseChangedEvent event) {
+        bump(Table.EXPENSE);
+    }
+
+    // ETag for a response that depends on the given tables, e.g. W/"k3x9.20744.12.4".
+    // Includes today's date because open-ended ranges ("to" = today, "this month") move at midnight.
+    // Weak, because these responses are compressed and Tomcat won't gzip a response with a strong
+    // tag: the gzipped bytes differ from the ones a strong tag would promise.
+    public String etag(Table... tables) {
+        StringBuilder tag = new StringBuilder("W/\"").append(epoch).append('.').append(LocalDate.now().toEpochDay());
+        for (Table table : tables) {
+            tag.append('.').append(get(table));
+        }
+        return tag.append('"').toString();
+    }
+}
@@ -0,0 +1,115 @@
+package io.fintrack.config;
+
+import io.fintrack.cache.Versioned;
+import io.fintrack.cache.WriteVersions;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.http.CacheControl;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.InvalidMediaTypeException;
+import org.springframework.http.MediaType;
+import org.springframework.web.method.HandlerMethod;
+import org.springframework.web.servlet.HandlerInterceptor;
+import org.springframework.web.servlet.config.annotation.InterceptorRegistry;
+import org.springframework.web.servlet.config.annotation.WebMvcConfigurer;
+
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * ETags and conditional GETs for {@link Versioned} handlers. The ETag is
+ * derived from table write counters rather than from the response body, so a
+ * 304 costs no query and no serialization. The tags are weak, so that
+ * response compression still applies (see {@link WriteVersions#etag}).
+ */
+@Configuration
+public class ConditionalGetConfig {
+
+    @Bean
+    public WebMvcConfigurer conditionalGetInterceptor(WriteVersions writeVersions) {
+        return new WebMvcConfigurer() {
+            @Override
+            public void addInterceptors(InterceptorRegistry registry) {
+                registry.addInterceptor(new HandlerInterceptor() {
+                    @Override
+                    public boolean preHandle(HttpServletRequest request, HttpServletResponse response,
+                            Object handler) {
+                        if (!"GET".equals(request.getMethod()) || !(handler instanceof HandlerMethod method)) {
+                            return true;
+                        }
+                        Versioned versioned = method.getMethodAnnotation(Versioned.class);
+                        if (versioned == null) {
+                            return true;
+                        }
+
+                        // Read before the handler queries anything (see WriteVersions)
+                        String etag = representation(writeVersions.etag(versioned.value()),
+                                request.getHeader(HttpHeaders.ACCEPT));
+                        response.setHeader(HttpHeaders.ETAG, etag);
+                        response.setHeader(HttpHeaders.CACHE_CONTROL, versioned.maxAge() > 0
+                                ? CacheControl.maxAge(versioned.maxAge(), TimeUnit.SECONDS).getHeaderValue()
+                                : CacheControl.noCache().getHeaderValue());
+                        response.setHeader(HttpHeaders.VARY, HttpHeaders.ACCEPT);
+
+                        if (matches(request.getHeader(HttpHeaders.IF_NONE_MATCH), etag)) {
+                            response.setStatus(HttpServletResponse.SC_NOT_MODIFIED);
+                            return false;
+                        }
+                        return true;
+                    }
+                }).addPathPatterns("/api/**");
+            }
+        };
+    }
+
+    // JSON and CBOR bodies of the same data are different representations and
+    // need different tags; the CBOR one is marked with a suffix. Picks the
+    // format the way content negotiation will: by quality, then specificity.
+    private static String representation(String etag, String accept) {
+        if (accept == null || !accept.contains(MediaType.APPLICATION_CBOR_VALUE)) {
+            return etag;
+        }
+        List<MediaType> types;
+        try {
+            types = new ArrayList<>(MediaType.parseMediaTypes(accept));
+        } catch (InvalidMediaTypeException ex) {
+            return etag;
+        }
+        types.sort(Comparator.comparingDouble(MediaType::getQualityValue).reversed()
+                .thenComparing(MediaType::isWildcardType)
+                .thenComparing(MediaType::isWildcardSubtype));
+        for (MediaType type : types) {
+            if (type.equalsTypeAndSubtype(MediaType.APPLICATION_CBOR)) {
+                return etag.substring(0, etag.length() - 1) + ".cbor\"";
+            }
+            if (type.includes(MediaType.APPLICATION_JSON)) {
+                return etag;
+            }
+        }
+        return etag;
+    }
+
+    // If-None-Match may list several tags, or *; compared weakly, so W/ on
+    // either side is ignored
+    private static boolean matches(String ifNoneMatch, String etag) {
+        if (ifNoneMatch == null) {
+            return false;
+        }
+        String opaque = opaque(etag);
+        for (String candidate : ifNoneMatch.split(",")) {
+            String tag = candidate.trim();
+            if (tag.equals("*") || opaque(tag).equals(opaque)) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    private static String opaque(String tag) {
+        return tag.startsWith("W/") ? tag.substring(2) : tag;
+    }
+}
@@ -0,0 +1,48 @@
+package io.fintrack.config;
+
+import org.hibernate.event.spi.PostLoadEvent;
+import org.hibernate.event.spi.PostLoadEventListener;
+import org.hibernate.resource.jdbc.spi.StatementInspector;
+
+/**
+ * Counts the SQL statements Hibernate prepares and the entities it loads on
+ * the current thread, so they can be reported per request. Hibernate's own
+ * statistics are global and can't be split by request.
+ *
+ * Only Hibernate's statements are counted; the JdbcTemplate repositories are
+ * covered by their @Timed meters instead.
+ */
+public class HibernateRequestStatistics implements StatementInspector, PostLoadEventListener {
+
+    private static final class Counts {
+        private long statements;
+        private long entityLoads;
+    }
+
+    private static final ThreadLocal<Counts> COUNTS = ThreadLocal.withInitial(Counts::new);
+
+    public static void reset() {
+        Counts counts = COUNTS.get();
+        counts.statements = 0;
+        counts.entityLoads = 0;
+    }
+
+    public static long statements() {
+        return COUNTS.get().statements;
+    }
+
+    public static long entityLoads() {
+        return COUNTS.get().entityLoads;
+    }
+
+    @Override
+    public String inspect(String sql) {
+        COUNTS.get().statements++;
+        return sql;
+    }
+
+    @Override
+    public void onPostLoad(PostLoadEvent event) {
+        COUNTS.get().entityLoads++;
+    }
+}
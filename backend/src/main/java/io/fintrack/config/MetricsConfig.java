@@ -0,0 +1,79 @@
+package io.fintrack.config;
+
+import io.micrometer.core.instrument.DistributionSummary;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.persistence.EntityManagerFactory;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+import org.hibernate.cfg.AvailableSettings;
+import org.hibernate.engine.spi.SessionFactoryImplementor;
+import org.hibernate.event.service.spi.EventListenerRegistry;
+import org.hibernate.event.spi.EventType;
+import org.springframework.beans.factory.InitializingBean;
+import org.springframework.boot.autoconfigure.orm.jpa.HibernatePropertiesCustomizer;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.web.servlet.HandlerInterceptor;
+import org.springframework.web.servlet.HandlerMapping;
+import org.springframework.web.servlet.config.annotation.InterceptorRegistry;
+import org.springframework.web.servlet.config.annotation.WebMvcConfigurer;
+
+/**
+ * Per-request Hibernate metrics: how many statements each handler issued and
+ * how many entities it loaded, as histograms tagged like http.server.requests.
+ * An N+1 regression shows up here as a jump in hibernate.request.statements.
+ */
+@Configuration
+public class MetricsConfig {
+
+    private final HibernateRequestStatistics requestStatistics = new HibernateRequestStatistics();
+
+    @Bean
+    public HibernatePropertiesCustomizer requestStatisticsInspector() {
+        return properties -> properties.put(AvailableSettings.STATEMENT_INSPECTOR, requestStatistics);
+    }
+
+    @Bean
+    public InitializingBean requestStatisticsLoadListener(EntityManagerFactory entityManagerFactory) {
+        return () -> entityManagerFactory.unwrap(SessionFactoryImplementor.class)
+                .getServiceRegistry()
+                .requireService(EventListenerRegistry.class)
+                .appendListeners(EventType.POST_LOAD, requestStatistics);
+    }
+
+    @Bean
+    public WebMvcConfigurer requestStatisticsInterceptor(MeterRegistry meterRegistry) {
+        return new WebMvcConfigurer() {
+            @Override
+            public void addInterceptors(InterceptorRegistry registry) {
+                registry.addInterceptor(new HandlerInterceptor() {
+                    @Override
+                    public boolean preHandle(HttpServletRequest request, HttpServletResponse response,
+                            Object handler) {
+                        HibernateRequestStatistics.reset();
+                        return true;
+                    }
+
+                    @Override
+                    public void afterCompletion(HttpServletRequest request, HttpServletResponse response,
+                            Object handler, Exception ex) {
+                        Object pattern = request.getAttribute(HandlerMapping.BEST_MATCHING_PATTERN_ATTRIBUTE);
+                        String uri = pattern != null ? pattern.toString() : "UNKNOWN";
+                        summary(meterRegistry, "hibernate.request.statements", request.getMethod(), uri)
+                                .record(HibernateRequestStatistics.statements());
+                        summary(meterRegistry, "hibernate.request.entity.loads", request.getMethod(), uri)
+                                .record(HibernateRequestStatistics.entityLoads());
+                    }
+                }).addPathPatterns("/api/**");
+            }
+        };
+    }
+
+    private static DistributionSummary summary(MeterRegistry registry, String name, String method, String uri) {
+        return DistributionSummary.builder(name)
+                .tag("method", method)
+                .tag("uri", uri)
+                .publishPercentileHistogram()
+                .register(registry);
+    }
+}
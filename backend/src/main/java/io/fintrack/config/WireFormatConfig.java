@@ -0,0 +1,24 @@
+package io.fintrack.config;
+
+import com.fasterxml.jackson.dataformat.cbor.CBORFactory;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.http.converter.cbor.MappingJackson2CborHttpMessageConverter;
+import org.springframework.http.converter.json.Jackson2ObjectMapperBuilder;
+
+/**
+ * CBOR (application/cbor) as an alternative to JSON for clients that send a
+ * matching Accept header. The mapper comes from the same builder as the JSON
+ * one, so it has the same modules and spring.jackson.* settings.
+ * Expense listings switch to the compact page shape (see CompactExpenseAdvice).
+ */
+@Configuration
+public class WireFormatConfig {
+
+    @Bean
+    public MappingJackson2CborHttpMessageConverter cborHttpMessageConverter(Jackson2ObjectMapperBuilder builder) {
+        return new MappingJackson2CborHttpMessageConverter(builder.createXmlMapper(false)
+                .factory(new CBORFactory())
+                .build());
+    }
+}
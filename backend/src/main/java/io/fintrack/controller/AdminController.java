@@ -0,0 +1,26 @@
+package io.fintrack.controller;
+
+import io.fintrack.service.MonthlySummaryService;
+
+import java.util.Map;
+
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.*;
+
+@RestController
+@RequestMapping("/api/v1/admin")
+public class AdminController {
+
+    private final MonthlySummaryService monthlySummaryService;
+
+    public AdminController(MonthlySummaryService monthlySummaryService) {
+        this.monthlySummaryService = monthlySummaryService;
+    }
+
+    // POST /api/v1/admin/rollups/monthly/rebuild → recompute monthly_summary from expense
+    @PostMapping("/rollups/monthly/rebuild")
+    public ResponseEntity<Map<String, Integer>> rebuildMonthlySummary() {
+        int rows = monthlySummaryService.rebuild();
+        return ResponseEntity.ok(Map.of("rows", rows));
+    }
+}
@@ -1,7 +1,12 @@
 package io.fintrack.controller;
 
+import io.fintrack.cache.Versioned;
+import io.fintrack.cache.WriteVersions;
+import io.fintrack.dto.CategorySuggestion;
 import io.fintrack.model.Category;
 import io.fintrack.service.CategoryService;
+import io.fintrack.service.CategorySuggestionService;
+import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.*;
 
 import java.util.List;
@@ -11,15 +16,38 @@ import java.util.List;
 public class CategoryController {
 
     private final CategoryService categoryService;
+    private final CategorySuggestionService suggestionService;
 
-    public CategoryController(CategoryService categoryService) {
+    public CategoryController(CategoryService categoryService, CategorySuggestionService suggestionService) {
         this.categoryService = categoryService;
+        this.suggestionService = suggestionService;
     }
 
     // GET /api/v1/categories?prefix=gr
+    // &limit=10 caps the result; matches come back most used first
+    // (ranking follows usage, so the ETag also moves with expense writes)
+    @Versioned(value = { WriteVersions.Table.CATEGORY, WriteVersions.Table.EXPENSE }, maxAge = 60)
     @GetMapping
     public List<Category> searchCategories(
-            @RequestParam(required = false) String prefix) {
-        return categoryService.searchByPrefix(prefix);
+            @RequestParam(required = false) String prefix,
+            @RequestParam(required = false) Integer limit) {
+        int safeLimit = limit == null ? Integer.MAX_VALUE : Math.min(Math.max(limit, 1), 100);
+        return categoryService.searchByPrefix(prefix, safeLimit);
+    }
+
+    // GET /api/v1/categories/suggest?item=uber to airport&merchant=Uber
+    // &limit=3 caps the result; best first, each with a 0..1 confidence
+    // (empty until the classifier has loaded, or when nothing is known about the item or merchant)
+    @GetMapping("/suggest")
+    public ResponseEntity<List<CategorySuggestion>> suggestCategories(
+            @RequestParam(required = false) String item,
+            @RequestParam(required = false) String merchant,
+            @RequestParam(required = false) Integer limit) {
+        int safeLimit = limit == null ? 3 : Math.min(Math.max(limit, 1), 20);
+        try {
+            return ResponseEntity.ok(suggestionService.suggest(item, merchant, safeLimit));
+        } catch (IllegalArgumentException ex) {
+            return ResponseEntity.badRequest().build();
+        }
     }
 }
@@ -0,0 +1,59 @@
+package io.fintrack.controller;
+
+import io.fintrack.dto.CompactExpensePage;
+import io.fintrack.dto.CursorPage;
+import io.fintrack.dto.ExpenseView;
+import org.springframework.core.MethodParameter;
+import org.springframework.data.domain.Page;
+import org.springframework.http.MediaType;
+import org.springframework.http.converter.HttpMessageConverter;
+import org.springframework.http.server.ServerHttpRequest;
+import org.springframework.http.server.ServerHttpResponse;
+import org.springframework.web.bind.annotation.ControllerAdvice;
+import org.springframework.web.servlet.mvc.method.annotation.ResponseBodyAdvice;
+
+import java.util.List;
+
+/**
+ * Content negotiation for expense listings: when the client asks for
+ * {@code Accept: application/cbor}, a page of {@link ExpenseView} is sent as
+ * a {@link CompactExpensePage} instead. JSON responses are unchanged.
+ */
+@ControllerAdvice(assignableTypes = ExpenseController.class)
+public class CompactExpenseAdvice implements ResponseBodyAdvice<Object> {
+
+    @Override
+    public boolean supports(MethodParameter returnType, Class<? extends HttpMessageConverter<?>> converterType) {
+        return true;
+    }
+
+    @Override
+    @SuppressWarnings("unchecked")
+    public Object beforeBodyWrite(Object body, MethodParameter returnType, MediaType selectedContentType,
+            Class<? extends HttpMessageConverter<?>> selectedConverterType, ServerHttpRequest request,
+            ServerHttpResponse response) {
+        if (!MediaType.APPLICATION_CBOR.isCompatibleWith(selectedContentType)) {
+            return body;
+        }
+        if (body instanceof Page<?> page && isExpenseList(page.getContent())) {
+            CompactExpensePage compact = CompactExpensePage.of((List<ExpenseView>) page.getContent());
+            compact.setPage(page.getNumber());
+            compact.setSize(page.getSize());
+            compact.setTotalElements(page.getTotalElements());
+            compact.setTotalPages(page.getTotalPages());
+            return compact;
+        }
+        if (body instanceof CursorPage<?> page && isExpenseList(page.getContent())) {
+            CompactExpensePage compact = CompactExpensePage.of((List<ExpenseView>) page.getContent());
+            compact.setSize(page.getSize());
+            compact.setHasNext(page.isHasNext());
+            compact.setNextCursor(page.getNextCursor());
+            return compact;
+        }
+        return body;
+    }
+
+    private static boolean isExpenseList(List<?> content) {
+        return content.stream().allMatch(ExpenseView.class::isInstance);
+    }
+}
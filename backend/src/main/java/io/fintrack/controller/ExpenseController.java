@@ -1,68 +1,331 @@
 package io.fintrack.controller;
 
+import io.fintrack.cache.Versioned;
+import io.fintrack.cache.WriteVersions;
+import io.fintrack.dto.AnalyticsBreakdownResponse;
+import io.fintrack.dto.AnalyticsDimension;
+import io.fintrack.dto.BalanceSeriesResponse;
+import io.fintrack.dto.BatchCreateResponse;
 import io.fintrack.dto.CreateExpenseRequest;
+import io.fintrack.dto.CursorPage;
+import io.fintrack.dto.DuplicateCandidate;
+import io.fintrack.dto.ExpenseFilter;
+import io.fintrack.dto.ExpenseSearchHit;
+import io.fintrack.dto.ExpenseView;
+import io.fintrack.dto.Granularity;
 import io.fintrack.dto.MonthlyAnalyticsResponse;
-import io.fintrack.model.Expense;
+import io.fintrack.dto.RangeTotalsResponse;
+import io.fintrack.model.EntryType;
+import io.fintrack.service.AnalyticsService;
+import io.fintrack.service.BalanceService;
+import io.fintrack.service.DuplicateDetectionService;
+import io.fintrack.service.ExpenseExportService;
+import io.fintrack.service.ExpenseFeedService;
 import io.fintrack.service.ExpenseService;
+import io.fintrack.service.IdempotencyService;
 
+import java.math.BigDecimal;
+import java.nio.charset.StandardCharsets;
 import java.time.LocalDate;
+import java.time.YearMonth;
+import java.util.ArrayList;
 import java.util.List;
 
 import org.springframework.data.domain.Page;
 import org.springframework.format.annotation.DateTimeFormat;
+import org.springframework.http.HttpHeaders;
 import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.*;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
 
 @RestController
 @RequestMapping("/api/v1/expenses")
 public class ExpenseController {
 
     private final ExpenseService expenseService;
+    private final ExpenseExportService exportService;
+    private final AnalyticsService analyticsService;
+    private final IdempotencyService idempotencyService;
+    private final ExpenseFeedService feedService;
+    private final BalanceService balanceService;
+    private final DuplicateDetectionService duplicateDetectionService;
 
-    public ExpenseController(ExpenseService expenseService) {
+    private static final String IDEMPOTENCY_KEY = "Idempotency-Key";
+    private static final String IDEMPOTENT_REPLAYED = "Idempotent-Replayed";
+
+    public ExpenseController(ExpenseService expenseService, ExpenseExportService exportService,
+            AnalyticsService analyticsService, IdempotencyService idempotencyService,
+            ExpenseFeedService feedService, BalanceService balanceService,
+            DuplicateDetectionService duplicateDetectionService) {
         this.expenseService = expenseService;
+        this.exportService = exportService;
+        this.analyticsService = analyticsService;
+        this.idempotencyService = idempotencyService;
+        this.feedService = feedService;
+        this.balanceService = balanceService;
+        this.duplicateDetectionService = duplicateDetectionService;
     }
 
+    // POST /api/v1/expenses (optional Idempotency-Key: a retry with the same
+    // key and body returns the original expense instead of creating another)
     @PostMapping
-    public ResponseEntity<Expense> createExpense(@RequestBody CreateExpenseRequest request) {
-        Expense saved = expenseService.createExpense(request);
-        return ResponseEntity.status(HttpStatus.CREATED).body(saved);
+    public ResponseEntity<ExpenseView> createExpense(@RequestBody CreateExpenseRequest request,
+            @RequestHeader(value = IDEMPOTENCY_KEY, required = false) String idempotencyKey) {
+        try {
+            IdempotencyService.Outcome<ExpenseView> outcome = idempotencyService.execute("expense", idempotencyKey,
+                    request, ExpenseView.class, () -> ExpenseView.from(expenseService.createExpense(request)));
+            return ResponseEntity.status(HttpStatus.CREATED)
+                    .header(IDEMPOTENT_REPLAYED, String.valueOf(outcome.replayed()))
+                    .body(outcome.body());
+        } catch (IllegalArgumentException ex) {
+            return ResponseEntity.badRequest().build();
+        }
+    }
+
+    // POST /api/v1/expenses/batch → create many expenses in one transaction
+    // (per-item results; invalid items are skipped, the rest are saved;
+    // Idempotency-Key works as for single creates)
+    @PostMapping("/batch")
+    public ResponseEntity<BatchCreateResponse> createExpenses(@RequestBody List<CreateExpenseRequest> requests,
+            @RequestHeader(value = IDEMPOTENCY_KEY, required = false) String idempotencyKey) {
+        try {
+            IdempotencyService.Outcome<BatchCreateResponse> outcome = idempotencyService.execute("expense-batch",
+                    idempotencyKey, requests, BatchCreateResponse.class,
+                    () -> expenseService.createExpenses(requests));
+            return ResponseEntity.ok()
+                    .header(IDEMPOTENT_REPLAYED, String.valueOf(outcome.replayed()))
+                    .body(outcome.body());
+        } catch (IllegalArgumentException ex) {
+            return ResponseEntity.badRequest().build();
+        }
     }
 
-    // 1) GET /api/v1/expenses → all expenses
+    // 1) GET /api/v1/expenses → all expenses, newest first, as one JSON array
+    // streamed from a database cursor rather than built in memory
     @GetMapping
-    public List<Expense> getAllExpenses() {
-        return expenseService.getAllExpenses();
+    public ResponseEntity<StreamingResponseBody> getAllExpenses() {
+        StreamingResponseBody body = out -> exportService.export(ExpenseExportService.Format.JSON, null, null, out);
+        return ResponseEntity.ok().contentType(MediaType.APPLICATION_JSON).body(body);
+    }
+
+    // 1b) GET /api/v1/expenses/export?format=ndjson|csv&from=2025-01-01&to=2025-12-31
+    @GetMapping("/export")
+    public ResponseEntity<StreamingResponseBody> exportExpenses(
+            @RequestParam(defaultValue = "ndjson") String format,
+            @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate from,
+            @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate to) {
+        ExpenseExportService.Format exportFormat;
+        try {
+            exportFormat = ExpenseExportService.Format.valueOf(format.trim().toUpperCase());
+        } catch (IllegalArgumentException ex) {
+            return ResponseEntity.badRequest().build();
+        }
+        StreamingResponseBody body = out -> exportService.export(exportFormat, from, to, out);
+        return switch (exportFormat) {
+            case CSV -> ResponseEntity.ok()
+                    .contentType(new MediaType("text", "csv", StandardCharsets.UTF_8))
+                    .header(HttpHeaders.CONTENT_DISPOSITION, "attachment; filename=\"expenses.csv\"")
+                    .body(body);
+            case NDJSON -> ResponseEntity.ok().contentType(MediaType.APPLICATION_NDJSON).body(body);
+            case JSON -> ResponseEntity.ok().contentType(MediaType.APPLICATION_JSON).body(body);
+        };
+    }
+
+    // 1c) GET /api/v1/expenses/events → server-sent events: "expense" for every
+    // create/update/delete, "totals" for months whose analytics changed,
+    // "resync" if this client fell behind and missed events
+    @GetMapping(path = "/events", produces = MediaType.TEXT_EVENT_STREAM_VALUE)
+    public SseEmitter streamEvents() {
+        return feedService.subscribe();
     }
 
     // 2) GET /api/v1/expenses/{id} → single expense
+    @Versioned(WriteVersions.Table.EXPENSE)
     @GetMapping("/{id}")
-    public ResponseEntity<Expense> getExpenseById(@PathVariable Long id) {
+    public ResponseEntity<ExpenseView> getExpenseById(@PathVariable Long id) {
         try {
-            Expense expense = expenseService.getExpenseById(id);
+            ExpenseView expense = expenseService.getExpenseById(id);
             return ResponseEntity.ok(expense);
         } catch (IllegalArgumentException ex) {
             return ResponseEntity.notFound().build();
         }
     }
 
+    // 2b) PUT /api/v1/expenses/{id} → replace an expense (same body as POST)
+    @PutMapping("/{id}")
+    public ResponseEntity<ExpenseView> updateExpense(@PathVariable Long id,
+            @RequestBody CreateExpenseRequest request) {
+        try {
+            return expenseService.updateExpense(id, request)
+                    .map(updated -> ResponseEntity.ok(ExpenseView.from(updated)))
+                    .orElseGet(() -> ResponseEntity.notFound().build());
+        } catch (IllegalArgumentException ex) {
+            return ResponseEntity.badRequest().build();
+        }
+    }
+
+    // 2c) DELETE /api/v1/expenses/{id}
+    @DeleteMapping("/{id}")
+    public ResponseEntity<Void> deleteExpense(@PathVariable Long id) {
+        return expenseService.deleteExpense(id)
+                ? ResponseEntity.noContent().build()
+                : ResponseEntity.notFound().build();
+    }
+
     // 3) GET /api/v1/expenses/search?from=2025-11-01&to=2025-11-30
+    @Versioned(WriteVersions.Table.EXPENSE)
     @GetMapping("/search")
-    public ResponseEntity<Page<Expense>> getExpensesBetween(
+    public ResponseEntity<Page<ExpenseView>> getExpensesBetween(
             @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate from,
             @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate to,
             @RequestParam(defaultValue = "0") int page,
             @RequestParam(defaultValue = "10") int size) {
-        Page<Expense> result = expenseService.getExpensesBetween(from, to, page, size);
+        Page<ExpenseView> result = expenseService.getExpensesBetween(from, to, page, size);
         return ResponseEntity.ok(result);
     }
 
-    // 4) GET /api/v1/expenses/analytics/monthly → monthly analytics for current
-    // month
+    // 3b) GET /api/v1/expenses/search/cursor?from=2025-11-01&to=2025-11-30&size=20
+    // → keyset pages; pass the returned nextCursor as &cursor= for the next page
+    @Versioned(WriteVersions.Table.EXPENSE)
+    @GetMapping("/search/cursor")
+    public ResponseEntity<CursorPage<ExpenseView>> getExpensesBetweenByCursor(
+            @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate from,
+            @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate to,
+            @RequestParam(required = false) String cursor,
+            @RequestParam(defaultValue = "10") int size) {
+        try {
+            return ResponseEntity.ok(expenseService.getExpensesBetween(from, to, cursor, size));
+        } catch (IllegalArgumentException ex) {
+            return ResponseEntity.badRequest().build();
+        }
+    }
+
+    // 3c) GET /api/v1/expenses/search/text?q=amazon charger&from=2025-01-01&to=2025-12-31
+    //        &category=Electronics&minAmount=10&maxAmount=50&page=0&size=20
+    // → ranked full-text matches on item and notes (words match as prefixes)
+    @Versioned(WriteVersions.Table.EXPENSE)
+    @GetMapping("/search/text")
+    public ResponseEntity<List<ExpenseSearchHit>> searchExpensesText(
+            @RequestParam String q,
+            @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate from,
+            @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate to,
+            @RequestParam(required = false) String category,
+            @RequestParam(required = false) BigDecimal minAmount,
+            @RequestParam(required = false) BigDecimal maxAmount,
+            @RequestParam(defaultValue = "0") int page,
+            @RequestParam(defaultValue = "20") int size) {
+        try {
+            return ResponseEntity.ok(expenseService.searchText(q, from, to, category, minAmount, maxAmount,
+                    page, size));
+        } catch (IllegalArgumentException ex) {
+            return ResponseEntity.badRequest().build();
+        }
+    }
+
+    // 3d) GET /api/v1/expenses/filter?from=2025-01-01&to=2025-12-31&category=Food&category=Grocery
+    //        &merchant=Tesco&paidBy=parth&paymentMethod=CARD&entryType=DEBIT&bank=Monzo
+    //        &minAmount=10&maxAmount=50&size=20&cursor=...
+    // → every parameter optional, all AND-ed; keyset pages like /search/cursor
+    @Versioned(WriteVersions.Table.EXPENSE)
+    @GetMapping("/filter")
+    public ResponseEntity<CursorPage<ExpenseView>> filterExpenses(
+            ExpenseFilter filter,
+            @RequestParam(required = false) String cursor,
+            @RequestParam(defaultValue = "10") int size) {
+        try {
+            return ResponseEntity.ok(expenseService.filterExpenses(filter, cursor, size));
+        } catch (IllegalArgumentException ex) {
+            return ResponseEntity.badRequest().build();
+        }
+    }
+
+    // 4) GET /api/v1/expenses/analytics/monthly?month=2025-11 → monthly analytics
+    // (defaults to the current month)
+    @Versioned(WriteVersions.Table.EXPENSE)
     @GetMapping("/analytics/monthly")
-    public ResponseEntity<MonthlyAnalyticsResponse> getMonthlyAnalytics() {
-        MonthlyAnalyticsResponse analytics = expenseService.getMonthlyAnalytics();
+    public ResponseEntity<MonthlyAnalyticsResponse> getMonthlyAnalytics(
+            @RequestParam(required = false) @DateTimeFormat(pattern = "yyyy-MM") YearMonth month) {
+        MonthlyAnalyticsResponse analytics = expenseService.getMonthlyAnalytics(month);
         return ResponseEntity.ok(analytics);
     }
+
+    // 5) GET /api/v1/expenses/analytics/breakdown?from=2025-01-01&to=2025-12-31
+    //        &granularity=week&dimensions=category,paid_by&entryType=debit
+    // (defaults: current month so far, monthly buckets, DEBIT, no dimensions)
+    @Versioned(WriteVersions.Table.EXPENSE)
+    @GetMapping("/analytics/breakdown")
+    public ResponseEntity<AnalyticsBreakdownResponse> getAnalyticsBreakdown(
+            @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate from,
+            @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate to,
+            @RequestParam(required = false) String granularity,
+            @RequestParam(required = false) List<String> dimensions,
+            @RequestParam(required = false) String entryType) {
+        try {
+            List<AnalyticsDimension> dims = new ArrayList<>();
+            if (dimensions != null) {
+                for (String dimension : dimensions) {
+                    dims.add(AnalyticsDimension.valueOf(dimension.trim().toUpperCase()));
+                }
+            }
+            AnalyticsBreakdownResponse breakdown = analyticsService.getBreakdown(from, to,
+                    granularity != null ? Granularity.valueOf(granularity.trim().toUpperCase()) : null,
+                    entryType != null ? EntryType.valueOf(entryType.trim().toUpperCase()) : null,
+                    dims);
+            return ResponseEntity.ok(breakdown);
+        } catch (IllegalArgumentException ex) {
+            return ResponseEntity.badRequest().build();
+        }
+    }
+
+    // 6) GET /api/v1/expenses/analytics/balance?from=2025-01-01&to=2025-12-31
+    // → daily running balance (CREDIT minus DEBIT) with each day's money in and out
+    // (defaults to the last 90 days)
+    @Versioned(WriteVersions.Table.EXPENSE)
+    @GetMapping("/analytics/balance")
+    public ResponseEntity<BalanceSeriesResponse> getBalanceSeries(
+            @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate from,
+            @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate to) {
+        try {
+            return ResponseEntity.ok(balanceService.getSeries(from, to));
+        } catch (IllegalArgumentException ex) {
+            return ResponseEntity.badRequest().build();
+        }
+    }
+
+    // 7) GET /api/v1/expenses/analytics/totals?from=2025-01-01&to=2025-03-31&category=Groceries&paidBy=Parth
+    // → money out, money in, balance and row count over the range
+    // (defaults to the current month so far; category and paidBy are optional)
+    @Versioned(WriteVersions.Table.EXPENSE)
+    @GetMapping("/analytics/totals")
+    public ResponseEntity<RangeTotalsResponse> getRangeTotals(
+            @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate from,
+            @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate to,
+            @RequestParam(required = false) String category,
+            @RequestParam(required = false) String paidBy) {
+        try {
+            return ResponseEntity.ok(analyticsService.getTotals(from, to, category, paidBy));
+        } catch (IllegalArgumentException ex) {
+            return ResponseEntity.badRequest().build();
+        }
+    }
+
+    // 8) GET /api/v1/expenses/duplicates → expenses saved although they look like
+    // an existing one (same date, amount, item, merchant and bank, up to a few
+    // days apart), newest first, each with the expense it looks like.
+    // Resolve with DELETE /api/v1/expenses/{id} or POST .../duplicates/{id}/dismiss
+    @GetMapping("/duplicates")
+    public List<DuplicateCandidate> getDuplicates() {
+        return duplicateDetectionService.getFlagged();
+    }
+
+    // POST /api/v1/expenses/duplicates/{id}/dismiss → not a duplicate; drops it from the list
+    @PostMapping("/duplicates/{id}/dismiss")
+    public ResponseEntity<Void> dismissDuplicate(@PathVariable Long id) {
+        return duplicateDetectionService.dismiss(id)
+                ? ResponseEntity.noContent().build()
+                : ResponseEntity.notFound().build();
+    }
 }
@@ -0,0 +1,64 @@
+package io.fintrack.controller;
+
+import io.fintrack.dto.ImportJobStatus;
+import io.fintrack.model.PaymentMethod;
+import io.fintrack.service.ExpenseImportService;
+import io.fintrack.service.importer.ImportDefaults;
+import io.fintrack.service.importer.StatementFormat;
+
+import java.io.IOException;
+import java.net.URI;
+
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.*;
+import org.springframework.web.multipart.MultipartFile;
+
+@RestController
+@RequestMapping("/api/v1/expenses/import")
+public class ExpenseImportController {
+
+    private final ExpenseImportService importService;
+
+    public ExpenseImportController(ExpenseImportService importService) {
+        this.importService = importService;
+    }
+
+    // POST /api/v1/expenses/import (multipart "file") → 202 with a job to poll
+    // format is guessed from the file name when omitted; paidBy/paymentMethod/bank
+    // fill in columns the statement doesn't have (OFX never has them)
+    @PostMapping(consumes = "multipart/form-data")
+    public ResponseEntity<ImportJobStatus> importStatement(
+            @RequestParam("file") MultipartFile file,
+            @RequestParam(required = false) String format,
+            @RequestParam(required = false) String paidBy,
+            @RequestParam(required = false) PaymentMethod paymentMethod,
+            @RequestParam(required = false) String bank,
+            @RequestParam(required = false) String dateFormat) throws IOException {
+        ImportDefaults defaults;
+        StatementFormat resolvedFormat;
+        try {
+            defaults = new ImportDefaults(paidBy, paymentMethod, bank, dateFormat);
+            resolvedFormat = format != null
+                    ? StatementFormat.valueOf(format.trim().toUpperCase())
+                    : StatementFormat.fromFileName(file.getOriginalFilename());
+        } catch (IllegalArgumentException ex) {
+            return ResponseEntity.badRequest().build();
+        }
+
+        ImportJobStatus job = importService.startImport(file.getInputStream(), file.getOriginalFilename(),
+                resolvedFormat, defaults);
+        return ResponseEntity.accepted()
+                .location(URI.create("/api/v1/expenses/import/" + job.getId()))
+                .body(job);
+    }
+
+    // GET /api/v1/expenses/import/{jobId} → progress and per-row errors
+    @GetMapping("/{jobId}")
+    public ResponseEntity<ImportJobStatus> getImportStatus(@PathVariable String jobId) {
+        try {
+            return ResponseEntity.ok(importService.getStatus(jobId));
+        } catch (IllegalArgumentException ex) {
+            return ResponseEntity.notFound().build();
+        }
+    }
+}
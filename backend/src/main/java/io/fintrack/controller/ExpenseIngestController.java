@@ -0,0 +1,49 @@
+package io.fintrack.controller;
+
+import io.fintrack.dto.CreateExpenseRequest;
+import io.fintrack.dto.IngestReceipt;
+import io.fintrack.service.ExpenseIngestService;
+
+import java.net.URI;
+
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.*;
+
+@RestController
+@RequestMapping("/api/v1/expenses/ingest")
+public class ExpenseIngestController {
+
+    private final ExpenseIngestService ingestService;
+
+    public ExpenseIngestController(ExpenseIngestService ingestService) {
+        this.ingestService = ingestService;
+    }
+
+    // POST /api/v1/expenses/ingest → 202 with a pending id once the expense is
+    // journaled; it is written to the database shortly after. 429 + Retry-After
+    // when the queue is full, 404 unless fintrack.ingest.enabled
+    @PostMapping
+    public ResponseEntity<IngestReceipt> ingestExpense(@RequestBody CreateExpenseRequest request) {
+        if (!ingestService.isEnabled()) {
+            return ResponseEntity.notFound().build();
+        }
+        try {
+            IngestReceipt receipt = ingestService.submit(request);
+            return ResponseEntity.accepted()
+                    .location(URI.create("/api/v1/expenses/ingest/" + receipt.getPendingId()))
+                    .body(receipt);
+        } catch (IllegalArgumentException ex) {
+            return ResponseEntity.badRequest().build();
+        }
+    }
+
+    // GET /api/v1/expenses/ingest/{pendingId} → PENDING, CREATED (with the expense id) or FAILED
+    @GetMapping("/{pendingId}")
+    public ResponseEntity<IngestReceipt> getIngestStatus(@PathVariable long pendingId) {
+        try {
+            return ResponseEntity.ok(ingestService.getStatus(pendingId));
+        } catch (IllegalArgumentException ex) {
+            return ResponseEntity.notFound().build();
+        }
+    }
+}
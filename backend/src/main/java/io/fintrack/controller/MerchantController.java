@@ -1,5 +1,7 @@
 package io.fintrack.controller;
 
+import io.fintrack.cache.Versioned;
+import io.fintrack.cache.WriteVersions;
 import io.fintrack.model.Merchant;
 import io.fintrack.service.MerchantService;
 import org.springframework.web.bind.annotation.*;
@@ -17,9 +19,14 @@ public class MerchantController {
     }
 
     // GET /api/v1/merchants?prefix=tes
+    // &limit=10 caps the result; matches come back most used first
+    // (ranking follows usage, so the ETag also moves with expense writes)
+    @Versioned(value = { WriteVersions.Table.MERCHANT, WriteVersions.Table.EXPENSE }, maxAge = 60)
     @GetMapping
     public List<Merchant> searchMerchants(
-            @RequestParam(required = false) String prefix) {
-        return merchantService.searchByPrefix(prefix);
+            @RequestParam(required = false) String prefix,
+            @RequestParam(required = false) Integer limit) {
+        int safeLimit = limit == null ? Integer.MAX_VALUE : Math.min(Math.max(limit, 1), 100);
+        return merchantService.searchByPrefix(prefix, safeLimit);
     }
 }
@@ -0,0 +1,48 @@
+package io.fintrack.controller;
+
+import io.fintrack.dto.CreateRecurringRuleRequest;
+import io.fintrack.dto.RecurringRuleView;
+import io.fintrack.service.RecurringRuleService;
+
+import java.util.List;
+
+import org.springframework.http.HttpStatus;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.*;
+
+@RestController
+@RequestMapping("/api/v1/recurring-rules")
+public class RecurringRuleController {
+
+    private final RecurringRuleService recurringRuleService;
+
+    public RecurringRuleController(RecurringRuleService recurringRuleService) {
+        this.recurringRuleService = recurringRuleService;
+    }
+
+    // POST /api/v1/recurring-rules → a rule creating its template expense on every
+    // occurrence of the schedule, from startDate (default today) to endDate (optional);
+    // occurrences up to today are created by the next scheduler run
+    @PostMapping
+    public ResponseEntity<RecurringRuleView> createRule(@RequestBody CreateRecurringRuleRequest request) {
+        try {
+            return ResponseEntity.status(HttpStatus.CREATED).body(recurringRuleService.createRule(request));
+        } catch (IllegalArgumentException ex) {
+            return ResponseEntity.badRequest().build();
+        }
+    }
+
+    // GET /api/v1/recurring-rules → all rules, active ones first by next occurrence
+    @GetMapping
+    public List<RecurringRuleView> getRules() {
+        return recurringRuleService.getRules();
+    }
+
+    // DELETE /api/v1/recurring-rules/{id} → stops the rule (expenses already created stay)
+    @DeleteMapping("/{id}")
+    public ResponseEntity<Void> stopRule(@PathVariable Long id) {
+        return recurringRuleService.stopRule(id)
+                ? ResponseEntity.noContent().build()
+                : ResponseEntity.notFound().build();
+    }
+}
@@ -0,0 +1,79 @@
+package io.fintrack.dto;
+
+import io.fintrack.model.EntryType;
+
+import java.time.LocalDate;
+import java.util.List;
+
+public class AnalyticsBreakdownResponse {
+    private LocalDate from;
+    private LocalDate to;
+    private Granularity granularity;
+    private EntryType entryType;
+    private List<AnalyticsDimension> dimensions;
+    private List<AnalyticsBreakdownRow> rows;
+
+    public AnalyticsBreakdownResponse() {
+        // default constructor for JSON deserialization
+    }
+
+    public AnalyticsBreakdownResponse(LocalDate from, LocalDate to, Granularity granularity, EntryType entryType,
+            List<AnalyticsDimension> dimensions, List<AnalyticsBreakdownRow> rows) {
+        this.from = from;
+        this.to = to;
+        this.granularity = granularity;
+        this.entryType = entryType;
+        this.dimensions = dimensions;
+        this.rows = rows;
+    }
+
+    // Getters and setters
+
+    public LocalDate getFrom() {
+        return from;
+    }
+
+    public void setFrom(LocalDate from) {
+        this.from = from;
+    }
+
+    public LocalDate getTo() {
+        return to;
+    }
+
+    public void setTo(LocalDate to) {
+        this.to = to;
+    }
+
+    public Granularity getGranularity() {
+        return granularity;
+    }
+
+    public void setGranularity(Granularity granularity) {
+        this.granularity = granularity;
+    }
+
+    public EntryType getEntryType() {
+        return entryType;
+    }
+
+    public void setEntryType(EntryType entryType) {
+        this.entryType = entryType;
+    }
+
+    public List<AnalyticsDimension> getDimensions() {
+        return dimensions;
+    }
+
+    public void setDimensions(List<AnalyticsDimension> dimensions) {
+        this.dimensions = dimensions;
+    }
+
+    public List<AnalyticsBreakdownRow> getRows() {
+        return rows;
+    }
+
+    public void setRows(List<AnalyticsBreakdownRow> rows) {
+        this.rows = rows;
+    }
+}
@@ -0,0 +1,57 @@
+package io.fintrack.dto;
+
+import java.math.BigDecimal;
+import java.time.LocalDate;
+import java.util.Map;
+
+public class AnalyticsBreakdownRow {
+    private LocalDate period;               // first day of the day/week/month bucket
+    private Map<String, String> dimensions; // e.g. {"category": "Food", "paidBy": "parth"}; null values = none
+    private BigDecimal total;
+    private long count;
+
+    public AnalyticsBreakdownRow() {
+        // default constructor for JSON deserialization
+    }
+
+    public AnalyticsBreakdownRow(LocalDate period, Map<String, String> dimensions, BigDecimal total, long count) {
+        this.period = period;
+        this.dimensions = dimensions;
+        this.total = total;
+        this.count = count;
+    }
+
+    // Getters and setters
+
+    public LocalDate getPeriod() {
+        return period;
+    }
+
+    public void setPeriod(LocalDate period) {
+        this.period = period;
+    }
+
+    public Map<String, String> getDimensions() {
+        return dimensions;
+    }
+
+    public void setDimensions(Map<String, String> dimensions) {
+        this.dimensions = dimensions;
+    }
+
+    public BigDecimal getTotal() {
+        return total;
+    }
+
+    public void setTotal(BigDecimal total) {
+        this.total = total;
+    }
+
+    public long getCount() {
+        return count;
+    }
+
+    public void setCount(long count) {
+        this.count = count;
+    }
+}
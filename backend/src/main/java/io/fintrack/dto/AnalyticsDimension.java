@@ -0,0 +1,21 @@
+package io.fintrack.dto;
+
+// What an analytics breakdown can be grouped by (besides the time bucket)
+public enum AnalyticsDimension {
+    CATEGORY,
+    MERCHANT,
+    PAID_BY,
+    PAYMENT_METHOD,
+    BANK;
+
+    // JSON key for this dimension in a breakdown row, e.g. "paidBy"
+    public String key() {
+        return switch (this) {
+            case CATEGORY -> "category";
+            case MERCHANT -> "merchant";
+            case PAID_BY -> "paidBy";
+            case PAYMENT_METHOD -> "paymentMethod";
+            case BANK -> "bank";
+        };
+    }
+}
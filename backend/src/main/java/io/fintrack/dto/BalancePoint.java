@@ -0,0 +1,56 @@
+package io.fintrack.dto;
+
+import java.math.BigDecimal;
+import java.time.LocalDate;
+
+public class BalancePoint {
+    private LocalDate date;
+    private BigDecimal credit;   // money in on this day
+    private BigDecimal debit;    // money out on this day
+    private BigDecimal balance;  // running balance at the end of the day
+
+    public BalancePoint() {
+        // default constructor for JSON deserialization
+    }
+
+    public BalancePoint(LocalDate date, BigDecimal credit, BigDecimal debit, BigDecimal balance) {
+        this.date = date;
+        this.credit = credit;
+        this.debit = debit;
+        this.balance = balance;
+    }
+
+    // Getters and setters
+
+    public LocalDate getDate() {
+        return date;
+    }
+
+    public void setDate(LocalDate date) {
+        this.date = date;
+    }
+
+    public BigDecimal getCredit() {
+        return credit;
+    }
+
+    public void setCredit(BigDecimal credit) {
+        this.credit = credit;
+    }
+
+    public BigDecimal getDebit() {
+        return debit;
+    }
+
+    public void setDebit(BigDecimal debit) {
+        this.debit = debit;
+    }
+
+    public BigDecimal getBalance() {
+        return balance;
+    }
+
+    public void setBalance(BigDecimal balance) {
+        this.balance = balance;
+    }
+}
@@ -0,0 +1,61 @@
+package io.fintrack.dto;
+
+import java.math.BigDecimal;
+import java.time.LocalDate;
+import java.util.List;
+
+/**
+ * Daily running balance (cumulative CREDIT minus DEBIT) over [from, to], one
+ * point per day including days without expenses.
+ */
+public class BalanceSeriesResponse {
+    private LocalDate from;
+    private LocalDate to;
+    private BigDecimal openingBalance; // balance before the first day
+    private List<BalancePoint> points;
+
+    public BalanceSeriesResponse() {
+        // default constructor for JSON deserialization
+    }
+
+    public BalanceSeriesResponse(LocalDate from, LocalDate to, BigDecimal openingBalance, List<BalancePoint> points) {
+        this.from = from;
+        this.to = to;
+        this.openingBalance = openingBalance;
+        this.points = points;
+    }
+
+    // Getters and setters
+
+    public LocalDate getFrom() {
+        return from;
+    }
+
+    public void setFrom(LocalDate from) {
+        this.from = from;
+    }
+
+    public LocalDate getTo() {
+        return to;
+    }
+
+    public void setTo(LocalDate to) {
+        this.to = to;
+    }
+
+    public BigDecimal getOpeningBalance() {
+        return openingBalance;
+    }
+
+    public void setOpeningBalance(BigDecimal openingBalance) {
+        this.openingBalance = openingBalance;
+    }
+
+    public List<BalancePoint> getPoints() {
+        return points;
+    }
+
+    public void setPoints(List<BalancePoint> points) {
+        this.points = points;
+    }
+}
@@ -0,0 +1,45 @@
+package io.fintrack.dto;
+
+import java.util.List;
+
+public class BatchCreateResponse {
+    private int created;
+    private int invalid;
+    private List<BatchItemResult> results; // one per request item, in request order
+
+    public BatchCreateResponse() {
+        // default constructor for JSON deserialization
+    }
+
+    public BatchCreateResponse(int created, int invalid, List<BatchItemResult> results) {
+        this.created = created;
+        this.invalid = invalid;
+        this.results = results;
+    }
+
+    // Getters and setters
+
+    public int getCreated() {
+        return created;
+    }
+
+    public void setCreated(int created) {
+        this.created = created;
+    }
+
+    public int getInvalid() {
+        return invalid;
+    }
+
+    public void setInvalid(int invalid) {
+        this.invalid = invalid;
+    }
+
+    public List<BatchItemResult> getResults() {
+        return results;
+    }
+
+    public void setResults(List<BatchItemResult> results) {
+        this.results = results;
+    }
+}
@@ -0,0 +1,62 @@
+package io.fintrack.dto;
+
+public class BatchItemResult {
+    private int index;          // 0-based position in the request list
+    private String status;      // CREATED or INVALID
+    private ExpenseView expense;
+    private String error;
+
+    public BatchItemResult() {
+        // default constructor for JSON deserialization
+    }
+
+    public static BatchItemResult created(int index, ExpenseView expense) {
+        BatchItemResult result = new BatchItemResult();
+        result.index = index;
+        result.status = "CREATED";
+        result.expense = expense;
+        return result;
+    }
+
+    public static BatchItemResult invalid(int index, String error) {
+        BatchItemResult result = new BatchItemResult();
+        result.index = index;
+        result.status = "INVALID";
+        result.error = error;
+        return result;
+    }
+
+    // Getters and setters
+
+    public int getIndex() {
+        return index;
+    }
+
+    public void setIndex(int index) {
+        this.index = index;
+    }
+
+    public String getStatus() {
+        return status;
+    }
+
+    public void setStatus(String status) {
+        this.status = status;
+    }
+
+    public ExpenseView getExpense() {
+        return expense;
+    }
+
+    public void setExpense(ExpenseView expense) {
+        this.expense = expense;
+    }
+
+    public String getError() {
+        return error;
+    }
+
+    public void setError(String error) {
+        this.error = error;
+    }
+}
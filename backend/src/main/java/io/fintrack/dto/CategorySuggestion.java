@@ -0,0 +1,43 @@
+package io.fintrack.dto;
+
+public class CategorySuggestion {
+    private Long categoryId;
+    private String categoryName;
+    private double confidence;  // 0..1, the share of the evidence pointing at this category
+
+    public CategorySuggestion() {
+        // default constructor for JSON deserialization
+    }
+
+    public CategorySuggestion(Long categoryId, String categoryName, double confidence) {
+        this.categoryId = categoryId;
+        this.categoryName = categoryName;
+        this.confidence = confidence;
+    }
+
+    // Getters and setters
+
+    public Long getCategoryId() {
+        return categoryId;
+    }
+
+    public void setCategoryId(Long categoryId) {
+        this.categoryId = categoryId;
+    }
+
+    public String getCategoryName() {
+        return categoryName;
+    }
+
+    public void setCategoryName(String categoryName) {
+        this.categoryName = categoryName;
+    }
+
+    public double getConfidence() {
+        return confidence;
+    }
+
+    public void setConfidence(double confidence) {
+        this.confidence = confidence;
+    }
+}
@@ -0,0 +1,163 @@
+package io.fintrack.dto;
+
+import com.fasterxml.jackson.annotation.JsonInclude;
+import com.fasterxml.jackson.annotation.JsonProperty;
+import io.fintrack.model.EntryType;
+import io.fintrack.model.PaymentMethod;
+
+import java.math.BigDecimal;
+import java.time.ZoneOffset;
+
+/**
+ * One expense in the compact (CBOR) encoding of {@link ExpenseView}: short
+ * keys, category and merchant as ids into the page's lookup tables, dates
+ * as numbers, and empty fields left out.
+ */
+@JsonInclude(JsonInclude.Include.NON_NULL)
+public class CompactExpense {
+    @JsonProperty("id")
+    private Long id;
+    @JsonProperty("d")
+    private long txnDate;           // days since 1970-01-01
+    @JsonProperty("a")
+    private BigDecimal amount;
+    @JsonProperty("i")
+    private String item;
+    @JsonProperty("c")
+    private Long categoryId;        // key into CompactExpensePage.categories
+    @JsonProperty("m")
+    private Long merchantId;        // key into CompactExpensePage.merchants
+    @JsonProperty("pm")
+    private PaymentMethod paymentMethod;
+    @JsonProperty("b")
+    private String bank;
+    @JsonProperty("p")
+    private String paidBy;
+    @JsonProperty("t")
+    private EntryType entryType;
+    @JsonProperty("n")
+    private String notes;
+    @JsonProperty("ts")
+    private Long createdAt;         // epoch milliseconds, UTC
+
+    public CompactExpense() {
+        // default constructor for JSON deserialization
+    }
+
+    public static CompactExpense from(ExpenseView view) {
+        CompactExpense compact = new CompactExpense();
+        compact.id = view.getId();
+        compact.txnDate = view.getTxnDate().toEpochDay();
+        compact.amount = view.getAmount();
+        compact.item = view.getItem();
+        compact.categoryId = view.getCategoryId();
+        compact.merchantId = view.getMerchantId();
+        compact.paymentMethod = view.getPaymentMethod();
+        compact.bank = view.getBank();
+        compact.paidBy = view.getPaidBy();
+        compact.entryType = view.getEntryType();
+        compact.notes = view.getNotes();
+        compact.createdAt = view.getCreatedAt() != null
+                ? view.getCreatedAt().toInstant(ZoneOffset.UTC).toEpochMilli()
+                : null;
+        return compact;
+    }
+
+    // Getters and setters
+
+    public Long getId() {
+        return id;
+    }
+
+    public void setId(Long id) {
+        this.id = id;
+    }
+
+    public long getTxnDate() {
+        return txnDate;
+    }
+
+    public void setTxnDate(long txnDate) {
+        this.txnDate = txnDate;
+    }
+
+    public BigDecimal getAmount() {
+        return amount;
+    }
+
+    public void setAmount(BigDecimal amount) {
+        this.amount = amount;
+    }
+
+    public String getItem() {
+        return item;
+    }
+
+    public void setItem(String item) {
+        this.item = item;
+    }
+
+    public Long getCategoryId() {
+        return categoryId;
+    }
+
+    public void setCategoryId(Long categoryId) {
+        this.categoryId = categoryId;
+    }
+
+    public Long getMerchantId() {
+        return merchantId;
+    }
+
+    public void setMerchantId(Long merchantId) {
+        this.merchantId = merchantId;
+    }
+
+    public PaymentMethod getPaymentMethod() {
+        return paymentMethod;
+    }
+
+    public void setPaymentMethod(PaymentMethod paymentMethod) {
+        this.paymentMethod = paymentMethod;
+    }
+
+    public String getBank() {
+        return bank;
+    }
+
+    public void setBank(String bank) {
+        this.bank = bank;
+    }
+
+    public String getPaidBy() {
+        return paidBy;
+    }
+
+    public void setPaidBy(String paidBy) {
+        this.paidBy = paidBy;
+    }
+
+    public EntryType getEntryType() {
+        return entryType;
+    }
+
+    public void setEntryType(EntryType entryType) {
+        this.entryType = entryType;
+    }
+
+    public String getNotes() {
+        return notes;
+    }
+
+    public void setNotes(String notes) {
+        this.notes = notes;
+    }
+
+    public Long getCreatedAt() {
+        return createdAt;
+    }
+
+    public void setCreatedAt(Long createdAt) {
+        this.createdAt = createdAt;
+    }
+}
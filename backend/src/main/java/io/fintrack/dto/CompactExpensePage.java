@@ -0,0 +1,126 @@
+package io.fintrack.dto;
+
+import com.fasterxml.jackson.annotation.JsonInclude;
+
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * A page of expenses in the compact encoding: each category and merchant
+ * name is sent once, in a lookup table keyed by id, and the rows refer to
+ * it. Carries the paging fields of whichever listing it replaces (offset
+ * page or keyset page); the others are left out.
+ */
+@JsonInclude(JsonInclude.Include.NON_NULL)
+public class CompactExpensePage {
+    private Map<Long, String> categories;
+    private Map<Long, String> merchants;
+    private List<CompactExpense> expenses;
+
+    // offset pages (/search)
+    private Integer page;
+    private Integer size;
+    private Long totalElements;
+    private Integer totalPages;
+
+    // keyset pages (/search/cursor, /filter)
+    private Boolean hasNext;
+    private String nextCursor;
+
+    public CompactExpensePage() {
+        // default constructor for JSON deserialization
+    }
+
+    public static CompactExpensePage of(List<ExpenseView> views) {
+        CompactExpensePage page = new CompactExpensePage();
+        page.categories = new LinkedHashMap<>();
+        page.merchants = new LinkedHashMap<>();
+        page.expenses = new ArrayList<>(views.size());
+        for (ExpenseView view : views) {
+            if (view.getCategoryId() != null) {
+                page.categories.putIfAbsent(view.getCategoryId(), view.getCategoryName());
+            }
+            if (view.getMerchantId() != null) {
+                page.merchants.putIfAbsent(view.getMerchantId(), view.getMerchantName());
+            }
+            page.expenses.add(CompactExpense.from(view));
+        }
+        return page;
+    }
+
+    // Getters and setters
+
+    public Map<Long, String> getCategories() {
+        return categories;
+    }
+
+    public void setCategories(Map<Long, String> categories) {
+        this.categories = categories;
+    }
+
+    public Map<Long, String> getMerchants() {
+        return merchants;
+    }
+
+    public void setMerchants(Map<Long, String> merchants) {
+        this.merchants = merchants;
+    }
+
+    public List<CompactExpense> getExpenses() {
+        return expenses;
+    }
+
+    public void setExpenses(List<CompactExpense> expenses) {
+        this.expenses = expenses;
+    }
+
+    public Integer getPage() {
+        return page;
+    }
+
+    public void setPage(Integer page) {
+        this.page = page;
+    }
+
+    public Integer getSize() {
+        return size;
+    }
+
+    public void setSize(Integer size) {
+        this.size = size;
+    }
+
+    public Long getTotalElements() {
+        return totalElements;
+    }
+
+    public void setTotalElements(Long totalElements) {
+        this.totalElements = totalElements;
+    }
+
+    public Integer getTotalPages() {
+        return totalPages;
+    }
+
+    public void setTotalPages(Integer totalPages) {
+        this.totalPages = totalPages;
+    }
+
+    public Boolean getHasNext() {
+        return hasNext;
+    }
+
+    public void setHasNext(Boolean hasNext) {
+        this.hasNext = hasNext;
+    }
+
+    public String getNextCursor() {
+        return nextCursor;
+    }
+
+    public void setNextCursor(String nextCursor) {
+        this.nextCursor = nextCursor;
+    }
+}
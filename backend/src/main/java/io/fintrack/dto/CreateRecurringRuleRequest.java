@@ -0,0 +1,53 @@
+package io.fintrack.dto;
+
+import java.time.LocalDate;
+
+public class CreateRecurringRuleRequest {
+
+    // Spring cron ("0 0 0 1 * *" = 1st of every month, "@weekly", ...); a
+    // five-field Unix cron is accepted too. Only the date fields matter
+    private String schedule;
+    private LocalDate startDate;   // defaults to today
+    private LocalDate endDate;     // optional
+
+    // The expense to create on each occurrence; its txnDate is ignored
+    private CreateExpenseRequest template;
+
+    public CreateRecurringRuleRequest() {
+        // default constructor for JSON deserialization
+    }
+
+    // Getters and setters
+
+    public String getSchedule() {
+        return schedule;
+    }
+
+    public void setSchedule(String schedule) {
+        this.schedule = schedule;
+    }
+
+    public LocalDate getStartDate() {
+        return startDate;
+    }
+
+    public void setStartDate(LocalDate startDate) {
+        this.startDate = startDate;
+    }
+
+    public LocalDate getEndDate() {
+        return endDate;
+    }
+
+    public void setEndDate(LocalDate endDate) {
+        this.endDate = endDate;
+    }
+
+    public CreateExpenseRequest getTemplate() {
+        return template;
+    }
+
+    public void setTemplate(CreateExpenseRequest template) {
+        this.template = template;
+    }
+}
@@ -0,0 +1,43 @@
+package io.fintrack.dto;
+
+public class DuplicateCandidate {
+    private ExpenseView expense;    // the row flagged on insert
+    private Long duplicateOf;       // id of the expense it looks like
+    private ExpenseView original;   // that expense; null if it has been deleted since
+
+    public DuplicateCandidate() {
+        // default constructor for JSON deserialization
+    }
+
+    public DuplicateCandidate(ExpenseView expense, Long duplicateOf, ExpenseView original) {
+        this.expense = expense;
+        this.duplicateOf = duplicateOf;
+        this.original = original;
+    }
+
+    // Getters and setters
+
+    public ExpenseView getExpense() {
+        return expense;
+    }
+
+    public void setExpense(ExpenseView expense) {
+        this.expense = expense;
+    }
+
+    public Long getDuplicateOf() {
+        return duplicateOf;
+    }
+
+    public void setDuplicateOf(Long duplicateOf) {
+        this.duplicateOf = duplicateOf;
+    }
+
+    public ExpenseView getOriginal() {
+        return original;
+    }
+
+    public void setOriginal(ExpenseView original) {
+        this.original = original;
+    }
+}
@@ -0,0 +1,46 @@
+package io.fintrack.dto;
+
+import java.time.LocalDate;
+
+// "expense" event on the SSE feed
+public class ExpenseFeedEvent {
+    private String type;                 // CREATED, UPDATED or DELETED
+    private ExpenseView expense;         // as written; for DELETED, as it was
+    private LocalDate previousTxnDate;   // UPDATED only: the date before the change
+
+    public ExpenseFeedEvent() {
+        // default constructor for JSON deserialization
+    }
+
+    public ExpenseFeedEvent(String type, ExpenseView expense, LocalDate previousTxnDate) {
+        this.type = type;
+        this.expense = expense;
+        this.previousTxnDate = previousTxnDate;
+    }
+
+    // Getters and setters
+
+    public String getType() {
+        return type;
+    }
+
+    public void setType(String type) {
+        this.type = type;
+    }
+
+    public ExpenseView getExpense() {
+        return expense;
+    }
+
+    public void setExpense(ExpenseView expense) {
+        this.expense = expense;
+    }
+
+    public LocalDate getPreviousTxnDate() {
+        return previousTxnDate;
+    }
+
+    public void setPreviousTxnDate(LocalDate previousTxnDate) {
+        this.previousTxnDate = previousTxnDate;
+    }
+}
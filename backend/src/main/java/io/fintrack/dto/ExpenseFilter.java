@@ -0,0 +1,121 @@
+package io.fintrack.dto;
+
+import io.fintrack.model.EntryType;
+import io.fintrack.model.PaymentMethod;
+import org.springframework.format.annotation.DateTimeFormat;
+
+import java.math.BigDecimal;
+import java.time.LocalDate;
+import java.util.List;
+
+/**
+ * Criteria for GET /api/v1/expenses/filter, bound from query parameters.
+ * Every field is optional and the ones given are AND-ed; category and
+ * merchant may be repeated to match any of several names.
+ */
+public class ExpenseFilter {
+
+    @DateTimeFormat(iso = DateTimeFormat.ISO.DATE)
+    private LocalDate from;
+
+    @DateTimeFormat(iso = DateTimeFormat.ISO.DATE)
+    private LocalDate to;
+
+    // matched by NAME, case-insensitively, like everywhere else in the API
+    private List<String> category;
+    private List<String> merchant;
+
+    private String paidBy;
+    private PaymentMethod paymentMethod;
+    private EntryType entryType;
+    private String bank;
+
+    private BigDecimal minAmount;
+    private BigDecimal maxAmount;
+
+    public ExpenseFilter() {
+        // default constructor for query parameter binding
+    }
+
+    // Getters and setters
+
+    public LocalDate getFrom() {
+        return from;
+    }
+
+    public void setFrom(LocalDate from) {
+        this.from = from;
+    }
+
+    public LocalDate getTo() {
+        return to;
+    }
+
+    public void setTo(LocalDate to) {
+        this.to = to;
+    }
+
+    public List<String> getCategory() {
+        return category;
+    }
+
+    public void setCategory(List<String> category) {
+        this.category = category;
+    }
+
+    public List<String> getMerchant() {
+        return merchant;
+    }
+
+    public void setMerchant(List<String> merchant) {
+        this.merchant = merchant;
+    }
+
+    public String getPaidBy() {
+        return paidBy;
+    }
+
+    public void setPaidBy(String paidBy) {
+        this.paidBy = paidBy;
+    }
+
+    public PaymentMethod getPaymentMethod() {
+        return paymentMethod;
+    }
+
+    public void setPaymentMethod(PaymentMethod paymentMethod) {
+        this.paymentMethod = paymentMethod;
+    }
+
+    public EntryType getEntryType() {
+        return entryType;
+    }
+
+    public void setEntryType(EntryType entryType) {
+        this.entryType = entryType;
+    }
+
+    public String getBank() {
+        return bank;
+    }
+
+    public void setBank(String bank) {
+        this.bank = bank;
+    }
+
+    public BigDecimal getMinAmount() {
+        return minAmount;
+    }
+
+    public void setMinAmount(BigDecimal minAmount) {
+        this.minAmount = minAmount;
+    }
+
+    public BigDecimal getMaxAmount() {
+        return maxAmount;
+    }
+
+    public void setMaxAmount(BigDecimal maxAmount) {
+        this.maxAmount = maxAmount;
+    }
+}
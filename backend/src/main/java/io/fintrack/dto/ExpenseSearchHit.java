@@ -0,0 +1,33 @@
+package io.fintrack.dto;
+
+public class ExpenseSearchHit {
+    private ExpenseView expense;
+    private double rank;    // ts_rank_cd; higher = better match, item hits outrank notes hits
+
+    public ExpenseSearchHit() {
+        // default constructor for JSON deserialization
+    }
+
+    public ExpenseSearchHit(ExpenseView expense, double rank) {
+        this.expense = expense;
+        this.rank = rank;
+    }
+
+    // Getters and setters
+
+    public ExpenseView getExpense() {
+        return expense;
+    }
+
+    public void setExpense(ExpenseView expense) {
+        this.expense = expense;
+    }
+
+    public double getRank() {
+        return rank;
+    }
+
+    public void setRank(double rank) {
+        this.rank = rank;
+    }
+}
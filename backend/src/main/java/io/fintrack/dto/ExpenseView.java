@@ -0,0 +1,183 @@
+package io.fintrack.dto;
+
+import io.fintrack.model.Category;
+import io.fintrack.model.EntryType;
+import io.fintrack.model.Expense;
+import io.fintrack.model.Merchant;
+import io.fintrack.model.PaymentMethod;
+
+import java.math.BigDecimal;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+
+/**
+ * Read model for expense endpoints: a flat row with category and merchant
+ * names resolved by a join in the same query, so a listing never loads the
+ * associated entities one by one.
+ */
+public class ExpenseView {
+    private Long id;
+    private LocalDate txnDate;
+    private BigDecimal amount;
+    private String item;
+    private Long categoryId;        // null when uncategorized
+    private String categoryName;
+    private Long merchantId;        // null when no merchant
+    private String merchantName;
+    private PaymentMethod paymentMethod;
+    private String bank;
+    private String paidBy;
+    private EntryType entryType;
+    private String notes;
+    private LocalDateTime createdAt;
+
+    public ExpenseView() {
+        // default constructor for JSON deserialization
+    }
+
+    // Used by JPQL "SELECT new io.fintrack.dto.ExpenseView(...)" queries in ExpenseRepository
+    public ExpenseView(Long id, LocalDate txnDate, BigDecimal amount, String item,
+            Long categoryId, String categoryName, Long merchantId, String merchantName,
+            PaymentMethod paymentMethod, String bank, String paidBy, EntryType entryType,
+            String notes, LocalDateTime createdAt) {
+        this.id = id;
+        this.txnDate = txnDate;
+        this.amount = amount;
+        this.item = item;
+        this.categoryId = categoryId;
+        this.categoryName = categoryName;
+        this.merchantId = merchantId;
+        this.merchantName = merchantName;
+        this.paymentMethod = paymentMethod;
+        this.bank = bank;
+        this.paidBy = paidBy;
+        this.entryType = entryType;
+        this.notes = notes;
+        this.createdAt = createdAt;
+    }
+
+    // Only for entities whose category/merchant are already loaded (e.g. just saved)
+    public static ExpenseView from(Expense expense) {
+        Category category = expense.getCategory();
+        Merchant merchant = expense.getMerchant();
+        return new ExpenseView(expense.getId(), expense.getTxnDate(), expense.getAmount(), expense.getItem(),
+                category != null ? category.getId() : null, category != null ? category.getName() : null,
+                merchant != null ? merchant.getId() : null, merchant != null ? merchant.getName() : null,
+                expense.getPaymentMethod(), expense.getBank(), expense.getPaidBy(), expense.getEntryType(),
+                expense.getNotes(), expense.getCreatedAt());
+    }
+
+    // Getters and setters
+
+    public Long getId() {
+        return id;
+    }
+
+    public void setId(Long id) {
+        this.id = id;
+    }
+
+    public LocalDate getTxnDate() {
+        return txnDate;
+    }
+
+    public void setTxnDate(LocalDate txnDate) {
+        this.txnDate = txnDate;
+    }
+
+    public BigDecimal getAmount() {
+        return amount;
+    }
+
+    public void setAmount(BigDecimal amount) {
+        this.amount = amount;
+    }
+
+    public String getItem() {
+        return item;
+    }
+
+    public void setItem(String item) {
+        this.item = item;
+    }
+
+    public Long getCategoryId() {
+        return categoryId;
+    }
+
+    public void setCategoryId(Long categoryId) {
+        this.categoryId = categoryId;
+    }
+
+    public String getCategoryName() {
+        return categoryName;
+    }
+
+    public void setCategoryName(String categoryName) {
+        this.categoryName = categoryName;
+    }
+
+    public Long getMerchantId() {
+        return merchantId;
+    }
+
+    public void setMerchantId(Long merchantId) {
+        this.merchantId = merchantId;
+    }
+
+    public String getMerchantName() {
+        return merchantName;
+    }
+
+    public void setMerchantName(String merchantName) {
+        this.merchantName = merchantName;
+    }
+
+    public PaymentMethod getPaymentMethod() {
+        return paymentMethod;
+    }
+
+    public void setPaymentMethod(PaymentMethod paymentMethod) {
+        this.paymentMethod = paymentMethod;
+    }
+
+    public String getBank() {
+        return bank;
+    }
+
+    public void setBank(String bank) {
+        this.bank = bank;
+    }
+
+    public String getPaidBy() {
+        return paidBy;
+    }
+
+    public void setPaidBy(String paidBy) {
+        this.paidBy = paidBy;
+    }
+
+    public EntryType getEntryType() {
+        return entryType;
+    }
+
+    public void setEntryType(EntryType entryType) {
+        this.entryType = entryType;
+    }
+
+    public String getNotes() {
+        return notes;
+    }
+
+    public void setNotes(String notes) {
+        this.notes = notes;
+    }
+
+    public LocalDateTime getCreatedAt() {
+        return createdAt;
+    }
+
+    public void setCreatedAt(LocalDateTime createdAt) {
+        this.createdAt = createdAt;
+    }
+}
@@ -0,0 +1,8 @@
+package io.fintrack.dto;
+
+// Time bucket for analytics series; weeks start on Monday (Postgres date_trunc)
+public enum Granularity {
+    DAY,
+    WEEK,
+    MONTH
+}
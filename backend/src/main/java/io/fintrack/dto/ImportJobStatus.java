@@ -0,0 +1,121 @@
+package io.fintrack.dto;
+
+import java.time.Instant;
+import java.util.List;
+
+public class ImportJobStatus {
+    private String id;
+    private String status;          // QUEUED, RUNNING, COMPLETED, FAILED
+    private String format;          // CSV or OFX
+    private String fileName;
+    private long rowsRead;          // rows parsed so far
+    private long imported;          // rows written to the expense table
+    private long duplicates;        // rows skipped as exact duplicates of existing expenses
+    private long failed;            // rows rejected (see errors)
+    private List<ImportRowError> errors; // first errors only, capped
+    private String message;         // set when the whole job fails
+    private Instant startedAt;
+    private Instant finishedAt;
+
+    public ImportJobStatus() {
+        // default constructor for JSON deserialization
+    }
+
+    // Getters and setters
+
+    public String getId() {
+        return id;
+    }
+
+    public void setId(String id) {
+        this.id = id;
+    }
+
+    public String getStatus() {
+        return status;
+    }
+
+    public void setStatus(String status) {
+        this.status = status;
+    }
+
+    public String getFormat() {
+        return format;
+    }
+
+    public void setFormat(String format) {
+        this.format = format;
+    }
+
+    public String getFileName() {
+        return fileName;
+    }
+
+    public void setFileName(String fileName) {
+        this.fileName = fileName;
+    }
+
+    public long getRowsRead() {
+        return rowsRead;
+    }
+
+    public void setRowsRead(long rowsRead) {
+        this.rowsRead = rowsRead;
+    }
+
+    public long getImported() {
+        return imported;
+    }
+
+    public void setImported(long imported) {
+        this.imported = imported;
+    }
+
+    public long getDuplicates() {
+        return duplicates;
+    }
+
+    public void setDuplicates(long duplicates) {
+        this.duplicates = duplicates;
+    }
+
+    public long getFailed() {
+        return failed;
+    }
+
+    public void setFailed(long failed) {
+        this.failed = failed;
+    }
+
+    public List<ImportRowError> getErrors() {
+        return errors;
+    }
+
+    public void setErrors(List<ImportRowError> errors) {
+        this.errors = errors;
+    }
+
+    public String getMessage() {
+        return message;
+    }
+
+    public void setMessage(String message) {
+        this.message = message;
+    }
+
+    public Instant getStartedAt() {
+        return startedAt;
+    }
+
+    public void setStartedAt(Instant startedAt) {
+        this.startedAt = startedAt;
+    }
+
+    public Instant getFinishedAt() {
+        return finishedAt;
+    }
+
+    public void setFinishedAt(Instant finishedAt) {
+        this.finishedAt = finishedAt;
+    }
+}
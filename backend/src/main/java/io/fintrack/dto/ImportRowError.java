@@ -0,0 +1,31 @@
+package io.fintrack.dto;
+
+public class ImportRowError {
+    private long row;       // 1-based data row in the uploaded file
+    private String message;
+
+    public ImportRowError() {
+        // default constructor for JSON deserialization
+    }
+
+    public ImportRowError(long row, String message) {
+        this.row = row;
+        this.message = message;
+    }
+
+    public long getRow() {
+        return row;
+    }
+
+    public void setRow(long row) {
+        this.row = row;
+    }
+
+    public String getMessage() {
+        return message;
+    }
+
+    public void setMessage(String message) {
+        this.message = message;
+    }
+}
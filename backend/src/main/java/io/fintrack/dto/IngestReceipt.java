@@ -0,0 +1,69 @@
+package io.fintrack.dto;
+
+public class IngestReceipt {
+    private long pendingId;
+    private String status;      // PENDING, CREATED or FAILED
+    private Long expenseId;     // once CREATED
+    private String error;       // once FAILED
+
+    public IngestReceipt() {
+        // default constructor for JSON deserialization
+    }
+
+    public static IngestReceipt pending(long pendingId) {
+        IngestReceipt receipt = new IngestReceipt();
+        receipt.pendingId = pendingId;
+        receipt.status = "PENDING";
+        return receipt;
+    }
+
+    public static IngestReceipt created(long pendingId, Long expenseId) {
+        IngestReceipt receipt = new IngestReceipt();
+        receipt.pendingId = pendingId;
+        receipt.status = "CREATED";
+        receipt.expenseId = expenseId;
+        return receipt;
+    }
+
+    public static IngestReceipt failed(long pendingId, String error) {
+        IngestReceipt receipt = new IngestReceipt();
+        receipt.pendingId = pendingId;
+        receipt.status = "FAILED";
+        receipt.error = error;
+        return receipt;
+    }
+
+    // Getters and setters
+
+    public long getPendingId() {
+        return pendingId;
+    }
+
+    public void setPendingId(long pendingId) {
+        this.pendingId = pendingId;
+    }
+
+    public String getStatus() {
+        return status;
+    }
+
+    public void setStatus(String status) {
+        this.status = status;
+    }
+
+    public Long getExpenseId() {
+        return expenseId;
+    }
+
+    public void setExpenseId(Long expenseId) {
+        this.expenseId = expenseId;
+    }
+
+    public String getError() {
+        return error;
+    }
+
+    public void setError(String error) {
+        this.error = error;
+    }
+}
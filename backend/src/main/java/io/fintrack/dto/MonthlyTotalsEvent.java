@@ -0,0 +1,34 @@
+package io.fintrack.dto;
+
+// "totals" event on the SSE feed: fresh monthly analytics for a month that changed
+public class MonthlyTotalsEvent {
+    private String month;                     // yyyy-MM
+    private MonthlyAnalyticsResponse totals;
+
+    public MonthlyTotalsEvent() {
+        // default constructor for JSON deserialization
+    }
+
+    public MonthlyTotalsEvent(String month, MonthlyAnalyticsResponse totals) {
+        this.month = month;
+        this.totals = totals;
+    }
+
+    // Getters and setters
+
+    public String getMonth() {
+        return month;
+    }
+
+    public void setMonth(String month) {
+        this.month = month;
+    }
+
+    public MonthlyAnalyticsResponse getTotals() {
+        return totals;
+    }
+
+    public void setTotals(MonthlyAnalyticsResponse totals) {
+        this.totals = totals;
+    }
+}
@@ -0,0 +1,82 @@
+package io.fintrack.dto;
+
+import java.math.BigDecimal;
+import java.time.LocalDate;
+
+public class RangeTotalsResponse {
+    private LocalDate from;
+    private LocalDate to;
+    private BigDecimal totalExpenditure;  // Sum of DEBIT entries in the range
+    private BigDecimal totalEarnings;     // Sum of CREDIT entries in the range
+    private BigDecimal totalBalance;      // CREDIT - DEBIT
+    private long count;
+
+    public RangeTotalsResponse() {
+        // default constructor for JSON deserialization
+    }
+
+    public RangeTotalsResponse(LocalDate from, LocalDate to, BigDecimal totalExpenditure, BigDecimal totalEarnings,
+            BigDecimal totalBalance, long count) {
+        this.from = from;
+        this.to = to;
+        this.totalExpenditure = totalExpenditure;
+        this.totalEarnings = totalEarnings;
+        this.totalBalance = totalBalance;
+        this.count = count;
+    }
+
+    public static RangeTotalsResponse of(LocalDate from, LocalDate to, BigDecimal debit, BigDecimal credit,
+            long count) {
+        return new RangeTotalsResponse(from, to, debit, credit, credit.subtract(debit), count);
+    }
+
+    // Getters and setters
+
+    public LocalDate getFrom() {
+        return from;
+    }
+
+    public void setFrom(LocalDate from) {
+        this.from = from;
+    }
+
+    public LocalDate getTo() {
+        return to;
+    }
+
+    public void setTo(LocalDate to) {
+        this.to = to;
+    }
+
+    public BigDecimal getTotalExpenditure() {
+        return totalExpenditure;
+    }
+
+    public void setTotalExpenditure(BigDecimal totalExpenditure) {
+        this.totalExpenditure = totalExpenditure;
+    }
+
+    public BigDecimal getTotalEarnings() {
+        return totalEarnings;
+    }
+
+    public void setTotalEarnings(BigDecimal totalEarnings) {
+        this.totalEarnings = totalEarnings;
+    }
+
+    public BigDecimal getTotalBalance() {
+        return totalBalance;
+    }
+
+    public void setTotalBalance(BigDecimal totalBalance) {
+        this.totalBalance = totalBalance;
+    }
+
+    public long getCount() {
+        return count;
+    }
+
+    public void setCount(long count) {
+        this.count = count;
+    }
+}
@@ -0,0 +1,184 @@
+package io.fintrack.dto;
+
+import io.fintrack.model.EntryType;
+import io.fintrack.model.PaymentMethod;
+import io.fintrack.model.RecurringRule;
+
+import java.math.BigDecimal;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+
+public class RecurringRuleView {
+    private Long id;
+    private String schedule;
+    private LocalDate startDate;
+    private LocalDate endDate;
+    private LocalDate nextRun;      // next occurrence to be created
+    private boolean active;
+    private String item;
+    private BigDecimal amount;
+    private String categoryName;
+    private String merchantName;
+    private PaymentMethod paymentMethod;
+    private String bank;
+    private String paidBy;
+    private EntryType entryType;
+    private String notes;
+    private LocalDateTime createdAt;
+
+    public RecurringRuleView() {
+        // default constructor for JSON deserialization
+    }
+
+    // Reads the category and merchant names, so call inside a transaction
+    public static RecurringRuleView from(RecurringRule rule) {
+        RecurringRuleView view = new RecurringRuleView();
+        view.id = rule.getId();
+        view.schedule = rule.getSchedule();
+        view.startDate = rule.getStartDate();
+        view.endDate = rule.getEndDate();
+        view.nextRun = rule.getNextRun();
+        view.active = rule.isActive();
+        view.item = rule.getItem();
+        view.amount = rule.getAmount();
+        view.categoryName = rule.getCategory() != null ? rule.getCategory().getName() : null;
+        view.merchantName = rule.getMerchant() != null ? rule.getMerchant().getName() : null;
+        view.paymentMethod = rule.getPaymentMethod();
+        view.bank = rule.getBank();
+        view.paidBy = rule.getPaidBy();
+        view.entryType = rule.getEntryType();
+        view.notes = rule.getNotes();
+        view.createdAt = rule.getCreatedAt();
+        return view;
+    }
+
+    // Getters and setters
+
+    public Long getId() {
+        return id;
+    }
+
+    public void setId(Long id) {
+        this.id = id;
+    }
+
+    public String getSchedule() {
+        return schedule;
+    }
+
+    public void setSchedule(String schedule) {
+        this.schedule = schedule;
+    }
+
+    public LocalDate getStartDate() {
+        return startDate;
+    }
+
+    public void setStartDate(LocalDate startDate) {
+        this.startDate = startDate;
+    }
+
+    public LocalDate getEndDate() {
+        return endDate;
+    }
+
+    public void setEndDate(LocalDate endDate) {
+        this.endDate = endDate;
+    }
+
+    public LocalDate getNextRun() {
+        return nextRun;
+    }
+
+    public void setNextRun(LocalDate nextRun) {
+        this.nextRun = nextRun;
+    }
+
+    public boolean isActive() {
+        return active;
+    }
+
+    public void setActive(boolean active) {
+        this.active = active;
+    }
+
+    public String getItem() {
+        return item;
+    }
+
+    public void setItem(String item) {
+        this.item = item;
+    }
+
+    public BigDecimal getAmount() {
+        return amount;
+    }
+
+    public void setAmount(BigDecimal amount) {
+        this.amount = amount;
+    }
+
+    public String getCategoryName() {
+        return categoryName;
+    }
+
+    public void setCategoryName(String categoryName) {
+        this.categoryName = categoryName;
+    }
+
+    public String getMerchantName() {
+        return merchantName;
+    }
+
+    public void setMerchantName(String merchantName) {
+        this.merchantName = merchantName;
+    }
+
+    public PaymentMethod getPaymentMethod() {
+        return paymentMethod;
+    }
+
+    public void setPaymentMethod(PaymentMethod paymentMethod) {
+        this.paymentMethod = paymentMethod;
+    }
+
+    public String getBank() {
+        return bank;
+    }
+
+    public void setBank(String bank) {
+        this.bank = bank;
+    }
+
+    public String getPaidBy() {
+        return paidBy;
+    }
+
+    public void setPaidBy(String paidBy) {
+        this.paidBy = paidBy;
+    }
+
+    public EntryType getEntryType() {
+        return entryType;
+    }
+
+    public void setEntryType(EntryType entryType) {
+        this.entryType = entryType;
+    }
+
+    public String getNotes() {
+        return notes;
+    }
+
+    public void setNotes(String notes) {
+        this.notes = notes;
+    }
+
+    public LocalDateTime getCreatedAt() {
+        return createdAt;
+    }
+
+    public void setCreatedAt(LocalDateTime createdAt) {
+        this.createdAt = createdAt;
+    }
+}
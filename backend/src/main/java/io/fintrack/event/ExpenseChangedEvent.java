@@ -0,0 +1,56 @@
+package io.fintrack.event;
+
+import io.fintrack.model.Expense;
+
+/**
+ * Published inside the transaction that writes an expense. Listeners that keep
+ * derived in-memory state should use
+ * {@code @TransactionalEventListener} so they only see committed changes.
+ *
+ * {@link #getExpense()} is the expense as written (for DELETED, as it was when
+ * deleted); {@link #getPrevious()} is a detached copy of the state before an
+ * UPDATED, so listeners can take the old values back out of their aggregates.
+ */
+public class ExpenseChangedEvent {
+
+    public enum ChangeType {
+        CREATED,
+        UPDATED,
+        DELETED
+    }
+
+    private final ChangeType type;
+    private final Expense expense;
+    private final Expense previous;
+
+    public ExpenseChangedEvent(ChangeType type, Expense expense, Expense previous) {
+        this.type = type;
+        this.expense = expense;
+        this.previous = previous;
+    }
+
+    public static ExpenseChangedEvent created(Expense expense) {
+        return new ExpenseChangedEvent(ChangeType.CREATED, expense, null);
+    }
+
+    public static ExpenseChangedEvent updated(Expense previous, Expense expense) {
+        return new ExpenseChangedEvent(ChangeType.UPDATED, expense, previous);
+    }
+
+    public static ExpenseChangedEvent deleted(Expense expense) {
+        return new ExpenseChangedEvent(ChangeType.DELETED, expense, null);
+    }
+
+    public ChangeType getType() {
+        return type;
+    }
+
+    public Expense getExpense() {
+        return expense;
+    }
+
+    // Only set for UPDATED
+    public Expense getPrevious() {
+        return previous;
+    }
+}
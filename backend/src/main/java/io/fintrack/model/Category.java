@@ -12,7 +12,7 @@ import jakarta.persistence.Table;
 
 @Entity
 @Table(name = "category")
-public class Category {
+public class Category implements Named {
     @Id
     @GeneratedValue(strategy = GenerationType.IDENTITY)
     private Long id;
@@ -10,7 +10,8 @@ import java.time.LocalDateTime;
 @Table(name = "expense")
 public class Expense {
     @Id
-    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    @GeneratedValue(strategy = GenerationType.SEQUENCE, generator = "expense_id_seq")
+    @SequenceGenerator(name = "expense_id_seq", sequenceName = "expense_id_seq", allocationSize = 50) // lets Hibernate batch inserts
     private Long id;
 
     @Column(name = "txn_date", nullable = false)
@@ -22,11 +23,11 @@ public class Expense {
     @Column(nullable = false, columnDefinition = "TEXT")
     private String item;
 
-    @ManyToOne
+    @ManyToOne(fetch = FetchType.LAZY) // reads go through ExpenseView, which joins the name in
     @JoinColumn(name = "category_id")
     private Category category; // nullable in DB → can be null in Java too
 
-    @ManyToOne
+    @ManyToOne(fetch = FetchType.LAZY)
     @JoinColumn(name = "merchant_id")
     private Merchant merchant; // nullable
 
@@ -50,6 +51,12 @@ public class Expense {
     @Column(name = "created_at", nullable = false)
     private LocalDateTime createdAt;
 
+    @Column(name = "fingerprint")
+    private Long fingerprint; // see ExpenseFingerprint; kept current on every write
+
+    @Column(name = "duplicate_of")
+    private Long duplicateOf; // set when inserted despite looking like a duplicate of that expense
+
     public Expense() {
         // required by JPA
     }
@@ -79,6 +86,12 @@ public class Expense {
         if (createdAt == null) {
             createdAt = LocalDateTime.now();
         }
+        fingerprint = ExpenseFingerprint.of(this);
+    }
+
+    @PreUpdate
+    public void preUpdate() {
+        fingerprint = ExpenseFingerprint.of(this);
     }
 
     // Getters and setters
@@ -178,4 +191,20 @@ public class Expense {
     public void setCreatedAt(LocalDateTime createdAt) {
         this.createdAt = createdAt;
     }
+
+    public Long getFingerprint() {
+        return fingerprint;
+    }
+
+    public void setFingerprint(Long fingerprint) {
+        this.fingerprint = fingerprint;
+    }
+
+    public Long getDuplicateOf() {
+        return duplicateOf;
+    }
+
+    public void setDuplicateOf(Long duplicateOf) {
+        this.duplicateOf = duplicateOf;
+    }
 }
@@ -0,0 +1,64 @@
+package io.fintrack.model;
+
+import java.math.BigDecimal;
+import java.math.RoundingMode;
+import java.nio.charset.StandardCharsets;
+import java.time.LocalDate;
+import java.util.Locale;
+import java.util.regex.Pattern;
+
+/**
+ * 64-bit fingerprint of the fields that identify a transaction on a
+ * statement: txn_date, amount, item (lower-cased, punctuation and repeated
+ * spaces removed), merchant and bank. Two expenses with the same fingerprint
+ * are almost certainly the same transaction entered twice.
+ *
+ * Stored in expense.fingerprint (V15), so changing the formula needs the
+ * column recomputed.
+ */
+public final class ExpenseFingerprint {
+
+    private static final Pattern NOT_WORD = Pattern.compile("[^\\p{L}\\p{N}]+");
+
+    private ExpenseFingerprint() {
+    }
+
+    public static long of(Expense expense) {
+        Merchant merchant = expense.getMerchant();
+        return of(expense.getTxnDate(), expense.getAmount(), expense.getItem(),
+                merchant != null ? merchant.getId() : null, expense.getBank());
+    }
+
+    public static long of(LocalDate txnDate, BigDecimal amount, String item, Long merchantId, String bank) {
+        String canonical = txnDate.toEpochDay()
+                + "|" + amount.setScale(2, RoundingMode.HALF_UP).unscaledValue()
+                + "|" + normalizeItem(item)
+                + "|" + (merchantId != null ? merchantId : "")
+                + "|" + (bank != null ? bank.trim().toLowerCase(Locale.ROOT) : "");
+        // FNV-1a, then a final avalanche so nearby inputs spread over all 64 bits
+        long hash = 0xcbf29ce484222325L;
+        for (byte b : canonical.getBytes(StandardCharsets.UTF_8)) {
+            hash ^= b & 0xff;
+            hash *= 0x100000001b3L;
+        }
+        return mix(hash);
+    }
+
+    // "Tesco Stores #123" and "TESCO STORES 123" normalize alike
+    static String normalizeItem(String item) {
+        if (item == null) {
+            return "";
+        }
+        return NOT_WORD.matcher(item.toLowerCase(Locale.ROOT)).replaceAll(" ").trim();
+    }
+
+    // MurmurHash3 fmix64
+    public static long mix(long h) {
+        h ^= h >>> 33;
+        h *= 0xff51afd7ed558ccdL;
+        h ^= h >>> 33;
+        h *= 0xc4ceb9fe1a85ec53L;
+        h ^= h >>> 33;
+        return h;
+    }
+}
@@ -12,7 +12,7 @@ import jakarta.persistence.Table;
 
 @Entity
 @Table(name = "merchant")
-public class Merchant {
+public class Merchant implements Named {
     @Id
     @GeneratedValue(strategy = GenerationType.IDENTITY) // BIGSERIAL
     private Long id;
@@ -0,0 +1,12 @@
+package io.fintrack.model;
+
+/**
+ * A reference row looked up by name, case-insensitively: {@link Category}
+ * and {@link Merchant}.
+ */
+public interface Named {
+
+    Long getId();
+
+    String getName();
+}
@@ -0,0 +1,120 @@
+package io.fintrack.repository;
+
+import io.fintrack.dto.BalancePoint;
+import io.micrometer.core.annotation.Timed;
+
+import java.sql.Date;
+import java.time.LocalDate;
+import java.util.List;
+
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Repository;
+
+/**
+ * Running balance series and the balance_checkpoint prefix sums behind it.
+ *
+ * Checkpoint writers and invalidating expense writes are serialized through a
+ * transaction-scoped advisory lock: expense writes hold it shared until they
+ * commit, a rebuild takes it exclusively. A rebuild therefore never reads
+ * around a write that has already invalidated, and a write that invalidates
+ * after a rebuild sees (and deletes) what it built.
+ */
+@Repository
+@Timed("fintrack.repository")
+public class BalanceRepository {
+
+    private static final String LOCK_KEY = "hashtext('balance_checkpoint')";
+
+    // Opening balance = nearest checkpoint on or before :from plus the rows from
+    // there up to :from; then one window over the daily totals of the range
+    private static final String SERIES = """
+            WITH cp AS (
+                SELECT checkpoint_date, balance FROM balance_checkpoint
+                WHERE checkpoint_date <= ?
+                ORDER BY checkpoint_date DESC LIMIT 1
+            ), opening AS (
+                SELECT COALESCE((SELECT balance FROM cp), 0)
+                       + COALESCE(SUM(CASE WHEN e.entry_type = 'CREDIT' THEN e.amount ELSE -e.amount END), 0)
+                       AS balance
+                FROM expense e
+                WHERE e.txn_date < ?
+                  AND e.txn_date >= COALESCE((SELECT checkpoint_date FROM cp), '-infinity'::date)
+            ), daily AS (
+                SELECT e.txn_date,
+                       SUM(CASE WHEN e.entry_type = 'CREDIT' THEN e.amount ELSE 0 END) AS credit,
+                       SUM(CASE WHEN e.entry_type = 'DEBIT' THEN e.amount ELSE 0 END) AS debit
+                FROM expense e
+                WHERE e.txn_date >= ? AND e.txn_date <= ?
+                GROUP BY e.txn_date
+            )
+            SELECT d::date AS day,
+                   COALESCE(daily.credit, 0) AS credit,
+                   COALESCE(daily.debit, 0) AS debit,
+                   opening.balance + SUM(COALESCE(daily.credit, 0) - COALESCE(daily.debit, 0))
+                       OVER (ORDER BY d) AS balance
+            FROM generate_series(?::date, ?::date, interval '1 day') AS d
+            CROSS JOIN opening
+            LEFT JOIN daily ON daily.txn_date = d::date
+            ORDER BY d
+            """;
+
+    // Extends the checkpoints from the newest one (or the first month with
+    // data) up to the first of the current month, from monthly_summary
+    private static final String EXTEND_CHECKPOINTS = """
+            WITH last AS (
+                SELECT checkpoint_date, balance FROM balance_checkpoint
+                ORDER BY checkpoint_date DESC LIMIT 1
+            ), start AS (
+                SELECT COALESCE((SELECT checkpoint_date FROM last), (SELECT MIN(month) FROM monthly_summary))
+                           AS first_month,
+                       COALESCE((SELECT balance FROM last), 0) AS opening
+            ), net AS (
+                SELECT s.month, SUM(CASE WHEN s.entry_type = 'CREDIT' THEN s.total ELSE -s.total END) AS net
+                FROM monthly_summary s, start
+                WHERE s.month >= start.first_month
+                GROUP BY s.month
+            )
+            INSERT INTO balance_checkpoint (checkpoint_date, balance)
+            SELECT (m + interval '1 month')::date,
+                   start.opening + SUM(COALESCE(net.net, 0)) OVER (ORDER BY m)
+            FROM start
+            CROSS JOIN generate_series(start.first_month,
+                                       date_trunc('month', current_date) - interval '1 month',
+                                       interval '1 month') AS m
+            LEFT JOIN net ON net.month = m::date
+            ON CONFLICT (checkpoint_date) DO NOTHING
+            """;
+
+    private final JdbcTemplate jdbcTemplate;
+
+    public BalanceRepository(JdbcTemplate jdbcTemplate) {
+        this.jdbcTemplate = jdbcTemplate;
+    }
+
+    public List<BalancePoint> series(LocalDate from, LocalDate to) {
+        Date start = Date.valueOf(from);
+        Date end = Date.valueOf(to);
+        return jdbcTemplate.query(SERIES,
+                (rs, rowNum) -> new BalancePoint(rs.getDate("day").toLocalDate(), rs.getBigDecimal("credit"),
+                        rs.getBigDecimal("debit"), rs.getBigDecimal("balance")),
+                start, start, start, end, start, end);
+    }
+
+    // Must run in the writing transaction: the shared lock is held until it ends
+    public int invalidateAfter(LocalDate txnDate) {
+        jdbcTemplate.queryForObject("SELECT pg_advisory_xact_lock_shared(" + LOCK_KEY + ")::text", String.class);
+        return jdbcTemplate.update("DELETE FROM balance_checkpoint WHERE checkpoint_date > ?",
+                Date.valueOf(txnDate));
+    }
+
+    // Must run in a transaction; returns the number of checkpoints added
+    public int extendCheckpoints() {
+        jdbcTemplate.queryForObject("SELECT pg_advisory_xact_lock(" + LOCK_KEY + ")::text", String.class);
+        return jdbcTemplate.update(EXTEND_CHECKPOINTS);
+    }
+
+    public int deleteAllCheckpoints() {
+        jdbcTemplate.queryForObject("SELECT pg_advisory_xact_lock(" + LOCK_KEY + ")::text", String.class);
+        return jdbcTemplate.update("DELETE FROM balance_checkpoint");
+    }
+}
@@ -1,14 +1,15 @@
 package io.fintrack.repository;
 
-import java.util.List;
-import java.util.Optional;
-
-import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
 
 import io.fintrack.model.Category;
 
-public interface CategoryRepository extends JpaRepository<Category, Long> {
-    Optional<Category> findByNameIgnoreCase(String name);
+public interface CategoryRepository extends NameRepository<Category> {
 
-    List<Category> findByNameStartingWithIgnoreCase(String prefix);
+    @Override
+    @Modifying
+    @Query(value = "INSERT INTO category (name, created_at) VALUES (:name, NOW()) ON CONFLICT DO NOTHING", nativeQuery = true)
+    int insertIfAbsent(@Param("name") String name);
 }
@@ -0,0 +1,63 @@
+package io.fintrack.repository;
+
+import io.fintrack.cache.CategoryClassifier;
+import io.micrometer.core.annotation.Timed;
+
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Repository;
+
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Initial load of a {@link CategoryClassifier}: categorized expenses grouped
+ * by (item, merchant, category), so repeated expenses are read as one row
+ * with a count, streamed with a large fetch size.
+ */
+@Repository
+@Timed("fintrack.repository")
+public class CategorySuggestionRepository {
+
+    private final JdbcTemplate jdbcTemplate;
+    private final JdbcTemplate streamingTemplate;
+
+    public CategorySuggestionRepository(JdbcTemplate jdbcTemplate) {
+        this.jdbcTemplate = jdbcTemplate;
+        this.streamingTemplate = new JdbcTemplate(jdbcTemplate.getDataSource());
+        this.streamingTemplate.setFetchSize(10_000);
+    }
+
+    // Needs a transaction: Postgres only streams with a fetch size when autocommit is off
+    public long loadInto(CategoryClassifier classifier) {
+        long[] rows = { 0 };
+        streamingTemplate.query("""
+                SELECT item, merchant_id, category_id, COUNT(*)
+                FROM expense
+                WHERE category_id IS NOT NULL
+                GROUP BY item, merchant_id, category_id
+                """, rs -> {
+                    long merchantId = rs.getLong(2);
+                    Long merchant = rs.wasNull() ? null : merchantId;
+                    long count = rs.getLong(4);
+                    classifier.add(rs.getString(1), merchant, rs.getLong(3), count);
+                    rows[0] += count;
+                });
+        return rows[0];
+    }
+
+    public Map<Long, String> categoryNames() {
+        Map<Long, String> names = new HashMap<>();
+        jdbcTemplate.query("SELECT id, name FROM category",
+                rs -> {
+                    names.put(rs.getLong(1), rs.getString(2));
+                });
+        return names;
+    }
+
+    // null if the category no longer exists
+    public String categoryName(long id) {
+        List<String> names = jdbcTemplate.queryForList("SELECT name FROM category WHERE id = ?", String.class, id);
+        return names.isEmpty() ? null : names.get(0);
+    }
+}
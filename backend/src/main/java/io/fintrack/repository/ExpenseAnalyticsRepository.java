@@ -0,0 +1,132 @@
+package io.fintrack.repository;
+
+import io.fintrack.dto.AnalyticsBreakdownRow;
+import io.fintrack.dto.AnalyticsDimension;
+import io.fintrack.dto.Granularity;
+import io.fintrack.dto.RangeTotalsResponse;
+import io.fintrack.model.EntryType;
+
+import java.sql.Date;
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.EnumSet;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+import io.micrometer.core.annotation.Timed;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Repository;
+
+/**
+ * Group-by queries for the analytics breakdown. The SQL is assembled from a
+ * fixed set of fragments (dimensions and granularities are enums, never user
+ * text), so the only bind parameters are the range and the entry type.
+ *
+ * Month-level breakdowns by category and/or paid_by over whole months are
+ * answered from the monthly_summary rollup instead of scanning expense.
+ */
+@Repository
+@Timed("fintrack.repository")
+public class ExpenseAnalyticsRepository {
+
+    private static final Set<AnalyticsDimension> ROLLUP_DIMENSIONS =
+            EnumSet.of(AnalyticsDimension.CATEGORY, AnalyticsDimension.PAID_BY);
+
+    private final JdbcTemplate jdbcTemplate;
+
+    public ExpenseAnalyticsRepository(JdbcTemplate jdbcTemplate) {
+        this.jdbcTemplate = jdbcTemplate;
+    }
+
+    // Debit and credit sums and row count over [from, to], optionally for one
+    // category and/or payer
+    public RangeTotalsResponse rangeTotals(LocalDate from, LocalDate to, Long categoryId, String paidBy) {
+        StringBuilder sql = new StringBuilder("""
+                SELECT COALESCE(SUM(e.amount) FILTER (WHERE e.entry_type = 'DEBIT'), 0),
+                       COALESCE(SUM(e.amount) FILTER (WHERE e.entry_type = 'CREDIT'), 0),
+                       COUNT(*)
+                FROM expense e
+                WHERE e.txn_date BETWEEN ? AND ?""");
+        List<Object> args = new ArrayList<>(List.of(Date.valueOf(from), Date.valueOf(to)));
+        if (categoryId != null) {
+            sql.append(" AND e.category_id = ?");
+            args.add(categoryId);
+        }
+        if (paidBy != null) {
+            sql.append(" AND e.paid_by = ?");
+            args.add(paidBy);
+        }
+        return jdbcTemplate.queryForObject(sql.toString(), (rs, rowNum) -> RangeTotalsResponse.of(from, to,
+                rs.getBigDecimal(1), rs.getBigDecimal(2), rs.getLong(3)), args.toArray());
+    }
+
+    public List<AnalyticsBreakdownRow> breakdown(LocalDate from, LocalDate to, Granularity granularity,
+            EntryType entryType, List<AnalyticsDimension> dimensions) {
+        boolean rollup = canUseRollup(from, to, granularity, dimensions);
+
+        StringBuilder select = new StringBuilder("SELECT ")
+                .append(rollup ? "e.month" : "date_trunc('" + unit(granularity) + "', e.txn_date)::date")
+                .append(" AS period");
+        StringBuilder joins = new StringBuilder();
+        StringBuilder groupBy = new StringBuilder(" GROUP BY 1");
+        int position = 1;
+        for (AnalyticsDimension dimension : dimensions) {
+            select.append(", ").append(column(dimension));
+            groupBy.append(", ").append(++position);
+            if (dimension == AnalyticsDimension.CATEGORY) {
+                joins.append(" LEFT JOIN category c ON c.id = e.category_id");
+            } else if (dimension == AnalyticsDimension.MERCHANT) {
+                joins.append(" LEFT JOIN merchant m ON m.id = e.merchant_id");
+            }
+        }
+
+        String sql = select
+                .append(rollup ? ", SUM(e.total), SUM(e.txn_count)" : ", SUM(e.amount), COUNT(*)")
+                .append(rollup ? " FROM monthly_summary e" : " FROM expense e")
+                .append(joins)
+                .append(rollup ? " WHERE e.month BETWEEN ? AND ?" : " WHERE e.txn_date BETWEEN ? AND ?")
+                .append(" AND e.entry_type = ?")
+                .append(groupBy)
+                .append(rollup ? " HAVING SUM(e.txn_count) > 0" : "")
+                .append(" ORDER BY 1, ").append(position + 1).append(" DESC")
+                .toString();
+
+        return jdbcTemplate.query(sql, (rs, rowNum) -> {
+            Map<String, String> keys = new LinkedHashMap<>();
+            for (int i = 0; i < dimensions.size(); i++) {
+                keys.put(dimensions.get(i).key(), rs.getString(i + 2));
+            }
+            return new AnalyticsBreakdownRow(rs.getDate(1).toLocalDate(), keys,
+                    rs.getBigDecimal(dimensions.size() + 2), rs.getLong(dimensions.size() + 3));
+        }, Date.valueOf(from), Date.valueOf(to), entryType.name());
+    }
+
+    // The rollup only has whole months keyed by category and paid_by
+    private boolean canUseRollup(LocalDate from, LocalDate to, Granularity granularity,
+            List<AnalyticsDimension> dimensions) {
+        return granularity == Granularity.MONTH
+                && ROLLUP_DIMENSIONS.containsAll(dimensions)
+                && from.getDayOfMonth() == 1
+                && to.getDayOfMonth() == to.lengthOfMonth();
+    }
+
+    private static String unit(Granularity granularity) {
+        return switch (granularity) {
+            case DAY -> "day";
+            case WEEK -> "week";
+            case MONTH -> "month";
+        };
+    }
+
+    private static String column(AnalyticsDimension dimension) {
+        return switch (dimension) {
+            case CATEGORY -> "c.name";
+            case MERCHANT -> "m.name";
+            case PAID_BY -> "e.paid_by";
+            case PAYMENT_METHOD -> "e.payment_method";
+            case BANK -> "e.bank";
+        };
+    }
+}
@@ -0,0 +1,44 @@
+package io.fintrack.repository;
+
+import io.fintrack.dto.ExpenseView;
+
+import java.sql.Date;
+import java.time.LocalDate;
+import java.util.function.Consumer;
+
+import javax.sql.DataSource;
+
+import io.micrometer.core.annotation.Timed;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Repository;
+
+/**
+ * Forward-only reads of expense rows with their category and merchant names
+ * joined in. Rows are handed to the consumer one at a time; with a fetch size
+ * set (and inside a transaction, which the Postgres driver needs to use a
+ * cursor) only one fetch block is ever held in memory.
+ */
+@Repository
+@Timed("fintrack.repository")
+public class ExpenseExportRepository {
+
+    private static final int FETCH_SIZE = 1000;
+
+    private static final String SELECT_BETWEEN = "SELECT " + ExpenseViewRowMapper.COLUMNS + ExpenseViewRowMapper.FROM
+            + "WHERE e.txn_date >= ? AND e.txn_date <= ? ORDER BY e.txn_date DESC, e.id DESC";
+
+    private final JdbcTemplate jdbcTemplate;
+    private final ExpenseViewRowMapper rowMapper = new ExpenseViewRowMapper();
+
+    public ExpenseExportRepository(DataSource dataSource) {
+        this.jdbcTemplate = new JdbcTemplate(dataSource);
+        this.jdbcTemplate.setFetchSize(FETCH_SIZE);
+    }
+
+    // Must be called inside a transaction, otherwise the driver reads the whole result up front
+    public void streamBetween(LocalDate from, LocalDate to, Consumer<ExpenseView> consumer) {
+        jdbcTemplate.query(SELECT_BETWEEN, rs -> {
+            consumer.accept(rowMapper.mapRow(rs, 0));
+        }, Date.valueOf(from), Date.valueOf(to));
+    }
+}
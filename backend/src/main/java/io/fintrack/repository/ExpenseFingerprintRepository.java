@@ -0,0 +1,97 @@
+package io.fintrack.repository;
+
+import io.fintrack.model.ExpenseFingerprint;
+import io.micrometer.core.annotation.Timed;
+
+import java.sql.Date;
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.List;
+import java.util.function.LongConsumer;
+
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Repository;
+
+/**
+ * expense.fingerprint (V15): backfill, bulk read for the Bloom filter and the
+ * lookup behind a probable duplicate.
+ */
+@Repository
+@Timed("fintrack.repository")
+public class ExpenseFingerprintRepository {
+
+    public record Match(long id, LocalDate txnDate) {
+    }
+
+    private record Row(long id, LocalDate txnDate, long fingerprint) {
+    }
+
+    private final JdbcTemplate jdbcTemplate;
+    private final JdbcTemplate streamingTemplate;
+
+    public ExpenseFingerprintRepository(JdbcTemplate jdbcTemplate) {
+        this.jdbcTemplate = jdbcTemplate;
+        this.streamingTemplate = new JdbcTemplate(jdbcTemplate.getDataSource());
+        this.streamingTemplate.setFetchSize(10_000);
+    }
+
+    /**
+     * Fingerprints up to {@code limit} rows with id above {@code afterId}
+     * that have none yet, walking the (id, txn_date) keys in id order.
+     *
+     * @return the highest id looked at, or -1 once there are none left
+     */
+    public long backfill(long afterId, int limit) {
+        List<Row> rows = new ArrayList<>(limit);
+        long[] lastId = { -1 };
+        jdbcTemplate.query("""
+                SELECT id, txn_date, amount, item, merchant_id, bank
+                FROM expense
+                WHERE id > ? AND fingerprint IS NULL
+                ORDER BY id
+                LIMIT ?
+                """, rs -> {
+                    long id = rs.getLong(1);
+                    LocalDate txnDate = rs.getDate(2).toLocalDate();
+                    long merchantId = rs.getLong(5);
+                    Long merchant = rs.wasNull() ? null : merchantId;
+                    rows.add(new Row(id, txnDate, ExpenseFingerprint.of(txnDate, rs.getBigDecimal(3),
+                            rs.getString(4), merchant, rs.getString(6))));
+                    lastId[0] = id;
+                }, afterId, limit);
+        jdbcTemplate.batchUpdate("UPDATE expense SET fingerprint = ? WHERE id = ? AND txn_date = ?", rows, 500,
+                (ps, row) -> {
+                    ps.setLong(1, row.fingerprint());
+                    ps.setLong(2, row.id());
+                    ps.setDate(3, Date.valueOf(row.txnDate()));
+                });
+        return lastId[0];
+    }
+
+    // Needs a transaction: Postgres only streams with a fetch size when autocommit is off
+    public void forEachFingerprint(LongConsumer consumer) {
+        streamingTemplate.query("SELECT fingerprint FROM expense WHERE fingerprint IS NOT NULL",
+                rs -> {
+                    consumer.accept(rs.getLong(1));
+                });
+    }
+
+    // The expense with one of these fingerprints closest to date within [from, to], if any
+    public Match findClosest(Collection<Long> fingerprints, LocalDate date, LocalDate from, LocalDate to) {
+        String placeholders = String.join(", ", Collections.nCopies(fingerprints.size(), "?"));
+        List<Object> args = new ArrayList<>(fingerprints);
+        args.add(Date.valueOf(from));
+        args.add(Date.valueOf(to));
+        args.add(Date.valueOf(date));
+        List<Match> matches = jdbcTemplate.query("""
+                SELECT id, txn_date FROM expense
+                WHERE fingerprint IN (%s) AND txn_date BETWEEN ? AND ?
+                ORDER BY abs(txn_date - ?::date), id
+                LIMIT 1
+                """.formatted(placeholders),
+                (rs, rowNum) -> new Match(rs.getLong(1), rs.getDate(2).toLocalDate()), args.toArray());
+        return matches.isEmpty() ? null : matches.get(0);
+    }
+}
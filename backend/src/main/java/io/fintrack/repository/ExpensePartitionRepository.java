@@ -0,0 +1,24 @@
+package io.fintrack.repository;
+
+import io.micrometer.core.annotation.Timed;
+
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Repository;
+
+@Repository
+@Timed("fintrack.repository")
+public class ExpensePartitionRepository {
+
+    private final JdbcTemplate jdbcTemplate;
+
+    public ExpensePartitionRepository(JdbcTemplate jdbcTemplate) {
+        this.jdbcTemplate = jdbcTemplate;
+    }
+
+    // See ensure_expense_partitions in V11; returns the number of partitions created
+    public int ensurePartitions(int yearsAhead) {
+        Integer created = jdbcTemplate.queryForObject("SELECT ensure_expense_partitions(?)", Integer.class,
+                yearsAhead);
+        return created != null ? created : 0;
+    }
+}
@@ -1,28 +1,89 @@
 package io.fintrack.repository;
 
+import io.fintrack.dto.ExpenseView;
 import io.fintrack.model.EntryType;
 import io.fintrack.model.Expense;
 
 import java.math.BigDecimal;
 import java.time.LocalDate;
+import java.util.Collection;
 import java.util.List;
+import java.util.Optional;
 
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.Pageable;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.JpaSpecificationExecutor;
 import org.springframework.data.jpa.repository.Query;
 import org.springframework.data.repository.query.Param;
 
-public interface ExpenseRepository extends JpaRepository<Expense, Long> {
+public interface ExpenseRepository extends JpaRepository<Expense, Long>, JpaSpecificationExecutor<Expense> {
     List<Expense> findByTxnDate(LocalDate date);
 
     List<Expense> findByTxnDateBetween(LocalDate from, LocalDate to);
 
-    Page<Expense> findByTxnDateBetween(LocalDate from, LocalDate to, Pageable pageable);
+    // Flat read model with category and merchant names joined in: one query, no N+1
+    String VIEW_SELECT = "SELECT new io.fintrack.dto.ExpenseView(e.id, e.txnDate, e.amount, e.item, "
+            + "c.id, c.name, m.id, m.name, e.paymentMethod, e.bank, e.paidBy, e.entryType, e.notes, e.createdAt) "
+            + "FROM Expense e LEFT JOIN e.category c LEFT JOIN e.merchant m ";
+
+    @Query(VIEW_SELECT + "WHERE e.id = :id")
+    Optional<ExpenseView> findViewById(@Param("id") Long id);
+
+    // For updates and deletes: category and merchant loaded, so the entity can
+    // still be rendered after the transaction ends
+    @Query("SELECT e FROM Expense e LEFT JOIN FETCH e.category LEFT JOIN FETCH e.merchant WHERE e.id = :id")
+    Optional<Expense> findWithNamesById(@Param("id") Long id);
+
+    @Query(VIEW_SELECT + "WHERE e.id IN :ids")
+    List<ExpenseView> findViewsByIdIn(@Param("ids") Collection<Long> ids);
+
+    // Rows flagged as probable duplicates (see DuplicateDetectionService), newest first
+    @Query("SELECT e FROM Expense e LEFT JOIN FETCH e.category LEFT JOIN FETCH e.merchant "
+            + "WHERE e.duplicateOf IS NOT NULL ORDER BY e.txnDate DESC, e.id DESC")
+    List<Expense> findFlaggedDuplicates(Pageable limit);
+
+    @Query(value = VIEW_SELECT, countQuery = "SELECT COUNT(e) FROM Expense e")
+    Page<ExpenseView> findViews(Pageable pageable);
+
+    @Query(value = VIEW_SELECT + "WHERE e.txnDate BETWEEN :from AND :to",
+            countQuery = "SELECT COUNT(e) FROM Expense e WHERE e.txnDate BETWEEN :from AND :to")
+    Page<ExpenseView> findViewsBetween(
+            @Param("from") LocalDate from,
+            @Param("to") LocalDate to,
+            Pageable pageable);
+
+    // Keyset pagination, first page: newest first, ties on txn_date broken by id
+    @Query(VIEW_SELECT + "WHERE e.txnDate >= :from AND e.txnDate <= :to ORDER BY e.txnDate DESC, e.id DESC")
+    List<ExpenseView> findPageBetween(
+            @Param("from") LocalDate from,
+            @Param("to") LocalDate to,
+            Pageable limit);
+
+    // Keyset pagination, following pages: seeks strictly past (cursorDate, cursorId).
+    // Within txnDate <= cursorDate, "txnDate < cursorDate OR id < cursorId" is the
+    // row comparison (txnDate, id) < (cursorDate, cursorId), and the range bound
+    // lets Postgres start the backward index scan right at the cursor.
+    @Query(VIEW_SELECT + "WHERE e.txnDate >= :from AND e.txnDate <= :to "
+            + "AND (e.txnDate < :cursorDate OR e.id < :cursorId) ORDER BY e.txnDate DESC, e.id DESC")
+    List<ExpenseView> findPageBefore(
+            @Param("from") LocalDate from,
+            @Param("to") LocalDate to,
+            @Param("cursorDate") LocalDate cursorDate,
+            @Param("cursorId") Long cursorId,
+            Pageable limit);
 
     @Query("SELECT COALESCE(SUM(e.amount), 0) FROM Expense e WHERE e.entryType = :entryType AND e.txnDate >= :startDate AND e.txnDate <= :endDate")
     BigDecimal sumAmountByEntryTypeAndDateRange(
             @Param("entryType") EntryType entryType,
             @Param("startDate") LocalDate startDate,
             @Param("endDate") LocalDate endDate);
-}
\ No newline at end of file
+
+    // [categoryId, count] pairs, used to rank autocomplete suggestions
+    @Query("SELECT e.category.id, COUNT(e) FROM Expense e WHERE e.category IS NOT NULL GROUP BY e.category.id")
+    List<Object[]> countByCategory();
+
+    // [merchantId, count] pairs, used to rank autocomplete suggestions
+    @Query("SELECT e.merchant.id, COUNT(e) FROM Expense e WHERE e.merchant IS NOT NULL GROUP BY e.merchant.id")
+    List<Object[]> countByMerchant();
+}
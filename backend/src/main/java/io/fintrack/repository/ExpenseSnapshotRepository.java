@@ -0,0 +1,49 @@
+package io.fintrack.repository;
+
+import io.fintrack.cache.ExpenseColumnStore;
+import io.fintrack.model.EntryType;
+import io.fintrack.model.PaymentMethod;
+import io.micrometer.core.annotation.Timed;
+
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Repository;
+
+/**
+ * Bulk read of expense into an {@link ExpenseColumnStore}. Rows are streamed
+ * with a large fetch size straight into the columns, so the load never holds
+ * more than one fetch of rows as objects.
+ */
+@Repository
+@Timed("fintrack.repository")
+public class ExpenseSnapshotRepository {
+
+    private final JdbcTemplate jdbcTemplate;
+    private final JdbcTemplate streamingTemplate;
+
+    public ExpenseSnapshotRepository(JdbcTemplate jdbcTemplate) {
+        this.jdbcTemplate = jdbcTemplate;
+        this.streamingTemplate = new JdbcTemplate(jdbcTemplate.getDataSource());
+        this.streamingTemplate.setFetchSize(10_000);
+    }
+
+    public long count() {
+        Long count = jdbcTemplate.queryForObject("SELECT COUNT(*) FROM expense", Long.class);
+        return count != null ? count : 0;
+    }
+
+    // Needs a transaction: Postgres only streams with a fetch size when autocommit is off
+    public void loadInto(ExpenseColumnStore store) {
+        streamingTemplate.query("""
+                SELECT id, txn_date, amount, category_id, merchant_id, paid_by, entry_type, payment_method
+                FROM expense
+                """, rs -> {
+                    long categoryId = rs.getLong(4);
+                    Long category = rs.wasNull() ? null : categoryId;
+                    long merchantId = rs.getLong(5);
+                    Long merchant = rs.wasNull() ? null : merchantId;
+                    store.upsert(rs.getLong(1), rs.getDate(2).toLocalDate(), rs.getBigDecimal(3), category, merchant,
+                            rs.getString(6), EntryType.valueOf(rs.getString(7)),
+                            PaymentMethod.valueOf(rs.getString(8)));
+                });
+    }
+}
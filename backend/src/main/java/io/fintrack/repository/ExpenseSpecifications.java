@@ -0,0 +1,84 @@
+package io.fintrack.repository;
+
+import io.fintrack.model.EntryType;
+import io.fintrack.model.Expense;
+import io.fintrack.model.PaymentMethod;
+import jakarta.persistence.criteria.JoinType;
+import org.springframework.data.jpa.domain.Specification;
+
+import java.math.BigDecimal;
+import java.time.LocalDate;
+import java.util.Collection;
+
+/**
+ * Building blocks for {@link ExpenseRepository#findBy}: each returns a
+ * predicate on one column, so any combination can be AND-ed together. They
+ * compare plain columns (categories and merchants by id, not by name) so the
+ * composite indexes from V9 apply.
+ */
+public final class ExpenseSpecifications {
+
+    private ExpenseSpecifications() {
+    }
+
+    public static Specification<Expense> onOrAfter(LocalDate from) {
+        return (root, query, cb) -> cb.greaterThanOrEqualTo(root.get("txnDate"), from);
+    }
+
+    public static Specification<Expense> onOrBefore(LocalDate to) {
+        return (root, query, cb) -> cb.lessThanOrEqualTo(root.get("txnDate"), to);
+    }
+
+    public static Specification<Expense> categoryIn(Collection<Long> categoryIds) {
+        return (root, query, cb) -> root.get("category").get("id").in(categoryIds);
+    }
+
+    public static Specification<Expense> merchantIn(Collection<Long> merchantIds) {
+        return (root, query, cb) -> root.get("merchant").get("id").in(merchantIds);
+    }
+
+    public static Specification<Expense> paidBy(String paidBy) {
+        return (root, query, cb) -> cb.equal(root.get("paidBy"), paidBy);
+    }
+
+    public static Specification<Expense> paymentMethod(PaymentMethod paymentMethod) {
+        return (root, query, cb) -> cb.equal(root.get("paymentMethod"), paymentMethod);
+    }
+
+    public static Specification<Expense> entryType(EntryType entryType) {
+        return (root, query, cb) -> cb.equal(root.get("entryType"), entryType);
+    }
+
+    public static Specification<Expense> bank(String bank) {
+        return (root, query, cb) -> cb.equal(root.get("bank"), bank);
+    }
+
+    public static Specification<Expense> amountAtLeast(BigDecimal minAmount) {
+        return (root, query, cb) -> cb.greaterThanOrEqualTo(root.get("amount"), minAmount);
+    }
+
+    public static Specification<Expense> amountAtMost(BigDecimal maxAmount) {
+        return (root, query, cb) -> cb.lessThanOrEqualTo(root.get("amount"), maxAmount);
+    }
+
+    // Keyset seek past (cursorDate, cursorId) in (txnDate DESC, id DESC) order;
+    // same predicate as ExpenseRepository.findPageBefore
+    public static Specification<Expense> before(LocalDate cursorDate, Long cursorId) {
+        return (root, query, cb) -> cb.and(
+                cb.lessThanOrEqualTo(root.get("txnDate"), cursorDate),
+                cb.or(cb.lessThan(root.get("txnDate"), cursorDate), cb.lessThan(root.get("id"), cursorId)));
+    }
+
+    // Loads category and merchant in the same query, so the rows can be
+    // rendered as ExpenseView without a lazy load per row. Skipped for count
+    // queries, where a fetch join is not allowed.
+    public static Specification<Expense> withNames() {
+        return (root, query, cb) -> {
+            if (query != null && !Long.class.equals(query.getResultType())) {
+                root.fetch("category", JoinType.LEFT);
+                root.fetch("merchant", JoinType.LEFT);
+            }
+            return null;
+        };
+    }
+}
@@ -0,0 +1,73 @@
+package io.fintrack.repository;
+
+import io.fintrack.dto.ExpenseSearchHit;
+import io.micrometer.core.annotation.Timed;
+
+import java.math.BigDecimal;
+import java.sql.Date;
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.List;
+
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Repository;
+
+/**
+ * Ranked full-text search on expense.search_vector (GIN index, see V8). The
+ * tsquery text is built by the caller from plain word tokens; every filter is
+ * a bind parameter.
+ */
+@Repository
+@Timed("fintrack.repository")
+public class ExpenseTextSearchRepository {
+
+    private final JdbcTemplate jdbcTemplate;
+    private final ExpenseViewRowMapper rowMapper = new ExpenseViewRowMapper();
+
+    public ExpenseTextSearchRepository(JdbcTemplate jdbcTemplate) {
+        this.jdbcTemplate = jdbcTemplate;
+    }
+
+    /**
+     * @param tsQuery  to_tsquery syntax, e.g. {@code amazon:* & charg:*}
+     * @param category category name (case-insensitive), or null for any
+     */
+    public List<ExpenseSearchHit> search(String tsQuery, LocalDate from, LocalDate to, String category,
+            BigDecimal minAmount, BigDecimal maxAmount, int limit, int offset) {
+        StringBuilder sql = new StringBuilder("SELECT ")
+                .append(ExpenseViewRowMapper.COLUMNS)
+                .append(", ts_rank_cd(e.search_vector, q) AS rank ")
+                .append(ExpenseViewRowMapper.FROM)
+                .append("CROSS JOIN to_tsquery('english', ?) AS q WHERE e.search_vector @@ q");
+        List<Object> args = new ArrayList<>();
+        args.add(tsQuery);
+
+        if (from != null) {
+            sql.append(" AND e.txn_date >= ?");
+            args.add(Date.valueOf(from));
+        }
+        if (to != null) {
+            sql.append(" AND e.txn_date <= ?");
+            args.add(Date.valueOf(to));
+        }
+        if (category != null) {
+            sql.append(" AND e.category_id = (SELECT id FROM category WHERE UPPER(name) = UPPER(?) LIMIT 1)");
+            args.add(category);
+        }
+        if (minAmount != null) {
+            sql.append(" AND e.amount >= ?");
+            args.add(minAmount);
+        }
+        if (maxAmount != null) {
+            sql.append(" AND e.amount <= ?");
+            args.add(maxAmount);
+        }
+        sql.append(" ORDER BY rank DESC, e.txn_date DESC, e.id DESC LIMIT ? OFFSET ?");
+        args.add(limit);
+        args.add(offset);
+
+        return jdbcTemplate.query(sql.toString(),
+                (rs, rowNum) -> new ExpenseSearchHit(rowMapper.mapRow(rs, rowNum), rs.getDouble("rank")),
+                args.toArray());
+    }
+}
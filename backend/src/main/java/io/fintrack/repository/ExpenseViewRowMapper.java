@@ -0,0 +1,50 @@
+package io.fintrack.repository;
+
+import io.fintrack.dto.ExpenseView;
+import io.fintrack.model.EntryType;
+import io.fintrack.model.PaymentMethod;
+
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+
+import org.springframework.jdbc.core.RowMapper;
+
+/**
+ * Maps a row selected with {@link #COLUMNS} (expense e, category c, merchant m)
+ * to an {@link ExpenseView}, for the JDBC-based read paths.
+ */
+public class ExpenseViewRowMapper implements RowMapper<ExpenseView> {
+
+    public static final String COLUMNS = """
+            e.id, e.txn_date, e.amount, e.item,
+            e.category_id, c.name AS category_name, e.merchant_id, m.name AS merchant_name,
+            e.payment_method, e.bank, e.paid_by, e.entry_type, e.notes, e.created_at
+            """;
+
+    public static final String FROM = """
+            FROM expense e
+            LEFT JOIN category c ON c.id = e.category_id
+            LEFT JOIN merchant m ON m.id = e.merchant_id
+            """;
+
+    @Override
+    public ExpenseView mapRow(ResultSet rs, int rowNum) throws SQLException {
+        return new ExpenseView(
+                rs.getLong("id"),
+                rs.getObject("txn_date", LocalDate.class),
+                rs.getBigDecimal("amount"),
+                rs.getString("item"),
+                rs.getObject("category_id", Long.class),
+                rs.getString("category_name"),
+                rs.getObject("merchant_id", Long.class),
+                rs.getString("merchant_name"),
+                PaymentMethod.valueOf(rs.getString("payment_method")),
+                rs.getString("bank"),
+                rs.getString("paid_by"),
+                EntryType.valueOf(rs.getString("entry_type")),
+                rs.getString("notes"),
+                rs.getObject("created_at", LocalDateTime.class));
+    }
+}
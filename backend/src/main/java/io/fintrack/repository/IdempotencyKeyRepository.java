@@ -0,0 +1,51 @@
+package io.fintrack.repository;
+
+import io.micrometer.core.annotation.Timed;
+
+import java.sql.Timestamp;
+import java.time.Instant;
+import java.util.List;
+import java.util.Optional;
+
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Repository;
+
+@Repository
+@Timed("fintrack.repository")
+public class IdempotencyKeyRepository {
+
+    public record StoredResponse(String requestHash, byte[] response) {
+    }
+
+    private final JdbcTemplate jdbcTemplate;
+
+    public IdempotencyKeyRepository(JdbcTemplate jdbcTemplate) {
+        this.jdbcTemplate = jdbcTemplate;
+    }
+
+    public Optional<StoredResponse> find(String scope, String key) {
+        List<StoredResponse> rows = jdbcTemplate.query(
+                "SELECT request_hash, response FROM idempotency_key"
+                        + " WHERE scope = ? AND idem_key = ? AND expires_at > NOW()",
+                (rs, rowNum) -> new StoredResponse(rs.getString(1), rs.getBytes(2)),
+                scope, key);
+        return rows.stream().findFirst();
+    }
+
+    // Returns false if a live row already holds the key; an expired one is overwritten
+    public boolean insert(String scope, String key, String requestHash, byte[] response, Instant expiresAt) {
+        return jdbcTemplate.update("""
+                INSERT INTO idempotency_key (scope, idem_key, request_hash, response, expires_at)
+                VALUES (?, ?, ?, ?, ?)
+                ON CONFLICT (scope, idem_key) DO UPDATE
+                    SET request_hash = EXCLUDED.request_hash,
+                        response = EXCLUDED.response,
+                        expires_at = EXCLUDED.expires_at
+                    WHERE idempotency_key.expires_at <= NOW()
+                """, scope, key, requestHash, response, Timestamp.from(expiresAt)) == 1;
+    }
+
+    public int deleteExpired() {
+        return jdbcTemplate.update("DELETE FROM idempotency_key WHERE expires_at <= NOW()");
+    }
+}
@@ -0,0 +1,35 @@
+package io.fintrack.repository;
+
+import io.micrometer.core.annotation.Timed;
+
+import java.util.List;
+
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Repository;
+
+// See V13__ingest_checkpoint.sql
+@Repository
+@Timed("fintrack.repository")
+public class IngestCheckpointRepository {
+
+    private final JdbcTemplate jdbcTemplate;
+
+    public IngestCheckpointRepository(JdbcTemplate jdbcTemplate) {
+        this.jdbcTemplate = jdbcTemplate;
+    }
+
+    // 0 if nothing from this journal was ever committed
+    public long lastSeq(String journal) {
+        List<Long> seqs = jdbcTemplate.queryForList("SELECT last_seq FROM ingest_checkpoint WHERE journal = ?",
+                Long.class, journal);
+        return seqs.isEmpty() ? 0 : seqs.get(0);
+    }
+
+    // Call in the transaction that writes the entries up to seq
+    public void advance(String journal, long seq) {
+        jdbcTemplate.update("""
+                INSERT INTO ingest_checkpoint (journal, last_seq) VALUES (?, ?)
+                ON CONFLICT (journal) DO UPDATE SET last_seq = GREATEST(ingest_checkpoint.last_seq, EXCLUDED.last_seq)
+                """, journal, seq);
+    }
+}
@@ -1,14 +1,15 @@
 package io.fintrack.repository;
 
-import java.util.List;
-import java.util.Optional;
-
-import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
 
 import io.fintrack.model.Merchant;
 
-public interface MerchantRepository extends JpaRepository<Merchant, Long> {
-    Optional<Merchant> findByNameIgnoreCase(String name);
+public interface MerchantRepository extends NameRepository<Merchant> {
 
-    List<Merchant> findByNameStartingWithIgnoreCase(String prefix);
+    @Override
+    @Modifying
+    @Query(value = "INSERT INTO merchant (name, created_at) VALUES (:name, NOW()) ON CONFLICT DO NOTHING", nativeQuery = true)
+    int insertIfAbsent(@Param("name") String name);
 }
@@ -0,0 +1,77 @@
+package io.fintrack.repository;
+
+import io.fintrack.model.EntryType;
+
+import java.math.BigDecimal;
+import java.sql.Date;
+import java.sql.Types;
+import java.time.LocalDate;
+import java.util.EnumMap;
+import java.util.List;
+import java.util.Map;
+
+import io.micrometer.core.annotation.Timed;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Repository;
+
+/**
+ * Plain JDBC access to the monthly_summary rollup. Upserts go out as one JDBC
+ * batch per transaction and take part in the surrounding JPA transaction.
+ */
+@Repository
+@Timed("fintrack.repository")
+public class MonthlySummaryRepository {
+
+    private static final String UPSERT = """
+            INSERT INTO monthly_summary (month, entry_type, category_id, paid_by, total, txn_count)
+            VALUES (?, ?, ?, ?, ?, ?)
+            ON CONFLICT (month, entry_type, COALESCE(category_id, 0), paid_by)
+            DO UPDATE SET total = monthly_summary.total + EXCLUDED.total,
+                          txn_count = monthly_summary.txn_count + EXCLUDED.txn_count
+            """;
+
+    private static final int[] UPSERT_TYPES = {
+            Types.DATE, Types.VARCHAR, Types.BIGINT, Types.VARCHAR, Types.NUMERIC, Types.BIGINT };
+
+    private final JdbcTemplate jdbcTemplate;
+
+    public MonthlySummaryRepository(JdbcTemplate jdbcTemplate) {
+        this.jdbcTemplate = jdbcTemplate;
+    }
+
+    // Each row: month start, entry type, category id (nullable), paid by, amount delta, count delta
+    public void applyDeltas(List<Object[]> deltas) {
+        if (!deltas.isEmpty()) {
+            jdbcTemplate.batchUpdate(UPSERT, deltas, UPSERT_TYPES);
+        }
+    }
+
+    // Totals per entry type for the month starting at monthStart
+    public Map<EntryType, BigDecimal> sumByEntryType(LocalDate monthStart) {
+        Map<EntryType, BigDecimal> totals = new EnumMap<>(EntryType.class);
+        jdbcTemplate.query(
+                "SELECT entry_type, SUM(total) FROM monthly_summary WHERE month = ? GROUP BY entry_type",
+                rs -> {
+                    totals.put(EntryType.valueOf(rs.getString(1)), rs.getBigDecimal(2));
+                },
+                Date.valueOf(monthStart));
+        return totals;
+    }
+
+    /**
+     * Recomputes the whole rollup from expense. Expense writers are blocked
+     * (SHARE lock) for the duration so no delta can be lost in between.
+     *
+     * @return number of rollup rows written
+     */
+    public int rebuild() {
+        jdbcTemplate.execute("LOCK TABLE expense IN SHARE MODE");
+        jdbcTemplate.update("DELETE FROM monthly_summary");
+        return jdbcTemplate.update("""
+                INSERT INTO monthly_summary (month, entry_type, category_id, paid_by, total, txn_count)
+                SELECT date_trunc('month', txn_date)::date, entry_type, category_id, paid_by, SUM(amount), COUNT(*)
+                FROM expense
+                GROUP BY 1, 2, 3, 4
+                """);
+    }
+}
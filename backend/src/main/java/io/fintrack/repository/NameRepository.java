@@ -0,0 +1,31 @@
+package io.fintrack.repository;
+
+import java.util.Collection;
+import java.util.List;
+import java.util.Optional;
+
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.NoRepositoryBean;
+import org.springframework.data.repository.query.Param;
+
+import io.fintrack.model.Named;
+
+/**
+ * Lookups shared by the category and merchant repositories.
+ */
+@NoRepositoryBean
+public interface NameRepository<T extends Named> extends JpaRepository<T, Long> {
+    Optional<T> findByNameIgnoreCase(String name);
+
+    List<T> findByNameStartingWithIgnoreCase(String prefix);
+
+    // Batch lookup on the upper(name) index; pass names already upper-cased
+    @Query("SELECT x FROM #{#entityName} x WHERE UPPER(x.name) IN :upperNames")
+    List<T> findByUpperNameIn(@Param("upperNames") Collection<String> upperNames);
+
+    // Create-if-absent that can't fail on the unique indexes when two requests
+    // race with the same new name; returns 1 if a row was inserted. Declared
+    // with its native INSERT by each repository.
+    int insertIfAbsent(String name);
+}
@@ -0,0 +1,28 @@
+package io.fintrack.repository;
+
+import java.time.LocalDate;
+import java.util.List;
+
+import org.springframework.data.jpa.repository.EntityGraph;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+
+import io.fintrack.model.RecurringRule;
+
+public interface RecurringRuleRepository extends JpaRepository<RecurringRule, Long> {
+
+    @EntityGraph(attributePaths = { "category", "merchant" })
+    List<RecurringRule> findAllByOrderByActiveDescNextRunAscIdAsc();
+
+    // The next due rules on the partial (next_run, id) index, locked for the
+    // rest of the transaction; rules another instance is materializing are skipped
+    @Query(value = """
+            SELECT * FROM recurring_rule
+            WHERE active AND next_run <= :today
+            ORDER BY next_run, id
+            LIMIT :limit
+            FOR UPDATE SKIP LOCKED
+            """, nativeQuery = true)
+    List<RecurringRule> lockDue(@Param("today") LocalDate today, @Param("limit") int limit);
+}
@@ -0,0 +1,135 @@
+package io.fintrack.service;
+
+import io.fintrack.bulkhead.DbBulkhead;
+import io.fintrack.dto.AnalyticsBreakdownResponse;
+import io.fintrack.dto.AnalyticsBreakdownRow;
+import io.fintrack.dto.AnalyticsDimension;
+import io.fintrack.dto.Granularity;
+import io.fintrack.dto.RangeTotalsResponse;
+import io.fintrack.event.ExpenseChangedEvent;
+import io.fintrack.model.Category;
+import io.fintrack.model.EntryType;
+import io.fintrack.repository.ExpenseAnalyticsRepository;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.event.TransactionalEventListener;
+
+import java.math.BigDecimal;
+import java.time.LocalDate;
+import java.util.Collections;
+import java.util.LinkedHashMap;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Spend breakdowns over any date range by category, merchant, paid_by, payment
+ * method and/or bank, bucketed by day, week or month. Aggregation happens in
+ * SQL (see {@link ExpenseAnalyticsRepository}); results are kept in a small LRU
+ * cache keyed by the full query and dropped once an expense dated inside the
+ * cached range is committed.
+ */
+@Service
+public class AnalyticsService {
+
+    private record Key(LocalDate from, LocalDate to, Granularity granularity, EntryType entryType,
+            List<AnalyticsDimension> dimensions) {
+    }
+
+    private final ExpenseAnalyticsRepository analyticsRepository;
+    private final ExpenseSnapshotService snapshotService;
+    private final CategoryService categoryService;
+    private final Map<Key, List<AnalyticsBreakdownRow>> cache;
+
+    // Bumped on every committed write; a result computed across a bump may
+    // already be stale, so it is returned but not cached
+    private final AtomicLong writeVersion = new AtomicLong();
+
+    public AnalyticsService(ExpenseAnalyticsRepository analyticsRepository,
+            ExpenseSnapshotService snapshotService,
+            CategoryService categoryService,
+            @Value("${fintrack.cache.analytics.max-size:256}") int maxSize) {
+        this.analyticsRepository = analyticsRepository;
+        this.snapshotService = snapshotService;
+        this.categoryService = categoryService;
+        this.cache = Collections.synchronizedMap(new LinkedHashMap<>(16, 0.75f, true) {
+            @Override
+            protected boolean removeEldestEntry(Map.Entry<Key, List<AnalyticsBreakdownRow>> eldest) {
+                return size() > maxSize;
+            }
+        });
+    }
+
+    /**
+     * @param dimensions grouping columns in output order; duplicates are ignored,
+     *                   an empty list gives one total per period
+     */
+    @DbBulkhead
+    public AnalyticsBreakdownResponse getBreakdown(LocalDate from, LocalDate to, Granularity granularity,
+            EntryType entryType, List<AnalyticsDimension> dimensions) {
+        LocalDate end = to != null ? to : LocalDate.now();
+        LocalDate start = from != null ? from : end.withDayOfMonth(1);
+        if (start.isAfter(end)) {
+            throw new IllegalArgumentException("from must not be after to");
+        }
+        Granularity bucket = granularity != null ? granularity : Granularity.MONTH;
+        EntryType type = entryType != null ? entryType : EntryType.DEBIT;
+        List<AnalyticsDimension> dims = List.copyOf(
+                new LinkedHashSet<>(dimensions != null ? dimensions : List.of()));
+
+        Key key = new Key(start, end, bucket, type, dims);
+        List<AnalyticsBreakdownRow> rows = cache.get(key);
+        if (rows == null) {
+            long version = writeVersion.get();
+            rows = List.copyOf(analyticsRepository.breakdown(start, end, bucket, type, dims));
+            if (writeVersion.get() == version) {
+                cache.put(key, rows);
+            }
+        }
+        return new AnalyticsBreakdownResponse(start, end, bucket, type, dims, rows);
+    }
+
+    /**
+     * Debit and credit totals over [from, to] (default: the current month),
+     * optionally for one category name and/or payer. Answered from the
+     * in-memory column store when it is loaded, otherwise by one SQL aggregate.
+     */
+    @DbBulkhead
+    public RangeTotalsResponse getTotals(LocalDate from, LocalDate to, String categoryName, String paidBy) {
+        LocalDate end = to != null ? to : LocalDate.now();
+        LocalDate start = from != null ? from : end.withDayOfMonth(1);
+        if (start.isAfter(end)) {
+            throw new IllegalArgumentException("from must not be after to");
+        }
+        String payer = paidBy != null && !paidBy.isBlank() ? paidBy.trim() : null;
+
+        Long categoryId = null;
+        if (categoryName != null && !categoryName.isBlank()) {
+            Category category = categoryService.findExisting(List.of(categoryName.trim())).values().stream()
+                    .findFirst().orElse(null);
+            if (category == null) {
+                return RangeTotalsResponse.of(start, end, BigDecimal.ZERO, BigDecimal.ZERO, 0);
+            }
+            categoryId = category.getId();
+        }
+
+        RangeTotalsResponse totals = snapshotService.totals(start, end, categoryId, payer);
+        return totals != null ? totals : analyticsRepository.rangeTotals(start, end, categoryId, payer);
+    }
+
+    @TransactionalEventListener
+    public void onExpenseChanged(ExpenseChangedEvent event) {
+        writeVersion.incrementAndGet();
+        evict(event.getExpense().getTxnDate());
+        if (event.getPrevious() != null) {
+            evict(event.getPrevious().getTxnDate());
+        }
+    }
+
+    private void evict(LocalDate txnDate) {
+        synchronized (cache) {
+            cache.keySet().removeIf(key -> !txnDate.isBefore(key.from()) && !txnDate.isAfter(key.to()));
+        }
+    }
+}
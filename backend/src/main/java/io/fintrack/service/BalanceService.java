@@ -0,0 +1,111 @@
+package io.fintrack.service;
+
+import io.fintrack.bulkhead.DbBulkhead;
+import io.fintrack.dto.BalancePoint;
+import io.fintrack.dto.BalanceSeriesResponse;
+import io.fintrack.event.ExpenseChangedEvent;
+import io.fintrack.repository.BalanceRepository;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.math.BigDecimal;
+import java.time.LocalDate;
+import java.time.temporal.ChronoUnit;
+import java.util.List;
+
+/**
+ * Running balance series. The opening balance of a range comes from the
+ * nearest monthly checkpoint (balance_checkpoint) plus at most a month of
+ * rows, and the days in the range are summed by one window function.
+ *
+ * A write only invalidates the checkpoints after its txn_date (and, for an
+ * update, after the previous txn_date), so the usual write dated today costs
+ * nothing; a back-dated one drops the checkpoints from that month on, and
+ * they are rebuilt on the next refresh.
+ */
+@Service
+public class BalanceService {
+
+    private static final Logger log = LoggerFactory.getLogger(BalanceService.class);
+
+    static final int MAX_DAYS = 3660;
+
+    private final BalanceRepository balanceRepository;
+
+    public BalanceService(BalanceRepository balanceRepository) {
+        this.balanceRepository = balanceRepository;
+    }
+
+    /**
+     * Defaults to the 90 days up to today; ranges longer than {@value #MAX_DAYS}
+     * days are rejected.
+     */
+    @DbBulkhead
+    public BalanceSeriesResponse getSeries(LocalDate from, LocalDate to) {
+        LocalDate end = to != null ? to : LocalDate.now();
+        LocalDate start = from != null ? from : end.minusDays(89);
+        if (start.isAfter(end)) {
+            throw new IllegalArgumentException("from must not be after to");
+        }
+        if (ChronoUnit.DAYS.between(start, end) >= MAX_DAYS) {
+            throw new IllegalArgumentException("Range must not exceed " + MAX_DAYS + " days");
+        }
+
+        List<BalancePoint> points = balanceRepository.series(start, end);
+        BigDecimal opening = points.isEmpty()
+                ? BigDecimal.ZERO
+                : points.get(0).getBalance().subtract(points.get(0).getCredit()).add(points.get(0).getDebit());
+        return new BalanceSeriesResponse(start, end, opening, points);
+    }
+
+    // Runs inside the writing transaction, like MonthlySummaryService: the
+    // earliest affected date is collected and invalidated once, before commit
+    @EventListener
+    public void onExpenseChanged(ExpenseChangedEvent event) {
+        LocalDate affected = event.getExpense().getTxnDate();
+        if (event.getPrevious() != null && event.getPrevious().getTxnDate().isBefore(affected)) {
+            affected = event.getPrevious().getTxnDate();
+        }
+
+        if (!TransactionSynchronizationManager.isSynchronizationActive()) {
+            balanceRepository.invalidateAfter(affected);
+            return;
+        }
+        LocalDate[] earliest = (LocalDate[]) TransactionSynchronizationManager.getResource(this);
+        if (earliest == null) {
+            LocalDate[] created = { affected };
+            TransactionSynchronizationManager.bindResource(this, created);
+            TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+                @Override
+                public void beforeCommit(boolean readOnly) {
+                    balanceRepository.invalidateAfter(created[0]);
+                }
+
+                @Override
+                public void afterCompletion(int status) {
+                    TransactionSynchronizationManager.unbindResourceIfPossible(BalanceService.this);
+                }
+            });
+        } else if (affected.isBefore(earliest[0])) {
+            earliest[0] = affected;
+        }
+    }
+
+    @EventListener(ApplicationReadyEvent.class)
+    @Scheduled(fixedDelayString = "${fintrack.balance.checkpoint-refresh:10m}",
+            initialDelayString = "${fintrack.balance.checkpoint-refresh:10m}")
+    @Transactional
+    public void refreshCheckpoints() {
+        int added = balanceRepository.extendCheckpoints();
+        if (added > 0) {
+            log.debug("Added {} balance checkpoints", added);
+        }
+    }
+}
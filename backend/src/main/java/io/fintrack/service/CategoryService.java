@@ -1,24 +1,28 @@
 package io.fintrack.service;
 
+import io.fintrack.cache.WriteVersions;
 import io.fintrack.model.Category;
+import io.fintrack.model.Expense;
 import io.fintrack.repository.CategoryRepository;
+import io.fintrack.repository.ExpenseRepository;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.springframework.beans.factory.annotation.Value;
 import org.springframework.stereotype.Service;
 
-import java.util.List;
-
 @Service
-public class CategoryService {
-
-    private final CategoryRepository categoryRepository;
+public class CategoryService extends NameService<Category> {
 
-    public CategoryService(CategoryRepository categoryRepository) {
-        this.categoryRepository = categoryRepository;
+    public CategoryService(CategoryRepository categoryRepository,
+            ExpenseRepository expenseRepository,
+            WriteVersions writeVersions,
+            MeterRegistry meterRegistry,
+            @Value("${fintrack.cache.names.max-size:10000}") int cacheSize) {
+        super(categoryRepository, expenseRepository::countByCategory, writeVersions, WriteVersions.Table.CATEGORY, "category",
+                meterRegistry, cacheSize);
     }
 
-    public List<Category> searchByPrefix(String prefix) {
-        if (prefix == null || prefix.isBlank()) {
-            return categoryRepository.findAll();
-        }
-        return categoryRepository.findByNameStartingWithIgnoreCase(prefix);
+    @Override
+    protected Category referenceOf(Expense expense) {
+        return expense.getCategory();
     }
 }
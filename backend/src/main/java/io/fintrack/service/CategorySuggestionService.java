@@ -0,0 +1,177 @@
+package io.fintrack.service;
+
+import io.fintrack.cache.CategoryClassifier;
+import io.fintrack.cache.NameCache;
+import io.fintrack.dto.CategorySuggestion;
+import io.fintrack.event.ExpenseChangedEvent;
+import io.fintrack.model.Category;
+import io.fintrack.model.Expense;
+import io.fintrack.model.Merchant;
+import io.fintrack.repository.CategorySuggestionRepository;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.core.task.TaskExecutor;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.event.TransactionalEventListener;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Category suggestions for new expenses from a {@link CategoryClassifier}
+ * over the categorized expenses: loaded once at startup, then kept current
+ * by counting every committed create, update and delete in or out. Answers
+ * come from memory; only a merchant or category name the caches have not
+ * seen costs a lookup.
+ *
+ * Writes committed while the startup load is still reading may be counted
+ * twice; the model is a frequency estimate and a handful of rows doesn't
+ * move it. Nothing is suggested until the load has finished.
+ */
+@Service
+public class CategorySuggestionService {
+
+    private static final Logger log = LoggerFactory.getLogger(CategorySuggestionService.class);
+
+    private final CategorySuggestionRepository suggestionRepository;
+    private final CategoryService categoryService;
+    private final MerchantService merchantService;
+    private final TransactionTemplate transactionTemplate;
+    private final TaskExecutor taskExecutor;
+    private final boolean autoFill;
+    private final double minConfidence;
+    private final CategoryClassifier classifier = new CategoryClassifier();
+    private final Map<Long, String> categoryNames = new ConcurrentHashMap<>();
+    private final Counter autoFilledCounter;
+
+    private volatile boolean loaded;
+
+    public CategorySuggestionService(CategorySuggestionRepository suggestionRepository,
+            CategoryService categoryService,
+            MerchantService merchantService,
+            TransactionTemplate transactionTemplate,
+            @Qualifier("applicationTaskExecutor") TaskExecutor taskExecutor,
+            MeterRegistry meterRegistry,
+            @Value("${fintrack.categories.auto-fill:false}") boolean autoFill,
+            @Value("${fintrack.categories.auto-fill-min-confidence:0.6}") double minConfidence) {
+        this.suggestionRepository = suggestionRepository;
+        this.categoryService = categoryService;
+        this.merchantService = merchantService;
+        this.transactionTemplate = transactionTemplate;
+        this.taskExecutor = taskExecutor;
+        this.autoFill = autoFill;
+        this.minConfidence = minConfidence;
+        this.autoFilledCounter = Counter.builder("fintrack.categories.auto-filled")
+                .description("Expenses created without a category that were given the suggested one")
+                .register(meterRegistry);
+        Gauge.builder("fintrack.categories.classifier.features", classifier, CategoryClassifier::size)
+                .description("Item tokens and merchants the category classifier has counts for")
+                .register(meterRegistry);
+    }
+
+    @EventListener(ApplicationReadyEvent.class)
+    public void load() {
+        taskExecutor.execute(() -> {
+            try {
+                long started = System.nanoTime();
+                categoryNames.putAll(suggestionRepository.categoryNames());
+                Long rows = transactionTemplate.execute(status -> suggestionRepository.loadInto(classifier));
+                loaded = true;
+                log.info("Loaded category classifier from {} expenses ({} features) in {} ms", rows,
+                        classifier.size(), (System.nanoTime() - started) / 1_000_000);
+            } catch (RuntimeException ex) {
+                log.warn("Could not load the category classifier; no suggestions until restart", ex);
+            }
+        });
+    }
+
+    /**
+     * Most likely categories for an expense with this item and merchant,
+     * best first. An unknown merchant is simply left out of the evidence.
+     */
+    public List<CategorySuggestion> suggest(String item, String merchantName, int limit) {
+        String merchant = ExpenseService.normalize(merchantName);
+        if ((item == null || item.isBlank()) && merchant == null) {
+            throw new IllegalArgumentException("Item or merchant must be given");
+        }
+        if (!loaded) {
+            return List.of();
+        }
+        Long merchantId = null;
+        if (merchant != null) {
+            Merchant found = merchantService.findExisting(List.of(merchant)).get(NameCache.key(merchant));
+            merchantId = found != null ? found.getId() : null;
+        }
+
+        List<CategorySuggestion> suggestions = new ArrayList<>();
+        for (CategoryClassifier.Suggestion suggestion : classifier.suggest(item, merchantId, limit)) {
+            String name = categoryName(suggestion.categoryId());
+            if (name != null) {
+                suggestions.add(new CategorySuggestion(suggestion.categoryId(), name, suggestion.confidence()));
+            }
+        }
+        return suggestions;
+    }
+
+    /**
+     * The category to give an expense created without one, when
+     * fintrack.categories.auto-fill is on and the best suggestion reaches
+     * fintrack.categories.auto-fill-min-confidence; otherwise null.
+     */
+    public Category autoFill(String item, Merchant merchant) {
+        if (!autoFill || !loaded) {
+            return null;
+        }
+        List<CategoryClassifier.Suggestion> best = classifier.suggest(item,
+                merchant != null ? merchant.getId() : null, 1);
+        if (best.isEmpty() || best.get(0).confidence() < minConfidence) {
+            return null;
+        }
+        String name = categoryName(best.get(0).categoryId());
+        if (name == null) {
+            return null;
+        }
+        Category category = categoryService.findExisting(List.of(name)).get(NameCache.key(name));
+        if (category != null) {
+            autoFilledCounter.increment();
+        }
+        return category;
+    }
+
+    @TransactionalEventListener
+    public void onExpenseChanged(ExpenseChangedEvent event) {
+        switch (event.getType()) {
+            case CREATED -> learn(event.getExpense(), 1);
+            case UPDATED -> {
+                learn(event.getPrevious(), -1);
+                learn(event.getExpense(), 1);
+            }
+            case DELETED -> learn(event.getExpense(), -1);
+        }
+    }
+
+    // Ids only: category and merchant may be uninitialized proxies once the transaction is over
+    private void learn(Expense expense, long count) {
+        if (expense == null || expense.getCategory() == null) {
+            return;
+        }
+        Merchant merchant = expense.getMerchant();
+        classifier.add(expense.getItem(), merchant != null ? merchant.getId() : null,
+                expense.getCategory().getId(), count);
+    }
+
+    // Categories created since the load are looked up once
+    private String categoryName(long categoryId) {
+        return categoryNames.computeIfAbsent(categoryId, suggestionRepository::categoryName);
+    }
+}
@@ -0,0 +1,269 @@
+package io.fintrack.service;
+
+import io.fintrack.bulkhead.DbBulkhead;
+import io.fintrack.cache.BloomFilter;
+import io.fintrack.dto.DuplicateCandidate;
+import io.fintrack.dto.ExpenseView;
+import io.fintrack.event.ExpenseChangedEvent;
+import io.fintrack.model.Expense;
+import io.fintrack.model.ExpenseFingerprint;
+import io.fintrack.model.Merchant;
+import io.fintrack.repository.ExpenseFingerprintRepository;
+import io.fintrack.repository.ExpenseRepository;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.core.task.TaskExecutor;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.event.TransactionalEventListener;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.function.Function;
+import java.util.stream.Collectors;
+
+/**
+ * Duplicate detection for new expenses. An expense is a probable duplicate
+ * of an existing one with the same {@link ExpenseFingerprint} (txn_date,
+ * amount, normalized item, merchant, bank) dated the same day (exact) or up
+ * to fintrack.dedup.window-days apart (near: the same transaction booked on
+ * a different day, e.g. card authorisation vs settlement).
+ *
+ * Every stored fingerprint is also added to a {@link BloomFilter}, and a
+ * candidate's fingerprints for each day of the window are probed there
+ * first: the usual case, not a duplicate, is answered without touching the
+ * database. Only a probable match is looked up on the fingerprint index.
+ * Until the filter is loaded at startup every check goes to the database.
+ *
+ * Deleted expenses stay in the filter; they only cost a lookup that finds
+ * nothing. The filter is rebuilt on each start.
+ *
+ * Expenses written together (a batch create, an ingest group, an import
+ * chunk) are not in the database or the filter while the batch is built, so
+ * a {@link Batch} also matches each one against those saved before it.
+ */
+@Service
+public class DuplicateDetectionService {
+
+    private static final Logger log = LoggerFactory.getLogger(DuplicateDetectionService.class);
+
+    private static final int BACKFILL_BATCH = 5_000;
+    private static final int MAX_REVIEW_ROWS = 200;
+
+    public record Match(long expenseId, LocalDate txnDate, boolean exact) {
+    }
+
+    private final ExpenseFingerprintRepository fingerprintRepository;
+    private final ExpenseRepository expenseRepository;
+    private final TransactionTemplate transactionTemplate;
+    private final TaskExecutor taskExecutor;
+    private final boolean enabled;
+    private final int windowDays;
+    private final BloomFilter filter;
+    private final Counter filteredCounter;
+    private final Counter lookupCounter;
+    private final Counter matchCounter;
+
+    private volatile boolean loaded;
+
+    public DuplicateDetectionService(ExpenseFingerprintRepository fingerprintRepository,
+            ExpenseRepository expenseRepository,
+            TransactionTemplate transactionTemplate,
+            @Qualifier("applicationTaskExecutor") TaskExecutor taskExecutor,
+            MeterRegistry meterRegistry,
+            @Value("${fintrack.dedup.enabled:true}") boolean enabled,
+            @Value("${fintrack.dedup.window-days:3}") int windowDays,
+            @Value("${fintrack.dedup.bloom.expected-keys:2000000}") long expectedKeys,
+            @Value("${fintrack.dedup.bloom.false-positive-rate:0.01}") double falsePositiveRate) {
+        this.fingerprintRepository = fingerprintRepository;
+        this.expenseRepository = expenseRepository;
+        this.transactionTemplate = transactionTemplate;
+        this.taskExecutor = taskExecutor;
+        this.enabled = enabled;
+        this.windowDays = Math.max(windowDays, 0);
+        this.filter = new BloomFilter(expectedKeys, falsePositiveRate);
+        this.filteredCounter = Counter.builder("fintrack.dedup.checks").tag("result", "filtered")
+                .description("Duplicate checks answered by the Bloom filter alone")
+                .register(meterRegistry);
+        this.lookupCounter = Counter.builder("fintrack.dedup.checks").tag("result", "lookup")
+                .description("Duplicate checks that needed a database lookup")
+                .register(meterRegistry);
+        this.matchCounter = Counter.builder("fintrack.dedup.checks").tag("result", "match")
+                .description("Duplicate checks that found a probable duplicate")
+                .register(meterRegistry);
+    }
+
+    // Fingerprints rows written before V15, then fills the filter; off the startup thread
+    @EventListener(ApplicationReadyEvent.class)
+    public void load() {
+        if (!enabled) {
+            return;
+        }
+        taskExecutor.execute(() -> {
+            try {
+                long started = System.nanoTime();
+                long afterId = 0;
+                do {
+                    afterId = fingerprintRepository.backfill(afterId, BACKFILL_BATCH);
+                } while (afterId >= 0);
+                long[] keys = { 0 };
+                transactionTemplate.executeWithoutResult(status -> fingerprintRepository.forEachFingerprint(fp -> {
+                    filter.add(fp);
+                    keys[0]++;
+                }));
+                loaded = true;
+                log.info("Loaded {} expense fingerprints into a {} KB Bloom filter in {} ms", keys[0],
+                        filter.bitSize() / 8 / 1024, (System.nanoTime() - started) / 1_000_000);
+            } catch (RuntimeException ex) {
+                log.warn("Could not load expense fingerprints; duplicate checks stay on the database", ex);
+            }
+        });
+    }
+
+    /**
+     * Marks the expense (not yet saved) as a probable duplicate if one is
+     * found; it is still inserted, and shows up for review.
+     */
+    public Match flag(Expense expense) {
+        Match match = findMatch(expense);
+        if (match != null) {
+            expense.setDuplicateOf(match.expenseId());
+        }
+        return match;
+    }
+
+    // The closest probable duplicate of an expense not yet saved, or null
+    public Match findMatch(Expense expense) {
+        if (!enabled) {
+            return null;
+        }
+        LocalDate date = expense.getTxnDate();
+        List<Long> candidates = new ArrayList<>(2 * windowDays + 1);
+        for (int offset = -windowDays; offset <= windowDays; offset++) {
+            long fingerprint = fingerprintOn(expense, date.plusDays(offset));
+            if (!loaded || filter.mightContain(fingerprint)) {
+                candidates.add(fingerprint);
+            }
+        }
+        if (candidates.isEmpty()) {
+            filteredCounter.increment();
+            return null;
+        }
+
+        lookupCounter.increment();
+        ExpenseFingerprintRepository.Match found = fingerprintRepository.findClosest(candidates, date,
+                date.minusDays(windowDays), date.plusDays(windowDays));
+        if (found == null) {
+            return null;
+        }
+        matchCounter.increment();
+        return new Match(found.id(), found.txnDate(), found.txnDate().equals(date));
+    }
+
+    private static long fingerprintOn(Expense expense, LocalDate day) {
+        Merchant merchant = expense.getMerchant();
+        return ExpenseFingerprint.of(day, expense.getAmount(), expense.getItem(),
+                merchant != null ? merchant.getId() : null, expense.getBank());
+    }
+
+    public Batch newBatch() {
+        return new Batch();
+    }
+
+    /**
+     * The expenses of one batch saved so far, by fingerprint. Expenses are
+     * flagged and saved one after the other: {@link #flag} an expense (after
+     * the usual check against stored ones), save it, then {@link #add} it, so
+     * the next ones can point at its id.
+     */
+    public final class Batch {
+
+        private final Map<Long, Expense> saved = new HashMap<>();
+
+        private Batch() {
+        }
+
+        /**
+         * Marks the expense (not yet saved) as a probable duplicate of the
+         * closest one saved earlier in this batch, unless it is already
+         * flagged as a duplicate of a stored expense.
+         */
+        public Match flag(Expense expense) {
+            if (!enabled || saved.isEmpty() || expense.getDuplicateOf() != null) {
+                return null;
+            }
+            LocalDate date = expense.getTxnDate();
+            for (int distance = 0; distance <= windowDays; distance++) {
+                for (int offset : distance == 0 ? new int[] { 0 } : new int[] { -distance, distance }) {
+                    Expense sibling = saved.get(fingerprintOn(expense, date.plusDays(offset)));
+                    if (sibling != null) {
+                        matchCounter.increment();
+                        expense.setDuplicateOf(sibling.getId());
+                        return new Match(sibling.getId(), sibling.getTxnDate(), offset == 0);
+                    }
+                }
+            }
+            return null;
+        }
+
+        // The expense once saved (it has its id); the first with a fingerprint is the one matched
+        public void add(Expense expense) {
+            if (enabled) {
+                saved.putIfAbsent(ExpenseFingerprint.of(expense), expense);
+            }
+        }
+    }
+
+    // Newest first, each with the expense it looks like (null if that one was deleted since)
+    @DbBulkhead
+    @Transactional(readOnly = true)
+    public List<DuplicateCandidate> getFlagged() {
+        List<Expense> flagged = expenseRepository.findFlaggedDuplicates(PageRequest.of(0, MAX_REVIEW_ROWS));
+        if (flagged.isEmpty()) {
+            return List.of();
+        }
+        Map<Long, ExpenseView> originals = expenseRepository
+                .findViewsByIdIn(flagged.stream().map(Expense::getDuplicateOf).distinct().toList()).stream()
+                .collect(Collectors.toMap(ExpenseView::getId, Function.identity()));
+        return flagged.stream()
+                .map(expense -> new DuplicateCandidate(ExpenseView.from(expense), expense.getDuplicateOf(),
+                        originals.get(expense.getDuplicateOf())))
+                .toList();
+    }
+
+    /**
+     * Clears the flag: the expense is not a duplicate after all. (To drop a
+     * real duplicate, delete the expense.)
+     *
+     * @return false if there is no expense with that id
+     */
+    @DbBulkhead
+    @Transactional
+    public boolean dismiss(Long id) {
+        Expense expense = expenseRepository.findById(id).orElse(null);
+        if (expense == null) {
+            return false;
+        }
+        expense.setDuplicateOf(null);
+        return true;
+    }
+
+    @TransactionalEventListener
+    public void onExpenseChanged(ExpenseChangedEvent event) {
+        Long fingerprint = event.getExpense().getFingerprint();
+        if (event.getType() != ExpenseChangedEvent.ChangeType.DELETED && fingerprint != null) {
+            filter.add(fingerprint);
+        }
+    }
+}
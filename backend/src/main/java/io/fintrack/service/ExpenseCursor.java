@@ -0,0 +1,30 @@
+package io.fintrack.service;
+
+import java.nio.charset.StandardCharsets;
+import java.time.LocalDate;
+import java.time.format.DateTimeParseException;
+import java.util.Base64;
+
+/**
+ * Position in the (txn_date DESC, id DESC) ordering: the last row of the
+ * previous page. Encoded as an opaque URL-safe token so clients don't build
+ * cursors themselves.
+ */
+public record ExpenseCursor(LocalDate txnDate, long id) {
+
+    public String encode() {
+        String raw = txnDate + ":" + id;
+        return Base64.getUrlEncoder().withoutPadding().encodeToString(raw.getBytes(StandardCharsets.UTF_8));
+    }
+
+    public static ExpenseCursor decode(String token) {
+        try {
+            String raw = new String(Base64.getUrlDecoder().decode(token), StandardCharsets.UTF_8);
+            int separator = raw.indexOf(':');
+            return new ExpenseCursor(LocalDate.parse(raw.substring(0, separator)),
+                    Long.parseLong(raw.substring(separator + 1)));
+        } catch (IllegalArgumentException | IndexOutOfBoundsException | DateTimeParseException ex) {
+            throw new IllegalArgumentException("Invalid cursor: " + token);
+        }
+    }
+}
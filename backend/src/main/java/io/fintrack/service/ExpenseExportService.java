@@ -0,0 +1,133 @@
+package io.fintrack.service;
+
+import com.fasterxml.jackson.core.JsonEncoding;
+import com.fasterxml.jackson.core.JsonGenerator;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.ObjectWriter;
+import com.fasterxml.jackson.databind.SerializationFeature;
+import io.fintrack.dto.ExpenseView;
+import io.fintrack.repository.ExpenseExportRepository;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.io.BufferedWriter;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.io.OutputStreamWriter;
+import java.io.UncheckedIOException;
+import java.io.Writer;
+import java.nio.charset.StandardCharsets;
+import java.time.LocalDate;
+import java.time.format.DateTimeFormatter;
+import java.util.function.Consumer;
+
+/**
+ * Writes expenses straight from a JDBC cursor to an output stream, so memory
+ * use stays flat however large the table is. No entities are loaded.
+ *
+ * JSON and NDJSON rows are serialized {@link ExpenseView}s, the same shape as
+ * every other expense read endpoint; CSV uses the column names the statement
+ * importer understands, so exports re-import.
+ */
+@Service
+public class ExpenseExportService {
+
+    public enum Format {
+        JSON,   // one JSON array
+        NDJSON, // one JSON object per line
+        CSV
+    }
+
+    private static final LocalDate MIN_DATE = LocalDate.of(1, 1, 1);
+    private static final LocalDate MAX_DATE = LocalDate.of(9999, 12, 31);
+    private static final DateTimeFormatter TIMESTAMP = DateTimeFormatter.ISO_LOCAL_DATE_TIME;
+
+    private final ExpenseExportRepository exportRepository;
+    private final TransactionTemplate readOnlyTransaction;
+    private final ObjectMapper objectMapper;
+    private final ObjectWriter rowWriter;
+
+    public ExpenseExportService(ExpenseExportRepository exportRepository,
+            TransactionTemplate transactionTemplate,
+            ObjectMapper objectMapper) {
+        this.exportRepository = exportRepository;
+        this.readOnlyTransaction = new TransactionTemplate(transactionTemplate.getTransactionManager());
+        this.readOnlyTransaction.setReadOnly(true);
+        this.objectMapper = objectMapper;
+        // let the generator's buffer decide when to write, not every row
+        this.rowWriter = objectMapper.writerFor(ExpenseView.class)
+                .without(SerializationFeature.FLUSH_AFTER_WRITE_VALUE);
+    }
+
+    public void export(Format format, LocalDate from, LocalDate to, OutputStream out) throws IOException {
+        LocalDate fromDate = from != null ? from : MIN_DATE;
+        LocalDate toDate = to != null ? to : MAX_DATE;
+        try {
+            switch (format) {
+                case JSON, NDJSON -> writeJson(format, fromDate, toDate, out);
+                case CSV -> writeCsv(fromDate, toDate, out);
+            }
+        } catch (UncheckedIOException ex) {
+            throw ex.getCause();
+        }
+    }
+
+    private void writeJson(Format format, LocalDate from, LocalDate to, OutputStream out) throws IOException {
+        boolean array = format == Format.JSON;
+        try (JsonGenerator json = objectMapper.getFactory().createGenerator(out, JsonEncoding.UTF8)) {
+            if (array) {
+                json.writeStartArray();
+            }
+            stream(from, to, view -> {
+                try {
+                    rowWriter.writeValue(json, view);
+                    if (!array) {
+                        json.writeRaw('\n');
+                    }
+                } catch (IOException ex) {
+                    throw new UncheckedIOException(ex);
+                }
+            });
+            if (array) {
+                json.writeEndArray();
+            }
+        }
+    }
+
+    private void writeCsv(LocalDate from, LocalDate to, OutputStream out) throws IOException {
+        Writer csv = new BufferedWriter(new OutputStreamWriter(out, StandardCharsets.UTF_8));
+        csv.write("id,txn_date,amount,item,category,merchant,payment_method,bank,paid_by,entry_type,notes,created_at\n");
+        stream(from, to, view -> {
+            try {
+                csv.write(view.getId() + "," + view.getTxnDate() + "," + view.getAmount().toPlainString());
+                for (String field : new String[] { view.getItem(), view.getCategoryName(), view.getMerchantName(),
+                        view.getPaymentMethod().name(), view.getBank(), view.getPaidBy(),
+                        view.getEntryType().name(), view.getNotes(),
+                        view.getCreatedAt() != null ? TIMESTAMP.format(view.getCreatedAt()) : null }) {
+                    csv.write(',');
+                    csv.write(csvField(field));
+                }
+                csv.write('\n');
+            } catch (IOException ex) {
+                throw new UncheckedIOException(ex);
+            }
+        });
+        csv.flush();
+    }
+
+    private static String csvField(String value) {
+        if (value == null) {
+            return "";
+        }
+        if (value.indexOf(',') < 0 && value.indexOf('"') < 0 && value.indexOf('\n') < 0 && value.indexOf('\r') < 0) {
+            return value;
+        }
+        return '"' + value.replace("\"", "\"\"") + '"';
+    }
+
+    // The cursor only streams inside a transaction; IOExceptions are tunnelled
+    // through the JDBC callback and unwrapped in export()
+    private void stream(LocalDate from, LocalDate to, Consumer<ExpenseView> consumer) {
+        readOnlyTransaction.executeWithoutResult(status -> exportRepository.streamBetween(from, to, consumer));
+    }
+}
@@ -0,0 +1,226 @@
+package io.fintrack.service;
+
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import io.fintrack.dto.ExpenseFeedEvent;
+import io.fintrack.dto.ExpenseView;
+import io.fintrack.dto.MonthlyTotalsEvent;
+import io.fintrack.event.ExpenseChangedEvent;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.annotation.PreDestroy;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.event.TransactionalEventListener;
+import org.springframework.web.server.ResponseStatusException;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
+
+import java.io.IOException;
+import java.time.Duration;
+import java.time.YearMonth;
+import java.util.Iterator;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Server-sent events feed of committed expense changes, so the dashboard can
+ * update without polling. Events:
+ * <ul>
+ * <li>{@code expense}: an {@link ExpenseFeedEvent} per created, updated or deleted expense</li>
+ * <li>{@code totals}: a {@link MonthlyTotalsEvent} for each month that changed, at most once per
+ * {@code fintrack.feed.totals-interval} however many rows were written</li>
+ * <li>{@code resync}: this subscriber fell behind and events were dropped; reload</li>
+ * </ul>
+ *
+ * Each event is serialized once and fanned out to every subscriber's bounded
+ * queue. A full queue drops its oldest event, so a slow tab loses events (and
+ * is told to resync) instead of growing memory or slowing anyone else down.
+ * Every subscriber has its own virtual thread doing the blocking writes.
+ */
+@Service
+public class ExpenseFeedService {
+
+    private static final Logger log = LoggerFactory.getLogger(ExpenseFeedService.class);
+
+    private record Message(long id, String name, String data) {
+    }
+
+    private static final Message HEARTBEAT = new Message(0, null, null);
+    private static final Message CLOSE = new Message(0, null, null);
+
+    private final ExpenseService expenseService;
+    private final ObjectMapper objectMapper;
+    private final int bufferSize;
+    private final int maxSubscribers;
+    private final long timeoutMillis;
+    private final Counter droppedCounter;
+
+    private final Set<Subscriber> subscribers = ConcurrentHashMap.newKeySet();
+    private final Set<YearMonth> dirtyMonths = ConcurrentHashMap.newKeySet();
+    private final AtomicLong sequence = new AtomicLong();
+
+    public ExpenseFeedService(ExpenseService expenseService,
+            ObjectMapper objectMapper,
+            MeterRegistry meterRegistry,
+            @Value("${fintrack.feed.buffer-size:256}") int bufferSize,
+            @Value("${fintrack.feed.max-subscribers:500}") int maxSubscribers,
+            @Value("${fintrack.feed.timeout:30m}") Duration timeout) {
+        this.expenseService = expenseService;
+        this.objectMapper = objectMapper;
+        this.bufferSize = bufferSize;
+        this.maxSubscribers = maxSubscribers;
+        this.timeoutMillis = timeout.toMillis();
+        this.droppedCounter = Counter.builder("fintrack.feed.dropped")
+                .description("Feed events dropped because a subscriber's buffer was full")
+                .register(meterRegistry);
+        Gauge.builder("fintrack.feed.subscribers", subscribers, Set::size)
+                .description("Open SSE feed connections")
+                .register(meterRegistry);
+    }
+
+    public SseEmitter subscribe() {
+        if (subscribers.size() >= maxSubscribers) {
+            throw new ResponseStatusException(HttpStatus.SERVICE_UNAVAILABLE, "Too many feed subscribers");
+        }
+        SseEmitter emitter = new SseEmitter(timeoutMillis);
+        Subscriber subscriber = new Subscriber(emitter);
+        subscribers.add(subscriber);
+        emitter.onCompletion(subscriber::close);
+        emitter.onTimeout(() -> {
+            subscriber.close();
+            emitter.complete();
+        });
+        emitter.onError(ex -> subscriber.close());
+        Thread.ofVirtual().name("feed-subscriber").start(subscriber::run);
+        return emitter;
+    }
+
+    @TransactionalEventListener
+    public void onExpenseChanged(ExpenseChangedEvent event) {
+        dirtyMonths.add(YearMonth.from(event.getExpense().getTxnDate()));
+        if (event.getPrevious() != null) {
+            dirtyMonths.add(YearMonth.from(event.getPrevious().getTxnDate()));
+        }
+        if (subscribers.isEmpty()) {
+            return;
+        }
+        broadcast("expense", new ExpenseFeedEvent(event.getType().name(), ExpenseView.from(event.getExpense()),
+                event.getPrevious() != null ? event.getPrevious().getTxnDate() : null));
+    }
+
+    // Coalesces bursts (e.g. a statement import) into one totals event per month
+    @Scheduled(fixedDelayString = "${fintrack.feed.totals-interval:1s}")
+    public void publishTotals() {
+        for (Iterator<YearMonth> it = dirtyMonths.iterator(); it.hasNext();) {
+            YearMonth month = it.next();
+            it.remove();
+            if (subscribers.isEmpty()) {
+                continue;
+            }
+            try {
+                broadcast("totals", new MonthlyTotalsEvent(month.toString(), expenseService.getMonthlyAnalytics(month)));
+            } catch (RuntimeException ex) {
+                dirtyMonths.add(month); // e.g. the DB bulkhead was full; try again next round
+                log.debug("Could not publish totals for {}", month, ex);
+                return;
+            }
+        }
+    }
+
+    // Keeps idle connections open through proxies and notices clients that went away
+    @Scheduled(fixedDelayString = "${fintrack.feed.heartbeat-interval:15s}")
+    public void heartbeat() {
+        subscribers.forEach(subscriber -> subscriber.offer(HEARTBEAT));
+    }
+
+    @PreDestroy
+    public void closeAll() {
+        subscribers.forEach(subscriber -> {
+            subscriber.close();
+            subscriber.emitter.complete();
+        });
+    }
+
+    private void broadcast(String name, Object payload) {
+        String data;
+        try {
+            data = objectMapper.writeValueAsString(payload);
+        } catch (JsonProcessingException ex) {
+            log.warn("Could not serialize {} feed event", name, ex);
+            return;
+        }
+        Message message = new Message(sequence.incrementAndGet(), name, data);
+        subscribers.forEach(subscriber -> subscriber.offer(message));
+    }
+
+    private final class Subscriber {
+        private final SseEmitter emitter;
+        private final BlockingQueue<Message> queue = new ArrayBlockingQueue<>(bufferSize);
+        private final AtomicLong dropped = new AtomicLong();
+        private volatile boolean closed;
+
+        Subscriber(SseEmitter emitter) {
+            this.emitter = emitter;
+        }
+
+        // Never blocks the publisher: a full queue loses its oldest message
+        void offer(Message message) {
+            while (!queue.offer(message)) {
+                if (queue.poll() != null) {
+                    dropped.incrementAndGet();
+                    droppedCounter.increment();
+                }
+            }
+        }
+
+        void close() {
+            if (closed) {
+                return;
+            }
+            closed = true;
+            subscribers.remove(this);
+            queue.clear();
+            queue.offer(CLOSE);
+        }
+
+        void run() {
+            try {
+                while (!closed) {
+                    Message message = queue.take();
+                    if (message == CLOSE) {
+                        break;
+                    }
+                    long lost = dropped.getAndSet(0);
+                    if (lost > 0) {
+                        emitter.send(SseEmitter.event().name("resync").data(Map.of("dropped", lost)));
+                    }
+                    if (message == HEARTBEAT) {
+                        emitter.send(SseEmitter.event().comment("heartbeat"));
+                    } else {
+                        emitter.send(SseEmitter.event()
+                                .id(Long.toString(message.id()))
+                                .name(message.name())
+                                .data(message.data(), MediaType.APPLICATION_JSON));
+                    }
+                }
+            } catch (IOException | IllegalStateException ex) {
+                // client went away or the emitter already completed
+                close();
+                emitter.complete();
+            } catch (InterruptedException ex) {
+                Thread.currentThread().interrupt();
+                close();
+            }
+        }
+    }
+}
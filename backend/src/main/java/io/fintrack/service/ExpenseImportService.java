@@ -0,0 +1,315 @@
+package io.fintrack.service;
+
+import io.fintrack.dto.CreateExpenseRequest;
+import io.fintrack.dto.ImportJobStatus;
+import io.fintrack.dto.ImportRowError;
+import io.fintrack.event.ExpenseChangedEvent;
+import io.fintrack.model.Category;
+import io.fintrack.model.Expense;
+import io.fintrack.model.Merchant;
+import io.fintrack.repository.ExpenseRepository;
+import io.fintrack.service.importer.CsvStatementReader;
+import io.fintrack.service.importer.ImportDefaults;
+import io.fintrack.service.importer.OfxStatementReader;
+import io.fintrack.service.importer.StatementFormat;
+import io.fintrack.service.importer.StatementReader;
+import io.fintrack.service.importer.StatementRow;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.core.task.TaskExecutor;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Map;
+import java.util.UUID;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Bulk import of bank statements. The upload is spooled to a temp file and then
+ * read one record at a time on a background thread; valid rows are written in
+ * chunks, each chunk in its own transaction and sent as JDBC batches. Category
+ * and merchant names go through the services' name caches, so each distinct
+ * name costs at most one lookup for the whole file.
+ *
+ * A bad row never fails the file: parse and validation errors are recorded on
+ * the job, and if a chunk is rejected by the database its rows are retried one
+ * by one so only the offending rows are lost.
+ *
+ * Rows that exactly match a stored expense (same fingerprint and date, as
+ * when statements overlap) are skipped and counted. Anything else is
+ * imported: a repeat of a row in the same chunk, or a near-duplicate a few
+ * days apart, is flagged for review instead (see
+ * {@link DuplicateDetectionService}). Chunks commit one by one, so a row
+ * from an earlier chunk is already stored by then.
+ */
+@Service
+public class ExpenseImportService {
+
+    private static final Logger log = LoggerFactory.getLogger(ExpenseImportService.class);
+
+    private static final int CHUNK_SIZE = 500;
+    private static final int MAX_REPORTED_ERRORS = 100;
+    private static final int MAX_RETAINED_JOBS = 100;
+
+    private final ExpenseRepository expenseRepository;
+    private final CategoryService categoryService;
+    private final MerchantService merchantService;
+    private final DuplicateDetectionService duplicateDetectionService;
+    private final TransactionTemplate transactionTemplate;
+    private final TaskExecutor taskExecutor;
+    private final ApplicationEventPublisher eventPublisher;
+
+    private final Map<String, ImportJob> jobs = new ConcurrentHashMap<>();
+
+    public ExpenseImportService(ExpenseRepository expenseRepository,
+            CategoryService categoryService,
+            MerchantService merchantService,
+            DuplicateDetectionService duplicateDetectionService,
+            TransactionTemplate transactionTemplate,
+            @Qualifier("applicationTaskExecutor") TaskExecutor taskExecutor,
+            ApplicationEventPublisher eventPublisher) {
+        this.expenseRepository = expenseRepository;
+        this.categoryService = categoryService;
+        this.merchantService = merchantService;
+        this.duplicateDetectionService = duplicateDetectionService;
+        this.transactionTemplate = transactionTemplate;
+        this.taskExecutor = taskExecutor;
+        this.eventPublisher = eventPublisher;
+    }
+
+    /**
+     * Copies the upload to a temp file and schedules the import.
+     *
+     * @return the initial job status; poll {@link #getStatus(String)} for progress
+     */
+    public ImportJobStatus startImport(InputStream upload, String fileName, StatementFormat format,
+            ImportDefaults defaults) throws IOException {
+        Path spool = Files.createTempFile("fintrack-import-", ".tmp");
+        try (upload) {
+            Files.copy(upload, spool, StandardCopyOption.REPLACE_EXISTING);
+        } catch (IOException ex) {
+            Files.deleteIfExists(spool);
+            throw ex;
+        }
+
+        ImportJob job = new ImportJob(UUID.randomUUID().toString(), format, fileName);
+        evictOldJobs();
+        jobs.put(job.id, job);
+        taskExecutor.execute(() -> run(job, spool, defaults));
+        return job.toStatus();
+    }
+
+    public ImportJobStatus getStatus(String jobId) {
+        ImportJob job = jobs.get(jobId);
+        if (job == null) {
+            throw new IllegalArgumentException("Import job not found with id: " + jobId);
+        }
+        return job.toStatus();
+    }
+
+    private void run(ImportJob job, Path spool, ImportDefaults defaults) {
+        job.status = "RUNNING";
+        log.info("Import {} started ({} {})", job.id, job.format, job.fileName);
+
+        List<StatementRow> chunk = new ArrayList<>(CHUNK_SIZE);
+
+        try (StatementReader reader = openReader(spool, job.format, defaults)) {
+            StatementRow row;
+            while ((row = reader.next()) != null) {
+                job.rowsRead.incrementAndGet();
+                if (row.isFailed()) {
+                    job.fail(row.getRowNumber(), row.getError());
+                    continue;
+                }
+                try {
+                    ExpenseService.validate(row.getRequest());
+                } catch (IllegalArgumentException ex) {
+                    job.fail(row.getRowNumber(), ex.getMessage());
+                    continue;
+                }
+                chunk.add(row);
+                if (chunk.size() == CHUNK_SIZE) {
+                    writeChunk(job, chunk);
+                    chunk.clear();
+                }
+            }
+            writeChunk(job, chunk);
+            job.status = "COMPLETED";
+            log.info("Import {} completed: {} imported, {} duplicates skipped, {} failed", job.id,
+                    job.imported.get(), job.duplicates.get(), job.failed.get());
+        } catch (Exception ex) {
+            job.status = "FAILED";
+            job.message = ex.getMessage();
+            log.warn("Import {} failed after {} rows", job.id, job.rowsRead.get(), ex);
+        } finally {
+            job.finishedAt = Instant.now();
+            try {
+                Files.deleteIfExists(spool);
+            } catch (IOException ex) {
+                log.warn("Could not delete import spool file {}", spool, ex);
+            }
+        }
+    }
+
+    private StatementReader openReader(Path spool, StatementFormat format, ImportDefaults defaults) throws IOException {
+        return switch (format) {
+            case CSV -> new CsvStatementReader(Files.newBufferedReader(spool, StandardCharsets.UTF_8), defaults);
+            case OFX -> new OfxStatementReader(Files.newBufferedReader(spool, StandardCharsets.ISO_8859_1), defaults);
+        };
+    }
+
+    private void writeChunk(ImportJob job, List<StatementRow> chunk) {
+        if (chunk.isEmpty()) {
+            return;
+        }
+
+        List<Expense> expenses = new ArrayList<>(chunk.size());
+        for (Iterator<StatementRow> it = chunk.iterator(); it.hasNext();) {
+            StatementRow row = it.next();
+            try {
+                Expense expense = toExpense(row.getRequest());
+                DuplicateDetectionService.Match match = duplicateDetectionService.findMatch(expense);
+                if (match != null && match.exact()) {
+                    // already there, e.g. from an overlapping statement
+                    job.duplicates.incrementAndGet();
+                    it.remove();
+                    continue;
+                }
+                if (match != null) {
+                    expense.setDuplicateOf(match.expenseId());
+                }
+                expenses.add(expense);
+            } catch (RuntimeException ex) {
+                job.fail(row.getRowNumber(), ex.getMessage());
+                it.remove();
+            }
+        }
+
+        try {
+            transactionTemplate.executeWithoutResult(status -> {
+                DuplicateDetectionService.Batch batch = duplicateDetectionService.newBatch();
+                for (Expense expense : expenses) {
+                    batch.flag(expense);
+                    Expense saved = expenseRepository.save(expense);
+                    batch.add(saved);
+                    eventPublisher.publishEvent(ExpenseChangedEvent.created(saved));
+                }
+            });
+            job.imported.addAndGet(expenses.size());
+        } catch (RuntimeException ex) {
+            log.debug("Import {}: batch of {} rejected, retrying row by row", job.id, expenses.size(), ex);
+            for (int i = 0; i < expenses.size(); i++) {
+                Expense expense = expenses.get(i);
+                expense.setId(null);
+                // a row flagged against one from the rolled-back batch is checked again against those committed
+                expense.setDuplicateOf(null);
+                duplicateDetectionService.flag(expense);
+                try {
+                    transactionTemplate.executeWithoutResult(status -> eventPublisher
+                            .publishEvent(ExpenseChangedEvent.created(expenseRepository.save(expense))));
+                    job.imported.incrementAndGet();
+                } catch (RuntimeException rowEx) {
+                    job.fail(chunk.get(i).getRowNumber(), rootMessage(rowEx));
+                }
+            }
+        }
+    }
+
+    // Names are resolved outside the chunk transaction, so a rejected chunk
+    // never takes newly created categories or merchants down with it
+    private Expense toExpense(CreateExpenseRequest request) {
+        Category category = null;
+        String categoryName = ExpenseService.normalize(request.getCategoryName());
+        if (categoryName != null) {
+            category = categoryService.resolveOrCreate(categoryName);
+        }
+
+        Merchant merchant = null;
+        String merchantName = ExpenseService.normalize(request.getMerchantName());
+        if (merchantName != null) {
+            merchant = merchantService.resolveOrCreate(merchantName);
+        }
+
+        return ExpenseService.toExpense(request, category, merchant);
+    }
+
+    private String rootMessage(Throwable ex) {
+        Throwable root = ex;
+        while (root.getCause() != null) {
+            root = root.getCause();
+        }
+        return root.getMessage();
+    }
+
+    private void evictOldJobs() {
+        if (jobs.size() < MAX_RETAINED_JOBS) {
+            return;
+        }
+        jobs.values().stream()
+                .filter(job -> job.finishedAt != null)
+                .min((a, b) -> a.finishedAt.compareTo(b.finishedAt))
+                .ifPresent(job -> jobs.remove(job.id));
+    }
+
+    private static class ImportJob {
+        private final String id;
+        private final StatementFormat format;
+        private final String fileName;
+        private final Instant startedAt = Instant.now();
+        private final AtomicLong rowsRead = new AtomicLong();
+        private final AtomicLong imported = new AtomicLong();
+        private final AtomicLong duplicates = new AtomicLong();
+        private final AtomicLong failed = new AtomicLong();
+        private final List<ImportRowError> errors = new ArrayList<>();
+        private volatile String status = "QUEUED";
+        private volatile String message;
+        private volatile Instant finishedAt;
+
+        ImportJob(String id, StatementFormat format, String fileName) {
+            this.id = id;
+            this.format = format;
+            this.fileName = fileName;
+        }
+
+        void fail(long row, String error) {
+            failed.incrementAndGet();
+            synchronized (errors) {
+                if (errors.size() < MAX_REPORTED_ERRORS) {
+                    errors.add(new ImportRowError(row, error));
+                }
+            }
+        }
+
+        ImportJobStatus toStatus() {
+            ImportJobStatus status = new ImportJobStatus();
+            status.setId(id);
+            status.setStatus(this.status);
+            status.setFormat(format.name());
+            status.setFileName(fileName);
+            status.setRowsRead(rowsRead.get());
+            status.setImported(imported.get());
+            status.setDuplicates(duplicates.get());
+            status.setFailed(failed.get());
+            synchronized (errors) {
+                status.setErrors(new ArrayList<>(errors));
+            }
+            status.setMessage(message);
+            status.setStartedAt(startedAt);
+            status.setFinishedAt(finishedAt);
+            return status;
+        }
+    }
+}
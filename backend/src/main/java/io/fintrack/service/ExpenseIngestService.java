@@ -0,0 +1,466 @@
+package io.fintrack.service;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import io.fintrack.cache.NameCache;
+import io.fintrack.dto.CreateExpenseRequest;
+import io.fintrack.dto.IngestReceipt;
+import io.fintrack.event.ExpenseChangedEvent;
+import io.fintrack.model.Category;
+import io.fintrack.model.Expense;
+import io.fintrack.model.Merchant;
+import io.fintrack.repository.ExpenseRepository;
+import io.fintrack.repository.IngestCheckpointRepository;
+import io.fintrack.service.ingest.IngestJournal;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.annotation.PreDestroy;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.context.event.EventListener;
+import org.springframework.dao.DataIntegrityViolationException;
+import org.springframework.http.HttpStatus;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.support.TransactionTemplate;
+import org.springframework.util.unit.DataSize;
+import org.springframework.web.server.ResponseStatusException;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.file.Path;
+import java.time.Duration;
+import java.time.LocalDate;
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.Deque;
+import java.util.HashSet;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Write-behind expense creation for high-rate clients such as a statement
+ * sync (POST /api/v1/expenses/ingest, off unless fintrack.ingest.enabled).
+ *
+ * A request is validated, appended to a local {@link IngestJournal}, fsynced
+ * (sharing the fsync with whatever else arrived meanwhile) and acknowledged
+ * with its journal sequence number as pending id. A single writer thread
+ * drains the queue and inserts a group of up to fintrack.ingest.group-size
+ * rows, or whatever arrived within fintrack.ingest.max-delay of the first,
+ * in one transaction that also advances ingest_checkpoint. On startup every
+ * journal entry past the checkpoint is written before anything new, so an
+ * acknowledged expense is inserted exactly once even across a crash.
+ *
+ * A full queue answers 429 rather than letting the backlog grow. A group the
+ * database rejects is retried row by row so only the offending rows fail.
+ * Any other error (e.g. the database is down) retries the same group; on its
+ * fintrack.ingest.max-attempts-th attempt the group is written row by row and
+ * a row that fails again gets a FAILED receipt, so one poison row can't stall
+ * ingestion. A row is only given up once ingest_checkpoint has moved past it,
+ * which can't happen while the database is unreachable.
+ *
+ * One journal per database: two instances with ingestion enabled would share
+ * one checkpoint.
+ */
+@Service
+public class ExpenseIngestService {
+
+    private static final Logger log = LoggerFactory.getLogger(ExpenseIngestService.class);
+
+    private static final String JOURNAL = "expense";
+    private static final int MAX_RETAINED_RESULTS = 10_000;
+    private static final Duration RETRY_DELAY = Duration.ofSeconds(1);
+
+    private record Pending(long seq, CreateExpenseRequest request) {
+    }
+
+    private final ExpenseRepository expenseRepository;
+    private final IngestCheckpointRepository checkpointRepository;
+    private final CategoryService categoryService;
+    private final MerchantService merchantService;
+    private final DuplicateDetectionService duplicateDetectionService;
+    private final TransactionTemplate transactionTemplate;
+    private final ApplicationEventPublisher eventPublisher;
+    private final ObjectMapper objectMapper;
+    private final boolean enabled;
+    private final Path journalPath;
+    private final int groupSize;
+    private final long maxDelayNanos;
+    private final long compactBytes;
+    private final int maxAttempts;
+    private final Counter rejectedCounter;
+
+    private final BlockingQueue<Pending> queue;
+    private final Deque<Pending> backlog = new ArrayDeque<>();  // replayed entries; writer thread only
+    private final Map<Long, IngestReceipt> results;
+
+    private final Object lock = new Object();
+    private IngestJournal journal;     // guarded by lock; null unless accepting
+    private long nextSeq;              // guarded by lock
+    private volatile long committedSeq;
+    private volatile boolean running;
+    private Thread writer;
+
+    public ExpenseIngestService(ExpenseRepository expenseRepository,
+            IngestCheckpointRepository checkpointRepository,
+            CategoryService categoryService,
+            MerchantService merchantService,
+            DuplicateDetectionService duplicateDetectionService,
+            TransactionTemplate transactionTemplate,
+            ApplicationEventPublisher eventPublisher,
+            ObjectMapper objectMapper,
+            MeterRegistry meterRegistry,
+            @Value("${fintrack.ingest.enabled:false}") boolean enabled,
+            @Value("${fintrack.ingest.journal:data/ingest/expense.journal}") String journalPath,
+            @Value("${fintrack.ingest.queue-capacity:10000}") int queueCapacity,
+            @Value("${fintrack.ingest.group-size:500}") int groupSize,
+            @Value("${fintrack.ingest.max-delay:50ms}") Duration maxDelay,
+            @Value("${fintrack.ingest.compact-size:64MB}") DataSize compactSize,
+            @Value("${fintrack.ingest.max-attempts:5}") int maxAttempts) {
+        this.expenseRepository = expenseRepository;
+        this.checkpointRepository = checkpointRepository;
+        this.categoryService = categoryService;
+        this.merchantService = merchantService;
+        this.duplicateDetectionService = duplicateDetectionService;
+        this.transactionTemplate = transactionTemplate;
+        this.eventPublisher = eventPublisher;
+        this.objectMapper = objectMapper;
+        this.enabled = enabled;
+        this.journalPath = Path.of(journalPath);
+        this.groupSize = groupSize;
+        this.maxDelayNanos = maxDelay.toNanos();
+        this.compactBytes = compactSize.toBytes();
+        this.maxAttempts = Math.max(1, maxAttempts);
+        this.queue = new ArrayBlockingQueue<>(queueCapacity);
+        this.results = Collections.synchronizedMap(new LinkedHashMap<>(16, 0.75f, false) {
+            @Override
+            protected boolean removeEldestEntry(Map.Entry<Long, IngestReceipt> eldest) {
+                return size() > MAX_RETAINED_RESULTS;
+            }
+        });
+        this.rejectedCounter = Counter.builder("fintrack.ingest.rejected")
+                .description("Ingest requests turned away with 429 because the queue was full")
+                .register(meterRegistry);
+        Gauge.builder("fintrack.ingest.queued", queue, BlockingQueue::size)
+                .description("Acknowledged ingest requests not yet written")
+                .register(meterRegistry);
+    }
+
+    public boolean isEnabled() {
+        return enabled;
+    }
+
+    // Replays the journal, then starts accepting
+    @EventListener(ApplicationReadyEvent.class)
+    public void start() throws IOException {
+        if (!enabled) {
+            return;
+        }
+        IngestJournal opened = IngestJournal.open(journalPath);
+        List<IngestJournal.Entry> entries = opened.recover();
+        long committed = checkpointRepository.lastSeq(JOURNAL);
+        long lastSeq = committed;
+        for (IngestJournal.Entry entry : entries) {
+            lastSeq = Math.max(lastSeq, entry.seq());
+            if (entry.seq() <= committed) {
+                continue;
+            }
+            try {
+                backlog.add(new Pending(entry.seq(), objectMapper.readValue(entry.payload(),
+                        CreateExpenseRequest.class)));
+            } catch (IOException ex) {
+                log.warn("Skipping unreadable ingest journal entry {}", entry.seq(), ex);
+                results.put(entry.seq(), IngestReceipt.failed(entry.seq(), "Unreadable journal entry"));
+            }
+        }
+        if (backlog.isEmpty() && opened.size() > 0) {
+            opened.reset();
+        }
+        if (!backlog.isEmpty()) {
+            log.info("Replaying {} ingested expenses from {}", backlog.size(), journalPath);
+        }
+
+        committedSeq = committed;
+        synchronized (lock) {
+            nextSeq = lastSeq + 1;
+            journal = opened;
+        }
+        running = true;
+        writer = Thread.ofPlatform().name("ingest-writer").daemon().start(this::drain);
+    }
+
+    /**
+     * Validates the request and journals it; it is written to the database
+     * shortly after.
+     *
+     * @throws IllegalArgumentException if the request is invalid
+     * @throws IngestQueueFullException if the queue is full
+     */
+    public IngestReceipt submit(CreateExpenseRequest request) {
+        if (request == null) {
+            throw new IllegalArgumentException("Expense must not be null");
+        }
+        if (request.getTxnDate() == null) {
+            request.setTxnDate(LocalDate.now());
+        }
+        ExpenseService.validate(request);
+        byte[] payload;
+        try {
+            payload = objectMapper.writeValueAsBytes(request);
+        } catch (IOException ex) {
+            throw new IllegalArgumentException("Expense could not be serialized", ex);
+        }
+
+        long seq;
+        long position;
+        IngestJournal target;
+        synchronized (lock) {
+            if (journal == null) {
+                throw new ResponseStatusException(HttpStatus.SERVICE_UNAVAILABLE, "Ingestion is not running");
+            }
+            if (queue.remainingCapacity() == 0) {
+                rejectedCounter.increment();
+                throw new IngestQueueFullException(1);
+            }
+            try {
+                position = journal.append(nextSeq, payload);
+            } catch (IOException ex) {
+                throw new UncheckedIOException("Could not append to the ingest journal", ex);
+            }
+            seq = nextSeq++;
+            target = journal;
+            queue.add(new Pending(seq, request));
+        }
+        try {
+            target.sync(position);
+        } catch (IOException ex) {
+            throw new UncheckedIOException("Could not sync the ingest journal", ex);
+        }
+        return IngestReceipt.pending(seq);
+    }
+
+    /**
+     * @throws IllegalArgumentException if the id was never issued, or its
+     *                                  result is no longer retained
+     */
+    public IngestReceipt getStatus(long pendingId) {
+        IngestReceipt result = results.get(pendingId);
+        if (result != null) {
+            return result;
+        }
+        long issued;
+        synchronized (lock) {
+            issued = nextSeq;
+        }
+        if (pendingId > committedSeq && pendingId < issued) {
+            return IngestReceipt.pending(pendingId);
+        }
+        throw new IllegalArgumentException("No ingested expense with pending id " + pendingId);
+    }
+
+    // Entries still queued stay in the journal and are replayed on the next start
+    @PreDestroy
+    public void stop() throws IOException, InterruptedException {
+        IngestJournal closing;
+        synchronized (lock) {
+            closing = journal;
+            journal = null;
+        }
+        if (closing == null) {
+            return;
+        }
+        running = false;
+        writer.join(RETRY_DELAY.multipliedBy(10).toMillis());
+        closing.close();
+    }
+
+    private void drain() {
+        List<Pending> group = new ArrayList<>(groupSize);
+        int failures = 0;  // of the current group
+        while (running) {
+            try {
+                if (group.isEmpty()) {
+                    fill(group);
+                    failures = 0;
+                }
+                if (!group.isEmpty()) {
+                    write(group, failures + 1 >= maxAttempts);
+                    group.clear();
+                }
+            } catch (InterruptedException ex) {
+                return;
+            } catch (RuntimeException ex) {
+                failures++;
+                log.warn("Could not write {} ingested expenses (attempt {}), retrying in {}", group.size(),
+                        failures, RETRY_DELAY, ex);
+                try {
+                    Thread.sleep(RETRY_DELAY);
+                } catch (InterruptedException interrupted) {
+                    return;
+                }
+            }
+        }
+    }
+
+    // Replayed entries first; then the first queued entry and whatever follows within max-delay
+    private void fill(List<Pending> group) throws InterruptedException {
+        while (!backlog.isEmpty() && group.size() < groupSize) {
+            group.add(backlog.poll());
+        }
+        if (!group.isEmpty()) {
+            return;
+        }
+        Pending first = queue.poll(1, TimeUnit.SECONDS);
+        if (first == null) {
+            return;
+        }
+        group.add(first);
+        long deadline = System.nanoTime() + maxDelayNanos;
+        while (group.size() < groupSize) {
+            queue.drainTo(group, groupSize - group.size());
+            long remaining = deadline - System.nanoTime();
+            if (group.size() >= groupSize || remaining <= 0) {
+                break;
+            }
+            Pending next = queue.poll(remaining, TimeUnit.NANOSECONDS);
+            if (next == null) {
+                break;
+            }
+            group.add(next);
+        }
+    }
+
+    // Entries are removed from the group as they are committed, so a retry never writes one twice.
+    // On the last attempt a failing group is split up, and rows that fail on their own are given up.
+    private void write(List<Pending> group, boolean lastAttempt) {
+        long lastSeq = group.get(group.size() - 1).seq();
+        try {
+            List<Expense> expenses = toExpenses(group);
+            List<Expense> saved = transactionTemplate.execute(status -> {
+                DuplicateDetectionService.Batch batch = duplicateDetectionService.newBatch();
+                List<Expense> inserted = new ArrayList<>(expenses.size());
+                for (Expense expense : expenses) {
+                    batch.flag(expense);
+                    Expense row = expenseRepository.save(expense);
+                    batch.add(row);
+                    inserted.add(row);
+                    eventPublisher.publishEvent(ExpenseChangedEvent.created(row));
+                }
+                checkpointRepository.advance(JOURNAL, lastSeq);
+                return inserted;
+            });
+            for (int i = 0; i < group.size(); i++) {
+                results.put(group.get(i).seq(), IngestReceipt.created(group.get(i).seq(), saved.get(i).getId()));
+            }
+            group.clear();
+        } catch (DataIntegrityViolationException ex) {
+            log.debug("Ingest group of {} rejected, retrying row by row", group.size(), ex);
+            writeEach(group, lastAttempt);
+        } catch (RuntimeException ex) {
+            if (!lastAttempt) {
+                throw ex;
+            }
+            log.warn("Ingest group of {} failed {} times, writing it row by row", group.size(), maxAttempts, ex);
+            writeEach(group, true);
+        }
+        committed(lastSeq);
+    }
+
+    private void writeEach(List<Pending> group, boolean lastAttempt) {
+        for (Iterator<Pending> it = group.iterator(); it.hasNext();) {
+            writeOne(it.next(), lastAttempt);
+            it.remove();
+        }
+    }
+
+    private void writeOne(Pending pending, boolean lastAttempt) {
+        try {
+            Expense expense = toExpenses(List.of(pending)).get(0);
+            Expense saved = transactionTemplate.execute(status -> {
+                Expense inserted = expenseRepository.save(expense);
+                eventPublisher.publishEvent(ExpenseChangedEvent.created(inserted));
+                checkpointRepository.advance(JOURNAL, pending.seq());
+                return inserted;
+            });
+            results.put(pending.seq(), IngestReceipt.created(pending.seq(), saved.getId()));
+        } catch (DataIntegrityViolationException ex) {
+            fail(pending, rootMessage(ex));
+        } catch (RuntimeException ex) {
+            if (!lastAttempt) {
+                throw ex;
+            }
+            log.warn("Giving up on ingested expense {} after {} attempts", pending.seq(), maxAttempts, ex);
+            fail(pending, rootMessage(ex));
+        }
+    }
+
+    // Throws, leaving the row to be retried, if the checkpoint can't be advanced past it
+    private void fail(Pending pending, String error) {
+        transactionTemplate.executeWithoutResult(status -> checkpointRepository.advance(JOURNAL, pending.seq()));
+        results.put(pending.seq(), IngestReceipt.failed(pending.seq(), error));
+    }
+
+    // Names are resolved outside the group transaction, as the statement importer does
+    private List<Expense> toExpenses(List<Pending> group) {
+        Set<String> categoryNames = new HashSet<>();
+        Set<String> merchantNames = new HashSet<>();
+        for (Pending pending : group) {
+            String categoryName = ExpenseService.normalize(pending.request().getCategoryName());
+            if (categoryName != null) {
+                categoryNames.add(categoryName);
+            }
+            String merchantName = ExpenseService.normalize(pending.request().getMerchantName());
+            if (merchantName != null) {
+                merchantNames.add(merchantName);
+            }
+        }
+        Map<String, Category> categories = categoryNames.isEmpty()
+                ? Map.of() : categoryService.resolveOrCreateAll(categoryNames);
+        Map<String, Merchant> merchants = merchantNames.isEmpty()
+                ? Map.of() : merchantService.resolveOrCreateAll(merchantNames);
+
+        List<Expense> expenses = new ArrayList<>(group.size());
+        for (Pending pending : group) {
+            String categoryName = ExpenseService.normalize(pending.request().getCategoryName());
+            String merchantName = ExpenseService.normalize(pending.request().getMerchantName());
+            Expense expense = ExpenseService.toExpense(pending.request(),
+                    categoryName != null ? categories.get(NameCache.key(categoryName)) : null,
+                    merchantName != null ? merchants.get(NameCache.key(merchantName)) : null);
+            duplicateDetectionService.flag(expense);
+            expenses.add(expense);
+        }
+        return expenses;
+    }
+
+    // Once nothing acknowledged is outstanding, a large journal is emptied
+    private void committed(long seq) {
+        committedSeq = seq;
+        synchronized (lock) {
+            if (journal == null || nextSeq - 1 != seq || journal.size() < compactBytes) {
+                return;
+            }
+            try {
+                journal.reset();
+            } catch (IOException ex) {
+                log.warn("Could not compact the ingest journal {}", journalPath, ex);
+            }
+        }
+    }
+
+    private String rootMessage(Throwable ex) {
+        Throwable root = ex;
+        while (root.getCause() != null) {
+            root = root.getCause();
+        }
+        return root.getMessage();
+    }
+}
@@ -0,0 +1,45 @@
+package io.fintrack.service;
+
+import io.fintrack.repository.ExpensePartitionRepository;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+
+/**
+ * Keeps yearly expense partitions created ahead of time (V11), so inserts for
+ * the coming years never fall into the default partition. Runs at startup and
+ * then daily; creating a partition that already exists is a no-op, so several
+ * instances can run it side by side.
+ */
+@Service
+public class ExpensePartitionService {
+
+    private static final Logger log = LoggerFactory.getLogger(ExpensePartitionService.class);
+
+    private final ExpensePartitionRepository repository;
+    private final int yearsAhead;
+
+    public ExpensePartitionService(ExpensePartitionRepository repository,
+            @Value("${fintrack.partitions.years-ahead:1}") int yearsAhead) {
+        this.repository = repository;
+        this.yearsAhead = Math.max(yearsAhead, 0);
+    }
+
+    @EventListener(ApplicationReadyEvent.class)
+    @Scheduled(cron = "${fintrack.partitions.cron:0 15 3 * * *}")
+    public void ensurePartitions() {
+        try {
+            int created = repository.ensurePartitions(yearsAhead);
+            if (created > 0) {
+                log.info("Created {} expense partition(s)", created);
+            }
+        } catch (RuntimeException ex) {
+            // not fatal: until it succeeds, new rows past the last partition go to expense_default
+            log.warn("Could not create expense partitions", ex);
+        }
+    }
+}
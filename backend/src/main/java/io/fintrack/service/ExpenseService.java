@@ -1,41 +1,88 @@
 package io.fintrack.service;
 
+import io.fintrack.bulkhead.DbBulkhead;
+import io.fintrack.cache.NameCache;
+import io.fintrack.dto.BatchCreateResponse;
+import io.fintrack.dto.BatchItemResult;
 import io.fintrack.dto.CreateExpenseRequest;
+import io.fintrack.dto.CursorPage;
+import io.fintrack.dto.ExpenseFilter;
+import io.fintrack.dto.ExpenseSearchHit;
+import io.fintrack.dto.ExpenseView;
 import io.fintrack.dto.MonthlyAnalyticsResponse;
+import io.fintrack.dto.RangeTotalsResponse;
+import io.fintrack.event.ExpenseChangedEvent;
 import io.fintrack.model.Category;
 import io.fintrack.model.EntryType;
 import io.fintrack.model.Expense;
 import io.fintrack.model.Merchant;
-import io.fintrack.repository.CategoryRepository;
 import io.fintrack.repository.ExpenseRepository;
-import io.fintrack.repository.MerchantRepository;
+import io.fintrack.repository.ExpenseSpecifications;
+import io.fintrack.repository.ExpenseTextSearchRepository;
+import org.springframework.context.ApplicationEventPublisher;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.PageRequest;
 import org.springframework.data.domain.Pageable;
 import org.springframework.data.domain.Sort;
+import org.springframework.data.jpa.domain.Specification;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
 
 import java.math.BigDecimal;
 import java.time.LocalDate;
+import java.time.YearMonth;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashSet;
 import java.util.List;
+import java.util.Locale;
+import java.util.Map;
 import java.util.Objects;
+import java.util.Optional;
+import java.util.Set;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
 
 @Service
 public class ExpenseService {
 
+    private static final LocalDate MIN_DATE = LocalDate.of(1, 1, 1);
+    private static final LocalDate MAX_DATE = LocalDate.of(9999, 12, 31);
+    private static final int MAX_BATCH_SIZE = 500;
+    private static final int MAX_SEARCH_TERMS = 8;
+    private static final Pattern SEARCH_WORD = Pattern.compile("[\\p{L}\\p{N}]+");
+
     private final ExpenseRepository expenseRepository;
-    private final CategoryRepository categoryRepository;
-    private final MerchantRepository merchantRepository;
+    private final ExpenseTextSearchRepository textSearchRepository;
+    private final CategoryService categoryService;
+    private final MerchantService merchantService;
+    private final MonthlySummaryService monthlySummaryService;
+    private final ExpenseSnapshotService snapshotService;
+    private final DuplicateDetectionService duplicateDetectionService;
+    private final CategorySuggestionService suggestionService;
+    private final ApplicationEventPublisher eventPublisher;
 
     public ExpenseService(ExpenseRepository expenseRepository,
-            CategoryRepository categoryRepository,
-            MerchantRepository merchantRepository) {
+            ExpenseTextSearchRepository textSearchRepository,
+            CategoryService categoryService,
+            MerchantService merchantService,
+            MonthlySummaryService monthlySummaryService,
+            ExpenseSnapshotService snapshotService,
+            DuplicateDetectionService duplicateDetectionService,
+            CategorySuggestionService suggestionService,
+            ApplicationEventPublisher eventPublisher) {
         this.expenseRepository = expenseRepository;
-        this.categoryRepository = categoryRepository;
-        this.merchantRepository = merchantRepository;
+        this.textSearchRepository = textSearchRepository;
+        this.categoryService = categoryService;
+        this.merchantService = merchantService;
+        this.monthlySummaryService = monthlySummaryService;
+        this.snapshotService = snapshotService;
+        this.duplicateDetectionService = duplicateDetectionService;
+        this.suggestionService = suggestionService;
+        this.eventPublisher = eventPublisher;
     }
 
+    @DbBulkhead
     @Transactional
     public Expense createExpense(CreateExpenseRequest request) {
         // Basic sanity checks (you can make this stricter later)
@@ -50,30 +97,156 @@ public class ExpenseService {
         Category category = null;
         String categoryName = normalize(request.getCategoryName());
         if (categoryName != null) {
-            category = categoryRepository
-                    .findByNameIgnoreCase(categoryName)
-                    .orElseGet(() -> {
-                        Category newCategory = new Category();
-                        newCategory.setName(categoryName);
-                        return categoryRepository.save(newCategory);
-                    });
+            category = categoryService.resolveOrCreate(categoryName);
         }
 
         // Handle merchant (optional, create if not exists)
         Merchant merchant = null;
         String merchantName = normalize(request.getMerchantName());
         if (merchantName != null) {
-            merchant = merchantRepository
-                    .findByNameIgnoreCase(merchantName)
-                    .orElseGet(() -> {
-                        Merchant newMerchant = new Merchant();
-                        newMerchant.setName(merchantName);
-                        return merchantRepository.save(newMerchant);
-                    });
+            merchant = merchantService.resolveOrCreate(merchantName);
+        }
+
+        // No category given: take the suggested one if auto-fill is on and it is confident enough
+        if (category == null) {
+            category = suggestionService.autoFill(request.getItem(), merchant);
+        }
+
+        // A probable duplicate is still saved, flagged for review
+        Expense expense = toExpense(request, category, merchant);
+        duplicateDetectionService.flag(expense);
+
+        // createdAt will be set by @PrePersist in Expense
+        Expense saved = expenseRepository.save(expense);
+        eventPublisher.publishEvent(ExpenseChangedEvent.created(saved));
+        return saved;
+    }
+
+    /**
+     * Creates many expenses in one transaction, e.g. an offline queue being
+     * replayed. Items that fail validation are reported and skipped; the rest
+     * have their category and merchant names resolved in bulk (one IN query
+     * per table, plus one more only for brand-new names) and are inserted as
+     * a single JDBC batch.
+     */
+    @DbBulkhead
+    @Transactional
+    public BatchCreateResponse createExpenses(List<CreateExpenseRequest> requests) {
+        if (requests == null || requests.isEmpty()) {
+            throw new IllegalArgumentException("Batch must contain at least one expense");
+        }
+        if (requests.size() > MAX_BATCH_SIZE) {
+            throw new IllegalArgumentException("Batch must contain at most " + MAX_BATCH_SIZE + " expenses");
+        }
+
+        BatchItemResult[] results = new BatchItemResult[requests.size()];
+        List<Integer> valid = new ArrayList<>();
+        Set<String> categoryNames = new HashSet<>();
+        Set<String> merchantNames = new HashSet<>();
+        for (int i = 0; i < requests.size(); i++) {
+            CreateExpenseRequest request = requests.get(i);
+            try {
+                if (request == null) {
+                    throw new IllegalArgumentException("Expense must not be null");
+                }
+                if (request.getTxnDate() == null) {
+                    request.setTxnDate(LocalDate.now());
+                }
+                validate(request);
+            } catch (IllegalArgumentException ex) {
+                results[i] = BatchItemResult.invalid(i, ex.getMessage());
+                continue;
+            }
+            valid.add(i);
+            String categoryName = normalize(request.getCategoryName());
+            if (categoryName != null) {
+                categoryNames.add(categoryName);
+            }
+            String merchantName = normalize(request.getMerchantName());
+            if (merchantName != null) {
+                merchantNames.add(merchantName);
+            }
         }
 
-        // Map request → Expense entity
+        Map<String, Category> categories = categoryNames.isEmpty()
+                ? Map.of() : categoryService.resolveOrCreateAll(categoryNames);
+        Map<String, Merchant> merchants = merchantNames.isEmpty()
+                ? Map.of() : merchantService.resolveOrCreateAll(merchantNames);
+
+        List<Expense> expenses = new ArrayList<>(valid.size());
+        for (int i : valid) {
+            CreateExpenseRequest request = requests.get(i);
+            String categoryName = normalize(request.getCategoryName());
+            String merchantName = normalize(request.getMerchantName());
+            expenses.add(toExpense(request,
+                    categoryName != null ? categories.get(NameCache.key(categoryName)) : null,
+                    merchantName != null ? merchants.get(NameCache.key(merchantName)) : null));
+        }
+
+        // Saved one by one so each can be flagged against those before it; the inserts still go out as one batch
+        DuplicateDetectionService.Batch batch = duplicateDetectionService.newBatch();
+        List<Expense> saved = new ArrayList<>(expenses.size());
+        for (Expense expense : expenses) {
+            duplicateDetectionService.flag(expense);
+            batch.flag(expense);
+            Expense inserted = expenseRepository.save(expense);
+            batch.add(inserted);
+            saved.add(inserted);
+        }
+        for (int j = 0; j < saved.size(); j++) {
+            Expense expense = saved.get(j);
+            eventPublisher.publishEvent(ExpenseChangedEvent.created(expense));
+            results[valid.get(j)] = BatchItemResult.created(valid.get(j), ExpenseView.from(expense));
+        }
+        return new BatchCreateResponse(saved.size(), requests.size() - saved.size(), Arrays.asList(results));
+    }
+
+    /**
+     * Replaces every field of an expense except its id and createdAt.
+     *
+     * @return the updated expense, or empty if there is no expense with that id
+     */
+    @DbBulkhead
+    @Transactional
+    public Optional<Expense> updateExpense(Long id, CreateExpenseRequest request) {
+        validate(request);
+        Expense expense = expenseRepository.findWithNamesById(id).orElse(null);
+        if (expense == null) {
+            return Optional.empty();
+        }
+
+        Expense previous = snapshot(expense);
+        String categoryName = normalize(request.getCategoryName());
+        String merchantName = normalize(request.getMerchantName());
+        apply(expense, request,
+                categoryName != null ? categoryService.resolveOrCreate(categoryName) : null,
+                merchantName != null ? merchantService.resolveOrCreate(merchantName) : null);
+        Expense saved = expenseRepository.save(expense);
+        eventPublisher.publishEvent(ExpenseChangedEvent.updated(previous, saved));
+        return Optional.of(saved);
+    }
+
+    // @return false if there is no expense with that id
+    @DbBulkhead
+    @Transactional
+    public boolean deleteExpense(Long id) {
+        Expense expense = expenseRepository.findWithNamesById(id).orElse(null);
+        if (expense == null) {
+            return false;
+        }
+        expenseRepository.delete(expense);
+        eventPublisher.publishEvent(ExpenseChangedEvent.deleted(expense));
+        return true;
+    }
+
+    // Map request → Expense entity
+    static Expense toExpense(CreateExpenseRequest request, Category category, Merchant merchant) {
         Expense expense = new Expense();
+        apply(expense, request, category, merchant);
+        return expense;
+    }
+
+    private static void apply(Expense expense, CreateExpenseRequest request, Category category, Merchant merchant) {
         expense.setTxnDate(request.getTxnDate());
         expense.setAmount(request.getAmount());
         expense.setItem(request.getItem());
@@ -84,35 +257,242 @@ public class ExpenseService {
         expense.setPaidBy(request.getPaidBy());
         expense.setEntryType(request.getEntryType());
         expense.setNotes(request.getNotes());
+    }
 
-        // createdAt will be set by @PrePersist in Expense
-        return expenseRepository.save(expense);
+    // Detached copy of the current state, for ExpenseChangedEvent.getPrevious()
+    private static Expense snapshot(Expense expense) {
+        Expense copy = new Expense();
+        copy.setId(expense.getId());
+        copy.setCreatedAt(expense.getCreatedAt());
+        copy.setTxnDate(expense.getTxnDate());
+        copy.setAmount(expense.getAmount());
+        copy.setItem(expense.getItem());
+        copy.setCategory(expense.getCategory());
+        copy.setMerchant(expense.getMerchant());
+        copy.setBank(expense.getBank());
+        copy.setPaymentMethod(expense.getPaymentMethod());
+        copy.setPaidBy(expense.getPaidBy());
+        copy.setEntryType(expense.getEntryType());
+        copy.setNotes(expense.getNotes());
+        return copy;
     }
 
-    private String normalize(String value) {
+    // Full check of the NOT NULL / length constraints on expense, so rows
+    // written in JDBC batches don't fail the whole batch at the database
+    static void validate(CreateExpenseRequest request) {
+        if (request.getTxnDate() == null) {
+            throw new IllegalArgumentException("Transaction date must not be empty");
+        }
+        if (request.getItem() == null || request.getItem().isBlank()) {
+            throw new IllegalArgumentException("Item must not be empty");
+        }
+        if (request.getAmount() == null) {
+            throw new IllegalArgumentException("Amount must not be empty");
+        }
+        if (request.getAmount().scale() > 2 || request.getAmount().precision() - request.getAmount().scale() > 10) {
+            throw new IllegalArgumentException("Amount must fit NUMERIC(12,2): " + request.getAmount());
+        }
+        if (request.getPaymentMethod() == null) {
+            throw new IllegalArgumentException("Payment method must not be empty");
+        }
+        if (request.getEntryType() == null) {
+            throw new IllegalArgumentException("Entry type must not be empty");
+        }
+        String paidBy = normalize(request.getPaidBy());
+        if (paidBy == null || paidBy.length() > 50) {
+            throw new IllegalArgumentException("Paid by must be between 1 and 50 characters");
+        }
+        String categoryName = normalize(request.getCategoryName());
+        if (categoryName != null && categoryName.length() > 100) {
+            throw new IllegalArgumentException("Category name must be at most 100 characters");
+        }
+        String merchantName = normalize(request.getMerchantName());
+        if (merchantName != null && merchantName.length() > 150) {
+            throw new IllegalArgumentException("Merchant name must be at most 150 characters");
+        }
+    }
+
+    static String normalize(String value) {
         if (value == null)
             return null;
         String trimmed = value.trim();
         return trimmed.isEmpty() ? null : trimmed;
     }
 
-    public List<Expense> getAllExpenses() {
-        return expenseRepository.findAll(Sort.by(Sort.Direction.DESC, "txnDate"));
-    }
-
-    public Expense getExpenseById(Long id) {
+    @DbBulkhead
+    public ExpenseView getExpenseById(Long id) {
         if (id == null) {
             throw new IllegalArgumentException("Expense id must not be null");
         }
-        return expenseRepository.findById(id)
+        return expenseRepository.findViewById(id)
                 .orElseThrow(() -> new IllegalArgumentException("Expense not found with id: " + id));
     }
 
-    public Page<Expense> getExpensesBetween(LocalDate from, LocalDate to, int page, int size) {
+    @DbBulkhead
+    public Page<ExpenseView> getExpensesBetween(LocalDate from, LocalDate to, int page, int size) {
         int safePage = Math.max(page, 0);
         int safeSize = Math.min(Math.max(size, 1), 50);
         Pageable pageable = PageRequest.of(safePage, safeSize, Sort.by(Sort.Direction.DESC, "txnDate"));
 
+        if (from == null && to == null) {
+            return expenseRepository.findViews(pageable);
+        }
+
+        LocalDate[] range = normalizeRange(from, to);
+        return expenseRepository.findViewsBetween(range[0], range[1], pageable);
+    }
+
+    /**
+     * Keyset ("cursor") variant of {@link #getExpensesBetween}: seeks on the
+     * (txn_date, id) index instead of skipping rows, so every page costs the
+     * same however deep it is, and runs no count query. Rows sharing a date
+     * are ordered by id, so nothing is skipped or repeated between pages.
+     */
+    @DbBulkhead
+    public CursorPage<ExpenseView> getExpensesBetween(LocalDate from, LocalDate to, String cursor, int size) {
+        int safeSize = Math.min(Math.max(size, 1), 50);
+        LocalDate[] range = (from == null && to == null)
+                ? new LocalDate[] { MIN_DATE, MAX_DATE }
+                : normalizeRange(from, to);
+
+        // fetch one extra row to learn whether there is a next page
+        Pageable limit = PageRequest.of(0, safeSize + 1);
+        List<ExpenseView> rows;
+        if (cursor == null || cursor.isBlank()) {
+            rows = expenseRepository.findPageBetween(range[0], range[1], limit);
+        } else {
+            ExpenseCursor position = ExpenseCursor.decode(cursor);
+            LocalDate upper = position.txnDate().isBefore(range[1]) ? position.txnDate() : range[1];
+            rows = expenseRepository.findPageBefore(range[0], upper, position.txnDate(), position.id(), limit);
+        }
+
+        boolean hasNext = rows.size() > safeSize;
+        List<ExpenseView> content = hasNext ? rows.subList(0, safeSize) : rows;
+        String nextCursor = null;
+        if (hasNext) {
+            ExpenseView last = content.get(content.size() - 1);
+            nextCursor = new ExpenseCursor(last.getTxnDate(), last.getId()).encode();
+        }
+        return new CursorPage<>(content, safeSize, hasNext, nextCursor);
+    }
+
+    /**
+     * Multi-criteria listing: the filters given are AND-ed into one query and
+     * paged by keyset like {@link #getExpensesBetween(LocalDate, LocalDate, String, int)}.
+     * Category and merchant names are resolved to ids first; if none of the
+     * requested names exist nothing can match and no query is run.
+     */
+    @DbBulkhead
+    @Transactional(readOnly = true)
+    public CursorPage<ExpenseView> filterExpenses(ExpenseFilter filter, String cursor, int size) {
+        int safeSize = Math.min(Math.max(size, 1), 50);
+        if (filter.getMinAmount() != null && filter.getMaxAmount() != null
+                && filter.getMinAmount().compareTo(filter.getMaxAmount()) > 0) {
+            throw new IllegalArgumentException("minAmount must not be greater than maxAmount");
+        }
+
+        Specification<Expense> spec = ExpenseSpecifications.withNames();
+        if (filter.getFrom() != null || filter.getTo() != null) {
+            LocalDate[] range = normalizeRange(filter.getFrom(), filter.getTo());
+            spec = spec.and(ExpenseSpecifications.onOrAfter(range[0]))
+                    .and(ExpenseSpecifications.onOrBefore(range[1]));
+        }
+        List<String> categoryNames = normalizeAll(filter.getCategory());
+        if (!categoryNames.isEmpty()) {
+            List<Long> ids = categoryService.findExisting(categoryNames).values().stream()
+                    .map(Category::getId).toList();
+            if (ids.isEmpty()) {
+                return new CursorPage<>(List.of(), safeSize, false, null);
+            }
+            spec = spec.and(ExpenseSpecifications.categoryIn(ids));
+        }
+        List<String> merchantNames = normalizeAll(filter.getMerchant());
+        if (!merchantNames.isEmpty()) {
+            List<Long> ids = merchantService.findExisting(merchantNames).values().stream()
+                    .map(Merchant::getId).toList();
+            if (ids.isEmpty()) {
+                return new CursorPage<>(List.of(), safeSize, false, null);
+            }
+            spec = spec.and(ExpenseSpecifications.merchantIn(ids));
+        }
+        String paidBy = normalize(filter.getPaidBy());
+        if (paidBy != null) {
+            spec = spec.and(ExpenseSpecifications.paidBy(paidBy));
+        }
+        if (filter.getPaymentMethod() != null) {
+            spec = spec.and(ExpenseSpecifications.paymentMethod(filter.getPaymentMethod()));
+        }
+        if (filter.getEntryType() != null) {
+            spec = spec.and(ExpenseSpecifications.entryType(filter.getEntryType()));
+        }
+        String bank = normalize(filter.getBank());
+        if (bank != null) {
+            spec = spec.and(ExpenseSpecifications.bank(bank));
+        }
+        if (filter.getMinAmount() != null) {
+            spec = spec.and(ExpenseSpecifications.amountAtLeast(filter.getMinAmount()));
+        }
+        if (filter.getMaxAmount() != null) {
+            spec = spec.and(ExpenseSpecifications.amountAtMost(filter.getMaxAmount()));
+        }
+        if (cursor != null && !cursor.isBlank()) {
+            ExpenseCursor position = ExpenseCursor.decode(cursor);
+            spec = spec.and(ExpenseSpecifications.before(position.txnDate(), position.id()));
+        }
+
+        // fetch one extra row to learn whether there is a next page
+        List<Expense> rows = expenseRepository.findBy(spec, query -> query
+                .sortBy(Sort.by(Sort.Direction.DESC, "txnDate", "id"))
+                .limit(safeSize + 1)
+                .all());
+
+        boolean hasNext = rows.size() > safeSize;
+        List<ExpenseView> content = (hasNext ? rows.subList(0, safeSize) : rows).stream()
+                .map(ExpenseView::from)
+                .toList();
+        String nextCursor = null;
+        if (hasNext) {
+            ExpenseView last = content.get(content.size() - 1);
+            nextCursor = new ExpenseCursor(last.getTxnDate(), last.getId()).encode();
+        }
+        return new CursorPage<>(content, safeSize, hasNext, nextCursor);
+    }
+
+    private static List<String> normalizeAll(List<String> values) {
+        if (values == null) {
+            return List.of();
+        }
+        return values.stream().map(ExpenseService::normalize).filter(Objects::nonNull).distinct().toList();
+    }
+
+    /**
+     * Ranked full-text search over item and notes. Every word in {@code query}
+     * must match, each as a prefix ("amaz charg" finds "Amazon charger");
+     * item matches rank above notes matches, then newest first.
+     */
+    @DbBulkhead
+    public List<ExpenseSearchHit> searchText(String query, LocalDate from, LocalDate to, String categoryName,
+            BigDecimal minAmount, BigDecimal maxAmount, int page, int size) {
+        List<String> terms = new ArrayList<>();
+        Matcher words = SEARCH_WORD.matcher(query != null ? query : "");
+        while (words.find() && terms.size() < MAX_SEARCH_TERMS) {
+            terms.add(words.group().toLowerCase(Locale.ROOT) + ":*");
+        }
+        if (terms.isEmpty()) {
+            throw new IllegalArgumentException("Search query must contain at least one word");
+        }
+        if (from != null && to != null && from.isAfter(to)) {
+            throw new IllegalArgumentException("from must not be after to");
+        }
+        int safeSize = Math.min(Math.max(size, 1), 100);
+        int safePage = Math.max(page, 0);
+        return textSearchRepository.search(String.join(" & ", terms), from, to, normalize(categoryName),
+                minAmount, maxAmount, safeSize, safePage * safeSize);
+    }
+
+    // Open-ended ranges: from alone runs to today, to alone starts at 1970;
+    // reversed bounds are swapped
+    private LocalDate[] normalizeRange(LocalDate from, LocalDate to) {
         LocalDate fromDate = from;
         LocalDate toDate = to;
 
@@ -124,10 +504,6 @@ public class ExpenseService {
             fromDate = LocalDate.of(1970, 1, 1);
         }
 
-        if (fromDate == null && toDate == null) {
-            return expenseRepository.findAll(pageable);
-        }
-
         LocalDate normalizedFrom = Objects.requireNonNull(fromDate, "fromDate must not be null");
         LocalDate normalizedTo = Objects.requireNonNull(toDate, "toDate must not be null");
 
@@ -136,28 +512,25 @@ public class ExpenseService {
             normalizedFrom = normalizedTo;
             normalizedTo = tmp;
         }
-
-        return expenseRepository.findByTxnDateBetween(normalizedFrom, normalizedTo, pageable);
+        return new LocalDate[] { normalizedFrom, normalizedTo };
     }
 
-    public MonthlyAnalyticsResponse getMonthlyAnalytics() {
-        LocalDate now = LocalDate.now();
-        LocalDate startOfMonth = now.withDayOfMonth(1);
-        LocalDate endOfMonth = now.withDayOfMonth(now.lengthOfMonth());
-
-        // Calculate total expenditure (DEBIT entries)
-        BigDecimal totalExpenditure = expenseRepository.sumAmountByEntryTypeAndDateRange(
-                EntryType.DEBIT, startOfMonth, endOfMonth);
-        if (totalExpenditure == null) {
-            totalExpenditure = BigDecimal.ZERO;
+    // Served from the in-memory column store once it is loaded; until then
+    // reads the monthly_summary rollup: a few rows per month, no scan of expense
+    @DbBulkhead
+    public MonthlyAnalyticsResponse getMonthlyAnalytics(YearMonth month) {
+        YearMonth target = month != null ? month : YearMonth.now();
+        RangeTotalsResponse snapshot = snapshotService.totals(target.atDay(1), target.atEndOfMonth(), null, null);
+        if (snapshot != null) {
+            return new MonthlyAnalyticsResponse(snapshot.getTotalExpenditure(), snapshot.getTotalEarnings(),
+                    snapshot.getTotalBalance());
         }
 
-        // Calculate total earnings (CREDIT entries)
-        BigDecimal totalEarnings = expenseRepository.sumAmountByEntryTypeAndDateRange(
-                EntryType.CREDIT, startOfMonth, endOfMonth);
-        if (totalEarnings == null) {
-            totalEarnings = BigDecimal.ZERO;
-        }
+        Map<EntryType, BigDecimal> totals = monthlySummaryService.getTotals(target);
+
+        // Total expenditure (DEBIT entries) and earnings (CREDIT entries)
+        BigDecimal totalExpenditure = totals.getOrDefault(EntryType.DEBIT, BigDecimal.ZERO);
+        BigDecimal totalEarnings = totals.getOrDefault(EntryType.CREDIT, BigDecimal.ZERO);
 
         // Calculate total savings (CREDIT - DEBIT)
         BigDecimal totalSavings = totalEarnings.subtract(totalExpenditure);
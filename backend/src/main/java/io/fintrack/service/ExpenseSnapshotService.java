@@ -0,0 +1,158 @@
+package io.fintrack.service;
+
+import io.fintrack.cache.ExpenseColumnStore;
+import io.fintrack.dto.RangeTotalsResponse;
+import io.fintrack.event.ExpenseChangedEvent;
+import io.fintrack.model.Expense;
+import io.fintrack.repository.ExpenseSnapshotRepository;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.core.task.TaskExecutor;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.event.TransactionalEventListener;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.math.BigDecimal;
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicReference;
+
+/**
+ * Owns the in-memory {@link ExpenseColumnStore}: loads it from the database
+ * in the background once the application is up and then applies every committed expense
+ * change to it. Range totals are answered from it, without a query, as soon
+ * as it is loaded; until then (or when disabled, or when the table has more
+ * than fintrack.columnar.max-rows rows) callers fall back to SQL.
+ *
+ * Changes committed while the load is running are queued and applied after
+ * it. Rows are upserted by id, so a change the load already saw is harmless.
+ */
+@Service
+public class ExpenseSnapshotService {
+
+    private static final Logger log = LoggerFactory.getLogger(ExpenseSnapshotService.class);
+
+    private final ExpenseSnapshotRepository repository;
+    private final TransactionTemplate readOnlyTransaction;
+    private final TaskExecutor taskExecutor;
+    private final boolean enabled;
+    private final long maxRows;
+
+    private final AtomicReference<ExpenseColumnStore> store = new AtomicReference<>();  // null until loaded
+    private List<ExpenseChangedEvent> pending;  // non-null while loading; guarded by this
+
+    public ExpenseSnapshotService(ExpenseSnapshotRepository repository,
+            TransactionTemplate transactionTemplate,
+            @Qualifier("applicationTaskExecutor") TaskExecutor taskExecutor,
+            MeterRegistry meterRegistry,
+            @Value("${fintrack.columnar.enabled:true}") boolean enabled,
+            @Value("${fintrack.columnar.max-rows:2000000}") long maxRows) {
+        this.repository = repository;
+        this.readOnlyTransaction = new TransactionTemplate(transactionTemplate.getTransactionManager());
+        this.readOnlyTransaction.setReadOnly(true);
+        this.taskExecutor = taskExecutor;
+        this.enabled = enabled;
+        this.maxRows = maxRows;
+        Gauge.builder("fintrack.columnar.rows", store, holder -> {
+                    ExpenseColumnStore current = holder.get();
+                    return current != null ? current.rows() : 0;
+                })
+                .description("Expenses held in the in-memory column store")
+                .register(meterRegistry);
+    }
+
+    // Changes are queued from here on; the load itself runs off the startup thread
+    @EventListener(ApplicationReadyEvent.class)
+    public void load() {
+        if (!enabled) {
+            return;
+        }
+        synchronized (this) {
+            pending = new ArrayList<>();
+        }
+        taskExecutor.execute(this::loadStore);
+    }
+
+    private void loadStore() {
+        try {
+            long rows = repository.count();
+            if (rows > maxRows) {
+                log.warn("Not loading the expense column store: {} rows exceed fintrack.columnar.max-rows={}",
+                        rows, maxRows);
+                synchronized (this) {
+                    pending = null;
+                }
+                return;
+            }
+
+            long started = System.nanoTime();
+            ExpenseColumnStore loaded = new ExpenseColumnStore((int) (rows + rows / 8));
+            readOnlyTransaction.executeWithoutResult(status -> repository.loadInto(loaded));
+            synchronized (this) {
+                pending.forEach(event -> apply(loaded, event));
+                pending = null;
+                store.set(loaded);
+            }
+            log.info("Loaded {} expenses into the column store in {} ms", loaded.rows(),
+                    (System.nanoTime() - started) / 1_000_000);
+        } catch (RuntimeException ex) {
+            synchronized (this) {
+                pending = null;
+            }
+            log.warn("Could not load the expense column store; analytics stay on SQL", ex);
+        }
+    }
+
+    public boolean isLoaded() {
+        return store.get() != null;
+    }
+
+    /**
+     * Totals over [from, to], optionally for one category id and/or payer,
+     * or null if the store is not loaded.
+     */
+    public RangeTotalsResponse totals(LocalDate from, LocalDate to, Long categoryId, String paidBy) {
+        ExpenseColumnStore current = store.get();
+        if (current == null) {
+            return null;
+        }
+        int categoryCode = categoryId != null ? current.categoryCode(categoryId) : ExpenseColumnStore.ANY;
+        int payerCode = paidBy != null ? current.payerCode(paidBy) : ExpenseColumnStore.ANY;
+        long[] sums = new long[3];
+        current.totals((int) from.toEpochDay(), (int) to.toEpochDay(), categoryCode, payerCode, sums);
+        return RangeTotalsResponse.of(from, to, BigDecimal.valueOf(sums[0], 2), BigDecimal.valueOf(sums[1], 2),
+                sums[2]);
+    }
+
+    @TransactionalEventListener
+    public void onExpenseChanged(ExpenseChangedEvent event) {
+        synchronized (this) {
+            if (pending != null) {
+                pending.add(event);
+                return;
+            }
+            ExpenseColumnStore current = store.get();
+            if (current != null) {
+                apply(current, event);
+            }
+        }
+    }
+
+    private static void apply(ExpenseColumnStore target, ExpenseChangedEvent event) {
+        Expense expense = event.getExpense();
+        switch (event.getType()) {
+            case CREATED, UPDATED -> target.upsert(expense.getId(), expense.getTxnDate(), expense.getAmount(),
+                    expense.getCategory() != null ? expense.getCategory().getId() : null,
+                    expense.getMerchant() != null ? expense.getMerchant().getId() : null,
+                    expense.getPaidBy(), expense.getEntryType(), expense.getPaymentMethod());
+            case DELETED -> target.remove(expense.getId());
+        }
+    }
+}
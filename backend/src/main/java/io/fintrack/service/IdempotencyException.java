@@ -0,0 +1,12 @@
+package io.fintrack.service;
+
+import org.springframework.http.HttpStatus;
+import org.springframework.web.server.ResponseStatusException;
+
+// 409 while the original request is still running, 422 when a key is reused with a different body
+public class IdempotencyException extends ResponseStatusException {
+
+    public IdempotencyException(HttpStatus status, String reason) {
+        super(status, reason);
+    }
+}
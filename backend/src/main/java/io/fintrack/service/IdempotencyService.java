@@ -0,0 +1,186 @@
+package io.fintrack.service;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import io.fintrack.bulkhead.DbBulkheadAspect;
+import io.fintrack.cache.ExpiringCache;
+import io.fintrack.repository.IdempotencyKeyRepository;
+import io.fintrack.repository.IdempotencyKeyRepository.StoredResponse;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.http.HttpStatus;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.time.Duration;
+import java.time.Instant;
+import java.util.Arrays;
+import java.util.HexFormat;
+import java.util.function.Supplier;
+
+/**
+ * Idempotency-Key support for create endpoints. The first request with a key
+ * runs normally and its response is kept as JSON bytes for
+ * {@code fintrack.idempotency.ttl}; a retry with the same key and body gets
+ * that response back without touching category, merchant or expense. The
+ * same key with a different body is rejected (422), as is a retry that
+ * arrives while the original is still running (409).
+ *
+ * Keys live in a bounded in-memory store. With
+ * {@code fintrack.idempotency.persistent=true} they are also written to
+ * idempotency_key in the same transaction as the expenses, so replays
+ * survive restarts and work across instances.
+ *
+ * Only the paths that reach the database take a {@link DbBulkheadAspect}
+ * permit: a replay from the in-memory store answers straight away, even when
+ * the pool is saturated.
+ */
+@Service
+public class IdempotencyService {
+
+    private static final Logger log = LoggerFactory.getLogger(IdempotencyService.class);
+    private static final int MAX_KEY_LENGTH = 255;
+
+    public record Outcome<T>(T body, boolean replayed) {
+    }
+
+    // response == null marks a request that is still running
+    private record Entry(String requestHash, byte[] response) {
+    }
+
+    private final IdempotencyKeyRepository repository;
+    private final DbBulkheadAspect bulkhead;
+    private final TransactionTemplate transactionTemplate;
+    private final ObjectMapper objectMapper;
+    private final ExpiringCache<Entry> entries;
+    private final Duration ttl;
+    private final boolean persistent;
+
+    public IdempotencyService(IdempotencyKeyRepository repository,
+            DbBulkheadAspect bulkhead,
+            TransactionTemplate transactionTemplate,
+            ObjectMapper objectMapper,
+            @Value("${fintrack.idempotency.max-keys:20000}") int maxKeys,
+            @Value("${fintrack.idempotency.ttl:24h}") Duration ttl,
+            @Value("${fintrack.idempotency.persistent:false}") boolean persistent) {
+        this.repository = repository;
+        this.bulkhead = bulkhead;
+        this.transactionTemplate = transactionTemplate;
+        this.objectMapper = objectMapper;
+        this.entries = new ExpiringCache<>(maxKeys, ttl);
+        this.ttl = ttl;
+        this.persistent = persistent;
+    }
+
+    /**
+     * Runs {@code action} once per (scope, key). Without a key the action just runs.
+     *
+     * @param scope   separates endpoints, so one key can't replay another endpoint's response
+     * @param request the request body, fingerprinted to catch key reuse
+     */
+    public <T> Outcome<T> execute(String scope, String key, Object request, Class<T> responseType,
+            Supplier<T> action) {
+        if (key == null || key.isBlank()) {
+            return new Outcome<>(action.get(), false);
+        }
+        if (key.length() > MAX_KEY_LENGTH) {
+            throw new IllegalArgumentException("Idempotency-Key must be at most " + MAX_KEY_LENGTH + " characters");
+        }
+
+        String cacheKey = scope + ':' + key;
+        String requestHash = fingerprint(request);
+
+        Entry existing = entries.get(cacheKey);
+        if (existing == null && persistent) {
+            existing = bulkhead.withPermit(() -> repository.find(scope, key))
+                    .map(stored -> new Entry(stored.requestHash(), stored.response()))
+                    .orElse(null);
+            if (existing != null) {
+                entries.put(cacheKey, existing);
+            }
+        }
+        if (existing == null) {
+            existing = entries.putIfAbsent(cacheKey, new Entry(requestHash, null));
+        }
+        if (existing != null) {
+            return replay(existing, requestHash, responseType);
+        }
+
+        try {
+            T body;
+            byte[] response;
+            if (persistent) {
+                byte[][] written = new byte[1][];
+                // permit first, so it is held before the transaction takes a connection
+                body = bulkhead.withPermit(() -> transactionTemplate.execute(status -> {
+                    T result = action.get();
+                    written[0] = toJson(result);
+                    if (!repository.insert(scope, key, requestHash, written[0], Instant.now().plus(ttl))) {
+                        // another instance got there first; roll our writes back
+                        throw new IdempotencyException(HttpStatus.CONFLICT,
+                                "A request with this Idempotency-Key is already being processed");
+                    }
+                    return result;
+                }));
+                response = written[0];
+            } else {
+                body = action.get(); // the create methods are @DbBulkhead themselves
+                response = toJson(body);
+            }
+            entries.put(cacheKey, new Entry(requestHash, response));
+            return new Outcome<>(body, false);
+        } catch (RuntimeException ex) {
+            entries.remove(cacheKey); // failed requests may be retried with the same key
+            throw ex;
+        }
+    }
+
+    @Scheduled(fixedDelayString = "${fintrack.idempotency.purge-interval:1h}")
+    public void purgeExpired() {
+        if (persistent) {
+            int purged = repository.deleteExpired();
+            if (purged > 0) {
+                log.debug("Purged {} expired idempotency keys", purged);
+            }
+        }
+    }
+
+    private <T> Outcome<T> replay(Entry existing, String requestHash, Class<T> responseType) {
+        if (!existing.requestHash().equals(requestHash)) {
+            throw new IdempotencyException(HttpStatus.UNPROCESSABLE_ENTITY,
+                    "Idempotency-Key was already used with a different request body");
+        }
+        if (existing.response() == null) {
+            throw new IdempotencyException(HttpStatus.CONFLICT,
+                    "A request with this Idempotency-Key is already being processed");
+        }
+        try {
+            return new Outcome<>(objectMapper.readValue(existing.response(), responseType), true);
+        } catch (IOException ex) {
+            throw new UncheckedIOException(ex);
+        }
+    }
+
+    private byte[] toJson(Object value) {
+        try {
+            return objectMapper.writeValueAsBytes(value);
+        } catch (IOException ex) {
+            throw new UncheckedIOException(ex);
+        }
+    }
+
+    // SHA-256 of the request as JSON, truncated to 128 bits
+    private String fingerprint(Object request) {
+        try {
+            byte[] digest = MessageDigest.getInstance("SHA-256").digest(toJson(request));
+            return HexFormat.of().formatHex(Arrays.copyOf(digest, 16));
+        } catch (NoSuchAlgorithmException ex) {
+            throw new IllegalStateException(ex);
+        }
+    }
+}
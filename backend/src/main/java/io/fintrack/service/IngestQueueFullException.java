@@ -0,0 +1,23 @@
+package io.fintrack.service;
+
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpStatus;
+import org.springframework.web.server.ResponseStatusException;
+
+// Rendered by Spring as 429 with a Retry-After hint
+public class IngestQueueFullException extends ResponseStatusException {
+
+    private final long retryAfterSeconds;
+
+    public IngestQueueFullException(long retryAfterSeconds) {
+        super(HttpStatus.TOO_MANY_REQUESTS, "Ingest queue is full");
+        this.retryAfterSeconds = retryAfterSeconds;
+    }
+
+    @Override
+    public HttpHeaders getHeaders() {
+        HttpHeaders headers = new HttpHeaders();
+        headers.set(HttpHeaders.RETRY_AFTER, String.valueOf(retryAfterSeconds));
+        return headers;
+    }
+}
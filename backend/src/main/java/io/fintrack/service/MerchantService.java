@@ -1,24 +1,28 @@
 package io.fintrack.service;
 
+import io.fintrack.cache.WriteVersions;
 import io.fintrack.model.Merchant;
+import io.fintrack.model.Expense;
 import io.fintrack.repository.MerchantRepository;
+import io.fintrack.repository.ExpenseRepository;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.springframework.beans.factory.annotation.Value;
 import org.springframework.stereotype.Service;
 
-import java.util.List;
-
 @Service
-public class MerchantService {
-
-    private final MerchantRepository merchantRepository;
+public class MerchantService extends NameService<Merchant> {
 
-    public MerchantService(MerchantRepository merchantRepository) {
-        this.merchantRepository = merchantRepository;
+    public MerchantService(MerchantRepository merchantRepository,
+            ExpenseRepository expenseRepository,
+            WriteVersions writeVersions,
+            MeterRegistry meterRegistry,
+            @Value("${fintrack.cache.names.max-size:10000}") int cacheSize) {
+        super(merchantRepository, expenseRepository::countByMerchant, writeVersions, WriteVersions.Table.MERCHANT, "merchant",
+                meterRegistry, cacheSize);
     }
 
-    public List<Merchant> searchByPrefix(String prefix) {
-        if (prefix == null || prefix.isBlank()) {
-            return merchantRepository.findAll();
-        }
-        return merchantRepository.findByNameStartingWithIgnoreCase(prefix);
+    @Override
+    protected Merchant referenceOf(Expense expense) {
+        return expense.getMerchant();
     }
 }
@@ -0,0 +1,143 @@
+package io.fintrack.service;
+
+import io.fintrack.event.ExpenseChangedEvent;
+import io.fintrack.model.EntryType;
+import io.fintrack.model.Expense;
+import io.fintrack.repository.BalanceRepository;
+import io.fintrack.repository.MonthlySummaryRepository;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.context.event.EventListener;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.math.BigDecimal;
+import java.sql.Date;
+import java.time.LocalDate;
+import java.time.YearMonth;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Map;
+import java.util.TreeMap;
+
+/**
+ * Keeps the monthly_summary rollup in step with expense. Changes are collected
+ * per transaction and written as one batch of upserts just before it commits,
+ * so a statement import chunk costs one round trip here, not one per row, and
+ * a rolled-back write never touches the rollup.
+ *
+ * The upserts of a batch go out in key order, so two transactions touching
+ * the same rollup rows lock them in the same order and cannot deadlock.
+ */
+@Service
+public class MonthlySummaryService {
+
+    private static final Logger log = LoggerFactory.getLogger(MonthlySummaryService.class);
+
+    private record Key(LocalDate month, EntryType entryType, Long categoryId, String paidBy)
+            implements Comparable<Key> {
+
+        private static final Comparator<Key> ORDER = Comparator.comparing(Key::month)
+                .thenComparing(Key::entryType)
+                .thenComparing(Key::categoryId, Comparator.nullsFirst(Comparator.naturalOrder()))
+                .thenComparing(Key::paidBy);
+
+        @Override
+        public int compareTo(Key other) {
+            return ORDER.compare(this, other);
+        }
+    }
+
+    private static final class Delta {
+        private BigDecimal amount = BigDecimal.ZERO;
+        private long count;
+    }
+
+    private final MonthlySummaryRepository monthlySummaryRepository;
+    private final BalanceRepository balanceRepository;
+
+    public MonthlySummaryService(MonthlySummaryRepository monthlySummaryRepository,
+            BalanceRepository balanceRepository) {
+        this.monthlySummaryRepository = monthlySummaryRepository;
+        this.balanceRepository = balanceRepository;
+    }
+
+    // Runs inside the writing transaction (plain @EventListener, not after commit)
+    @EventListener
+    public void onExpenseChanged(ExpenseChangedEvent event) {
+        Map<Key, Delta> pending = pendingDeltas();
+        switch (event.getType()) {
+            case CREATED -> add(pending, event.getExpense(), 1);
+            case UPDATED -> {
+                add(pending, event.getPrevious(), -1);
+                add(pending, event.getExpense(), 1);
+            }
+            case DELETED -> add(pending, event.getExpense(), -1);
+        }
+        if (!TransactionSynchronizationManager.isSynchronizationActive()) {
+            writeDeltas(pending);
+        }
+    }
+
+    public Map<EntryType, BigDecimal> getTotals(YearMonth month) {
+        return monthlySummaryRepository.sumByEntryType(month.atDay(1));
+    }
+
+    @Transactional
+    public int rebuild() {
+        int rows = monthlySummaryRepository.rebuild();
+        // balance checkpoints are built from the rollup; let them be rebuilt too
+        balanceRepository.deleteAllCheckpoints();
+        log.info("Rebuilt monthly_summary: {} rows", rows);
+        return rows;
+    }
+
+    private void add(Map<Key, Delta> pending, Expense expense, int sign) {
+        Key key = new Key(
+                expense.getTxnDate().withDayOfMonth(1),
+                expense.getEntryType(),
+                expense.getCategory() != null ? expense.getCategory().getId() : null,
+                expense.getPaidBy());
+        Delta delta = pending.computeIfAbsent(key, k -> new Delta());
+        BigDecimal amount = expense.getAmount();
+        delta.amount = delta.amount.add(sign < 0 ? amount.negate() : amount);
+        delta.count += sign;
+    }
+
+    @SuppressWarnings("unchecked")
+    private Map<Key, Delta> pendingDeltas() {
+        if (!TransactionSynchronizationManager.isSynchronizationActive()) {
+            return new TreeMap<>();
+        }
+        Map<Key, Delta> pending = (Map<Key, Delta>) TransactionSynchronizationManager.getResource(this);
+        if (pending == null) {
+            Map<Key, Delta> created = new TreeMap<>();
+            TransactionSynchronizationManager.bindResource(this, created);
+            TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+                @Override
+                public void beforeCommit(boolean readOnly) {
+                    writeDeltas(created);
+                }
+
+                @Override
+                public void afterCompletion(int status) {
+                    TransactionSynchronizationManager.unbindResourceIfPossible(MonthlySummaryService.this);
+                }
+            });
+            pending = created;
+        }
+        return pending;
+    }
+
+    private void writeDeltas(Map<Key, Delta> pending) {
+        List<Object[]> rows = new ArrayList<>(pending.size());
+        pending.forEach((key, delta) -> rows.add(new Object[] {
+                Date.valueOf(key.month()), key.entryType().name(), key.categoryId(), key.paidBy(),
+                delta.amount, delta.count }));
+        monthlySummaryRepository.applyDeltas(rows);
+        pending.clear();
+    }
+}
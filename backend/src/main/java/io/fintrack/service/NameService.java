@@ -0,0 +1,262 @@
+package io.fintrack.service;
+
+import io.fintrack.cache.NameCache;
+import io.fintrack.cache.PrefixIndex;
+import io.fintrack.cache.WriteVersions;
+import io.fintrack.event.ExpenseChangedEvent;
+import io.fintrack.model.Expense;
+import io.fintrack.model.Named;
+import io.fintrack.repository.NameRepository;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.event.TransactionalEventListener;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Objects;
+import java.util.function.Supplier;
+
+/**
+ * Find-or-create by name and autocomplete for a reference table an expense
+ * points at (category, merchant): a name cache in front of the repository,
+ * a prefix index ranked by how many expenses use each row, and the usage
+ * counts kept current from expense changes.
+ */
+public abstract class NameService<T extends Named> {
+
+    private final Logger log = LoggerFactory.getLogger(getClass());
+
+    private final NameRepository<T> repository;
+    private final Supplier<List<Object[]>> usageCounts;
+    private final WriteVersions writeVersions;
+    private final WriteVersions.Table table;
+    private final String label;
+    private final NameCache<T> nameCache;
+    private final Counter createdCounter;
+    private final PrefixIndex<T> prefixIndex = new PrefixIndex<>();
+    private volatile boolean indexReady;
+
+    /**
+     * @param usageCounts [id, expense count] pairs, to rank autocomplete
+     * @param label       singular name of the table, for messages and metrics
+     */
+    protected NameService(NameRepository<T> repository,
+            Supplier<List<Object[]>> usageCounts,
+            WriteVersions writeVersions,
+            WriteVersions.Table table,
+            String label,
+            MeterRegistry meterRegistry,
+            int cacheSize) {
+        this.repository = repository;
+        this.usageCounts = usageCounts;
+        this.writeVersions = writeVersions;
+        this.table = table;
+        this.label = label;
+        this.nameCache = new NameCache<>(cacheSize);
+        this.createdCounter = Counter.builder("fintrack.names.created")
+                .description("Categories and merchants created on the fly for new names")
+                .tag("type", label)
+                .register(meterRegistry);
+    }
+
+    // The row of this table the expense points at, or null
+    protected abstract T referenceOf(Expense expense);
+
+    /**
+     * Autocomplete, answered from the in-memory prefix index (most used first).
+     * Falls back to the database only until the index has been loaded.
+     */
+    public List<T> searchByPrefix(String prefix, int limit) {
+        if (indexReady) {
+            return prefixIndex.search(prefix, limit);
+        }
+        List<T> matches = (prefix == null || prefix.isBlank())
+                ? repository.findAll()
+                : repository.findByNameStartingWithIgnoreCase(prefix.trim());
+        return matches.size() > limit ? matches.subList(0, limit) : matches;
+    }
+
+    /**
+     * Case-insensitive find-or-create. Served from the name cache when possible;
+     * on a miss the row is looked up and, if absent, inserted with
+     * ON CONFLICT DO NOTHING so concurrent requests for the same new name both
+     * end up with the one row instead of one of them failing.
+     */
+    @Transactional
+    public T resolveOrCreate(String name) {
+        T cached = nameCache.get(name);
+        if (cached != null) {
+            return cached;
+        }
+
+        T row = repository.findByNameIgnoreCase(name).orElse(null);
+        if (row == null) {
+            if (repository.insertIfAbsent(name) == 1) {
+                createdCounter.increment();
+                writeVersions.bumpAfterCommit(table);
+            }
+            row = repository.findByNameIgnoreCase(name)
+                    .orElseThrow(() -> vanished(name));
+        }
+        cacheAfterCommit(Map.of(name, row));
+        return row;
+    }
+
+    /**
+     * Batch form of {@link #resolveOrCreate}: names the cache doesn't know are
+     * fetched with one IN query, and any still missing are inserted and then
+     * fetched with a second one.
+     *
+     * @return the rows keyed by {@link NameCache#key(String)} of each name
+     */
+    @Transactional
+    public Map<String, T> resolveOrCreateAll(Collection<String> names) {
+        Map<String, T> resolved = new HashMap<>();
+        Map<String, String> missing = new HashMap<>();
+        for (String name : names) {
+            T cached = nameCache.get(name);
+            if (cached != null) {
+                resolved.put(NameCache.key(name), cached);
+            } else {
+                missing.putIfAbsent(NameCache.key(name), name);
+            }
+        }
+        if (missing.isEmpty()) {
+            return resolved;
+        }
+
+        Map<String, T> loaded = new HashMap<>();
+        fetchInto(loaded, missing.values());
+        List<String> toCreate = missing.entrySet().stream()
+                .filter(entry -> !loaded.containsKey(entry.getKey()))
+                .map(Map.Entry::getValue)
+                .toList();
+        if (!toCreate.isEmpty()) {
+            for (String name : toCreate) {
+                if (repository.insertIfAbsent(name) == 1) {
+                    createdCounter.increment();
+                    writeVersions.bumpAfterCommit(table);
+                }
+            }
+            fetchInto(loaded, toCreate);
+        }
+        for (String key : missing.keySet()) {
+            if (!loaded.containsKey(key)) {
+                throw vanished(missing.get(key));
+            }
+        }
+
+        resolved.putAll(loaded);
+        cacheAfterCommit(loaded);
+        return resolved;
+    }
+
+    /**
+     * Lookup-only form of {@link #resolveOrCreateAll}: names that don't exist
+     * are left out of the result instead of being created.
+     *
+     * @return the rows keyed by {@link NameCache#key(String)} of each name
+     */
+    public Map<String, T> findExisting(Collection<String> names) {
+        Map<String, T> found = new HashMap<>();
+        List<String> missing = new ArrayList<>();
+        for (String name : names) {
+            T cached = nameCache.get(name);
+            if (cached != null) {
+                found.put(NameCache.key(name), cached);
+            } else {
+                missing.add(name);
+            }
+        }
+        if (!missing.isEmpty()) {
+            Map<String, T> loaded = new HashMap<>();
+            fetchInto(loaded, missing);
+            loaded.forEach(this::remember);
+            found.putAll(loaded);
+        }
+        return found;
+    }
+
+    private void fetchInto(Map<String, T> target, Collection<String> names) {
+        List<String> upperNames = names.stream().map(name -> name.toUpperCase(Locale.ROOT)).toList();
+        for (T row : repository.findByUpperNameIn(upperNames)) {
+            target.put(NameCache.key(row.getName()), row);
+        }
+    }
+
+    private IllegalStateException vanished(String name) {
+        return new IllegalStateException(Character.toUpperCase(label.charAt(0)) + label.substring(1)
+                + " vanished after insert: " + name);
+    }
+
+    // Only cache rows once they are committed, so a rolled-back insert can
+    // never leave a dangling id behind
+    private void cacheAfterCommit(Map<String, T> byName) {
+        if (!TransactionSynchronizationManager.isSynchronizationActive()) {
+            byName.forEach(this::remember);
+            return;
+        }
+        TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+            @Override
+            public void afterCommit() {
+                byName.forEach(NameService.this::remember);
+            }
+        });
+    }
+
+    private void remember(String name, T row) {
+        nameCache.put(name, row);
+        prefixIndex.put(row.getId(), row.getName(), row);
+    }
+
+    @TransactionalEventListener
+    public void onExpenseChanged(ExpenseChangedEvent event) {
+        T current = referenceOf(event.getExpense());
+        switch (event.getType()) {
+            case CREATED -> addUsage(current, 1);
+            case UPDATED -> {
+                T before = referenceOf(event.getPrevious());
+                Long beforeId = before != null ? before.getId() : null;
+                Long currentId = current != null ? current.getId() : null;
+                if (!Objects.equals(beforeId, currentId)) {
+                    addUsage(before, -1);
+                    addUsage(current, 1);
+                }
+            }
+            case DELETED -> addUsage(current, -1);
+        }
+    }
+
+    private void addUsage(T row, long delta) {
+        if (row != null) {
+            prefixIndex.addUsage(row.getId(), delta);
+        }
+    }
+
+    @EventListener(ApplicationReadyEvent.class)
+    public void warmCache() {
+        repository.findAll(PageRequest.of(0, nameCache.getMaxSize()))
+                .forEach(row -> nameCache.put(row.getName(), row));
+        log.info("Warmed {} name cache with {} entries", label, nameCache.size());
+
+        repository.findAll().forEach(row -> prefixIndex.put(row.getId(), row.getName(), row));
+        for (Object[] usage : usageCounts.get()) {
+            prefixIndex.addUsage((Long) usage[0], (Long) usage[1]);
+        }
+        indexReady = true;
+        writeVersions.bump(table); // answers switch from the database to the index
+        log.info("Built {} prefix index with {} entries", label, prefixIndex.size());
+    }
+}
@@ -0,0 +1,216 @@
+package io.fintrack.service;
+
+import io.fintrack.bulkhead.DbBulkhead;
+import io.fintrack.dto.CreateExpenseRequest;
+import io.fintrack.dto.CreateRecurringRuleRequest;
+import io.fintrack.dto.RecurringRuleView;
+import io.fintrack.event.ExpenseChangedEvent;
+import io.fintrack.model.Expense;
+import io.fintrack.model.RecurringRule;
+import io.fintrack.repository.ExpenseRepository;
+import io.fintrack.repository.RecurringRuleRepository;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.context.event.EventListener;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.scheduling.support.CronExpression;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.time.LocalTime;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Recurring transactions: rules pairing an expense template with a cron
+ * schedule, and the job that turns their occurrences into expenses.
+ *
+ * Each tick locks the due rules in batches of fintrack.recurring.batch-size
+ * (SELECT ... FOR UPDATE SKIP LOCKED on the partial next_run index, so rules
+ * that are not due are never read) and, per batch, inserts every occurrence
+ * up to today and moves next_run past them in one transaction. After
+ * downtime the missed occurrences are caught up the same way; a crash rolls
+ * back both, so no occurrence is created twice or skipped.
+ */
+@Service
+public class RecurringRuleService {
+
+    private static final Logger log = LoggerFactory.getLogger(RecurringRuleService.class);
+
+    // Per rule per batch, so a daily rule that missed years can't make one huge transaction
+    private static final int MAX_OCCURRENCES_PER_BATCH = 400;
+
+    private record Batch(int rules, int created) {
+    }
+
+    private final RecurringRuleRepository ruleRepository;
+    private final ExpenseRepository expenseRepository;
+    private final CategoryService categoryService;
+    private final MerchantService merchantService;
+    private final TransactionTemplate transactionTemplate;
+    private final ApplicationEventPublisher eventPublisher;
+    private final int batchSize;
+
+    public RecurringRuleService(RecurringRuleRepository ruleRepository,
+            ExpenseRepository expenseRepository,
+            CategoryService categoryService,
+            MerchantService merchantService,
+            TransactionTemplate transactionTemplate,
+            ApplicationEventPublisher eventPublisher,
+            @Value("${fintrack.recurring.batch-size:100}") int batchSize) {
+        this.ruleRepository = ruleRepository;
+        this.expenseRepository = expenseRepository;
+        this.categoryService = categoryService;
+        this.merchantService = merchantService;
+        this.transactionTemplate = transactionTemplate;
+        this.eventPublisher = eventPublisher;
+        this.batchSize = Math.max(batchSize, 1);
+    }
+
+    @DbBulkhead
+    @Transactional
+    public RecurringRuleView createRule(CreateRecurringRuleRequest request) {
+        if (request == null || request.getTemplate() == null) {
+            throw new IllegalArgumentException("Recurring rule must have an expense template");
+        }
+        CronExpression schedule = parseSchedule(request.getSchedule());
+        LocalDate startDate = request.getStartDate() != null ? request.getStartDate() : LocalDate.now();
+        LocalDate endDate = request.getEndDate();
+        if (endDate != null && endDate.isBefore(startDate)) {
+            throw new IllegalArgumentException("End date must not be before start date");
+        }
+        CreateExpenseRequest template = request.getTemplate();
+        template.setTxnDate(startDate);
+        ExpenseService.validate(template);
+
+        LocalDate firstRun = nextOccurrence(schedule, startDate.minusDays(1));
+        if (firstRun == null || (endDate != null && firstRun.isAfter(endDate))) {
+            throw new IllegalArgumentException("Schedule has no occurrence between start and end date");
+        }
+
+        RecurringRule rule = new RecurringRule();
+        rule.setSchedule(schedule.toString());
+        rule.setStartDate(startDate);
+        rule.setEndDate(endDate);
+        rule.setNextRun(firstRun);
+        rule.setItem(template.getItem());
+        rule.setAmount(template.getAmount());
+        String categoryName = ExpenseService.normalize(template.getCategoryName());
+        rule.setCategory(categoryName != null ? categoryService.resolveOrCreate(categoryName) : null);
+        String merchantName = ExpenseService.normalize(template.getMerchantName());
+        rule.setMerchant(merchantName != null ? merchantService.resolveOrCreate(merchantName) : null);
+        rule.setPaymentMethod(template.getPaymentMethod());
+        rule.setBank(template.getBank());
+        rule.setPaidBy(ExpenseService.normalize(template.getPaidBy()));
+        rule.setEntryType(template.getEntryType());
+        rule.setNotes(template.getNotes());
+        return RecurringRuleView.from(ruleRepository.save(rule));
+    }
+
+    // Active rules first, soonest next occurrence first
+    @DbBulkhead
+    @Transactional(readOnly = true)
+    public List<RecurringRuleView> getRules() {
+        return ruleRepository.findAllByOrderByActiveDescNextRunAscIdAsc().stream()
+                .map(RecurringRuleView::from)
+                .toList();
+    }
+
+    /**
+     * Stops a rule; expenses it already created are kept.
+     *
+     * @return false if there is no rule with that id
+     */
+    @DbBulkhead
+    @Transactional
+    public boolean stopRule(Long id) {
+        RecurringRule rule = ruleRepository.findById(id).orElse(null);
+        if (rule == null) {
+            return false;
+        }
+        rule.setActive(false);
+        return true;
+    }
+
+    @EventListener(ApplicationReadyEvent.class)
+    @Scheduled(fixedDelayString = "${fintrack.recurring.interval:5m}",
+            initialDelayString = "${fintrack.recurring.interval:5m}")
+    public void materializeDue() {
+        LocalDate today = LocalDate.now();
+        int created = 0;
+        try {
+            Batch batch;
+            do {
+                batch = transactionTemplate.execute(status -> materializeBatch(today));
+                created += batch.created();
+            } while (batch.rules() > 0);
+        } catch (RuntimeException ex) {
+            // retried next tick; committed batches stay committed
+            log.warn("Could not materialize recurring expenses", ex);
+        }
+        if (created > 0) {
+            log.info("Created {} recurring expense(s) up to {}", created, today);
+        }
+    }
+
+    // A rule cut off at MAX_OCCURRENCES_PER_BATCH is still due and comes back in a later batch
+    private Batch materializeBatch(LocalDate today) {
+        List<RecurringRule> rules = ruleRepository.lockDue(today, batchSize);
+        List<Expense> expenses = new ArrayList<>();
+        for (RecurringRule rule : rules) {
+            CronExpression schedule = CronExpression.parse(rule.getSchedule());
+            LocalDate run = rule.getNextRun();
+            int occurrences = 0;
+            while (run != null && !run.isAfter(today) && !pastEnd(rule, run)
+                    && occurrences < MAX_OCCURRENCES_PER_BATCH) {
+                expenses.add(toExpense(rule, run));
+                occurrences++;
+                run = nextOccurrence(schedule, run);
+            }
+            if (run == null || pastEnd(rule, run)) {
+                rule.setActive(false);
+            } else {
+                rule.setNextRun(run);
+            }
+        }
+
+        List<Expense> saved = expenseRepository.saveAll(expenses);
+        saved.forEach(expense -> eventPublisher.publishEvent(ExpenseChangedEvent.created(expense)));
+        return new Batch(rules.size(), saved.size());
+    }
+
+    private static boolean pastEnd(RecurringRule rule, LocalDate date) {
+        return rule.getEndDate() != null && date.isAfter(rule.getEndDate());
+    }
+
+    private static Expense toExpense(RecurringRule rule, LocalDate txnDate) {
+        Expense expense = new Expense(txnDate, rule.getAmount(), rule.getItem(), rule.getCategory(),
+                rule.getMerchant(), rule.getPaymentMethod(), rule.getPaidBy(), rule.getEntryType(), rule.getNotes());
+        expense.setBank(rule.getBank());
+        return expense;
+    }
+
+    // First date after the given one with an occurrence, or null if the schedule never fires again
+    private static LocalDate nextOccurrence(CronExpression schedule, LocalDate after) {
+        LocalDateTime next = schedule.next(after.atTime(LocalTime.MAX));
+        return next != null ? next.toLocalDate() : null;
+    }
+
+    // Spring's six-field cron, its @macros, or a five-field Unix cron (seconds assumed 0)
+    private static CronExpression parseSchedule(String schedule) {
+        if (schedule == null || schedule.isBlank()) {
+            throw new IllegalArgumentException("Schedule must not be empty");
+        }
+        String expression = schedule.trim();
+        if (!expression.startsWith("@") && expression.split("\\s+").length == 5) {
+            expression = "0 " + expression;
+        }
+        return CronExpression.parse(expression);
+    }
+}
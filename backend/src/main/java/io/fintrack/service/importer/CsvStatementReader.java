@@ -0,0 +1,230 @@
+package io.fintrack.service.importer;
+
+import io.fintrack.dto.CreateExpenseRequest;
+import io.fintrack.model.EntryType;
+import io.fintrack.model.PaymentMethod;
+
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.io.Reader;
+import java.math.BigDecimal;
+import java.time.LocalDate;
+import java.time.format.DateTimeParseException;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.regex.Pattern;
+
+/**
+ * Reads a CSV statement with a header row. Column names are matched loosely
+ * ("Txn Date", "txn_date" and "date" all work) and quoted fields may contain
+ * commas, escaped quotes and line breaks.
+ *
+ * Expected columns: txn_date, amount, item, and optionally category, merchant,
+ * payment_method, bank, paid_by, entry_type, notes. When entry_type is missing
+ * the sign of the amount decides: negative → DEBIT, positive → CREDIT.
+ */
+public class CsvStatementReader implements StatementReader {
+
+    private static final Map<String, String> HEADER_ALIASES = new HashMap<>();
+
+    // Currency symbols, ISO codes before or after the number, and spaces (incl. no-break)
+    private static final Pattern CURRENCY = Pattern.compile("\\p{Sc}|^[A-Za-z]{3}(?=[\\s\\d(+-])|(?<=[\\d)])\\s*[A-Za-z]{3}$|[\\s\\u00A0]");
+    private static final Pattern GROUPED = Pattern.compile("[+-]?\\d{1,3}(,\\d{3})+(\\.\\d+)?");
+    private static final Pattern PLAIN = Pattern.compile("[+-]?(\\d+(\\.\\d*)?|\\.\\d+)");
+
+    static {
+        alias("txnDate", "txndate", "date", "transactiondate");
+        alias("amount", "amount", "value");
+        alias("item", "item", "description", "name");
+        alias("category", "category", "categoryname");
+        alias("merchant", "merchant", "merchantname", "payee");
+        alias("paymentMethod", "paymentmethod", "method");
+        alias("bank", "bank");
+        alias("paidBy", "paidby");
+        alias("entryType", "entrytype", "type");
+        alias("notes", "notes", "note", "memo");
+    }
+
+    private static void alias(String field, String... headers) {
+        for (String header : headers) {
+            HEADER_ALIASES.put(header, field);
+        }
+    }
+
+    private final BufferedReader reader;
+    private final ImportDefaults defaults;
+    private Map<String, Integer> columns;
+    private long rowNumber;
+
+    public CsvStatementReader(Reader reader, ImportDefaults defaults) {
+        this.reader = reader instanceof BufferedReader buffered ? buffered : new BufferedReader(reader);
+        this.defaults = defaults;
+    }
+
+    @Override
+    public StatementRow next() throws IOException {
+        if (columns == null) {
+            List<String> header = readRecord();
+            if (header == null) {
+                return null;
+            }
+            columns = mapHeader(header);
+        }
+
+        List<String> record;
+        do {
+            record = readRecord();
+            if (record == null) {
+                return null;
+            }
+        } while (record.size() == 1 && record.get(0).isBlank());
+
+        rowNumber++;
+        try {
+            return StatementRow.parsed(rowNumber, toRequest(record));
+        } catch (IllegalArgumentException | DateTimeParseException ex) {
+            return StatementRow.failed(rowNumber, ex.getMessage());
+        }
+    }
+
+    private Map<String, Integer> mapHeader(List<String> header) {
+        Map<String, Integer> mapped = new HashMap<>();
+        for (int i = 0; i < header.size(); i++) {
+            String key = header.get(i).replace("\uFEFF", "").toLowerCase().replaceAll("[^a-z0-9]", "");
+            String field = HEADER_ALIASES.get(key);
+            if (field != null) {
+                mapped.putIfAbsent(field, i);
+            }
+        }
+        if (!mapped.containsKey("txnDate") || !mapped.containsKey("amount") || !mapped.containsKey("item")) {
+            throw new IllegalArgumentException("CSV header must contain txn_date, amount and item columns");
+        }
+        return mapped;
+    }
+
+    private CreateExpenseRequest toRequest(List<String> record) {
+        CreateExpenseRequest request = new CreateExpenseRequest();
+
+        String date = field(record, "txnDate");
+        if (date == null) {
+            throw new IllegalArgumentException("txn_date is required");
+        }
+        request.setTxnDate(LocalDate.parse(date, defaults.getDateFormat()));
+
+        BigDecimal amount = parseAmount(field(record, "amount"));
+        String entryType = field(record, "entryType");
+        request.setEntryType(entryType != null
+                ? EntryType.valueOf(entryType.toUpperCase())
+                : (amount.signum() < 0 ? EntryType.DEBIT : EntryType.CREDIT));
+        request.setAmount(amount.abs());
+
+        request.setItem(field(record, "item"));
+        request.setCategoryName(field(record, "category"));
+        request.setMerchantName(field(record, "merchant"));
+
+        String paymentMethod = field(record, "paymentMethod");
+        request.setPaymentMethod(paymentMethod != null
+                ? PaymentMethod.valueOf(paymentMethod.toUpperCase().replace(' ', '_'))
+                : defaults.getPaymentMethod());
+
+        String bank = field(record, "bank");
+        request.setBank(bank != null ? bank : defaults.getBank());
+        String paidBy = field(record, "paidBy");
+        request.setPaidBy(paidBy != null ? paidBy : defaults.getPaidBy());
+        request.setNotes(field(record, "notes"));
+        return request;
+    }
+
+    private String field(List<String> record, String name) {
+        Integer index = columns.get(name);
+        if (index == null || index >= record.size()) {
+            return null;
+        }
+        String value = record.get(index).trim();
+        return value.isEmpty() ? null : value;
+    }
+
+    /**
+     * Amounts as banks write them: an optional sign or accounting-style
+     * parentheses for a negative ("(12.00)"), an optional currency symbol or
+     * ISO code, "." as the decimal point and "," only as a thousands
+     * separator ("1,234.56"). Anything else, such as the European "1.234,56"
+     * or "12,50", is rejected rather than guessed at.
+     */
+    static BigDecimal parseAmount(String raw) {
+        if (raw == null) {
+            throw new IllegalArgumentException("amount is required");
+        }
+        String cleaned = CURRENCY.matcher(raw).replaceAll("");
+        boolean negative = false;
+        if (cleaned.startsWith("(") && cleaned.endsWith(")")) {
+            negative = true;
+            cleaned = cleaned.substring(1, cleaned.length() - 1);
+        }
+        if (cleaned.indexOf(',') >= 0) {
+            if (!GROUPED.matcher(cleaned).matches()) {
+                throw new IllegalArgumentException("Ambiguous amount (use '.' for decimals): " + raw);
+            }
+            cleaned = cleaned.replace(",", "");
+        }
+        if (!PLAIN.matcher(cleaned).matches() || (negative && (cleaned.startsWith("-") || cleaned.startsWith("+")))) {
+            throw new IllegalArgumentException("Invalid amount: " + raw);
+        }
+        BigDecimal amount = new BigDecimal(cleaned);
+        return negative ? amount.negate() : amount;
+    }
+
+    // Reads one logical CSV record, following quoted fields across line breaks
+    private List<String> readRecord() throws IOException {
+        String line = reader.readLine();
+        if (line == null) {
+            return null;
+        }
+
+        List<String> fields = new ArrayList<>();
+        StringBuilder current = new StringBuilder();
+        boolean quoted = false;
+
+        while (true) {
+            for (int i = 0; i < line.length(); i++) {
+                char c = line.charAt(i);
+                if (quoted) {
+                    if (c == '"') {
+                        if (i + 1 < line.length() && line.charAt(i + 1) == '"') {
+                            current.append('"');
+                            i++;
+                        } else {
+                            quoted = false;
+                        }
+                    } else {
+                        current.append(c);
+                    }
+                } else if (c == '"') {
+                    quoted = true;
+                } else if (c == ',') {
+                    fields.add(current.toString());
+                    current.setLength(0);
+                } else {
+                    current.append(c);
+                }
+            }
+            if (!quoted) {
+                break;
+            }
+            line = reader.readLine();
+            if (line == null) {
+                break; // unterminated quote: keep what we have
+            }
+            current.append('\n');
+        }
+        fields.add(current.toString());
+        return fields;
+    }
+
+    @Override
+    public void close() throws IOException {
+        reader.close();
+    }
+}
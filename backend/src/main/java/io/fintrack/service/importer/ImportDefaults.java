@@ -0,0 +1,42 @@
+package io.fintrack.service.importer;
+
+import io.fintrack.model.PaymentMethod;
+
+import java.time.format.DateTimeFormatter;
+
+/**
+ * Values applied to every imported row that does not carry its own. OFX files
+ * never say who paid or which bank they came from, so these are usually needed.
+ */
+public class ImportDefaults {
+
+    private final String paidBy;
+    private final PaymentMethod paymentMethod;
+    private final String bank;
+    private final DateTimeFormatter dateFormat;
+
+    public ImportDefaults(String paidBy, PaymentMethod paymentMethod, String bank, String datePattern) {
+        this.paidBy = paidBy;
+        this.paymentMethod = paymentMethod;
+        this.bank = bank;
+        this.dateFormat = (datePattern == null || datePattern.isBlank())
+                ? DateTimeFormatter.ISO_LOCAL_DATE
+                : DateTimeFormatter.ofPattern(datePattern);
+    }
+
+    public String getPaidBy() {
+        return paidBy;
+    }
+
+    public PaymentMethod getPaymentMethod() {
+        return paymentMethod;
+    }
+
+    public String getBank() {
+        return bank;
+    }
+
+    public DateTimeFormatter getDateFormat() {
+        return dateFormat;
+    }
+}
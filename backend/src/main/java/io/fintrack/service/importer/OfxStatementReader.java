@@ -0,0 +1,149 @@
+package io.fintrack.service.importer;
+
+import io.fintrack.dto.CreateExpenseRequest;
+import io.fintrack.model.EntryType;
+import io.fintrack.model.PaymentMethod;
+
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.io.Reader;
+import java.math.BigDecimal;
+import java.time.LocalDate;
+import java.time.format.DateTimeFormatter;
+import java.time.format.DateTimeParseException;
+import java.util.HashMap;
+import java.util.Map;
+
+/**
+ * Reads <STMTTRN> blocks from an OFX/QFX statement. Handles both the SGML
+ * flavour (OFX 1.x, leaf elements without closing tags) and the XML flavour
+ * (OFX 2.x) by treating every value as "text up to the next tag".
+ *
+ * NAME becomes the item, MEMO the notes, and the sign of TRNAMT the entry type.
+ */
+public class OfxStatementReader implements StatementReader {
+
+    private static final DateTimeFormatter OFX_DATE = DateTimeFormatter.BASIC_ISO_DATE;
+
+    private final BufferedReader reader;
+    private final ImportDefaults defaults;
+    private long rowNumber;
+    private int lookahead = -2; // -2 = nothing buffered
+
+    public OfxStatementReader(Reader reader, ImportDefaults defaults) {
+        this.reader = reader instanceof BufferedReader buffered ? buffered : new BufferedReader(reader);
+        this.defaults = defaults;
+    }
+
+    @Override
+    public StatementRow next() throws IOException {
+        Map<String, String> transaction = null;
+        String tag;
+        while ((tag = nextTag()) != null) {
+            if (tag.equals("STMTTRN")) {
+                transaction = new HashMap<>();
+            } else if (tag.equals("/STMTTRN")) {
+                if (transaction != null) {
+                    rowNumber++;
+                    try {
+                        return StatementRow.parsed(rowNumber, toRequest(transaction));
+                    } catch (IllegalArgumentException | DateTimeParseException ex) {
+                        return StatementRow.failed(rowNumber, ex.getMessage());
+                    }
+                }
+            } else if (transaction != null && !tag.startsWith("/")) {
+                String value = readText();
+                if (!value.isEmpty()) {
+                    transaction.put(tag, value);
+                }
+            }
+        }
+        return null;
+    }
+
+    private CreateExpenseRequest toRequest(Map<String, String> transaction) {
+        CreateExpenseRequest request = new CreateExpenseRequest();
+
+        String posted = transaction.get("DTPOSTED");
+        if (posted == null || posted.length() < 8) {
+            throw new IllegalArgumentException("DTPOSTED is missing or malformed");
+        }
+        request.setTxnDate(LocalDate.parse(posted.substring(0, 8), OFX_DATE));
+
+        BigDecimal amount = CsvStatementReader.parseAmount(transaction.get("TRNAMT"));
+        request.setEntryType(amount.signum() < 0 ? EntryType.DEBIT : EntryType.CREDIT);
+        request.setAmount(amount.abs());
+
+        String name = transaction.get("NAME");
+        String memo = transaction.get("MEMO");
+        request.setItem(name != null ? name : memo);
+        request.setNotes(name != null ? memo : null);
+
+        PaymentMethod method = paymentMethodFor(transaction.get("TRNTYPE"));
+        request.setPaymentMethod(method != null ? method : defaults.getPaymentMethod());
+        request.setBank(defaults.getBank());
+        request.setPaidBy(defaults.getPaidBy());
+        return request;
+    }
+
+    private PaymentMethod paymentMethodFor(String trnType) {
+        if (trnType == null) {
+            return null;
+        }
+        return switch (trnType.toUpperCase()) {
+            case "POS" -> PaymentMethod.CARD;
+            case "ATM", "CASH" -> PaymentMethod.CASH;
+            case "XFER", "DIRECTDEP", "DIRECTDEBIT", "REPEATPMT", "PAYMENT" -> PaymentMethod.BANK_TRANSFER;
+            default -> null;
+        };
+    }
+
+    // Skips to the next '<' and returns the upper-cased tag name, e.g. "STMTTRN" or "/STMTTRN"
+    private String nextTag() throws IOException {
+        int c;
+        while ((c = read()) != -1 && c != '<') {
+            // skip text outside tags
+        }
+        if (c == -1) {
+            return null;
+        }
+        StringBuilder tag = new StringBuilder();
+        while ((c = read()) != -1 && c != '>') {
+            tag.append((char) c);
+        }
+        return tag.toString().trim().toUpperCase();
+    }
+
+    // Reads the value following a tag, stopping before the next '<'
+    private String readText() throws IOException {
+        StringBuilder text = new StringBuilder();
+        int c;
+        while ((c = read()) != -1) {
+            if (c == '<') {
+                lookahead = c;
+                break;
+            }
+            text.append((char) c);
+        }
+        return text.toString().trim()
+                .replace("&lt;", "<")
+                .replace("&gt;", ">")
+                .replace("&quot;", "\"")
+                .replace("&apos;", "'")
+                .replace("&amp;", "&");
+    }
+
+    private int read() throws IOException {
+        if (lookahead != -2) {
+            int c = lookahead;
+            lookahead = -2;
+            return c;
+        }
+        return reader.read();
+    }
+
+    @Override
+    public void close() throws IOException {
+        reader.close();
+    }
+}
@@ -0,0 +1,17 @@
+package io.fintrack.service.importer;
+
+public enum StatementFormat {
+    CSV,
+    OFX;
+
+    // Guess the format from the uploaded file name (.ofx / .qfx → OFX, anything else → CSV)
+    public static StatementFormat fromFileName(String fileName) {
+        if (fileName != null) {
+            String lower = fileName.toLowerCase();
+            if (lower.endsWith(".ofx") || lower.endsWith(".qfx")) {
+                return OFX;
+            }
+        }
+        return CSV;
+    }
+}
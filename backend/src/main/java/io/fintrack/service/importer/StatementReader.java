@@ -0,0 +1,16 @@
+package io.fintrack.service.importer;
+
+import java.io.Closeable;
+import java.io.IOException;
+
+/**
+ * Forward-only reader over a bank statement. Implementations parse one record
+ * at a time so an upload is never held in memory as a whole.
+ */
+public interface StatementReader extends Closeable {
+
+    /**
+     * @return the next record, or {@code null} once the input is exhausted
+     */
+    StatementRow next() throws IOException;
+}
@@ -0,0 +1,44 @@
+package io.fintrack.service.importer;
+
+import io.fintrack.dto.CreateExpenseRequest;
+
+/**
+ * One record read from a statement file: either a parsed request or the reason
+ * it could not be parsed. Row numbers are 1-based and count data records only.
+ */
+public class StatementRow {
+
+    private final long rowNumber;
+    private final CreateExpenseRequest request;
+    private final String error;
+
+    private StatementRow(long rowNumber, CreateExpenseRequest request, String error) {
+        this.rowNumber = rowNumber;
+        this.request = request;
+        this.error = error;
+    }
+
+    public static StatementRow parsed(long rowNumber, CreateExpenseRequest request) {
+        return new StatementRow(rowNumber, request, null);
+    }
+
+    public static StatementRow failed(long rowNumber, String error) {
+        return new StatementRow(rowNumber, null, error);
+    }
+
+    public long getRowNumber() {
+        return rowNumber;
+    }
+
+    public CreateExpenseRequest getRequest() {
+        return request;
+    }
+
+    public String getError() {
+        return error;
+    }
+
+    public boolean isFailed() {
+        return error != null;
+    }
+}
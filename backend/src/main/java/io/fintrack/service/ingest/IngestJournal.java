@@ -0,0 +1,159 @@
+package io.fintrack.service.ingest;
+
+import java.io.BufferedInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.Closeable;
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.ByteBuffer;
+import java.nio.channels.Channels;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Append-only local journal of acknowledged ingest requests, one line per
+ * entry: {@code <seq> <payload>\n}. Payloads are single-line JSON.
+ *
+ * {@link #append} only writes; {@link #sync} makes everything up to a
+ * position durable. Concurrent callers of sync share fsyncs: while one
+ * thread forces the file the others wait, and the next force covers all of
+ * their entries at once.
+ *
+ * Appends and {@link #reset} must be serialized by the caller.
+ */
+public class IngestJournal implements Closeable {
+
+    public record Entry(long seq, byte[] payload) {
+    }
+
+    private final Path path;
+    private final FileChannel channel;
+    private final Object syncLock = new Object();
+
+    private volatile long written;  // end of the last append
+    private long synced;            // guarded by syncLock
+
+    private IngestJournal(Path path, FileChannel channel) {
+        this.path = path;
+        this.channel = channel;
+    }
+
+    public static IngestJournal open(Path path) throws IOException {
+        Path parent = path.toAbsolutePath().getParent();
+        if (parent != null) {
+            Files.createDirectories(parent);
+        }
+        return new IngestJournal(path, FileChannel.open(path, StandardOpenOption.CREATE, StandardOpenOption.READ,
+                StandardOpenOption.WRITE));
+    }
+
+    /**
+     * Reads every complete entry and cuts off a torn last line left by a
+     * crash mid-append. Call once, before the first append.
+     */
+    public List<Entry> recover() throws IOException {
+        List<Entry> entries = new ArrayList<>();
+        long valid = 0;
+        long offset = 0;
+        ByteArrayOutputStream line = new ByteArrayOutputStream();
+        InputStream in = new BufferedInputStream(Channels.newInputStream(channel.position(0)));
+        int b;
+        while ((b = in.read()) != -1) {
+            offset++;
+            if (b != '\n') {
+                line.write(b);
+                continue;
+            }
+            Entry entry = parse(line.toByteArray());
+            line.reset();
+            if (entry == null) {
+                break;
+            }
+            entries.add(entry);
+            valid = offset;
+        }
+        if (valid < channel.size()) {
+            channel.truncate(valid);
+            channel.force(false);
+        }
+        written = valid;
+        synced = valid;
+        return entries;
+    }
+
+    /**
+     * @return the journal position after the entry, for {@link #sync}
+     */
+    public long append(long seq, byte[] payload) throws IOException {
+        byte[] prefix = (seq + " ").getBytes(StandardCharsets.US_ASCII);
+        ByteBuffer buffer = ByteBuffer.allocate(prefix.length + payload.length + 1)
+                .put(prefix).put(payload).put((byte) '\n').flip();
+        long position = written;
+        while (buffer.hasRemaining()) {
+            position += channel.write(buffer, position);
+        }
+        written = position;
+        return position;
+    }
+
+    // Returns once everything appended up to position is on disk
+    public void sync(long position) throws IOException {
+        synchronized (syncLock) {
+            if (synced >= position) {
+                return;
+            }
+            long target = written;
+            channel.force(false);
+            synced = target;
+        }
+    }
+
+    public long size() {
+        return written;
+    }
+
+    // Empties the journal; only when every entry in it is committed
+    public void reset() throws IOException {
+        synchronized (syncLock) {
+            channel.truncate(0);
+            channel.force(false);
+            written = 0;
+            synced = 0;
+        }
+    }
+
+    public Path getPath() {
+        return path;
+    }
+
+    @Override
+    public void close() throws IOException {
+        channel.close();
+    }
+
+    private static Entry parse(byte[] line) {
+        int space = -1;
+        for (int i = 0; i < line.length; i++) {
+            if (line[i] == ' ') {
+                space = i;
+                break;
+            }
+        }
+        if (space <= 0 || space == line.length - 1) {
+            return null;
+        }
+        try {
+            long seq = Long.parseLong(new String(line, 0, space, StandardCharsets.US_ASCII));
+            byte[] payload = new byte[line.length - space - 1];
+            System.arraycopy(line, space + 1, payload, 0, payload.length);
+            return new Entry(seq, payload);
+        } catch (NumberFormatException ex) {
+            return null;
+        }
+    }
+}
@@ -0,0 +1,37 @@
+-- V10__expense_partition_prepare.sql
+-- First half of turning expense into a table partitioned by txn_date (V11).
+-- Runs outside a transaction (see V10__expense_partition_prepare.sql.conf) so
+-- that the two scans of the existing rows happen here without blocking writes:
+--
+--   1. the (id, txn_date) unique index a partitioned primary key needs,
+--      built CONCURRENTLY;
+--   2. a CHECK constraint proving every existing row lies before the first
+--      future partition, added NOT VALID (no scan) and then validated under
+--      SHARE UPDATE EXCLUSIVE, which lets reads and writes carry on.
+--
+-- With both in place V11 only has to change catalog entries: ATTACH PARTITION
+-- reuses the index and trusts the constraint instead of rescanning the table.
+--
+-- If the concurrent build is interrupted it leaves an INVALID index behind;
+-- drop expense_id_txn_date_key and rerun the migration.
+
+CREATE UNIQUE INDEX CONCURRENTLY IF NOT EXISTS expense_id_txn_date_key
+    ON expense (id, txn_date);
+
+-- Existing rows end up in one partition covering everything up to the first
+-- of January after the newest expense (and at least after this year)
+DO $$
+DECLARE
+    bound DATE;
+BEGIN
+    IF NOT EXISTS (SELECT 1 FROM pg_constraint WHERE conname = 'expense_legacy_bound') THEN
+        SELECT (date_trunc('year', greatest(coalesce(max(txn_date), current_date), current_date))
+                + interval '1 year')::date
+        INTO bound
+        FROM expense;
+        EXECUTE format('ALTER TABLE expense ADD CONSTRAINT expense_legacy_bound CHECK (txn_date < %L::date) NOT VALID',
+                       bound);
+    END IF;
+END $$;
+
+ALTER TABLE expense VALIDATE CONSTRAINT expense_legacy_bound;
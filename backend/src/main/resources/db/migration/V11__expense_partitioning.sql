@@ -0,0 +1,153 @@
+-- V11__expense_partitioning.sql
+-- expense becomes a table partitioned by RANGE (txn_date), one partition per
+-- year. Queries on a date range (findByTxnDateBetween, the monthly sums, the
+-- keyset pages) only touch the partitions of the years they cover, and old
+-- years stop growing: once a year is over its partition is no longer written,
+-- so vacuum and index bloat stay confined to the current one.
+--
+-- Online procedure: V10 did the work that has to read every row, without
+-- blocking writes. Here the existing table is renamed to expense_legacy and
+-- attached to a new partitioned expense as the partition for all dates up to
+-- V10's bound. Every step is a catalog change; the locks are held for
+-- milliseconds, and lock_timeout makes the migration fail fast (and be
+-- retried on the next start) rather than queue behind a long query.
+--
+--   expense_legacy    MINVALUE .. first Jan after the newest row (V10 bound)
+--   expense_yYYYY     one per later year, created by ensure_expense_partitions
+--   expense_default   anything further ahead; moved out when its year is created
+--
+-- expense_legacy can later be split into yearly partitions offline, year by
+-- year: create the year's table, copy its rows, and in one transaction
+-- detach expense_legacy, delete those rows and reattach it with the narrower
+-- bound next to the new partition.
+--
+-- Postgres requires the partition key in every unique index, so the primary
+-- key becomes (id, txn_date). Ids still come from expense_id_seq and stay
+-- unique; Hibernate keeps addressing rows by id alone.
+
+SET LOCAL lock_timeout = '10s';
+
+ALTER TABLE expense RENAME TO expense_legacy;
+
+-- Free the canonical names for the partitioned table
+ALTER TABLE expense_legacy DROP CONSTRAINT expense_pkey;
+ALTER TABLE expense_legacy
+    ADD CONSTRAINT expense_legacy_pkey PRIMARY KEY USING INDEX expense_id_txn_date_key;
+
+DO $$
+DECLARE
+    idx RECORD;
+BEGIN
+    FOR idx IN SELECT indexname FROM pg_indexes
+               WHERE schemaname = current_schema() AND tablename = 'expense_legacy'
+                 AND indexname LIKE 'idx_expense_%'
+    LOOP
+        EXECUTE format('ALTER INDEX %I RENAME TO %I', idx.indexname,
+                       replace(idx.indexname, 'idx_expense_', 'idx_expense_legacy_'));
+    END LOOP;
+END $$;
+
+-- Same columns, constraints and indexes as the table it replaces (V1, V2, V6,
+-- V8, V9), so ATTACH below matches them to expense_legacy's instead of
+-- building new ones
+CREATE TABLE expense (
+    id              BIGINT         NOT NULL DEFAULT nextval('expense_id_seq'),
+    txn_date        DATE           NOT NULL,
+    item            TEXT           NOT NULL,
+    amount          NUMERIC(12,2)  NOT NULL,
+    category_id     BIGINT         REFERENCES category(id),
+    merchant_id     BIGINT         REFERENCES merchant(id),
+    payment_method  VARCHAR(30)    NOT NULL,
+    paid_by         VARCHAR(50)    NOT NULL,
+    entry_type      VARCHAR(10)    NOT NULL,
+    notes           TEXT,
+    created_at      TIMESTAMP      NOT NULL DEFAULT NOW(),
+    bank            TEXT,
+    search_vector   tsvector GENERATED ALWAYS AS (
+                        setweight(to_tsvector('english', coalesce(item, '')), 'A') ||
+                        setweight(to_tsvector('english', coalesce(notes, '')), 'B')
+                    ) STORED,
+
+    CONSTRAINT expense_pkey PRIMARY KEY (id, txn_date),
+
+    CONSTRAINT chk_expense_entry_type
+        CHECK (entry_type IN ('CREDIT', 'DEBIT')),
+
+    CONSTRAINT chk_expense_payment_method
+        CHECK (payment_method IN ('CASH', 'CARD', 'BANK_TRANSFER', 'PAYPAL'))
+) PARTITION BY RANGE (txn_date);
+
+CREATE INDEX idx_expense_date_id ON expense (txn_date, id);
+CREATE INDEX idx_expense_search_vector ON expense USING GIN (search_vector);
+CREATE INDEX idx_expense_category_date ON expense (category_id, txn_date, id);
+CREATE INDEX idx_expense_merchant_date ON expense (merchant_id, txn_date, id);
+CREATE INDEX idx_expense_paid_by_date ON expense (paid_by, txn_date, id);
+CREATE INDEX idx_expense_entry_type_date ON expense (entry_type, txn_date, id);
+CREATE INDEX idx_expense_payment_method_date ON expense (payment_method, txn_date, id);
+CREATE INDEX idx_expense_bank_date ON expense (bank, txn_date, id);
+
+ALTER SEQUENCE expense_id_seq OWNED BY expense.id;
+ALTER TABLE expense_legacy ALTER COLUMN id DROP DEFAULT;
+
+-- The bound is read back from V10's validated constraint, so ATTACH can rely
+-- on it instead of scanning
+DO $$
+DECLARE
+    bound DATE;
+BEGIN
+    SELECT substring(pg_get_constraintdef(oid) FROM '''([0-9-]+)''')::date
+    INTO bound
+    FROM pg_constraint
+    WHERE conname = 'expense_legacy_bound' AND conrelid = 'expense_legacy'::regclass;
+
+    EXECUTE format('ALTER TABLE expense ATTACH PARTITION expense_legacy FOR VALUES FROM (MINVALUE) TO (%L)',
+                   bound);
+END $$;
+
+ALTER TABLE expense_legacy DROP CONSTRAINT expense_legacy_bound;
+
+CREATE TABLE expense_default PARTITION OF expense DEFAULT;
+
+-- Creates the yearly partitions from this year to years_ahead years out, if
+-- missing; returns how many it created. Years already covered (by
+-- expense_legacy or an earlier call) are skipped. Rows that had landed in
+-- expense_default for a year are moved into its new partition. Called by the
+-- application at startup and daily (ExpensePartitionService).
+CREATE OR REPLACE FUNCTION ensure_expense_partitions(years_ahead INTEGER)
+RETURNS INTEGER
+LANGUAGE plpgsql AS $$
+DECLARE
+    first_year INTEGER := extract(year FROM current_date)::integer;
+    year_start DATE;
+    year_end   DATE;
+    part_name  TEXT;
+    created    INTEGER := 0;
+BEGIN
+    FOR y IN first_year .. first_year + years_ahead LOOP
+        year_start := make_date(y, 1, 1);
+        year_end := make_date(y + 1, 1, 1);
+        part_name := 'expense_y' || y;
+        CONTINUE WHEN to_regclass(part_name) IS NOT NULL;
+
+        BEGIN
+            EXECUTE format('CREATE TABLE %I (LIKE expense INCLUDING DEFAULTS INCLUDING CONSTRAINTS INCLUDING GENERATED)',
+                           part_name);
+            EXECUTE format('WITH moved AS (DELETE FROM expense_default WHERE txn_date >= %L AND txn_date < %L '
+                           || 'RETURNING id, txn_date, item, amount, category_id, merchant_id, payment_method, '
+                           || 'paid_by, entry_type, notes, created_at, bank) '
+                           || 'INSERT INTO %I (id, txn_date, item, amount, category_id, merchant_id, payment_method, '
+                           || 'paid_by, entry_type, notes, created_at, bank) SELECT * FROM moved',
+                           year_start, year_end, part_name);
+            EXECUTE format('ALTER TABLE expense ATTACH PARTITION %I FOR VALUES FROM (%L) TO (%L)',
+                           part_name, year_start, year_end);
+            created := created + 1;
+        EXCEPTION WHEN invalid_object_definition THEN
+            -- the year overlaps an existing partition (expense_legacy); the
+            -- subtransaction has already undone the CREATE and the move
+            NULL;
+        END;
+    END LOOP;
+    RETURN created;
+END $$;
+
+SELECT ensure_expense_partitions(1);
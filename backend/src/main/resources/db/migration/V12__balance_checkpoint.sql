@@ -0,0 +1,14 @@
+-- V12__balance_checkpoint.sql
+-- Prefix sums for the running balance (GET /api/v1/expenses/analytics/balance):
+-- balance = SUM(CREDIT) - SUM(DEBIT) of every expense with txn_date before
+-- checkpoint_date. Kept on the first of each month, up to the current one, so
+-- a balance series only has to add the rows since the nearest checkpoint.
+--
+-- Derived data: a write deletes the checkpoints after its txn_date and
+-- BalanceService rebuilds them from monthly_summary. A missing checkpoint is
+-- never wrong, only slower.
+
+CREATE TABLE IF NOT EXISTS balance_checkpoint (
+    checkpoint_date  DATE           PRIMARY KEY,   -- first day of a month
+    balance          NUMERIC(16,2)  NOT NULL
+);
@@ -0,0 +1,10 @@
+-- V13__ingest_checkpoint.sql
+-- Write-behind ingestion (POST /api/v1/expenses/ingest): the highest journal
+-- sequence number whose expense is in the database. Advanced in the same
+-- transaction as each group of inserts, so after a crash the journal is
+-- replayed from exactly the first entry that was not committed.
+
+CREATE TABLE IF NOT EXISTS ingest_checkpoint (
+    journal   VARCHAR(64)  PRIMARY KEY,
+    last_seq  BIGINT       NOT NULL
+);
@@ -0,0 +1,37 @@
+-- V14__recurring_rule.sql
+-- Recurring transactions (rent, salary, subscriptions): an expense template
+-- plus a cron schedule. RecurringRuleService materializes each occurrence up
+-- to today into expense, and advances next_run in the same transaction, so
+-- an occurrence is created exactly once however late the job runs.
+
+CREATE TABLE IF NOT EXISTS recurring_rule (
+    id              BIGSERIAL      PRIMARY KEY,
+    schedule        VARCHAR(100)   NOT NULL,   -- Spring cron, e.g. '0 0 0 1 * *' = 1st of every month
+    start_date      DATE           NOT NULL,
+    end_date        DATE,                      -- last date an occurrence may fall on; NULL = open-ended
+    next_run        DATE           NOT NULL,   -- date of the next occurrence to materialize
+    active          BOOLEAN        NOT NULL DEFAULT TRUE,
+
+    -- Template for the expense rows
+    item            TEXT           NOT NULL,
+    amount          NUMERIC(12,2)  NOT NULL,
+    category_id     BIGINT         REFERENCES category(id),
+    merchant_id     BIGINT         REFERENCES merchant(id),
+    payment_method  VARCHAR(30)    NOT NULL,
+    bank            TEXT,
+    paid_by         VARCHAR(50)    NOT NULL,
+    entry_type      VARCHAR(10)    NOT NULL,
+    notes           TEXT,
+    created_at      TIMESTAMP      NOT NULL DEFAULT NOW(),
+
+    CONSTRAINT chk_recurring_rule_entry_type
+        CHECK (entry_type IN ('CREDIT', 'DEBIT')),
+    CONSTRAINT chk_recurring_rule_dates
+        CHECK (end_date IS NULL OR end_date >= start_date)
+);
+
+-- What the scheduler reads each tick: only the active rules that are due,
+-- in next_run order, without looking at the others
+CREATE INDEX IF NOT EXISTS idx_recurring_rule_next_run
+    ON recurring_rule (next_run, id)
+    WHERE active;
@@ -0,0 +1,22 @@
+-- V15__expense_fingerprint.sql
+-- Duplicate detection. fingerprint is a 64-bit hash of (txn_date, amount,
+-- normalized item, merchant_id, bank), computed by the application (see
+-- ExpenseFingerprint) and filled in for existing rows by
+-- DuplicateDetectionService at startup. Every fingerprint is also held in an
+-- in-memory Bloom filter, so only a probable match costs a lookup here.
+--
+-- duplicate_of marks a row that was inserted although it looks like a
+-- duplicate of that expense (same fingerprint within a few days); such rows
+-- are listed by GET /api/v1/expenses/duplicates until reviewed. No foreign
+-- key: the expense key is (id, txn_date).
+
+ALTER TABLE expense ADD COLUMN IF NOT EXISTS fingerprint BIGINT;
+ALTER TABLE expense ADD COLUMN IF NOT EXISTS duplicate_of BIGINT;
+
+CREATE INDEX IF NOT EXISTS idx_expense_fingerprint
+    ON expense (fingerprint, txn_date);
+
+-- The review list only: a handful of rows
+CREATE INDEX IF NOT EXISTS idx_expense_duplicate_review
+    ON expense (txn_date DESC, id DESC)
+    WHERE duplicate_of IS NOT NULL;
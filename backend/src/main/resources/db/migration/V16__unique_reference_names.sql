@@ -0,0 +1,53 @@
+-- V16__unique_reference_names.sql
+-- Category and merchant names are unique ignoring case. V4 only made the
+-- upper(name) indexes UNIQUE where the data already allowed it, so on some
+-- databases "Food" and "food" could still both be inserted by racing
+-- requests (INSERT ... ON CONFLICT only saw the case-sensitive UNIQUE(name)),
+-- after which every case-insensitive lookup of the name failed.
+--
+-- Merge case variants into the oldest row (lowest id), repoint everything
+-- that referenced the others, and make both indexes UNIQUE everywhere.
+
+CREATE TEMPORARY TABLE category_merge ON COMMIT DROP AS
+SELECT id, keep_id
+FROM (SELECT id, min(id) OVER (PARTITION BY upper(name)) AS keep_id FROM category) variants
+WHERE id <> keep_id;
+
+UPDATE expense e SET category_id = m.keep_id
+FROM category_merge m WHERE e.category_id = m.id;
+
+UPDATE recurring_rule r SET category_id = m.keep_id
+FROM category_merge m WHERE r.category_id = m.id;
+
+-- Rollup rows of a merged category are added onto the surviving category's
+INSERT INTO monthly_summary (month, entry_type, category_id, paid_by, total, txn_count)
+SELECT s.month, s.entry_type, m.keep_id, s.paid_by, SUM(s.total), SUM(s.txn_count)
+FROM monthly_summary s JOIN category_merge m ON s.category_id = m.id
+GROUP BY s.month, s.entry_type, m.keep_id, s.paid_by
+ON CONFLICT (month, entry_type, COALESCE(category_id, 0), paid_by)
+DO UPDATE SET total = monthly_summary.total + EXCLUDED.total,
+              txn_count = monthly_summary.txn_count + EXCLUDED.txn_count;
+
+DELETE FROM monthly_summary s USING category_merge m WHERE s.category_id = m.id;
+DELETE FROM category c USING category_merge m WHERE c.id = m.id;
+
+CREATE TEMPORARY TABLE merchant_merge ON COMMIT DROP AS
+SELECT id, keep_id
+FROM (SELECT id, min(id) OVER (PARTITION BY upper(name)) AS keep_id FROM merchant) variants
+WHERE id <> keep_id;
+
+-- merchant_id is part of the duplicate-detection fingerprint (V15); cleared
+-- fingerprints are recomputed by the backfill at startup
+UPDATE expense e SET merchant_id = m.keep_id, fingerprint = NULL
+FROM merchant_merge m WHERE e.merchant_id = m.id;
+
+UPDATE recurring_rule r SET merchant_id = m.keep_id
+FROM merchant_merge m WHERE r.merchant_id = m.id;
+
+DELETE FROM merchant x USING merchant_merge m WHERE x.id = m.id;
+
+DROP INDEX IF EXISTS idx_category_upper_name;
+CREATE UNIQUE INDEX idx_category_upper_name ON category (upper(name));
+
+DROP INDEX IF EXISTS idx_merchant_upper_name;
+CREATE UNIQUE INDEX idx_merchant_upper_name ON merchant (upper(name));
@@ -0,0 +1,51 @@
+-- V17__expense_partition_move_all_columns.sql
+-- ensure_expense_partitions (V11) moved rows out of expense_default with a
+-- fixed list of the twelve columns expense had then. V15 added fingerprint
+-- and duplicate_of, which the move silently dropped: a row that had landed
+-- in expense_default lost its duplicate-detection state when its year got a
+-- partition.
+--
+-- The column list is now read from the catalog on every call, so columns
+-- added later are moved too. Generated columns (search_vector) are left out;
+-- they cannot be inserted and are recomputed by the new partition. That is
+-- also why the statement can't simply be INSERT ... SELECT *.
+
+CREATE OR REPLACE FUNCTION ensure_expense_partitions(years_ahead INTEGER)
+RETURNS INTEGER
+LANGUAGE plpgsql AS $$
+DECLARE
+    first_year INTEGER := extract(year FROM current_date)::integer;
+    year_start DATE;
+    year_end   DATE;
+    part_name  TEXT;
+    columns    TEXT;
+    created    INTEGER := 0;
+BEGIN
+    SELECT string_agg(quote_ident(attname), ', ' ORDER BY attnum)
+    INTO columns
+    FROM pg_attribute
+    WHERE attrelid = 'expense'::regclass AND attnum > 0 AND NOT attisdropped AND attgenerated = '';
+
+    FOR y IN first_year .. first_year + years_ahead LOOP
+        year_start := make_date(y, 1, 1);
+        year_end := make_date(y + 1, 1, 1);
+        part_name := 'expense_y' || y;
+        CONTINUE WHEN to_regclass(part_name) IS NOT NULL;
+
+        BEGIN
+            EXECUTE format('CREATE TABLE %I (LIKE expense INCLUDING DEFAULTS INCLUDING CONSTRAINTS INCLUDING GENERATED)',
+                           part_name);
+            EXECUTE format('WITH moved AS (DELETE FROM expense_default WHERE txn_date >= %L AND txn_date < %L '
+                           || 'RETURNING %s) INSERT INTO %I (%s) SELECT %s FROM moved',
+                           year_start, year_end, columns, part_name, columns, columns);
+            EXECUTE format('ALTER TABLE expense ATTACH PARTITION %I FOR VALUES FROM (%L) TO (%L)',
+                           part_name, year_start, year_end);
+            created := created + 1;
+        EXCEPTION WHEN invalid_object_definition THEN
+            -- the year overlaps an existing partition (expense_legacy); the
+            -- subtransaction has already undone the CREATE and the move
+            NULL;
+        END;
+    END LOOP;
+    RETURN created;
+END $$;
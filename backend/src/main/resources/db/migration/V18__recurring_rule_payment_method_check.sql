@@ -0,0 +1,9 @@
+-- V18__recurring_rule_payment_method_check.sql
+-- recurring_rule (V14) checked entry_type but not payment_method, so a rule
+-- written outside the application could hold a method that expense rejects
+-- and that the scheduler can't turn into an expense.
+-- Same list as chk_expense_payment_method.
+
+ALTER TABLE recurring_rule
+    ADD CONSTRAINT chk_recurring_rule_payment_method
+        CHECK (payment_method IN ('CASH', 'CARD', 'BANK_TRANSFER', 'PAYPAL'));
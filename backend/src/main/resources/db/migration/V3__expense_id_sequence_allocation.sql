@@ -0,0 +1,5 @@
+-- V3__expense_id_sequence_allocation.sql
+-- Expense ids are now drawn from the sequence by Hibernate in blocks of 50
+-- (pooled optimizer), so inserts can be sent to Postgres as JDBC batches.
+-- The increment must match @SequenceGenerator(allocationSize = 50) on Expense.
+ALTER SEQUENCE expense_id_seq INCREMENT BY 50;
@@ -0,0 +1,20 @@
+-- V4__reference_name_lookup_indexes.sql
+-- Case-insensitive lookups (findByNameIgnoreCase → upper(name) = upper(?))
+-- used to scan category and merchant. Index the expression they filter on.
+-- Where the data allows it the index is UNIQUE, which also makes the
+-- INSERT ... ON CONFLICT DO NOTHING used for create-if-absent safe against
+-- two requests racing with different spellings ("Food" vs "food").
+DO $$
+BEGIN
+    IF EXISTS (SELECT 1 FROM category GROUP BY upper(name) HAVING count(*) > 1) THEN
+        CREATE INDEX IF NOT EXISTS idx_category_upper_name ON category (upper(name));
+    ELSE
+        CREATE UNIQUE INDEX IF NOT EXISTS idx_category_upper_name ON category (upper(name));
+    END IF;
+
+    IF EXISTS (SELECT 1 FROM merchant GROUP BY upper(name) HAVING count(*) > 1) THEN
+        CREATE INDEX IF NOT EXISTS idx_merchant_upper_name ON merchant (upper(name));
+    ELSE
+        CREATE UNIQUE INDEX IF NOT EXISTS idx_merchant_upper_name ON merchant (upper(name));
+    END IF;
+END $$;
@@ -0,0 +1,24 @@
+-- V5__monthly_summary.sql
+-- Rollup of expense per (month, entry_type, category, paid_by), maintained by
+-- the application in the same transaction as every expense write. Monthly
+-- analytics read a handful of rows here instead of scanning the month.
+
+CREATE TABLE IF NOT EXISTS monthly_summary (
+    id           BIGSERIAL      PRIMARY KEY,
+    month        DATE           NOT NULL,   -- first day of the month
+    entry_type   VARCHAR(10)    NOT NULL,
+    category_id  BIGINT         REFERENCES category(id),  -- NULL = uncategorized
+    paid_by      VARCHAR(50)    NOT NULL,
+    total        NUMERIC(14,2)  NOT NULL DEFAULT 0,
+    txn_count    BIGINT         NOT NULL DEFAULT 0
+);
+
+-- One row per key; COALESCE so uncategorized rows collide too (used by ON CONFLICT)
+CREATE UNIQUE INDEX IF NOT EXISTS uq_monthly_summary_key
+    ON monthly_summary (month, entry_type, COALESCE(category_id, 0), paid_by);
+
+-- Backfill from existing expenses
+INSERT INTO monthly_summary (month, entry_type, category_id, paid_by, total, txn_count)
+SELECT date_trunc('month', txn_date)::date, entry_type, category_id, paid_by, SUM(amount), COUNT(*)
+FROM expense
+GROUP BY 1, 2, 3, 4;
@@ -0,0 +1,8 @@
+-- V6__expense_date_id_index.sql
+-- Keyset pagination orders by (txn_date DESC, id DESC) and seeks past the last
+-- row seen; this index serves both the seek and the ordering. It also covers
+-- every lookup idx_expense_date was used for, so that index is dropped.
+CREATE INDEX IF NOT EXISTS idx_expense_date_id
+    ON expense (txn_date, id);
+
+DROP INDEX IF EXISTS idx_expense_date;
@@ -0,0 +1,15 @@
+-- V7__idempotency_key.sql
+-- Optional durable store for Idempotency-Key replays (fintrack.idempotency.persistent=true).
+-- Written in the same transaction as the expense(s) it describes.
+
+CREATE TABLE IF NOT EXISTS idempotency_key (
+    scope         VARCHAR(32)  NOT NULL,
+    idem_key      VARCHAR(255) NOT NULL,
+    request_hash  VARCHAR(64)  NOT NULL,
+    response      BYTEA        NOT NULL,   -- JSON body of the original response
+    expires_at    TIMESTAMP    NOT NULL,
+    PRIMARY KEY (scope, idem_key)
+);
+
+CREATE INDEX IF NOT EXISTS idx_idempotency_key_expires
+    ON idempotency_key (expires_at);
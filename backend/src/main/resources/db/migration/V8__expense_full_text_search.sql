@@ -0,0 +1,13 @@
+-- V8__expense_full_text_search.sql
+-- Full-text search over item (weight A) and notes (weight B).
+-- Stored generated column, so it is kept current by Postgres on every write.
+
+ALTER TABLE expense
+    ADD COLUMN IF NOT EXISTS search_vector tsvector
+        GENERATED ALWAYS AS (
+            setweight(to_tsvector('english', coalesce(item, '')), 'A') ||
+            setweight(to_tsvector('english', coalesce(notes, '')), 'B')
+        ) STORED;
+
+CREATE INDEX IF NOT EXISTS idx_expense_search_vector
+    ON expense USING GIN (search_vector);
@@ -0,0 +1,32 @@
+-- V9__expense_filter_indexes.sql
+-- GET /api/v1/expenses/filter matches columns by equality and returns rows
+-- newest first, (txn_date DESC, id DESC). One index per filterable column,
+-- each followed by (txn_date, id): an equality filter plus a date range is a
+-- single index range scan that already yields rows in page order, so a page
+-- stops after "size" rows instead of sorting every match.
+--
+-- Amount ranges are not indexed on their own: they are applied while walking
+-- one of these indexes, or idx_expense_date_id (V6) when no other filter is
+-- given. The category and merchant indexes start with the foreign key column,
+-- so they also serve the lookups idx_expense_category / idx_expense_merchant
+-- were used for, and those are dropped.
+CREATE INDEX IF NOT EXISTS idx_expense_category_date
+    ON expense (category_id, txn_date, id);
+
+CREATE INDEX IF NOT EXISTS idx_expense_merchant_date
+    ON expense (merchant_id, txn_date, id);
+
+CREATE INDEX IF NOT EXISTS idx_expense_paid_by_date
+    ON expense (paid_by, txn_date, id);
+
+CREATE INDEX IF NOT EXISTS idx_expense_entry_type_date
+    ON expense (entry_type, txn_date, id);
+
+CREATE INDEX IF NOT EXISTS idx_expense_payment_method_date
+    ON expense (payment_method, txn_date, id);
+
+CREATE INDEX IF NOT EXISTS idx_expense_bank_date
+    ON expense (bank, txn_date, id);
+
+DROP INDEX IF EXISTS idx_expense_category;
+DROP INDEX IF EXISTS idx_expense_merchant;
@@ -0,0 +1,119 @@
+package io.fintrack.cache;
+
+import io.fintrack.model.EntryType;
+import io.fintrack.model.PaymentMethod;
+import org.junit.jupiter.api.Test;
+
+import java.math.BigDecimal;
+import java.math.RoundingMode;
+import java.time.LocalDate;
+import java.util.HashMap;
+import java.util.Map;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class ExpenseColumnStoreTest {
+
+    private static final LocalDate START = LocalDate.of(2024, 1, 1);
+    private static final String[] PAYERS = { "parth", "jay", null };
+
+    private record Row(LocalDate txnDate, BigDecimal amount, Long categoryId, String paidBy, EntryType entryType) {
+    }
+
+    // What the store should hold, summed the slow way
+    private final Map<Long, Row> expected = new HashMap<>();
+    private final ExpenseColumnStore store = new ExpenseColumnStore(16);
+
+    @Test
+    void totalsSurviveCompactionAndLaterUpserts() {
+        for (long id = 1; id <= 300; id++) {
+            upsert(id, START.plusDays(id % 60), new BigDecimal(id + ".25"), id % 4 == 0 ? null : id % 4,
+                    PAYERS[(int) (id % 3)], id % 10 == 0 ? EntryType.CREDIT : EntryType.DEBIT);
+        }
+        assertTotalsMatch();
+
+        // well past a quarter of the slots, so the arrays are compacted (more than once)
+        for (long id = 1; id <= 300; id += 2) {
+            remove(id);
+        }
+        remove(1);      // already gone
+        remove(9999);   // never there
+        assertThat(store.rows()).isEqualTo(150);
+        assertTotalsMatch();
+
+        // existing ids now live in moved slots; an upsert must change that row, not add one
+        for (long id = 2; id <= 300; id += 6) {
+            upsert(id, START.plusDays(100), new BigDecimal("1.005"), 7L, "jay", EntryType.CREDIT);
+        }
+        for (long id = 301; id <= 340; id++) {
+            upsert(id, START.plusDays(id % 90), new BigDecimal("2.50"), 2L, "parth", EntryType.DEBIT);
+        }
+        remove(4);
+        remove(300);
+        assertThat(store.rows()).isEqualTo(188);
+        assertTotalsMatch();
+    }
+
+    @Test
+    void unknownFilterValuesMatchNothing() {
+        upsert(1, START, new BigDecimal("10.00"), 3L, "parth", EntryType.DEBIT);
+
+        assertThat(store.categoryCode(42)).isEqualTo(ExpenseColumnStore.UNKNOWN);
+        assertThat(store.payerCode("nobody")).isEqualTo(ExpenseColumnStore.UNKNOWN);
+        long[] out = new long[3];
+        store.totals(day(START), day(START), ExpenseColumnStore.ANY, store.payerCode("nobody"), out);
+        assertThat(out).containsExactly(0, 0, 0);
+    }
+
+    private void upsert(long id, LocalDate txnDate, BigDecimal amount, Long categoryId, String paidBy,
+            EntryType entryType) {
+        store.upsert(id, txnDate, amount, categoryId, null, paidBy, entryType, PaymentMethod.CARD);
+        expected.put(id, new Row(txnDate, amount, categoryId, paidBy, entryType));
+    }
+
+    private void remove(long id) {
+        store.remove(id);
+        expected.remove(id);
+    }
+
+    private void assertTotalsMatch() {
+        Long[] categories = { null, 1L, 2L, 3L, 7L };
+        String[] payers = { null, "parth", "jay" };
+        int[][] ranges = { { 0, 200 }, { 0, 0 }, { 10, 40 }, { 59, 100 }, { 100, 100 } };
+        for (Long categoryId : categories) {
+            for (String paidBy : payers) {
+                for (int[] range : ranges) {
+                    LocalDate from = START.plusDays(range[0]);
+                    LocalDate to = START.plusDays(range[1]);
+                    long[] actual = new long[3];
+                    store.totals(day(from), day(to),
+                            categoryId == null ? ExpenseColumnStore.ANY : store.categoryCode(categoryId),
+                            paidBy == null ? ExpenseColumnStore.ANY : store.payerCode(paidBy), actual);
+                    assertThat(actual)
+                            .as("category %s, paid by %s, %s..%s", categoryId, paidBy, from, to)
+                            .containsExactly(sum(from, to, categoryId, paidBy));
+                }
+            }
+        }
+    }
+
+    // null filters mean any, as ANY does in the store
+    private long[] sum(LocalDate from, LocalDate to, Long categoryId, String paidBy) {
+        long[] out = new long[3];
+        for (Row row : expected.values()) {
+            if (row.txnDate().isBefore(from) || row.txnDate().isAfter(to)
+                    || categoryId != null && !categoryId.equals(row.categoryId())
+                    || paidBy != null && !paidBy.equals(row.paidBy())) {
+                continue;
+            }
+            long cents = row.amount().movePointRight(2).setScale(0, RoundingMode.HALF_UP).longValueExact();
+            out[row.entryType() == EntryType.CREDIT ? 1 : 0] += cents;
+            out[2]++;
+        }
+        return out;
+    }
+
+    private static int day(LocalDate date) {
+        return (int) date.toEpochDay();
+    }
+}
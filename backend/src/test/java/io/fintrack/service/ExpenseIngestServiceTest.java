@@ -0,0 +1,100 @@
+package io.fintrack.service;
+
+import com.fasterxml.jackson.databind.json.JsonMapper;
+import io.fintrack.dto.CreateExpenseRequest;
+import io.fintrack.dto.IngestReceipt;
+import io.fintrack.model.EntryType;
+import io.fintrack.model.Expense;
+import io.fintrack.model.PaymentMethod;
+import io.fintrack.repository.ExpenseRepository;
+import io.fintrack.repository.IngestCheckpointRepository;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.dao.QueryTimeoutException;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+import org.springframework.util.unit.DataSize;
+
+import java.math.BigDecimal;
+import java.nio.file.Path;
+import java.time.Duration;
+import java.time.LocalDate;
+import java.util.concurrent.atomic.AtomicLong;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+class ExpenseIngestServiceTest {
+
+    private static final int MAX_ATTEMPTS = 2;
+
+    @TempDir
+    Path dir;
+
+    private final ExpenseRepository expenseRepository = mock(ExpenseRepository.class);
+    private final IngestCheckpointRepository checkpointRepository = mock(IngestCheckpointRepository.class);
+    private final DuplicateDetectionService duplicateDetectionService = mock(DuplicateDetectionService.class);
+    private ExpenseIngestService service;
+
+    @AfterEach
+    void stop() throws Exception {
+        if (service != null) {
+            service.stop();
+        }
+    }
+
+    @Test
+    void poisonRowFailsAfterMaxAttemptsAndTheRestAreWritten() throws Exception {
+        AtomicLong ids = new AtomicLong(100);
+        when(expenseRepository.save(any(Expense.class))).thenAnswer(invocation -> {
+            Expense expense = invocation.getArgument(0);
+            if (expense.getItem().equals("Poison")) {
+                throw new QueryTimeoutException("canceling statement due to statement timeout");
+            }
+            expense.setId(ids.incrementAndGet());
+            return expense;
+        });
+        when(duplicateDetectionService.newBatch()).thenReturn(mock(DuplicateDetectionService.Batch.class));
+        service = new ExpenseIngestService(expenseRepository, checkpointRepository, mock(CategoryService.class),
+                mock(MerchantService.class), duplicateDetectionService,
+                new TransactionTemplate(mock(PlatformTransactionManager.class)), mock(ApplicationEventPublisher.class),
+                JsonMapper.builder().findAndAddModules().build(), new SimpleMeterRegistry(), true,
+                dir.resolve("expense.journal").toString(), 100, 10, Duration.ofMillis(200), DataSize.ofMegabytes(1),
+                MAX_ATTEMPTS);
+        service.start();
+
+        long coffee = service.submit(request("Coffee")).getPendingId();
+        long poison = service.submit(request("Poison")).getPendingId();
+        long bus = service.submit(request("Bus")).getPendingId();
+
+        long deadline = System.currentTimeMillis() + 10_000;
+        while (service.getStatus(bus).getStatus().equals("PENDING") && System.currentTimeMillis() < deadline) {
+            Thread.sleep(50);
+        }
+
+        IngestReceipt failed = service.getStatus(poison);
+        assertThat(failed.getStatus()).isEqualTo("FAILED");
+        assertThat(failed.getError()).contains("statement timeout");
+        assertThat(service.getStatus(coffee).getStatus()).isEqualTo("CREATED");
+        assertThat(service.getStatus(bus).getStatus()).isEqualTo("CREATED");
+        verify(checkpointRepository).advance("expense", poison);
+        verify(checkpointRepository).advance("expense", bus);
+    }
+
+    private static CreateExpenseRequest request(String item) {
+        CreateExpenseRequest request = new CreateExpenseRequest();
+        request.setTxnDate(LocalDate.of(2024, 3, 1));
+        request.setAmount(new BigDecimal("3.20"));
+        request.setItem(item);
+        request.setPaymentMethod(PaymentMethod.CARD);
+        request.setPaidBy("parth");
+        request.setEntryType(EntryType.DEBIT);
+        return request;
+    }
+}
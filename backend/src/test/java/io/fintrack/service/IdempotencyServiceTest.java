@@ -0,0 +1,65 @@
+package io.fintrack.service;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import io.fintrack.bulkhead.DbBulkheadAspect;
+import io.fintrack.bulkhead.DbBusyException;
+import io.fintrack.repository.IdempotencyKeyRepository;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.Test;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.time.Duration;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.Supplier;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.verifyNoInteractions;
+
+class IdempotencyServiceTest {
+
+    // a single permit and no wait, so holding it saturates the bulkhead
+    private final DbBulkheadAspect bulkhead = new DbBulkheadAspect(1, Duration.ZERO, new SimpleMeterRegistry());
+    private final IdempotencyKeyRepository repository = mock(IdempotencyKeyRepository.class);
+
+    @Test
+    void replayFromMemoryNeedsNoDatabasePermit() {
+        IdempotencyService service = service(false);
+        AtomicInteger runs = new AtomicInteger();
+        service.execute("expense", "k1", "body", String.class, () -> "created-" + runs.incrementAndGet());
+
+        IdempotencyService.Outcome<String> replay = bulkhead.withPermit(() -> onOtherThread(() ->
+                service.execute("expense", "k1", "body", String.class, () -> "created-" + runs.incrementAndGet())));
+
+        assertThat(replay.replayed()).isTrue();
+        assertThat(replay.body()).isEqualTo("created-1");
+        assertThat(runs).hasValue(1);
+    }
+
+    @Test
+    void keyNotInMemoryWaitsForAPermitBeforeTheDatabaseLookup() {
+        IdempotencyService service = service(true);
+
+        assertThatThrownBy(() -> bulkhead.withPermit(() -> onOtherThread(() ->
+                service.execute("expense", "k2", "body", String.class, () -> "created"))))
+                .isInstanceOf(DbBusyException.class);
+        verifyNoInteractions(repository);
+    }
+
+    private IdempotencyService service(boolean persistent) {
+        return new IdempotencyService(repository, bulkhead, mock(TransactionTemplate.class), new ObjectMapper(),
+                100, Duration.ofHours(1), persistent);
+    }
+
+    // a permit is shared within its thread, so the saturated bulkhead has to be seen from another one
+    private static <T> T onOtherThread(Supplier<T> work) {
+        try {
+            return CompletableFuture.supplyAsync(work).join();
+        } catch (CompletionException ex) {
+            throw (RuntimeException) ex.getCause();
+        }
+    }
+}
@@ -0,0 +1,78 @@
+package io.fintrack.service;
+
+import io.fintrack.event.ExpenseChangedEvent;
+import io.fintrack.model.Category;
+import io.fintrack.model.EntryType;
+import io.fintrack.model.Expense;
+import io.fintrack.model.PaymentMethod;
+import io.fintrack.repository.BalanceRepository;
+import io.fintrack.repository.MonthlySummaryRepository;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+import org.mockito.ArgumentCaptor;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.math.BigDecimal;
+import java.sql.Date;
+import java.time.LocalDate;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.verify;
+
+class MonthlySummaryServiceTest {
+
+    private final MonthlySummaryRepository repository = mock(MonthlySummaryRepository.class);
+    private final MonthlySummaryService service = new MonthlySummaryService(repository,
+            mock(BalanceRepository.class));
+
+    @AfterEach
+    void clearSynchronization() {
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            TransactionSynchronizationManager.clearSynchronization();
+        }
+        TransactionSynchronizationManager.unbindResourceIfPossible(service);
+    }
+
+    @Test
+    @SuppressWarnings("unchecked")
+    void upsertsGoOutInKeyOrderWhateverTheWriteOrder() {
+        TransactionSynchronizationManager.initSynchronization();
+        service.onExpenseChanged(ExpenseChangedEvent.created(expense("2024-03-15", EntryType.DEBIT, 7L, "parth")));
+        service.onExpenseChanged(ExpenseChangedEvent.created(expense("2024-01-02", EntryType.DEBIT, 3L, "parth")));
+        service.onExpenseChanged(ExpenseChangedEvent.created(expense("2024-03-01", EntryType.CREDIT, null, "jay")));
+        service.onExpenseChanged(ExpenseChangedEvent.created(expense("2024-03-09", EntryType.DEBIT, null, "parth")));
+        service.onExpenseChanged(ExpenseChangedEvent.created(expense("2024-03-20", EntryType.DEBIT, 7L, "jay")));
+        service.onExpenseChanged(ExpenseChangedEvent.created(expense("2024-03-21", EntryType.DEBIT, 7L, "parth")));
+        TransactionSynchronizationManager.getSynchronizations().forEach(sync -> sync.beforeCommit(false));
+        TransactionSynchronizationManager.getSynchronizations()
+                .forEach(sync -> sync.afterCompletion(TransactionSynchronization.STATUS_COMMITTED));
+
+        ArgumentCaptor<List<Object[]>> rows = ArgumentCaptor.forClass(List.class);
+        verify(repository).applyDeltas(rows.capture());
+        assertThat(rows.getValue()).extracting(row -> row[0] + " " + row[1] + " " + row[2] + " " + row[3])
+                .containsExactly(
+                        "2024-01-01 DEBIT 3 parth",
+                        "2024-03-01 CREDIT null jay",
+                        "2024-03-01 DEBIT null parth",
+                        "2024-03-01 DEBIT 7 jay",
+                        "2024-03-01 DEBIT 7 parth");
+        Object[] merged = rows.getValue().get(4);
+        assertThat(merged[0]).isEqualTo(Date.valueOf("2024-03-01"));
+        assertThat((BigDecimal) merged[4]).isEqualByComparingTo("20.00");
+        assertThat(merged[5]).isEqualTo(2L);
+    }
+
+    private static Expense expense(String date, EntryType entryType, Long categoryId, String paidBy) {
+        Category category = null;
+        if (categoryId != null) {
+            category = new Category("Category " + categoryId);
+            category.setId(categoryId);
+        }
+        // CREDIT comes before DEBIT in the enum, so it sorts first
+        return new Expense(LocalDate.parse(date), new BigDecimal("10.00"), "item", category, null,
+                PaymentMethod.CARD, paidBy, entryType, null);
+    }
+}
@@ -0,0 +1,162 @@
+package io.fintrack.service.importer;
+
+import io.fintrack.dto.CreateExpenseRequest;
+import io.fintrack.model.EntryType;
+import io.fintrack.model.PaymentMethod;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.params.ParameterizedTest;
+import org.junit.jupiter.params.provider.CsvSource;
+import org.junit.jupiter.params.provider.ValueSource;
+
+import java.io.IOException;
+import java.io.StringReader;
+import java.math.BigDecimal;
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+class CsvStatementReaderTest {
+
+    private static final ImportDefaults DEFAULTS = new ImportDefaults("parth", PaymentMethod.CARD, "Monzo", null);
+
+    @ParameterizedTest
+    @CsvSource(delimiter = '|', value = {
+            "12.50        | 12.50",
+            "+12.50       | 12.50",
+            "-12.50       | -12.50",
+            "(12.00)      | -12.00",
+            "(£1,234.56)  | -1234.56",
+            "£12.50       | 12.50",
+            "-€12.50      | -12.50",
+            "USD 1,234.56 | 1234.56",
+            "1,234.56 EUR | 1234.56",
+            "1,234,567    | 1234567",
+            "1 234.56     | 1234.56",
+            ".5           | 0.5",
+            "12.          | 12",
+    })
+    void parsesAmounts(String raw, BigDecimal expected) {
+        assertThat(CsvStatementReader.parseAmount(raw)).isEqualByComparingTo(expected);
+    }
+
+    @ParameterizedTest
+    @ValueSource(strings = { "12,50", "1.234,56", "1,23", "12,3456", "1,2345.00" })
+    void rejectsAmbiguousSeparators(String raw) {
+        assertThatThrownBy(() -> CsvStatementReader.parseAmount(raw))
+                .isInstanceOf(IllegalArgumentException.class)
+                .hasMessageStartingWith("Ambiguous amount");
+    }
+
+    @ParameterizedTest
+    @ValueSource(strings = { "abc", "", "(-12.00)", "(+12.00)", "12.50-", "1.2.3", "--12" })
+    void rejectsInvalidAmounts(String raw) {
+        assertThatThrownBy(() -> CsvStatementReader.parseAmount(raw))
+                .isInstanceOf(IllegalArgumentException.class)
+                .hasMessageStartingWith("Invalid amount");
+    }
+
+    @Test
+    void rejectsMissingAmount() {
+        assertThatThrownBy(() -> CsvStatementReader.parseAmount(null))
+                .isInstanceOf(IllegalArgumentException.class)
+                .hasMessage("amount is required");
+    }
+
+    @Test
+    void signDecidesEntryTypeUnlessGiven() throws IOException {
+        List<StatementRow> rows = read("""
+                Txn Date,Amount,Description,Type
+                2024-03-01,-12.50,Coffee,
+                2024-03-02,(4.00),Refund fee,
+                2024-03-03,2000.00,Salary,
+                2024-03-04,5.00,Cashback,debit
+                """);
+
+        assertThat(rows).extracting(row -> row.getRequest().getEntryType())
+                .containsExactly(EntryType.DEBIT, EntryType.DEBIT, EntryType.CREDIT, EntryType.DEBIT);
+        assertThat(rows).extracting(row -> row.getRequest().getAmount())
+                .usingElementComparator(BigDecimal::compareTo)
+                .containsExactly(new BigDecimal("12.50"), new BigDecimal("4.00"), new BigDecimal("2000.00"),
+                        new BigDecimal("5.00"));
+    }
+
+    @Test
+    void quotedFieldsKeepCommasQuotesAndLineBreaks() throws IOException {
+        List<StatementRow> rows = read("""
+                date,amount,item,merchant,notes
+                2024-03-01,"-1,234.56","Rent, March","Smith ""Lettings"" Ltd","line one
+                line two"
+                2024-03-02,-3.20,Bus,,
+                """);
+
+        assertThat(rows).hasSize(2);
+        CreateExpenseRequest rent = rows.get(0).getRequest();
+        assertThat(rent.getAmount()).isEqualByComparingTo("1234.56");
+        assertThat(rent.getItem()).isEqualTo("Rent, March");
+        assertThat(rent.getMerchantName()).isEqualTo("Smith \"Lettings\" Ltd");
+        assertThat(rent.getNotes()).isEqualTo("line one\nline two");
+        assertThat(rows.get(1).getRequest().getMerchantName()).isNull();
+        assertThat(rows.get(1).getRowNumber()).isEqualTo(2);
+    }
+
+    @Test
+    void appliesDefaultsAndDatePattern() throws IOException {
+        ImportDefaults defaults = new ImportDefaults("jay", PaymentMethod.CASH, "HSBC", "dd/MM/yyyy");
+        List<StatementRow> rows = read("""
+                date,amount,item,payment method,bank
+                01/03/2024,-9.99,Lunch,,
+                02/03/2024,-20,Train,bank transfer,Lloyds
+                """, defaults);
+
+        CreateExpenseRequest lunch = rows.get(0).getRequest();
+        assertThat(lunch.getTxnDate()).isEqualTo(LocalDate.of(2024, 3, 1));
+        assertThat(lunch.getPaymentMethod()).isEqualTo(PaymentMethod.CASH);
+        assertThat(lunch.getBank()).isEqualTo("HSBC");
+        assertThat(lunch.getPaidBy()).isEqualTo("jay");
+        CreateExpenseRequest train = rows.get(1).getRequest();
+        assertThat(train.getPaymentMethod()).isEqualTo(PaymentMethod.BANK_TRANSFER);
+        assertThat(train.getBank()).isEqualTo("Lloyds");
+    }
+
+    @Test
+    void badRowFailsAloneWithItsRowNumber() throws IOException {
+        List<StatementRow> rows = read("""
+                date,amount,item
+                2024-03-01,12,50,Coffee
+                2024-03-02,"12,50",Coffee
+                not a date,1.00,Tea
+
+                2024-03-04,1.00,Tea
+                """);
+
+        assertThat(rows).extracting(StatementRow::getRowNumber).containsExactly(1L, 2L, 3L, 4L);
+        assertThat(rows.get(0).isFailed()).isFalse(); // "50" is an extra column, not part of the amount
+        assertThat(rows.get(1).getError()).startsWith("Ambiguous amount");
+        assertThat(rows.get(2).isFailed()).isTrue();
+        assertThat(rows.get(3).isFailed()).isFalse();
+    }
+
+    @Test
+    void headerNeedsDateAmountAndItem() {
+        assertThatThrownBy(() -> read("date,amount,merchant\n2024-03-01,1.00,Tesco\n"))
+                .isInstanceOf(IllegalArgumentException.class)
+                .hasMessageContaining("txn_date, amount and item");
+    }
+
+    private static List<StatementRow> read(String csv) throws IOException {
+        return read(csv, DEFAULTS);
+    }
+
+    private static List<StatementRow> read(String csv, ImportDefaults defaults) throws IOException {
+        List<StatementRow> rows = new ArrayList<>();
+        try (CsvStatementReader reader = new CsvStatementReader(new StringReader(csv), defaults)) {
+            for (StatementRow row = reader.next(); row != null; row = reader.next()) {
+                rows.add(row);
+            }
+        }
+        return rows;
+    }
+}
@@ -0,0 +1,106 @@
+package io.fintrack.service.importer;
+
+import io.fintrack.dto.CreateExpenseRequest;
+import io.fintrack.model.EntryType;
+import io.fintrack.model.PaymentMethod;
+import org.junit.jupiter.api.Test;
+
+import java.io.IOException;
+import java.io.StringReader;
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class OfxStatementReaderTest {
+
+    private static final ImportDefaults DEFAULTS = new ImportDefaults("parth", PaymentMethod.CARD, "Monzo", null);
+
+    @Test
+    void readsSgmlTransactionsWithoutClosingTags() throws IOException {
+        List<StatementRow> rows = read("""
+                OFXHEADER:100
+                DATA:OFXSGML
+
+                <OFX><BANKMSGSRSV1><STMTTRNRS><STMTRS><BANKTRANLIST>
+                <STMTTRN>
+                <TRNTYPE>POS
+                <DTPOSTED>20240301120000[0:GMT]
+                <TRNAMT>-12.50
+                <NAME>Coffee &amp; Cake
+                <MEMO>Card 1234
+                </STMTTRN>
+                <STMTTRN>
+                <TRNTYPE>DIRECTDEP
+                <DTPOSTED>20240302
+                <TRNAMT>2000.00
+                <NAME>Salary
+                </STMTTRN>
+                </BANKTRANLIST></STMTRS></STMTTRNRS></BANKMSGSRSV1></OFX>
+                """);
+
+        assertThat(rows).hasSize(2);
+        CreateExpenseRequest coffee = rows.get(0).getRequest();
+        assertThat(coffee.getTxnDate()).isEqualTo(LocalDate.of(2024, 3, 1));
+        assertThat(coffee.getEntryType()).isEqualTo(EntryType.DEBIT);
+        assertThat(coffee.getAmount()).isEqualByComparingTo("12.50");
+        assertThat(coffee.getItem()).isEqualTo("Coffee & Cake");
+        assertThat(coffee.getNotes()).isEqualTo("Card 1234");
+        assertThat(coffee.getPaymentMethod()).isEqualTo(PaymentMethod.CARD);
+        assertThat(coffee.getBank()).isEqualTo("Monzo");
+        assertThat(coffee.getPaidBy()).isEqualTo("parth");
+
+        CreateExpenseRequest salary = rows.get(1).getRequest();
+        assertThat(salary.getEntryType()).isEqualTo(EntryType.CREDIT);
+        assertThat(salary.getPaymentMethod()).isEqualTo(PaymentMethod.BANK_TRANSFER);
+        assertThat(salary.getNotes()).isNull();
+    }
+
+    @Test
+    void readsXmlTransactions() throws IOException {
+        List<StatementRow> rows = read("""
+                <?xml version="1.0" encoding="UTF-8"?>
+                <OFX><BANKTRANLIST>
+                  <STMTTRN><TRNTYPE>ATM</TRNTYPE><DTPOSTED>20240305</DTPOSTED>
+                    <TRNAMT>-40.00</TRNAMT><MEMO>Cash withdrawal</MEMO></STMTTRN>
+                  <STMTTRN><TRNTYPE>OTHER</TRNTYPE><DTPOSTED>20240306</DTPOSTED>
+                    <TRNAMT>(7.25)</TRNAMT><NAME>Fee</NAME></STMTTRN>
+                </BANKTRANLIST></OFX>
+                """);
+
+        assertThat(rows).hasSize(2);
+        CreateExpenseRequest cash = rows.get(0).getRequest();
+        assertThat(cash.getItem()).isEqualTo("Cash withdrawal"); // MEMO stands in for a missing NAME
+        assertThat(cash.getNotes()).isNull();
+        assertThat(cash.getPaymentMethod()).isEqualTo(PaymentMethod.CASH);
+        CreateExpenseRequest fee = rows.get(1).getRequest();
+        assertThat(fee.getEntryType()).isEqualTo(EntryType.DEBIT);
+        assertThat(fee.getAmount()).isEqualByComparingTo("7.25");
+        assertThat(fee.getPaymentMethod()).isEqualTo(PaymentMethod.CARD); // unknown TRNTYPE: the default
+    }
+
+    @Test
+    void badTransactionFailsAlone() throws IOException {
+        List<StatementRow> rows = read("""
+                <STMTTRN><DTPOSTED>2024<TRNAMT>-1.00<NAME>Short date</STMTTRN>
+                <STMTTRN><DTPOSTED>20240301<TRNAMT>1.234,56<NAME>European amount</STMTTRN>
+                <STMTTRN><DTPOSTED>20240301<TRNAMT>-1.00<NAME>Fine</STMTTRN>
+                """);
+
+        assertThat(rows).extracting(StatementRow::getRowNumber).containsExactly(1L, 2L, 3L);
+        assertThat(rows.get(0).getError()).contains("DTPOSTED");
+        assertThat(rows.get(1).getError()).startsWith("Ambiguous amount");
+        assertThat(rows.get(2).isFailed()).isFalse();
+    }
+
+    private static List<StatementRow> read(String ofx) throws IOException {
+        List<StatementRow> rows = new ArrayList<>();
+        try (OfxStatementReader reader = new OfxStatementReader(new StringReader(ofx), DEFAULTS)) {
+            for (StatementRow row = reader.next(); row != null; row = reader.next()) {
+                rows.add(row);
+            }
+        }
+        return rows;
+    }
+}
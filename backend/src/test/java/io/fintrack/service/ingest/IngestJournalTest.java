@@ -0,0 +1,85 @@
+package io.fintrack.service.ingest;
+
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class IngestJournalTest {
+
+    @TempDir
+    Path dir;
+
+    @Test
+    void recoverDropsATornLastLineAndAppendsContinueAfterIt() throws IOException {
+        Path path = dir.resolve("ingest.journal");
+        long complete;
+        try (IngestJournal journal = IngestJournal.open(path)) {
+            journal.recover();
+            journal.append(1, bytes("{\"item\":\"Coffee\"}"));
+            complete = journal.append(2, bytes("{\"item\":\"Rent, March\"}"));
+            journal.sync(complete);
+        }
+        // a crash part-way through the third append
+        Files.write(path, bytes("3 {\"item\":\"Bu"), StandardOpenOption.APPEND);
+
+        try (IngestJournal journal = IngestJournal.open(path)) {
+            List<IngestJournal.Entry> entries = journal.recover();
+
+            assertThat(entries).extracting(IngestJournal.Entry::seq).containsExactly(1L, 2L);
+            assertThat(text(entries.get(1))).isEqualTo("{\"item\":\"Rent, March\"}");
+            assertThat(Files.size(path)).isEqualTo(complete);
+            assertThat(journal.size()).isEqualTo(complete);
+
+            journal.sync(journal.append(3, bytes("{\"item\":\"Bus\"}")));
+        }
+
+        assertThat(Files.readString(path)).isEqualTo("""
+                1 {"item":"Coffee"}
+                2 {"item":"Rent, March"}
+                3 {"item":"Bus"}
+                """);
+        try (IngestJournal journal = IngestJournal.open(path)) {
+            assertThat(journal.recover()).extracting(IngestJournal.Entry::seq).containsExactly(1L, 2L, 3L);
+        }
+    }
+
+    @Test
+    void recoverStopsAtTheFirstMalformedLine() throws IOException {
+        Path path = dir.resolve("ingest.journal");
+        Files.writeString(path, "1 {}\nnot-a-seq {}\n3 {}\n");
+
+        try (IngestJournal journal = IngestJournal.open(path)) {
+            assertThat(journal.recover()).extracting(IngestJournal.Entry::seq).containsExactly(1L);
+        }
+        assertThat(Files.readString(path)).isEqualTo("1 {}\n");
+    }
+
+    @Test
+    void resetEmptiesTheJournal() throws IOException {
+        Path path = dir.resolve("ingest.journal");
+        try (IngestJournal journal = IngestJournal.open(path)) {
+            journal.recover();
+            journal.sync(journal.append(1, bytes("{}")));
+            journal.reset();
+            journal.sync(journal.append(2, bytes("{}")));
+        }
+
+        assertThat(Files.readString(path)).isEqualTo("2 {}\n");
+    }
+
+    private static byte[] bytes(String text) {
+        return text.getBytes(StandardCharsets.UTF_8);
+    }
+
+    private static String text(IngestJournal.Entry entry) {
+        return new String(entry.payload(), StandardCharsets.UTF_8);
+    }
+}
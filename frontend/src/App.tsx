@@ -3,7 +3,7 @@ import { useState, useEffect } from "react";
 import { MainLayout } from "./layout/MainLayout";
 import { AddExpenseForm } from "./AddExpenseForm";
 import { Card, CardHeader, CardTitle, CardContent } from "@/components/ui/card";
-import { getMonthlyAnalytics, type MonthlyAnalytics } from "./fintrackApi";
+import { getMonthlyAnalytics, subscribeToExpenseFeed, type MonthlyAnalytics } from "./fintrackApi";
 import { RecentExpensesTable } from "./RecentExpensesTable";
 import { AllExpensesPage } from "./pages/AllExpensesPage";
 import type { SidebarPage } from "@/components/Sidebar";
@@ -31,6 +31,16 @@ function App() {
       }
     }
     fetchAnalytics();
+
+    // Live updates: the server pushes fresh totals for any month that changed
+    return subscribeToExpenseFeed({
+      onTotals: (event) => {
+        if (event.month === currentMonth()) {
+          setAnalytics(event.totals);
+        }
+      },
+      onResync: fetchAnalytics,
+    });
   }, []);
 
   const formatCurrency = (amount: number): string => {
@@ -171,6 +181,12 @@ function App() {
   );
 }
 
+// yyyy-MM in local time, matching the server's default month
+function currentMonth() {
+  const now = new Date();
+  return `${now.getFullYear()}-${String(now.getMonth() + 1).padStart(2, "0")}`;
+}
+
 function PlaceholderPage({ page }: { page: Exclude<AppPage, "dashboard" | "all-expenses"> }) {
   const title = page === "analytics" ? "Analytics" : "Settings";
   return (
@@ -185,8 +185,8 @@ export function ExpenseList() {
                                     {formatCurrency(expense.amount)}
                                 </TableCell>
 
-                                <TableCell>{expense.category?.name || "-"}</TableCell>
-                                <TableCell>{expense.merchant?.name || "-"}</TableCell>
+                                <TableCell>{expense.categoryName || "-"}</TableCell>
+                                <TableCell>{expense.merchantName || "-"}</TableCell>
                                 <TableCell>{expense.bank || "-"}</TableCell>
                                 <TableCell>{expense.paymentMethod}</TableCell>
                                 <TableCell>{expense.paidBy}</TableCell>
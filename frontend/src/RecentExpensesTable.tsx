@@ -9,7 +9,7 @@ import {
     TableRow,
 } from "@/components/ui/table";
 import type { Expense } from "./fintrackApi";
-import { searchExpenses } from "./fintrackApi";
+import { searchExpenses, subscribeToExpenseFeed } from "./fintrackApi";
 
 const RECENT_LIMIT = 20;
 
@@ -21,8 +21,10 @@ export function RecentExpensesTable() {
     useEffect(() => {
         let isMounted = true;
 
-        async function fetchRecent() {
-            setLoading(true);
+        async function fetchRecent(showLoading = true) {
+            if (showLoading) {
+                setLoading(true);
+            }
             try {
                 const data = await searchExpenses({ page: 0, size: RECENT_LIMIT });
                 if (!isMounted) {
@@ -44,8 +46,22 @@ export function RecentExpensesTable() {
         }
 
         fetchRecent();
+
+        // Reload when anyone changes an expense; bursts (e.g. an import) collapse into one reload
+        let reloadTimer: ReturnType<typeof setTimeout> | undefined;
+        const scheduleReload = () => {
+            clearTimeout(reloadTimer);
+            reloadTimer = setTimeout(() => fetchRecent(false), 300);
+        };
+        const unsubscribe = subscribeToExpenseFeed({
+            onExpense: scheduleReload,
+            onResync: scheduleReload,
+        });
+
         return () => {
             isMounted = false;
+            clearTimeout(reloadTimer);
+            unsubscribe();
         };
     }, []);
 
@@ -119,8 +135,8 @@ export function RecentExpensesTable() {
                                 <TableCell className="text-right font-medium">
                                     {formatCurrency(expense.amount)}
                                 </TableCell>
-                                <TableCell>{expense.category?.name ?? "-"}</TableCell>
-                                <TableCell>{expense.merchant?.name ?? "-"}</TableCell>
+                                <TableCell>{expense.categoryName ?? "-"}</TableCell>
+                                <TableCell>{expense.merchantName ?? "-"}</TableCell>
                                 <TableCell>{expense.bank ?? "-"}</TableCell>
                             </TableRow>
                         ))}
@@ -32,8 +32,10 @@ export interface Expense {
   txnDate: string;        // ISO date string from backend
   amount: number;
   item: string;
-  category?: Category | null;
-  merchant?: Merchant | null;
+  categoryId?: number | null;
+  categoryName?: string | null;
+  merchantId?: number | null;
+  merchantName?: string | null;
   paymentMethod: PaymentMethod;
   paidBy: string;
   entryType: EntryType;
@@ -139,6 +141,23 @@ export async function searchMerchants(prefix?: string): Promise<Merchant[]> {
   return res.json();
 }
 
+export interface CategorySuggestion {
+  categoryId: number;
+  categoryName: string;
+  confidence: number; // 0..1
+}
+
+// Likely categories for a new expense, best first; empty when nothing is known yet
+export async function suggestCategories(item: string, merchant?: string): Promise<CategorySuggestion[]> {
+  const query = new URLSearchParams({ item });
+  if (merchant && merchant.trim()) query.set("merchant", merchant.trim());
+  const res = await fetch(`${API_BASE_URL}/categories/suggest?${query.toString()}`);
+  if (!res.ok) {
+    throw new Error("Failed to load category suggestions");
+  }
+  return res.json();
+}
+
 export interface MonthlyAnalytics {
   totalExpenditure: number;
   totalEarnings: number;
@@ -152,3 +171,195 @@ export async function getMonthlyAnalytics(): Promise<MonthlyAnalytics> {
   }
   return res.json();
 }
+
+export interface RangeTotals {
+  from: string;
+  to: string;
+  totalExpenditure: number;
+  totalEarnings: number;
+  totalBalance: number;
+  count: number;
+}
+
+// Totals over a date range, optionally for one category and/or payer;
+// the backend defaults to the current month so far
+export async function getRangeTotals(
+  params: { from?: string; to?: string; category?: string; paidBy?: string } = {}
+): Promise<RangeTotals> {
+  const query = new URLSearchParams();
+  if (params.from) query.set("from", params.from);
+  if (params.to) query.set("to", params.to);
+  if (params.category) query.set("category", params.category);
+  if (params.paidBy) query.set("paidBy", params.paidBy);
+  const res = await fetch(`${API_BASE_URL}/expenses/analytics/totals?${query.toString()}`);
+  if (!res.ok) {
+    throw new Error("Failed to load totals");
+  }
+  return res.json();
+}
+
+export interface BalancePoint {
+  date: string; // "YYYY-MM-DD"
+  credit: number;
+  debit: number;
+  balance: number; // running balance at the end of the day
+}
+
+export interface BalanceSeries {
+  from: string;
+  to: string;
+  openingBalance: number;
+  points: BalancePoint[];
+}
+
+// Daily running balance for charts; the backend defaults to the last 90 days
+export async function getBalanceSeries(from?: string, to?: string): Promise<BalanceSeries> {
+  const query = new URLSearchParams();
+  if (from) query.set("from", from);
+  if (to) query.set("to", to);
+  const res = await fetch(`${API_BASE_URL}/expenses/analytics/balance?${query.toString()}`);
+  if (!res.ok) {
+    throw new Error("Failed to load balance series");
+  }
+  return res.json();
+}
+
+export type ExpenseChangeType = "CREATED" | "UPDATED" | "DELETED";
+
+export interface ExpenseFeedEvent {
+  type: ExpenseChangeType;
+  expense: Expense;
+  previousTxnDate?: string | null;
+}
+
+export interface MonthlyTotalsEvent {
+  month: string;          // yyyy-MM
+  totals: MonthlyAnalytics;
+}
+
+export interface ExpenseFeedHandlers {
+  onExpense?: (event: ExpenseFeedEvent) => void;
+  onTotals?: (event: MonthlyTotalsEvent) => void;
+  // events were dropped (or the connection was re-established): reload
+  onResync?: () => void;
+}
+
+// One EventSource per tab, shared by every subscriber; closed when the last one leaves
+const feedSubscribers = new Set<ExpenseFeedHandlers>();
+let feedSource: EventSource | null = null;
+
+function openFeed() {
+  const source = new EventSource(`${API_BASE_URL}/expenses/events`);
+  let connectedBefore = false;
+
+  source.addEventListener("expense", (e) => {
+    const event = JSON.parse((e as MessageEvent).data) as ExpenseFeedEvent;
+    feedSubscribers.forEach((handlers) => handlers.onExpense?.(event));
+  });
+  source.addEventListener("totals", (e) => {
+    const event = JSON.parse((e as MessageEvent).data) as MonthlyTotalsEvent;
+    feedSubscribers.forEach((handlers) => handlers.onTotals?.(event));
+  });
+  source.addEventListener("resync", () => {
+    feedSubscribers.forEach((handlers) => handlers.onResync?.());
+  });
+  source.onopen = () => {
+    // after a reconnect we may have missed events
+    if (connectedBefore) {
+      feedSubscribers.forEach((handlers) => handlers.onResync?.());
+    }
+    connectedBefore = true;
+  };
+  return source;
+}
+
+export function subscribeToExpenseFeed(handlers: ExpenseFeedHandlers): () => void {
+  feedSubscribers.add(handlers);
+  if (!feedSource) {
+    feedSource = openFeed();
+  }
+  return () => {
+    feedSubscribers.delete(handlers);
+    if (feedSubscribers.size === 0 && feedSource) {
+      feedSource.close();
+      feedSource = null;
+    }
+  };
+}
+
+export interface RecurringRule {
+  id: number;
+  schedule: string;       // cron, e.g. "0 0 0 1 * *" = 1st of every month
+  startDate: string;
+  endDate?: string | null;
+  nextRun: string;        // next occurrence to be created
+  active: boolean;
+  item: string;
+  amount: number;
+  categoryName?: string | null;
+  merchantName?: string | null;
+  paymentMethod: PaymentMethod;
+  bank?: string | null;
+  paidBy: string;
+  entryType: EntryType;
+  notes?: string | null;
+  createdAt: string;
+}
+
+export interface CreateRecurringRulePayload {
+  schedule: string;
+  startDate?: string;
+  endDate?: string;
+  template: Omit<CreateExpensePayload, "txnDate">;
+}
+
+export async function createRecurringRule(payload: CreateRecurringRulePayload): Promise<RecurringRule> {
+  const res = await fetch(`${API_BASE_URL}/recurring-rules`, {
+    method: "POST",
+    headers: { "Content-Type": "application/json" },
+    body: JSON.stringify(payload),
+  });
+  if (!res.ok) {
+    const text = await res.text();
+    throw new Error(`Failed to create recurring rule: ${text}`);
+  }
+  return res.json();
+}
+
+export async function getRecurringRules(): Promise<RecurringRule[]> {
+  const res = await fetch(`${API_BASE_URL}/recurring-rules`);
+  if (!res.ok) {
+    throw new Error("Failed to load recurring rules");
+  }
+  return res.json();
+}
+
+// Stops the rule; expenses it already created stay
+export async function stopRecurringRule(id: number): Promise<void> {
+  const res = await fetch(`${API_BASE_URL}/recurring-rules/${id}`, { method: "DELETE" });
+  if (!res.ok) {
+    throw new Error("Failed to stop recurring rule");
+  }
+}
+
+export interface DuplicateCandidate {
+  expense: Expense;         // saved, but flagged as a probable duplicate
+  duplicateOf: number;
+  original?: Expense | null; // null if the original has been deleted since
+}
+
+export async function getDuplicates(): Promise<DuplicateCandidate[]> {
+  const res = await fetch(`${API_BASE_URL}/expenses/duplicates`);
+  if (!res.ok) {
+    throw new Error("Failed to load duplicates");
+  }
+  return res.json();
+}
+
+// Not a duplicate after all; to drop a real one, delete the expense
+export async function dismissDuplicate(id: number): Promise<void> {
+  const res = await fetch(`${API_BASE_URL}/expenses/duplicates/${id}/dismiss`, { method: "POST" });
+  if (!res.ok) {
+    throw new Error("Failed to dismiss duplicate");
+  }
+}